@@ -59,6 +59,84 @@ public interface ServerStatistics {
     */
    String REMOVE_MISSES = "removeMisses";
 
+   /**
+    * Median number of microseconds for a get, since the statistics were last reset.
+    */
+   String READ_TIME_P50 = "readTimeP50";
+
+   /**
+    * 99th percentile of the number of microseconds for a get.
+    */
+   String READ_TIME_P99 = "readTimeP99";
+
+   /**
+    * 99.9th percentile of the number of microseconds for a get.
+    */
+   String READ_TIME_P999 = "readTimeP999";
+
+   /**
+    * Maximum number of microseconds for a get.
+    */
+   String READ_TIME_MAX = "readTimeMax";
+
+   /**
+    * Median number of microseconds for a put, since the statistics were last reset.
+    */
+   String WRITE_TIME_P50 = "writeTimeP50";
+
+   /**
+    * 99th percentile of the number of microseconds for a put.
+    */
+   String WRITE_TIME_P99 = "writeTimeP99";
+
+   /**
+    * 99.9th percentile of the number of microseconds for a put.
+    */
+   String WRITE_TIME_P999 = "writeTimeP999";
+
+   /**
+    * Maximum number of microseconds for a put.
+    */
+   String WRITE_TIME_MAX = "writeTimeMax";
+
+   /**
+    * Median number of microseconds for a successful removal, since the statistics were last reset.
+    */
+   String REMOVE_TIME_P50 = "removeTimeP50";
+
+   /**
+    * 99th percentile of the number of microseconds for a successful removal.
+    */
+   String REMOVE_TIME_P99 = "removeTimeP99";
+
+   /**
+    * 99.9th percentile of the number of microseconds for a successful removal.
+    */
+   String REMOVE_TIME_P999 = "removeTimeP999";
+
+   /**
+    * Maximum number of microseconds for a successful removal.
+    */
+   String REMOVE_TIME_MAX = "removeTimeMax";
+
+   /**
+    * The most accessed keys of the server, with their estimated number of accesses. Only present when the hot key
+    * statistics are enabled on the server.
+    */
+   String HOT_KEYS = "hotKeys";
+
+   /**
+    * The most accessed segments of the server, with their estimated number of accesses. Only present when the hot key
+    * statistics are enabled on the server.
+    */
+   String HOT_SEGMENTS = "hotSegments";
+
+   /**
+    * The keys whose locks were most contended on the server, with the number of times a lock owner had to wait. Only
+    * present when the hot key statistics are enabled on the server.
+    */
+   String CONTENDED_LOCKS = "contendedLocks";
+
    Map<String, String> getStatsMap();
 
    String getStatistic(String statsName);
@@ -4,16 +4,50 @@ public class NearCacheConfiguration {
    // TODO: Consider an option to configure key equivalence function for near cache (e.g. for byte arrays)
    private final NearCacheMode mode;
    private final int maxEntries;
+   private final long maxMemory;
+   private final boolean bloomFilter;
+   private final long bloomFilterUpdateInterval;
 
    public NearCacheConfiguration(NearCacheMode mode, int maxEntries) {
+      this(mode, maxEntries, -1, false, NearCacheConfigurationBuilder.DEFAULT_BLOOM_FILTER_UPDATE_INTERVAL);
+   }
+
+   public NearCacheConfiguration(NearCacheMode mode, int maxEntries, long maxMemory, boolean bloomFilter,
+         long bloomFilterUpdateInterval) {
       this.mode = mode;
       this.maxEntries = maxEntries;
+      this.maxMemory = maxMemory;
+      this.bloomFilter = bloomFilter;
+      this.bloomFilterUpdateInterval = bloomFilterUpdateInterval;
    }
 
    public int maxEntries() {
       return maxEntries;
    }
 
+   /**
+    * @return the maximum size in bytes of the marshalled keys and values held by the near cache, or a negative number
+    * if the near cache is not bounded by memory
+    */
+   public long maxMemory() {
+      return maxMemory;
+   }
+
+   /**
+    * @return whether the near cache publishes a bloom filter of its keys to the server, so that the server only sends
+    * the invalidations of keys that the near cache might hold
+    */
+   public boolean bloomFilter() {
+      return bloomFilter;
+   }
+
+   /**
+    * @return the interval in milliseconds between publications of the bloom filter
+    */
+   public long bloomFilterUpdateInterval() {
+      return bloomFilterUpdateInterval;
+   }
+
    public NearCacheMode mode() {
       return mode;
    }
@@ -23,6 +57,9 @@ public String toString() {
       return "NearCacheConfiguration{" +
             "mode=" + mode +
             ", maxEntries=" + maxEntries +
+            ", maxMemory=" + maxMemory +
+            ", bloomFilter=" + bloomFilter +
+            ", bloomFilterUpdateInterval=" + bloomFilterUpdateInterval +
             '}';
    }
 }
@@ -8,8 +8,13 @@ public class NearCacheConfigurationBuilder extends AbstractConfigurationChildBui
       implements Builder<NearCacheConfiguration> {
    private static final Log log = LogFactory.getLog(NearCacheConfigurationBuilder.class);
 
+   static final long DEFAULT_BLOOM_FILTER_UPDATE_INTERVAL = 5000;
+
    private NearCacheMode mode = NearCacheMode.DISABLED;
    private Integer maxEntries = null; // undefined
+   private long maxMemory = -1;
+   private boolean bloomFilter = false;
+   private long bloomFilterUpdateInterval = DEFAULT_BLOOM_FILTER_UPDATE_INTERVAL;
 
    protected NearCacheConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -20,6 +25,33 @@ public NearCacheConfigurationBuilder maxEntries(int maxEntries) {
       return this;
    }
 
+   /**
+    * Bounds the near cache by the size in bytes of the marshalled keys and values it holds, evicting the least
+    * recently used entries once the size is reached. Takes precedence over {@link #maxEntries(int)}.
+    */
+   public NearCacheConfigurationBuilder maxMemory(long maxMemory) {
+      this.maxMemory = maxMemory;
+      return this;
+   }
+
+   /**
+    * Periodically publishes a bloom filter of the keys held by the near cache to the server, so that the server only
+    * sends the invalidations of keys that the near cache might hold. A key read for the first time is only cached
+    * once a bloom filter including it has been published.
+    */
+   public NearCacheConfigurationBuilder bloomFilter(boolean bloomFilter) {
+      this.bloomFilter = bloomFilter;
+      return this;
+   }
+
+   /**
+    * Interval in milliseconds between publications of the bloom filter. Defaults to 5 seconds.
+    */
+   public NearCacheConfigurationBuilder bloomFilterUpdateInterval(long bloomFilterUpdateInterval) {
+      this.bloomFilterUpdateInterval = bloomFilterUpdateInterval;
+      return this;
+   }
+
    public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
       this.mode = mode;
       return this;
@@ -27,19 +59,25 @@ public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
 
    @Override
    public void validate() {
-      if (mode.enabled() && maxEntries == null)
+      if (mode.enabled() && maxEntries == null && maxMemory <= 0)
          throw log.nearCacheMaxEntriesUndefined();
+      if (bloomFilter && bloomFilterUpdateInterval <= 0)
+         throw log.invalidNearCacheBloomFilterUpdateInterval(bloomFilterUpdateInterval);
    }
 
    @Override
    public NearCacheConfiguration create() {
-      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries.intValue());
+      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries.intValue(), maxMemory, bloomFilter,
+            bloomFilterUpdateInterval);
    }
 
    @Override
    public Builder<?> read(NearCacheConfiguration template) {
       mode = template.mode();
       maxEntries = template.maxEntries();
+      maxMemory = template.maxMemory();
+      bloomFilter = template.bloomFilter();
+      bloomFilterUpdateInterval = template.bloomFilterUpdateInterval();
       return this;
    }
 }
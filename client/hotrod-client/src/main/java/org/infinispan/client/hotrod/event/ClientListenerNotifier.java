@@ -237,6 +237,12 @@ public void invokeEvent(byte[] listenerId, ClientEvent clientEvent) {
       eventDispatcher.invokeClientEvent(clientEvent);
    }
 
+   public void invokeEvents(byte[] listenerId, List<ClientEvent> clientEvents) {
+      EventDispatcher eventDispatcher = clientListeners.get(listenerId);
+      for (ClientEvent clientEvent : clientEvents)
+         eventDispatcher.invokeClientEvent(clientEvent);
+   }
+
    private final class EventDispatcher implements Runnable {
       final Map<Class<? extends Annotation>, List<ClientListenerInvocation>> invocables;
       final AddClientListenerOperation op;
@@ -259,8 +265,12 @@ public void run() {
          while (!Thread.currentThread().isInterrupted()) {
             ClientEvent clientEvent = null;
             try {
-               clientEvent = codec.readEvent(transport, op.listenerId, marshaller);
-               invokeClientEvent(clientEvent);
+               // Since protocol 2.6 the server sends all the events queued for this listener at once
+               List<ClientEvent> clientEvents = codec.readEvents(transport, op.listenerId, marshaller);
+               for (ClientEvent event : clientEvents) {
+                  clientEvent = event;
+                  invokeClientEvent(clientEvent);
+               }
                // Nullify event, makes it easier to identify network vs invocation error messages
                clientEvent = null;
             } catch (TransportException e) {
@@ -321,6 +331,10 @@ void invokeClientEvent(ClientEvent clientEvent) {
             case CLIENT_CACHE_ENTRY_EXPIRED:
                invokeCallbacks(clientEvent, ClientCacheEntryExpired.class);
                break;
+            case CLIENT_CACHE_FAILOVER:
+               // The server dropped events for this listener
+               invokeCallbacks(clientEvent, ClientCacheFailover.class);
+               break;
          }
       }
 
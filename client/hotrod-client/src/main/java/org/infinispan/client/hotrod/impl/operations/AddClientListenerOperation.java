@@ -16,6 +16,7 @@
 
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -89,7 +90,7 @@ protected Short executeOperation(Transport transport) {
       transport.flush();
 
       listenerNotifier.addClientListener(this);
-      Either<Short, ClientEvent> either;
+      Either<Short, List<ClientEvent>> either;
       do {
          // Process state transfer related events or add listener response
          either = codec.readHeaderOrEvent(dedicatedTransport, params, listenerId, listenerNotifier.getMarshaller());
@@ -101,7 +102,7 @@ protected Short executeOperation(Transport transport) {
                   listenerNotifier.removeClientListener(listenerId);
                break;
             case RIGHT:
-               listenerNotifier.invokeEvent(listenerId, either.right());
+               listenerNotifier.invokeEvents(listenerId, either.right());
                break;
          }
       } while (either.type() == Either.Type.RIGHT);
@@ -1,5 +1,6 @@
 package org.infinispan.client.hotrod.impl.protocol;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.client.hotrod.annotation.ClientListener;
@@ -42,7 +43,12 @@ void writeClientListenerParams(Transport transport, ClientListener clientListene
 
    ClientEvent readEvent(Transport transport, byte[] expectedListenerId, Marshaller marshaller);
 
-   Either<Short, ClientEvent> readHeaderOrEvent(Transport transport, HeaderParams params, byte[] expectedListenerId, Marshaller marshaller);
+   /**
+    * Reads the next event frame from the transport, which can contain several events from protocol 2.6 onwards.
+    */
+   List<ClientEvent> readEvents(Transport transport, byte[] expectedListenerId, Marshaller marshaller);
+
+   Either<Short, List<ClientEvent>> readHeaderOrEvent(Transport transport, HeaderParams params, byte[] expectedListenerId, Marshaller marshaller);
 
    Object returnPossiblePrevValue(Transport transport, short status, int flags);
 
@@ -4,8 +4,10 @@
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -135,7 +137,12 @@ public ClientEvent readEvent(Transport transport, byte[] expectedListenerId, Mar
    }
 
    @Override
-   public Either<Short, ClientEvent> readHeaderOrEvent(Transport transport, HeaderParams params, byte[] expectedListenerId, Marshaller marshaller) {
+   public List<ClientEvent> readEvents(Transport transport, byte[] expectedListenerId, Marshaller marshaller) {
+      return Collections.emptyList();  // No events sent in Hot Rod 1.x protocol
+   }
+
+   @Override
+   public Either<Short, List<ClientEvent>> readHeaderOrEvent(Transport transport, HeaderParams params, byte[] expectedListenerId, Marshaller marshaller) {
       return null;  // No events sent in Hot Rod 1.x protocol
    }
 
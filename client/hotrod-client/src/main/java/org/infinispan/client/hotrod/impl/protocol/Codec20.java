@@ -21,6 +21,7 @@
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -118,7 +119,7 @@ public short readHeader(Transport transport, HeaderParams params) {
       return readPartialHeader(transport, params, receivedOpCode);
    }
 
-   private short readPartialHeader(Transport transport, HeaderParams params, short receivedOpCode) {
+   protected short readPartialHeader(Transport transport, HeaderParams params, short receivedOpCode) {
       // Read both the status and new topology (if present),
       // before deciding how to react to error situations.
       short status = transport.readByte();
@@ -201,7 +202,12 @@ protected ClientEvent readPartialEvent(Transport transport, byte[] expectedListe
    }
 
    @Override
-   public Either<Short, ClientEvent> readHeaderOrEvent(Transport transport, HeaderParams params, byte[] expectedListenerId, Marshaller marshaller) {
+   public List<ClientEvent> readEvents(Transport transport, byte[] expectedListenerId, Marshaller marshaller) {
+      return Collections.singletonList(readEvent(transport, expectedListenerId, marshaller));
+   }
+
+   @Override
+   public Either<Short, List<ClientEvent>> readHeaderOrEvent(Transport transport, HeaderParams params, byte[] expectedListenerId, Marshaller marshaller) {
       readMagic(transport);
       readMessageId(transport, null);
       short opCode = transport.readByte();
@@ -210,7 +216,7 @@ public Either<Short, ClientEvent> readHeaderOrEvent(Transport transport, HeaderP
          case CACHE_ENTRY_MODIFIED_EVENT_RESPONSE:
          case CACHE_ENTRY_REMOVED_EVENT_RESPONSE:
             ClientEvent clientEvent = readPartialEvent(transport, expectedListenerId, marshaller, opCode);
-            return Either.newRight(clientEvent);
+            return Either.newRight(Collections.singletonList(clientEvent));
          default:
             return Either.newLeft(readPartialHeader(transport, params, opCode));
       }
@@ -281,7 +287,7 @@ public String toString() {
       };
    }
 
-   private long readMessageId(Transport transport, HeaderParams params) {
+   protected long readMessageId(Transport transport, HeaderParams params) {
       long receivedMessageId = transport.readVLong();
       final Log localLog = getLog();
       // If received id is 0, it could be that a failure was noted before the
@@ -301,7 +307,7 @@ private long readMessageId(Transport transport, HeaderParams params) {
       return receivedMessageId;
    }
 
-   private short readMagic(Transport transport) {
+   protected short readMagic(Transport transport) {
       short magic = transport.readByte();
       if (magic != HotRodConstants.RESPONSE_MAGIC) {
          final Log localLog = getLog();
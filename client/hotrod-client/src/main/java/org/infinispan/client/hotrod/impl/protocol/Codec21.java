@@ -61,6 +61,14 @@ protected ClientEvent readPartialEvent(Transport transport, byte[] expectedListe
       if (!Arrays.equals(listenerId, expectedListenerId))
          throw log.unexpectedListenerId(printArray(listenerId), printArray(expectedListenerId));
 
+      return readEventData(transport, marshaller, eventTypeId, eventType, status);
+   }
+
+   /**
+    * Reads what follows the listener id of an event: the custom marker, the retried flag and the event data.
+    */
+   protected ClientEvent readEventData(Transport transport, Marshaller marshaller, short eventTypeId,
+         ClientEvent.Type eventType, short status) {
       short isCustom = transport.readByte();
       boolean isRetried = transport.readByte() == 1 ? true : false;
 
@@ -0,0 +1,97 @@
+package org.infinispan.client.hotrod.impl.protocol;
+
+import static org.infinispan.commons.util.Util.printArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.infinispan.client.hotrod.event.ClientEvent;
+import org.infinispan.client.hotrod.event.ClientEvents;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.Either;
+
+/**
+ * Adds support for event batches, where the server sends all the events queued for a listener as a single frame,
+ * along with the number of events it had to drop because they were not consumed quickly enough. A batch with dropped
+ * events starts with a {@link org.infinispan.client.hotrod.event.ClientCacheFailoverEvent}, so that the listener can
+ * discard any state it built from the events.
+ *
+ * @since 9.0
+ */
+public class Codec26 extends Codec25 {
+
+   @Override
+   public HeaderParams writeHeader(Transport transport, HeaderParams params) {
+      return writeHeader(transport, params, HotRodConstants.VERSION_26);
+   }
+
+   @Override
+   public List<ClientEvent> readEvents(Transport transport, byte[] expectedListenerId, Marshaller marshaller) {
+      readMagic(transport);
+      readMessageId(transport, null);
+      short eventTypeId = transport.readByte();
+      if (eventTypeId == CACHE_ENTRY_EVENT_BATCH_RESPONSE)
+         return readPartialEventBatch(transport, expectedListenerId, marshaller);
+
+      return Collections.singletonList(readPartialEvent(transport, expectedListenerId, marshaller, eventTypeId));
+   }
+
+   @Override
+   public Either<Short, List<ClientEvent>> readHeaderOrEvent(Transport transport, HeaderParams params, byte[] expectedListenerId, Marshaller marshaller) {
+      readMagic(transport);
+      readMessageId(transport, null);
+      short opCode = transport.readByte();
+      switch (opCode) {
+         case CACHE_ENTRY_CREATED_EVENT_RESPONSE:
+         case CACHE_ENTRY_MODIFIED_EVENT_RESPONSE:
+         case CACHE_ENTRY_REMOVED_EVENT_RESPONSE:
+         case CACHE_ENTRY_EXPIRED_EVENT_RESPONSE:
+            ClientEvent clientEvent = readPartialEvent(transport, expectedListenerId, marshaller, opCode);
+            return Either.newRight(Collections.singletonList(clientEvent));
+         case CACHE_ENTRY_EVENT_BATCH_RESPONSE:
+            return Either.newRight(readPartialEventBatch(transport, expectedListenerId, marshaller));
+         default:
+            return Either.newLeft(readPartialHeader(transport, params, opCode));
+      }
+   }
+
+   private List<ClientEvent> readPartialEventBatch(Transport transport, byte[] expectedListenerId, Marshaller marshaller) {
+      short status = transport.readByte();
+      transport.readByte(); // ignore, no topology expected
+      byte[] listenerId = transport.readArray();
+      if (!Arrays.equals(listenerId, expectedListenerId))
+         throw getLog().unexpectedListenerId(printArray(listenerId), printArray(expectedListenerId));
+
+      long droppedEvents = transport.readVLong();
+      int eventCount = transport.readVInt();
+      List<ClientEvent> events = new ArrayList<>(eventCount + 1);
+      if (droppedEvents > 0) {
+         if (trace)
+            getLog().tracef("Server dropped %d events for listener %s", droppedEvents, printArray(listenerId));
+         events.add(ClientEvents.mkCachefailoverEvent());
+      }
+      for (int i = 0; i < eventCount; i++) {
+         short eventTypeId = transport.readByte();
+         events.add(readEventData(transport, marshaller, eventTypeId, toEventType(eventTypeId), status));
+      }
+      return events;
+   }
+
+   private ClientEvent.Type toEventType(short eventTypeId) {
+      switch (eventTypeId) {
+         case CACHE_ENTRY_CREATED_EVENT_RESPONSE:
+            return ClientEvent.Type.CLIENT_CACHE_ENTRY_CREATED;
+         case CACHE_ENTRY_MODIFIED_EVENT_RESPONSE:
+            return ClientEvent.Type.CLIENT_CACHE_ENTRY_MODIFIED;
+         case CACHE_ENTRY_REMOVED_EVENT_RESPONSE:
+            return ClientEvent.Type.CLIENT_CACHE_ENTRY_REMOVED;
+         case CACHE_ENTRY_EXPIRED_EVENT_RESPONSE:
+            return ClientEvent.Type.CLIENT_CACHE_ENTRY_EXPIRED;
+         default:
+            throw getLog().unknownEvent(eventTypeId);
+      }
+   }
+}
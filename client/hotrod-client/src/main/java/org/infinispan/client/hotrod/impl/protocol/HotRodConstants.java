@@ -23,6 +23,7 @@ public interface HotRodConstants {
    static final byte VERSION_23 = 23;
    static final byte VERSION_24 = 24;
    static final byte VERSION_25 = 25;
+   static final byte VERSION_26 = 26;
 
    //requests
    static final byte PUT_REQUEST = 0x01;
@@ -86,6 +87,7 @@ public interface HotRodConstants {
    static final byte CACHE_ENTRY_MODIFIED_EVENT_RESPONSE = 0x61;
    static final byte CACHE_ENTRY_REMOVED_EVENT_RESPONSE = 0x62;
    static final byte CACHE_ENTRY_EXPIRED_EVENT_RESPONSE = 0x63;
+   static final byte CACHE_ENTRY_EVENT_BATCH_RESPONSE = 0x64;
 
    //response status
    static final byte NO_ERROR_STATUS = 0x00;
@@ -175,7 +175,7 @@ public interface Log extends BasicLogger {
    @Message(value = "Unable to read %s bytes %s", id = 4044)
    void unableToUnmarshallBytesError(String element, String bytes, @Cause Exception e);
 
-   @Message(value = "When enabling near caching, number of max entries must be configured", id = 4045)
+   @Message(value = "When enabling near caching, number of max entries or max memory must be configured", id = 4045)
    CacheConfigurationException nearCacheMaxEntriesUndefined();
 
    @LogMessage(level = INFO)
@@ -245,4 +245,11 @@ public interface Log extends BasicLogger {
    @Message(value = "Classpath does not look correct. Make sure you are not mixing uber and jars", id = 4065)
    void warnAboutUberJarDuplicates();
 
+   @Message(value = "The near cache bloom filter update interval must be positive, but it is %d", id = 4066)
+   CacheConfigurationException invalidNearCacheBloomFilterUpdateInterval(long interval);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to publish the near cache bloom filter to the server", id = 4067)
+   void unableToPublishNearCacheBloomFilter(@Cause Throwable t);
+
 }
@@ -5,6 +5,7 @@
 import org.infinispan.commons.util.CollectionFactory;
 
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 /**
  * Near cache based on {@link BoundedConcurrentMapNearCache}
@@ -49,4 +50,9 @@ public void clear() {
       cache.clear();
    }
 
+   @Override
+   public void forEachKey(Consumer<? super K> action) {
+      cache.keySet().forEach(action);
+   }
+
 }
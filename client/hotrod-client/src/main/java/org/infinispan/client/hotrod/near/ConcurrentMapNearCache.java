@@ -4,6 +4,7 @@
 import org.infinispan.commons.util.CollectionFactory;
 
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 /**
  * A concurrent-map-based near cache implementation.
@@ -40,6 +41,11 @@ public void clear() {
       cache.clear();
    }
 
+   @Override
+   public void forEachKey(Consumer<? super K> action) {
+      cache.keySet().forEach(action);
+   }
+
    public static <K, V> NearCache<K, V> create() {
       return new ConcurrentMapNearCache<K, V>();
    }
@@ -8,6 +8,7 @@
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * {@link java.util.LinkedHashMap} based near cache implementation.
@@ -84,6 +85,17 @@ public void clear() {
       }
    }
 
+   @Override
+   public void forEachKey(Consumer<? super K> action) {
+      Lock lock = rwlock.readLock();
+      try {
+         lock.lock();
+         cache.keySet().forEach(action);
+      } finally {
+         lock.unlock();
+      }
+   }
+
    public static <K, V> NearCache<K, V> create(final NearCacheConfiguration config) {
       return new LinkedMapNearCache<K, V>(
             new LinkedHashMap<K, VersionedValue<V>>(1 << 4, 0.75f, true) {
@@ -0,0 +1,113 @@
+package org.infinispan.client.hotrod.near;
+
+import org.infinispan.client.hotrod.VersionedValue;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Near cache bounded by the size of the marshalled keys and values it holds, evicting the least recently used entries
+ * once {@link NearCacheConfiguration#maxMemory()} is reached. The size of an entry is calculated once, when it is
+ * stored, since the marshalled form of its key and value is not kept.
+ *
+ * @since 9.0
+ */
+final class MemoryBoundedNearCache<K, V> implements NearCache<K, V> {
+   private static final Log log = LogFactory.getLog(MemoryBoundedNearCache.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final ConcurrentMap<K, SizedValue<V>> cache;
+   private final Marshaller marshaller;
+
+   private MemoryBoundedNearCache(ConcurrentMap<K, SizedValue<V>> cache, Marshaller marshaller) {
+      this.cache = cache;
+      this.marshaller = marshaller;
+   }
+
+   public static <K, V> NearCache<K, V> create(NearCacheConfiguration config, Marshaller marshaller) {
+      return new MemoryBoundedNearCache<>(new BoundedEquivalentConcurrentHashMapV8<K, SizedValue<V>>(
+            config.maxMemory(), Eviction.LRU, BoundedEquivalentConcurrentHashMapV8.getNullEvictionListener(),
+            AnyEquivalence.getInstance(), AnyEquivalence.getInstance(), (k, v) -> v.size), marshaller);
+   }
+
+   @Override
+   public void put(K key, VersionedValue<V> value) {
+      SizedValue<V> existing = cache.get(key);
+      if (existing != null && existing.value == value)
+         return;
+
+      SizedValue<V> sized = sized(key, value, existing);
+      if (sized != null)
+         cache.put(key, sized);
+   }
+
+   @Override
+   public void putIfAbsent(K key, VersionedValue<V> value) {
+      // Only marshalled if it is going to be stored
+      if (cache.containsKey(key))
+         return;
+
+      SizedValue<V> sized = sized(key, value, null);
+      if (sized != null)
+         cache.putIfAbsent(key, sized);
+   }
+
+   /**
+    * Calculates the size of the entry once, when it is stored. The size of the key is reused from the entry being
+    * replaced, if any, so that only the new value is marshalled.
+    */
+   private SizedValue<V> sized(K key, VersionedValue<V> value, SizedValue<V> existing) {
+      try {
+         int keySize = existing != null ? existing.keySize : marshaller.objectToByteBuffer(key).length;
+         return new SizedValue<>(value, keySize, marshaller.objectToByteBuffer(value.getValue()).length);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return null;
+      } catch (Exception e) {
+         // Not caching it is always correct
+         if (trace) log.tracef(e, "Unable to calculate the size of key=%s, not caching it", key);
+         return null;
+      }
+   }
+
+   @Override
+   public void remove(K key) {
+      cache.remove(key);
+   }
+
+   @Override
+   public VersionedValue<V> get(K key) {
+      SizedValue<V> sized = cache.get(key);
+      return sized != null ? sized.value : null;
+   }
+
+   @Override
+   public void clear() {
+      cache.clear();
+   }
+
+   @Override
+   public void forEachKey(Consumer<? super K> action) {
+      cache.keySet().forEach(action);
+   }
+
+   private static final class SizedValue<V> {
+      final VersionedValue<V> value;
+      final int keySize;
+      final long size;
+
+      SizedValue(VersionedValue<V> value, int keySize, int valueSize) {
+         this.value = value;
+         this.keySize = keySize;
+         this.size = (long) keySize + valueSize;
+      }
+   }
+
+}
@@ -2,6 +2,8 @@
 
 import org.infinispan.client.hotrod.VersionedValue;
 
+import java.util.function.Consumer;
+
 /**
  * Near cache contract.
  *
@@ -13,4 +15,5 @@
    void remove(K key);
    VersionedValue<V> get(K key);
    void clear();
+   void forEachKey(Consumer<? super K> action);
 }
@@ -14,17 +14,38 @@
 import org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent;
 import org.infinispan.client.hotrod.event.ClientCacheFailoverEvent;
 import org.infinispan.client.hotrod.event.ClientListenerNotifier;
+import org.infinispan.client.hotrod.impl.RemoteCacheImpl;
 import org.infinispan.client.hotrod.impl.VersionedValueImpl;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.BloomFilter;
 import org.infinispan.commons.util.Util;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * Near cache service, manages the lifecycle of the near cache.
+ * <p>
+ * If {@link NearCacheConfiguration#bloomFilter()} is enabled, the invalidation listener is registered with a bloom
+ * filter of the keys in the near cache, so that the server only sends the invalidations of those keys. The filter is
+ * published again periodically by registering a new listener and then removing the previous one, so that there is
+ * always a listener covering the keys of the near cache. A key that is not in the published filter is not cached, but
+ * remembered so that the next filter includes it.
  *
  * @since 7.1
  */
@@ -32,11 +53,26 @@
    private static final Log log = LogFactory.getLog(NearCacheService.class);
    private static final boolean trace = log.isTraceEnabled();
 
+   private static final double BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY = 0.01;
+   private static final int MIN_BLOOM_FILTER_KEYS = 64;
+   private static final int MAX_UNCOVERED_KEYS = 1 << 16;
+
    private final NearCacheConfiguration config;
    private final ClientListenerNotifier listenerNotifier;
-   private Object listener;
-   private byte[] listenerId;
+   private volatile Object listener;
+   private volatile byte[] listenerId;
    private NearCache<K, V> cache;
+   private Marshaller marshaller;
+
+   // Bloom filter state, only used if the bloom filter is enabled
+   private final ReadWriteLock filterLock = new ReentrantReadWriteLock();
+   private final Set<K> uncoveredKeys = ConcurrentHashMap.newKeySet();
+   private volatile BloomFilter publishedFilter;
+   private RemoteCache<K, V> remote;
+   private volatile ScheduledFuture<?> publishTask;
+   // Guards the replacement of the listener by a publish against its removal by stop()
+   private final Object publishLock = new Object();
+   private boolean stopped;
 
    protected NearCacheService(NearCacheConfiguration config, ClientListenerNotifier listenerNotifier) {
       this.config = config;
@@ -44,8 +80,26 @@ protected NearCacheService(NearCacheConfiguration config, ClientListenerNotifier
    }
 
    public void start(RemoteCache<K, V> remote) {
+      this.remote = remote;
+      this.marshaller = remote.getRemoteCacheManager().getMarshaller();
+      synchronized (publishLock) {
+         stopped = false;
+      }
       // Create near cache
       cache = createNearCache(config);
+      if (isBloomFilterEnabled()) {
+         // Nothing is cached until the next filter is published, since the first one is empty
+         publishBloomFilter();
+         long interval = config.bloomFilterUpdateInterval();
+         publishTask = BloomFilterPublisher.EXECUTOR.scheduleWithFixedDelay(() -> {
+            try {
+               publishBloomFilter();
+            } catch (Throwable t) {
+               log.unableToPublishNearCacheBloomFilter(t);
+            }
+         }, interval, interval, TimeUnit.MILLISECONDS);
+         return;
+      }
       // Add a listener that updates the near cache
       listener = createListener(remote);
       remote.addClientListener(listener);
@@ -53,6 +107,10 @@ public void start(RemoteCache<K, V> remote) {
       listenerId = listenerNotifier.findListenerId(listener);
    }
 
+   private boolean isBloomFilterEnabled() {
+      return config.bloomFilter() && config.mode().invalidated();
+   }
+
    private Object createListener(RemoteCache<K, V> remote) {
       return config.mode().invalidated()
             ? new InvalidatedNearCacheListener<K, V>(this)
@@ -63,13 +121,26 @@ public void stop(RemoteCache<K, V> remote) {
       if (trace)
          log.tracef("Stop near cache, remove underlying listener id %s", Util.printArray(listenerId));
 
+      ScheduledFuture<?> task = publishTask;
+      if (task != null)
+         task.cancel(false);
+      // A publish running concurrently removes its new listener itself, see publishBloomFilter()
+      Object currentListener;
+      synchronized (publishLock) {
+         stopped = true;
+         currentListener = listener;
+      }
       // Remove listener
-      remote.removeClientListener(listener);
+      if (currentListener != null)
+         remote.removeClientListener(currentListener);
       // Empty cache
       cache.clear();
    }
 
    protected NearCache<K, V> createNearCache(NearCacheConfiguration config) {
+      if (config.maxMemory() > 0)
+         return MemoryBoundedNearCache.create(config, marshaller);
+
       return config.maxEntries() > 0
             ? BoundedConcurrentMapNearCache.<K, V>create(config)
             : ConcurrentMapNearCache.<K, V>create();
@@ -82,7 +153,11 @@ public static <K, V> NearCacheService<K, V> create(
 
    @Override
    public void put(K key, VersionedValue<V> value) {
-       cache.put(key, value);
+      if (isBloomFilterEnabled()) {
+         putIfPublished(key, value, false);
+         return;
+      }
+      cache.put(key, value);
 
       if (trace)
          log.tracef("Put key=%s and value=%s in near cache (listenerId=%s)",
@@ -91,6 +166,10 @@ public void put(K key, VersionedValue<V> value) {
 
    @Override
    public void putIfAbsent(K key, VersionedValue<V> value) {
+      if (isBloomFilterEnabled()) {
+         putIfPublished(key, value, true);
+         return;
+      }
       cache.putIfAbsent(key, value);
 
       if (trace)
@@ -130,10 +209,138 @@ public void clear() {
       if (trace) log.tracef("Cleared near cache (listenerId=%s)", Util.printArray(listenerId));
    }
 
+   @Override
+   public void forEachKey(Consumer<? super K> action) {
+      cache.forEachKey(action);
+   }
+
    private boolean isConnected() {
       return listenerNotifier.isListenerConnected(listenerId);
    }
 
+   private void putIfPublished(K key, VersionedValue<V> value, boolean ifAbsent) {
+      Long hash = hashKey(key);
+      if (hash == null)
+         return;
+
+      // Keeps the filter from being replaced until the value is cached, see publishBloomFilter()
+      Lock lock = filterLock.readLock();
+      lock.lock();
+      try {
+         BloomFilter filter = publishedFilter;
+         if (filter != null && filter.mightContain(hash)) {
+            if (ifAbsent)
+               cache.putIfAbsent(key, value);
+            else
+               cache.put(key, value);
+            return;
+         }
+         if (uncoveredKeys.size() < MAX_UNCOVERED_KEYS)
+            uncoveredKeys.add(key);
+      } finally {
+         lock.unlock();
+      }
+      if (trace)
+         log.tracef("Key=%s not in the published bloom filter, not cached until the next one (listenerId=%s)",
+               key, Util.printArray(listenerId));
+   }
+
+   /**
+    * Registers a listener with a bloom filter of the keys in the near cache, and of the keys that could not be cached
+    * since the previous filter was published, and then removes the listener of the previous filter.
+    */
+   void publishBloomFilter() {
+      synchronized (publishLock) {
+         if (stopped)
+            return;
+      }
+      Map<K, Long> hashes = new HashMap<>();
+      cache.forEachKey(key -> addHash(key, hashes));
+      uncoveredKeys.forEach(key -> addHash(key, hashes));
+      BloomFilter filter = BloomFilter.create(
+            Math.max(MIN_BLOOM_FILTER_KEYS, hashes.size()), BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY);
+      hashes.values().forEach(filter::add);
+
+      Object newListener = new BloomFilterNearCacheListener<K, V>(this);
+      ((RemoteCacheImpl<K, V>) remote).getOperationsFactory()
+            .newAddClientListenerOperation(newListener, new byte[][]{filter.toBytes()}, new byte[0][])
+            .execute();
+      byte[] newListenerId = listenerNotifier.findListenerId(newListener);
+
+      Object previousListener;
+      synchronized (publishLock) {
+         if (stopped) {
+            // stop() removed the previous listener, and nothing else would remove this one
+            remote.removeClientListener(newListener);
+            return;
+         }
+         previousListener = listener;
+         listener = newListener;
+         listenerId = newListenerId;
+      }
+
+      Lock lock = filterLock.writeLock();
+      lock.lock();
+      try {
+         publishedFilter = filter;
+         uncoveredKeys.removeAll(hashes.keySet());
+         // Keys cached while the filter was built are only kept if the new filter covers them
+         List<K> notCovered = new ArrayList<>();
+         cache.forEachKey(key -> {
+            if (!hashes.containsKey(key)) {
+               Long hash = hashKey(key);
+               if (hash == null || !filter.mightContain(hash))
+                  notCovered.add(key);
+            }
+         });
+         notCovered.forEach(cache::remove);
+      } finally {
+         lock.unlock();
+      }
+
+      if (previousListener != null)
+         remote.removeClientListener(previousListener);
+
+      if (trace)
+         log.tracef("Published %s with %d keys (listenerId=%s)", filter, hashes.size(), Util.printArray(newListenerId));
+   }
+
+   private void addHash(K key, Map<K, Long> hashes) {
+      Long hash = hashKey(key);
+      if (hash != null)
+         hashes.put(key, hash);
+   }
+
+   private Long hashKey(K key) {
+      try {
+         // Same bytes as the key sent to the server, so that the server can look them up in the filter
+         return BloomFilter.hash(marshaller.objectToByteBuffer(key));
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return null;
+      } catch (Exception e) {
+         // Not caching it is always correct
+         if (trace) log.tracef(e, "Unable to marshall key=%s, not caching it", key);
+         return null;
+      }
+   }
+
+   /**
+    * Publishing a filter takes a single request, so one daemon thread publishes the filters of all the near caches.
+    */
+   private static final class BloomFilterPublisher {
+      static final ScheduledThreadPoolExecutor EXECUTOR = new ScheduledThreadPoolExecutor(1, r -> {
+         Thread thread = new Thread(r, "HotRod-client-near-cache-bloom-filter");
+         thread.setDaemon(true);
+         return thread;
+      });
+
+      static {
+         // Stopped near caches must not keep their task in the queue until it is due
+         EXECUTOR.setRemoveOnCancelPolicy(true);
+      }
+   }
+
    @ClientListener
    private static class InvalidatedNearCacheListener<K, V> {
       private static final Log log = LogFactory.getLog(InvalidatedNearCacheListener.class);
@@ -175,6 +382,17 @@ private void invalidate(K key) {
       }
    }
 
+   /**
+    * Invalidation listener that only receives the events of the keys in its bloom filter, which is sent as the
+    * parameter of the filter factory.
+    */
+   @ClientListener(filterFactoryName = "___near-cache-bloom-filter", useRawData = true)
+   private static class BloomFilterNearCacheListener<K, V> extends InvalidatedNearCacheListener<K, V> {
+      private BloomFilterNearCacheListener(NearCache<K, V> cache) {
+         super(cache);
+      }
+   }
+
    /**
     * An near cache listener that eagerly populates the near cache as cache
     * entries are created/modified in the server. It uses a converter in order
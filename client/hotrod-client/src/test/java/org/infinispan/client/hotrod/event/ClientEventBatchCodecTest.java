@@ -0,0 +1,185 @@
+package org.infinispan.client.hotrod.event;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.CodecFactory;
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
+import org.infinispan.server.hotrod.Encoder2x;
+import org.infinispan.server.hotrod.Events;
+import org.infinispan.server.hotrod.OperationResponse;
+import org.testng.annotations.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import scala.collection.JavaConversions;
+
+/**
+ * Writes event frames with the server's encoder and reads them back with the client's codec.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "client.hotrod.event.ClientEventBatchCodecTest")
+public class ClientEventBatchCodecTest {
+
+   private static final byte VERSION = 26;
+
+   private final Marshaller marshaller = new GenericJBossMarshaller();
+
+   private final byte[] listenerId = new byte[]{1, 2, 3, 4};
+
+   public void testEventBatchRoundTrip() throws Exception {
+      List<ClientEvent> events = roundTrip(batch(0,
+            new Events.KeyWithVersionEvent(VERSION, 0, OperationResponse.CacheEntryCreatedEventResponse(), listenerId,
+                  false, marshaller.objectToByteBuffer("k1"), 1),
+            new Events.KeyWithVersionEvent(VERSION, 0, OperationResponse.CacheEntryModifiedEventResponse(), listenerId,
+                  true, marshaller.objectToByteBuffer("k1"), 2),
+            new Events.KeyEvent(VERSION, 0, OperationResponse.CacheEntryRemovedEventResponse(), listenerId,
+                  false, marshaller.objectToByteBuffer("k2"))));
+
+      assertEquals(3, events.size());
+      ClientCacheEntryCreatedEvent<?> created = (ClientCacheEntryCreatedEvent<?>) events.get(0);
+      assertEquals("k1", created.getKey());
+      assertEquals(1, created.getVersion());
+      assertFalse(created.isCommandRetried());
+      ClientCacheEntryModifiedEvent<?> modified = (ClientCacheEntryModifiedEvent<?>) events.get(1);
+      assertEquals("k1", modified.getKey());
+      assertEquals(2, modified.getVersion());
+      assertTrue(modified.isCommandRetried());
+      ClientCacheEntryRemovedEvent<?> removed = (ClientCacheEntryRemovedEvent<?>) events.get(2);
+      assertEquals("k2", removed.getKey());
+   }
+
+   public void testEventBatchWithDroppedEvents() throws Exception {
+      List<ClientEvent> events = roundTrip(batch(5,
+            new Events.KeyEvent(VERSION, 0, OperationResponse.CacheEntryRemovedEventResponse(), listenerId,
+                  false, marshaller.objectToByteBuffer("k1"))));
+
+      assertEquals(2, events.size());
+      assertEquals(ClientEvent.Type.CLIENT_CACHE_FAILOVER, events.get(0).getType());
+      assertEquals("k1", ((ClientCacheEntryRemovedEvent<?>) events.get(1)).getKey());
+   }
+
+   public void testSingleEventFrame() throws Exception {
+      List<ClientEvent> events = roundTrip(new Events.CustomRawEvent(VERSION, 0,
+            OperationResponse.CacheEntryCreatedEventResponse(), listenerId, false, new byte[]{42}));
+
+      assertEquals(1, events.size());
+      ClientCacheEntryCustomEvent<?> custom = (ClientCacheEntryCustomEvent<?>) events.get(0);
+      assertEquals(ClientEvent.Type.CLIENT_CACHE_ENTRY_CREATED, custom.getType());
+      assertTrue(Arrays.equals(new byte[]{42}, (byte[]) custom.getEventData()));
+   }
+
+   private Events.EventBatch batch(long droppedEvents, Events.Event... events) {
+      return new Events.EventBatch(VERSION, 0, listenerId,
+            JavaConversions.asScalaBuffer(Arrays.asList(events)), droppedEvents);
+   }
+
+   private List<ClientEvent> roundTrip(Events.Event event) {
+      ByteBuf buf = Unpooled.buffer();
+      Encoder2x.writeEvent(event, buf);
+      Codec codec = CodecFactory.getCodec(ConfigurationProperties.PROTOCOL_VERSION_26);
+      ByteBufferTransport transport = new ByteBufferTransport(buf.nioBuffer());
+      List<ClientEvent> events = codec.readEvents(transport, listenerId, marshaller);
+      assertFalse("Unread bytes left in the frame", transport.buffer.hasRemaining());
+      return events;
+   }
+
+   /**
+    * A read only transport over the bytes written by the server.
+    */
+   private static final class ByteBufferTransport extends AbstractTransport {
+
+      final ByteBuffer buffer;
+
+      ByteBufferTransport(ByteBuffer buffer) {
+         super(null);
+         this.buffer = buffer;
+      }
+
+      @Override
+      public long readVLong() {
+         return UnsignedNumeric.readUnsignedLong(buffer);
+      }
+
+      @Override
+      public int readVInt() {
+         return UnsignedNumeric.readUnsignedInt(buffer);
+      }
+
+      @Override
+      public short readByte() {
+         return (short) (buffer.get() & 0xFF);
+      }
+
+      @Override
+      public byte[] readByteArray(int size) {
+         byte[] bytes = new byte[size];
+         buffer.get(bytes);
+         return bytes;
+      }
+
+      @Override
+      protected void writeBytes(byte[] toAppend) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void writeByte(short toWrite) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void writeVInt(int vint) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void writeSignedVInt(int toWrite) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void writeVLong(long l) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void release() {
+      }
+
+      @Override
+      public byte[] dumpStream() {
+         return new byte[0];
+      }
+
+      @Override
+      public SocketAddress getRemoteSocketAddress() {
+         return null;
+      }
+
+      @Override
+      public void invalidate() {
+      }
+
+      @Override
+      public boolean isValid() {
+         return true;
+      }
+   }
+}
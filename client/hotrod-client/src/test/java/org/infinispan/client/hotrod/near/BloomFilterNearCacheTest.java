@@ -0,0 +1,147 @@
+package org.infinispan.client.hotrod.near;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.BloomFilter;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killRemoteCacheManager;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the near cache that publishes a bloom filter of its keys to the server and is bounded by memory.
+ */
+@Test(groups = "functional", testName = "client.hotrod.near.BloomFilterNearCacheTest")
+public class BloomFilterNearCacheTest extends SingleHotRodServerTest {
+
+   private static final long MAX_MEMORY = 4096;
+
+   private final BlockingQueue<MockNearCacheService.MockEvent> events = new LinkedBlockingQueue<>();
+   private NearCacheService<Integer, String> nearCache;
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      // Published by the test only
+      builder.nearCache().mode(NearCacheMode.INVALIDATED).maxMemory(MAX_MEMORY)
+            .bloomFilter(true).bloomFilterUpdateInterval(TimeUnit.HOURS.toMillis(1));
+      return new RemoteCacheManager(builder.build()) {
+         @Override
+         @SuppressWarnings("unchecked")
+         protected <K, V> NearCacheService<K, V> createNearCacheService(NearCacheConfiguration cfg) {
+            NearCacheService<K, V> service = new MockNearCacheService<>(cfg, events, listenerNotifier);
+            nearCache = (NearCacheService<Integer, String>) service;
+            return service;
+         }
+      };
+   }
+
+   public void testKeyCachedOncePublished() {
+      RemoteCache<Integer, String> remote = remoteCacheManager.getCache();
+      remote.put(1, "v1");
+      assertEquals("v1", remote.get(1));
+      assertNull(nearCache.get(1));
+
+      nearCache.publishBloomFilter();
+      assertEquals("v1", remote.get(1));
+      assertEquals("v1", nearCache.get(1).getValue());
+   }
+
+   public void testPublishedKeyInvalidated() {
+      RemoteCache<Integer, String> remote = remoteCacheManager.getCache();
+      remote.put(2, "v1");
+      remote.get(2);
+      nearCache.publishBloomFilter();
+      assertEquals("v1", remote.get(2));
+      assertEquals("v1", nearCache.get(2).getValue());
+
+      RemoteCacheManager other = HotRodClientTestingUtil.getRemoteCacheManager(hotrodServer);
+      try {
+         other.<Integer, String>getCache().put(2, "v2");
+         eventually(() -> nearCache.get(2) == null);
+         assertEquals("v2", remote.get(2));
+      } finally {
+         killRemoteCacheManager(other);
+      }
+   }
+
+   public void testInvalidationsOutsideTheFilterSuppressed() throws Exception {
+      RemoteCache<Integer, String> remote = remoteCacheManager.getCache();
+      remote.put(3, "v1");
+      remote.get(3);
+      nearCache.publishBloomFilter();
+      assertEquals("v1", remote.get(3));
+
+      // Keys that the server filter rejects, a false positive would be delivered
+      BloomFilter filter = TestingUtil.extractField(nearCache, "publishedFilter");
+      Marshaller marshaller = remoteCacheManager.getMarshaller();
+      List<Integer> uncovered = new ArrayList<>();
+      for (int i = 1000; uncovered.size() < 10; i++) {
+         if (!filter.mightContain(BloomFilter.hash(marshaller.objectToByteBuffer(i))))
+            uncovered.add(i);
+      }
+
+      RemoteCacheManager other = HotRodClientTestingUtil.getRemoteCacheManager(hotrodServer);
+      try {
+         RemoteCache<Integer, String> otherRemote = other.getCache();
+         events.clear();
+         for (Integer key : uncovered)
+            otherRemote.put(key, "v");
+         // The events are sent in order, so the uncovered keys would be invalidated before this one
+         otherRemote.put(3, "v2");
+         eventually(() -> nearCache.get(3) == null);
+      } finally {
+         killRemoteCacheManager(other);
+      }
+
+      for (MockNearCacheService.MockEvent event : events) {
+         if (event instanceof MockNearCacheService.MockRemoveEvent) {
+            Object key = ((MockNearCacheService.MockRemoveEvent<?>) event).key;
+            assertFalse("Invalidated key " + key + " outside the filter", uncovered.contains(key));
+         }
+      }
+   }
+
+   public void testBoundedByMemory() {
+      RemoteCache<Integer, String> remote = remoteCacheManager.getCache();
+      char[] chars = new char[256];
+      Arrays.fill(chars, 'x');
+      String value = new String(chars);
+      int numKeys = 100;
+      for (int i = 100; i < 100 + numKeys; i++) {
+         remote.put(i, value);
+         remote.get(i);
+      }
+      nearCache.publishBloomFilter();
+      for (int i = 100; i < 100 + numKeys; i++) {
+         assertEquals(value, remote.get(i));
+      }
+
+      AtomicInteger cached = new AtomicInteger();
+      nearCache.forEachKey(k -> {
+         if (k >= 100) cached.incrementAndGet();
+      });
+      assertTrue("Cached " + cached.get() + " entries", cached.get() > 0);
+      assertTrue("Cached " + cached.get() + " entries", cached.get() * value.length() <= MAX_MEMORY);
+   }
+
+}
@@ -5,6 +5,7 @@
 import org.infinispan.client.hotrod.event.ClientListenerNotifier;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
 
 public class MockNearCacheService<K, V> extends NearCacheService<K, V> {
    final BlockingQueue<MockEvent> events;
@@ -74,6 +75,11 @@ public void clear() {
          events.clear();
          events.add(new MockClearEvent());
       }
+
+      @Override
+      public void forEachKey(Consumer<? super K> action) {
+         delegate.forEachKey(action);
+      }
    }
 
    static class MockPutEvent<K, V> extends MockKeyValueEvent<K, V> {
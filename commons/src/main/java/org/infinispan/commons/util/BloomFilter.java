@@ -0,0 +1,152 @@
+package org.infinispan.commons.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.infinispan.commons.hash.MurmurHash3;
+
+/**
+ * A Bloom filter of byte arrays, for telling with little memory whether an element might have been added to a set.
+ * It never reports an element that was added as absent, but it might report an element that was not added as present,
+ * with a probability that depends on the number of elements added and the size of the filter.
+ * <p>
+ * The filter can be converted to a byte array with {@link #toBytes()} and back with {@link #fromBytes(byte[])}, so
+ * that it can be built by one process and queried by another. Both sides hash the elements with the same function,
+ * so the byte arrays must be the same on both sides, e.g. the marshalled form of a key.
+ * <p>
+ * Elements can be added and queried concurrently, an element is reported as present by any thread once it was added.
+ *
+ * @since 9.0
+ */
+public final class BloomFilter {
+
+   private static final int SEED = 9001;
+   private static final int MAX_HASH_FUNCTIONS = 16;
+
+   private final AtomicLongArray bits;
+   private final int numHashFunctions;
+
+   private BloomFilter(AtomicLongArray bits, int numHashFunctions) {
+      this.bits = bits;
+      this.numHashFunctions = numHashFunctions;
+   }
+
+   /**
+    * Creates an empty filter sized for the given number of elements and false positive probability.
+    *
+    * @param expectedElements number of elements expected to be added, at least 1
+    * @param falsePositiveProbability probability of reporting an element that was not added as present, in (0, 1)
+    */
+   public static BloomFilter create(int expectedElements, double falsePositiveProbability) {
+      if (expectedElements <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1)
+         throw new IllegalArgumentException();
+
+      double ln2 = Math.log(2);
+      long numBits = (long) Math.ceil(-expectedElements * Math.log(falsePositiveProbability) / (ln2 * ln2));
+      int numLongs = (int) Math.min(Integer.MAX_VALUE / Long.SIZE, (numBits + Long.SIZE - 1) / Long.SIZE);
+      int numHashFunctions = (int) Math.round((double) numLongs * Long.SIZE / expectedElements * ln2);
+      return new BloomFilter(new AtomicLongArray(Math.max(1, numLongs)),
+            Math.max(1, Math.min(MAX_HASH_FUNCTIONS, numHashFunctions)));
+   }
+
+   /**
+    * Creates a filter from the bytes returned by {@link #toBytes()}.
+    */
+   public static BloomFilter fromBytes(byte[] bytes) {
+      if (bytes.length < 1 + Long.BYTES || (bytes.length - 1) % Long.BYTES != 0
+            || bytes[0] < 1 || bytes[0] > MAX_HASH_FUNCTIONS)
+         throw new IllegalArgumentException("Invalid bloom filter of " + bytes.length + " bytes");
+
+      AtomicLongArray bits = new AtomicLongArray((bytes.length - 1) / Long.BYTES);
+      for (int i = 0; i < bits.length(); i++) {
+         long word = 0;
+         for (int j = 0; j < Long.BYTES; j++) {
+            word = (word << 8) | (bytes[1 + i * Long.BYTES + j] & 0xFF);
+         }
+         bits.set(i, word);
+      }
+      return new BloomFilter(bits, bytes[0]);
+   }
+
+   /**
+    * Hashes an element, so that it can be added or looked up with {@link #add(long)} and {@link #mightContain(long)}
+    * without hashing it again.
+    */
+   public static long hash(byte[] element) {
+      return MurmurHash3.MurmurHash3_x64_64(element, SEED);
+   }
+
+   /**
+    * Spreads the hash code of an element to 64 bits, for filters that are only used in the process that built them,
+    * so that they can be queried without marshalling the element. Elements with the same hash code can't be told apart.
+    */
+   public static long hash(int hashCode) {
+      long h = hashCode ^ ((long) SEED << 32);
+      h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+      h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+      return h ^ (h >>> 33);
+   }
+
+   public void add(byte[] element) {
+      add(hash(element));
+   }
+
+   public void add(long hash) {
+      long numBits = (long) bits.length() * Long.SIZE;
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 1; i <= numHashFunctions; i++) {
+         long bit = bitIndex(h1 + i * h2, numBits);
+         int index = (int) (bit >>> 6);
+         long mask = 1L << bit;
+         for (;;) {
+            long word = bits.get(index);
+            if ((word & mask) != 0 || bits.compareAndSet(index, word, word | mask))
+               break;
+         }
+      }
+   }
+
+   /**
+    * @return false if the element was definitely not added, true if it might have been added
+    */
+   public boolean mightContain(byte[] element) {
+      return mightContain(hash(element));
+   }
+
+   public boolean mightContain(long hash) {
+      long numBits = (long) bits.length() * Long.SIZE;
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 1; i <= numHashFunctions; i++) {
+         long bit = bitIndex(h1 + i * h2, numBits);
+         if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+            return false;
+      }
+      return true;
+   }
+
+   private static long bitIndex(int combinedHash, long numBits) {
+      return (combinedHash < 0 ? ~combinedHash : combinedHash) % numBits;
+   }
+
+   public byte[] toBytes() {
+      byte[] bytes = new byte[1 + bits.length() * Long.BYTES];
+      bytes[0] = (byte) numHashFunctions;
+      for (int i = 0; i < bits.length(); i++) {
+         long word = bits.get(i);
+         for (int j = Long.BYTES - 1; j >= 0; j--) {
+            bytes[1 + i * Long.BYTES + j] = (byte) word;
+            word >>>= 8;
+         }
+      }
+      return bytes;
+   }
+
+   @Override
+   public String toString() {
+      return "BloomFilter{" +
+            "bits=" + (long) bits.length() * Long.SIZE +
+            ", hashFunctions=" + numHashFunctions +
+            '}';
+   }
+}
@@ -146,17 +146,14 @@ public Set<Entry<K, V>> entrySet() {
    @Override
    public V put(K key, V value) {
       V oldValue = delegate.put(key, value);
-      PutOperation<K, V> op = new PutOperation<>(key, oldValue, value);
-      getDelta().addOperation(op);
+      getDelta().addPut(key, value);
       return oldValue;
    }
 
    @Override
-   @SuppressWarnings("unchecked")
    public V remove(Object key) {
       V oldValue = delegate.remove(key);
-      RemoveOperation<K, V> op = new RemoveOperation<>((K) key, oldValue);
-      getDelta().addOperation(op);
+      getDelta().addRemove(key);
       return oldValue;
    }
 
@@ -167,11 +164,8 @@ public void putAll(Map<? extends K, ? extends V> t) {
    }
 
    @Override
-   @SuppressWarnings("unchecked")
    public void clear() {
-      FastCopyHashMap<K, V> originalEntries = delegate.clone();
-      ClearOperation<K, V> op = new ClearOperation<>(originalEntries);
-      getDelta().addOperation(op);
+      getDelta().addClear();
       delegate.clear();
    }
 
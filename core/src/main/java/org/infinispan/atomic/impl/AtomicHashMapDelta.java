@@ -2,7 +2,9 @@
 
 import org.infinispan.atomic.Delta;
 import org.infinispan.atomic.DeltaAware;
+import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.FastCopyHashMap;
 import org.infinispan.commons.util.Util;
 import org.infinispan.marshall.core.Ids;
 import org.infinispan.util.logging.Log;
@@ -11,13 +13,18 @@
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 /**
- * Changes that have occurred on an AtomicHashMap
+ * Changes that have occurred on an AtomicHashMap.
+ * <p>
+ * Changes are coalesced as they are recorded: only the last value put or the removal of each key is kept, and a clear
+ * discards the changes recorded before it. A transaction updating the same keys of a large map repeatedly, or clearing
+ * it, therefore replicates one entry per changed key and never a copy of the map.
  *
  * @author Manik Surtani (<a href="mailto:manik AT jboss DOT org">manik AT jboss DOT org</a>)
  * @since 4.0
@@ -26,7 +33,17 @@ public class AtomicHashMapDelta implements Delta {
    private static final Log log = LogFactory.getLog(AtomicHashMapDelta.class);
    private static final boolean trace = log.isTraceEnabled();
 
-   private List<Operation<Object, Object>> changeLog;
+   /**
+    * Marks a removed key in {@link #changes}
+    */
+   private static final Object REMOVED = new Object() {
+      @Override
+      public String toString() {
+         return "<removed>";
+      }
+   };
+
+   private FastCopyHashMap<Object, Object> changes;
    private boolean hasClearOperation;
    private final AtomicHashMap.ProxyMode proxyMode;
 
@@ -41,36 +58,55 @@ public DeltaAware merge(DeltaAware d) {
          other = (AtomicHashMap<Object, Object>) d;
       else
          other = new AtomicHashMap<>(proxyMode);
-      if (changeLog != null) {
-         for (Operation<Object, Object> o : changeLog) o.replay(other.delegate);
+      if (hasClearOperation) {
+         other.delegate.clear();
+      }
+      if (changes != null) {
+         for (Map.Entry<Object, Object> change : changes.entrySet()) {
+            if (change.getValue() == REMOVED) {
+               other.delegate.remove(change.getKey());
+            } else {
+               other.delegate.put(change.getKey(), change.getValue());
+            }
+         }
       }
       return other;
    }
 
-   public void addOperation(Operation<?, ?> o) {
-      if (changeLog == null) {
-         // lazy init
-         changeLog = new LinkedList<Operation<Object, Object>>();
-      }
-      if(o instanceof ClearOperation) {
-         hasClearOperation = true;
-      }
+   public void addPut(Object key, Object value) {
+      if (trace)
+         log.tracef("Add put of key %s to delta", key);
+      getChanges().put(key, value);
+   }
 
+   public void addRemove(Object key) {
       if (trace)
-         log.tracef("Add operation %s to delta", o);
+         log.tracef("Add removal of key %s to delta", key);
+      getChanges().put(key, REMOVED);
+   }
 
-      changeLog.add((Operation<Object, Object>) o);
+   public void addClear() {
+      if (trace)
+         log.trace("Add clear to delta");
+      hasClearOperation = true;
+      if (changes != null) {
+         changes.clear();
+      }
    }
 
-   public Collection<Object> getKeys() {
-      List<Object> keys = new LinkedList<Object>();
-      if (changeLog != null) {
-         for (Operation<?, ?> o : changeLog) {
-            Object key = o.keyAffected();
-            keys.add(key);
-         }
+   private FastCopyHashMap<Object, Object> getChanges() {
+      if (changes == null) {
+         // lazy init
+         changes = new FastCopyHashMap<>();
       }
-      return keys;
+      return changes;
+   }
+
+   /**
+    * @return the keys changed since the last clear, if any
+    */
+   public Collection<Object> getKeys() {
+      return changes == null ? Collections.emptyList() : new ArrayList<>(changes.keySet());
    }
 
    public boolean hasClearOperation(){
@@ -79,31 +115,54 @@ public boolean hasClearOperation(){
 
    @Override
    public String toString() {
-      StringBuilder sb = new StringBuilder( "AtomicHashMapDelta{changeLog=");
-      sb.append(changeLog);
+      StringBuilder sb = new StringBuilder( "AtomicHashMapDelta{changes=");
+      sb.append(changes);
       sb.append( ",hasClear=");
       sb.append(hasClearOperation);
       sb.append("}");
       return sb.toString();
    }
 
+   /**
+    * @return the number of changed keys, plus one if the map was cleared
+    */
    public int getChangeLogSize() {
-      return changeLog == null ? 0 : changeLog.size();
+      return (changes == null ? 0 : changes.size()) + (hasClearOperation ? 1 : 0);
    }
 
    public static class Externalizer extends AbstractExternalizer<AtomicHashMapDelta> {
       @Override
       public void writeObject(ObjectOutput output, AtomicHashMapDelta delta) throws IOException {
-         if (trace) log.tracef("Serializing changeLog %s", delta.changeLog);
+         if (trace) log.tracef("Serializing changes %s", delta.changes);
          output.writeByte(delta.proxyMode.ordinal());
-         output.writeObject(delta.changeLog);
+         output.writeBoolean(delta.hasClearOperation);
+         FastCopyHashMap<Object, Object> changes = delta.changes;
+         UnsignedNumeric.writeUnsignedInt(output, changes == null ? 0 : changes.size());
+         if (changes != null) {
+            for (Map.Entry<Object, Object> change : changes.entrySet()) {
+               output.writeObject(change.getKey());
+               boolean removed = change.getValue() == REMOVED;
+               output.writeBoolean(removed);
+               if (!removed) {
+                  output.writeObject(change.getValue());
+               }
+            }
+         }
       }
 
       @Override
       public AtomicHashMapDelta readObject(ObjectInput input) throws IOException, ClassNotFoundException {
          AtomicHashMapDelta delta = new AtomicHashMapDelta(AtomicHashMap.ProxyMode.valueOf(input.readByte()));
-         delta.changeLog = (List<Operation<Object, Object>>) input.readObject();
-         if (trace) log.tracef("Deserialized changeLog %s", delta.changeLog);
+         delta.hasClearOperation = input.readBoolean();
+         int size = UnsignedNumeric.readUnsignedInt(input);
+         if (size > 0) {
+            delta.changes = new FastCopyHashMap<>(size);
+            for (int i = 0; i < size; i++) {
+               Object key = input.readObject();
+               delta.changes.put(key, input.readBoolean() ? REMOVED : input.readObject());
+            }
+         }
+         if (trace) log.tracef("Deserialized changes %s", delta.changes);
          return delta;
       }
 
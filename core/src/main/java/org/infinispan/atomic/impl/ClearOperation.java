@@ -19,7 +19,9 @@
  * @param <K>
  * @param <V>
  * @since 4.0
+ * @deprecated Since 9.0, {@link AtomicHashMapDelta} records the changes of a map directly
  */
+@Deprecated
 public class ClearOperation<K, V> extends Operation<K, V> {
    FastCopyHashMap<K, V> originalEntries;
 
@@ -64,7 +64,7 @@ public Set<K> keySet() {
       if (hasUncommittedChanges()) {
            return new HashSet<K>(keySetUncommitted());
       } else {
-         AtomicHashMap<K, V> map = getDeltaMapForRead().copy();
+         AtomicHashMap<K, V> map = getDeltaMapForRead();
          Set<K> result = new HashSet<K>(keySetUncommitted());
          if (map != null) {
             result.addAll(map.keySet());
@@ -86,7 +86,7 @@ public Collection<V> values() {
       if (hasUncommittedChanges()) {
          return new ArrayList<V>(valuesUncommitted());
       }
-      AtomicHashMap<K, V> map = getDeltaMapForRead().copy();
+      AtomicHashMap<K, V> map = getDeltaMapForRead();
       List<V> result = new ArrayList<V>(valuesUncommitted());
       if (map != null) {
          result.addAll(map.values());
@@ -108,7 +108,7 @@ public Set<Entry<K, V>> entrySet() {
       if (hasUncommittedChanges()) {
          return new HashSet<Entry<K, V>>(entrySetUncommitted());
       } else {
-         AtomicHashMap<K, V> map = getDeltaMapForRead().copy();
+         AtomicHashMap<K, V> map = getDeltaMapForRead();
          result = new HashSet<Entry<K, V>>();
          if (map != null) {
             result.addAll(map.entrySet());
@@ -10,7 +10,9 @@
  * @param <K>
  * @param <V>
  * @since 4.0
+ * @deprecated Since 9.0, {@link AtomicHashMapDelta} records the changes of a map directly
  */
+@Deprecated
 public abstract class Operation<K, V> {
    
    public abstract K keyAffected();
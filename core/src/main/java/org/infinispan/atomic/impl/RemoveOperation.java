@@ -18,7 +18,9 @@
  * @param <K>
  * @param <V>
  * @since 4.0
+ * @deprecated Since 9.0, {@link AtomicHashMapDelta} records the changes of a map directly
  */
+@Deprecated
 public class RemoveOperation<K, V> extends Operation<K, V> {
    private K key;
    private V oldValue;
@@ -60,6 +60,7 @@
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
+import org.infinispan.xsite.XSiteBatchRpcCommand;
 import org.infinispan.xsite.statetransfer.XSiteState;
 import org.infinispan.xsite.statetransfer.XSiteStatePushCommand;
 import org.infinispan.xsite.statetransfer.XSiteStateTransferControlCommand;
@@ -441,6 +442,14 @@ public interface CommandsFactory {
     */
    SingleXSiteRpcCommand buildSingleXSiteRpcCommand(VisitableCommand command);
 
+   /**
+    * Builds XSiteBatchRpcCommand used to apply a batch of writes on the backup site.
+    * @param marshalledModifications the writes, marshalled as an array with the cache marshaller.
+    * @param compress whether the marshalled writes should be compressed.
+    * @return the XSiteBatchRpcCommand created
+    */
+   XSiteBatchRpcCommand buildXSiteBatchRpcCommand(byte[] marshalledModifications, boolean compress);
+
    /**
     * Builds {@link org.infinispan.commands.remote.GetKeysInGroupCommand} used to fetch all the keys belonging to a group.
     *
@@ -100,6 +100,7 @@
 import org.infinispan.xsite.BackupSender;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
+import org.infinispan.xsite.XSiteBatchRpcCommand;
 import org.infinispan.xsite.statetransfer.XSiteState;
 import org.infinispan.xsite.statetransfer.XSiteStateConsumer;
 import org.infinispan.xsite.statetransfer.XSiteStateProvider;
@@ -486,6 +487,10 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
             XSiteStatePushCommand xSiteStatePushCommand = (XSiteStatePushCommand) c;
             xSiteStatePushCommand.initialize(xSiteStateConsumer);
             break;
+         case XSiteBatchRpcCommand.COMMAND_ID:
+            XSiteBatchRpcCommand xSiteBatchRpcCommand = (XSiteBatchRpcCommand) c;
+            xSiteBatchRpcCommand.initialize(cache);
+            break;
          case GetKeysInGroupCommand.COMMAND_ID:
             GetKeysInGroupCommand getKeysInGroupCommand = (GetKeysInGroupCommand) c;
             getKeysInGroupCommand.setGroupManager(groupManager);
@@ -623,6 +628,11 @@ public SingleXSiteRpcCommand buildSingleXSiteRpcCommand(VisitableCommand command
       return new SingleXSiteRpcCommand(cacheName, command);
    }
 
+   @Override
+   public XSiteBatchRpcCommand buildXSiteBatchRpcCommand(byte[] marshalledModifications, boolean compress) {
+      return new XSiteBatchRpcCommand(cacheName, marshalledModifications, compress);
+   }
+
    @Override
    public GetKeysInGroupCommand buildGetKeysInGroupCommand(long flagsBitSet, String groupName) {
       return new GetKeysInGroupCommand(flagsBitSet, groupName).setGroupManager(groupManager);
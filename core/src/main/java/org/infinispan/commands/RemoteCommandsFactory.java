@@ -60,6 +60,7 @@
 import org.infinispan.topology.CacheTopologyControlCommand;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
+import org.infinispan.xsite.XSiteBatchRpcCommand;
 import org.infinispan.xsite.statetransfer.XSiteStatePushCommand;
 import org.infinispan.xsite.statetransfer.XSiteStateTransferControlCommand;
 
@@ -286,6 +287,9 @@ public CacheRpcCommand fromStream(byte id, byte type, String cacheName) {
             case SingleXSiteRpcCommand.COMMAND_ID:
                command = new SingleXSiteRpcCommand(cacheName);
                break;
+            case XSiteBatchRpcCommand.COMMAND_ID:
+               command = new XSiteBatchRpcCommand(cacheName);
+               break;
             case ClusteredGetAllCommand.COMMAND_ID:
                command = new ClusteredGetAllCommand(cacheName);
                break;
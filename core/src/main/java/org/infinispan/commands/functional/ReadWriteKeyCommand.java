@@ -34,6 +34,14 @@ public ReadWriteKeyCommand() {
       // No-op, for marshalling
    }
 
+   public Function<ReadWriteEntryView<K, V>, R> getFunction() {
+      return f;
+   }
+
+   public void setFunction(Function<ReadWriteEntryView<K, V>, R> f) {
+      this.f = f;
+   }
+
    @Override
    public byte getCommandId() {
       return COMMAND_ID;
@@ -56,6 +56,14 @@ public void setKeys(Set<? extends K> keys) {
       this.keys = keys;
    }
 
+   public Function<ReadWriteEntryView<K, V>, R> getFunction() {
+      return f;
+   }
+
+   public void setFunction(Function<ReadWriteEntryView<K, V>, R> f) {
+      this.f = f;
+   }
+
    @Override
    public byte getCommandId() {
       return COMMAND_ID;
@@ -55,6 +55,14 @@ public void setEntries(Map<? extends K, ? extends V> entries) {
       this.entries = entries;
    }
 
+   public BiFunction<V, ReadWriteEntryView<K, V>, R> getFunction() {
+      return f;
+   }
+
+   public void setFunction(BiFunction<V, ReadWriteEntryView<K, V>, R> f) {
+      this.f = f;
+   }
+
    @Override
    public byte getCommandId() {
       return COMMAND_ID;
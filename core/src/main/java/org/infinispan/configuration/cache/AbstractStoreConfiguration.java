@@ -14,6 +14,8 @@ public class AbstractStoreConfiguration implements StoreConfiguration {
    public static final AttributeDefinition<Boolean> IGNORE_MODIFICATIONS = AttributeDefinition.builder("ignoreModifications", false).immutable().build();
    public static final AttributeDefinition<Boolean> PRELOAD = AttributeDefinition.builder("preload", false).immutable().build();
    public static final AttributeDefinition<Boolean> SHARED = AttributeDefinition.builder("shared", false).immutable().build();
+   public static final AttributeDefinition<Integer> BLOOM_FILTER_EXPECTED_ENTRIES = AttributeDefinition.builder("bloomFilterExpectedEntries", 0).immutable().build();
+   public static final AttributeDefinition<Double> BLOOM_FILTER_FALSE_POSITIVE_RATE = AttributeDefinition.builder("bloomFilterFalsePositiveRate", 0.01).immutable().build();
    public static final AttributeDefinition<TypedProperties> PROPERTIES = AttributeDefinition.builder("properties", null, TypedProperties.class).initializer(new AttributeInitializer<TypedProperties>() {
       @Override
       public TypedProperties initialize() {
@@ -22,7 +24,8 @@ public TypedProperties initialize() {
    }).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(AbstractStoreConfiguration.class, FETCH_PERSISTENT_STATE, PURGE_ON_STARTUP, IGNORE_MODIFICATIONS, PRELOAD, SHARED, PROPERTIES);
+      return new AttributeSet(AbstractStoreConfiguration.class, FETCH_PERSISTENT_STATE, PURGE_ON_STARTUP, IGNORE_MODIFICATIONS, PRELOAD, SHARED,
+            BLOOM_FILTER_EXPECTED_ENTRIES, BLOOM_FILTER_FALSE_POSITIVE_RATE, PROPERTIES);
    }
 
    private final Attribute<Boolean> fetchPersistentState;
@@ -30,6 +33,8 @@ public static AttributeSet attributeDefinitionSet() {
    private final Attribute<Boolean> ignoreModifications;
    private final Attribute<Boolean> preload;
    private final Attribute<Boolean> shared;
+   private final Attribute<Integer> bloomFilterExpectedEntries;
+   private final Attribute<Double> bloomFilterFalsePositiveRate;
    private final Attribute<TypedProperties> properties;
 
    protected final AttributeSet attributes;
@@ -57,6 +62,8 @@ public AbstractStoreConfiguration(boolean purgeOnStartup, boolean fetchPersisten
       this.ignoreModifications = attributes.attribute(IGNORE_MODIFICATIONS);
       this.preload = attributes.attribute(PRELOAD);
       this.shared = attributes.attribute(SHARED);
+      this.bloomFilterExpectedEntries = attributes.attribute(BLOOM_FILTER_EXPECTED_ENTRIES);
+      this.bloomFilterFalsePositiveRate = attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE);
       this.properties = attributes.attribute(PROPERTIES);
    }
 
@@ -70,6 +77,8 @@ public AbstractStoreConfiguration(AttributeSet attributes, AsyncStoreConfigurati
       this.ignoreModifications = attributes.attribute(IGNORE_MODIFICATIONS);
       this.preload = attributes.attribute(PRELOAD);
       this.shared = attributes.attribute(SHARED);
+      this.bloomFilterExpectedEntries = attributes.attribute(BLOOM_FILTER_EXPECTED_ENTRIES);
+      this.bloomFilterFalsePositiveRate = attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE);
       this.properties = attributes.attribute(PROPERTIES);
    }
 
@@ -133,6 +142,22 @@ public boolean preload() {
       return preload.get();
    }
 
+   /**
+    * Number of keys the bloom filter in front of this store is sized for. If greater than 0, the keys written to the
+    * store are added to a bloom filter, and keys which are definitely not in the store are not loaded from it.
+    */
+   public int bloomFilterExpectedEntries() {
+      return bloomFilterExpectedEntries.get();
+   }
+
+   /**
+    * The probability that the bloom filter reports a key as present in the store when the store holds its expected
+    * number of entries and no key was removed.
+    */
+   public double bloomFilterFalsePositiveRate() {
+      return bloomFilterFalsePositiveRate.get();
+   }
+
    @Override
    public Properties properties() {
       return properties.get();
@@ -163,10 +163,38 @@ public S shared(boolean b) {
       return self();
    }
 
+   /**
+    * Puts a bloom filter sized for this number of keys in front of the store, so that keys which were never written
+    * to it are not loaded. The filter is only accurate if the store is not modified by other nodes or processes,
+    * so it can't be used with shared stores. Defaults to 0, meaning no bloom filter.
+    */
+   public S bloomFilter(int expectedEntries) {
+      attributes.attribute(BLOOM_FILTER_EXPECTED_ENTRIES).set(expectedEntries);
+      return self();
+   }
+
+   /**
+    * The false positive rate of the bloom filter configured with {@link #bloomFilter(int)}, 0.01 by default.
+    */
+   public S bloomFilterFalsePositiveRate(double falsePositiveRate) {
+      attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE).set(falsePositiveRate);
+      return self();
+   }
+
    @Override
    public void validate() {
       async.validate();
       singletonStore.validate();
+      int bloomFilterExpectedEntries = attributes.attribute(BLOOM_FILTER_EXPECTED_ENTRIES).get();
+      double bloomFilterFalsePositiveRate = attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE).get();
+      if (bloomFilterExpectedEntries < 0)
+         throw log.invalidBloomFilterExpectedEntries(bloomFilterExpectedEntries);
+      if (bloomFilterExpectedEntries > 0) {
+         if (bloomFilterFalsePositiveRate <= 0 || bloomFilterFalsePositiveRate >= 1)
+            throw log.invalidBloomFilterFalsePositiveRate(bloomFilterFalsePositiveRate);
+         if (attributes.attribute(SHARED).get() || attributes.attribute(IGNORE_MODIFICATIONS).get())
+            throw log.bloomFilterRequiresPrivateWritableStore();
+      }
       boolean shared = attributes.attribute(SHARED).get();
       boolean fetchPersistentState = attributes.attribute(FETCH_PERSISTENT_STATE).get();
       boolean purgeOnStartup = attributes.attribute(PURGE_ON_STARTUP).get();
@@ -16,9 +16,13 @@ public class BackupConfiguration {
    public static final AttributeDefinition<String> FAILURE_POLICY_CLASS = AttributeDefinition.builder("failurePolicyClass", null, String.class).immutable().build();
    public static final AttributeDefinition<Boolean> USE_TWO_PHASE_COMMIT = AttributeDefinition.builder("useTwoPhaseCommit", false).immutable().build();
    public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder("enabled", true).immutable().build();
+   public static final AttributeDefinition<Integer> ASYNC_BATCH_SIZE = AttributeDefinition.builder("asyncBatchSize", 0).immutable().build();
+   public static final AttributeDefinition<Long> ASYNC_BATCH_DELAY = AttributeDefinition.builder("asyncBatchDelay", 100l).immutable().build();
+   public static final AttributeDefinition<Boolean> ASYNC_BATCH_COMPRESSION = AttributeDefinition.builder("asyncBatchCompression", true).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(BackupConfiguration.class, SITE, STRATEGY, REPLICATION_TIMEOUT, FAILURE_POLICY,  FAILURE_POLICY_CLASS, USE_TWO_PHASE_COMMIT, ENABLED);
+      return new AttributeSet(BackupConfiguration.class, SITE, STRATEGY, REPLICATION_TIMEOUT, FAILURE_POLICY,  FAILURE_POLICY_CLASS, USE_TWO_PHASE_COMMIT, ENABLED,
+            ASYNC_BATCH_SIZE, ASYNC_BATCH_DELAY, ASYNC_BATCH_COMPRESSION);
    }
 
    private final Attribute<String> site;
@@ -28,6 +32,9 @@ static AttributeSet attributeDefinitionSet() {
    private final Attribute<String> failurePolicyClass;
    private final Attribute<Boolean> useTwoPhaseCommit;
    private final Attribute<Boolean> enabled;
+   private final Attribute<Integer> asyncBatchSize;
+   private final Attribute<Long> asyncBatchDelay;
+   private final Attribute<Boolean> asyncBatchCompression;
    private final AttributeSet attributes;
    private final TakeOfflineConfiguration takeOfflineConfiguration;
    private final XSiteStateTransferConfiguration xSiteStateTransferConfiguration ;
@@ -43,6 +50,9 @@ public BackupConfiguration(AttributeSet attributes, TakeOfflineConfiguration tak
       this.failurePolicyClass = attributes.attribute(FAILURE_POLICY_CLASS);
       this.useTwoPhaseCommit = attributes.attribute(USE_TWO_PHASE_COMMIT);
       this.enabled = attributes.attribute(ENABLED);
+      this.asyncBatchSize = attributes.attribute(ASYNC_BATCH_SIZE);
+      this.asyncBatchDelay = attributes.attribute(ASYNC_BATCH_DELAY);
+      this.asyncBatchCompression = attributes.attribute(ASYNC_BATCH_COMPRESSION);
    }
 
    /**
@@ -103,6 +113,34 @@ public boolean enabled() {
       return enabled.get();
    }
 
+   /**
+    * @see BackupConfigurationBuilder#asyncBatchSize(int)
+    */
+   public int asyncBatchSize() {
+      return asyncBatchSize.get();
+   }
+
+   /**
+    * @return whether the writes backed up asynchronously are queued and sent in batches
+    */
+   public boolean isAsyncBatchingEnabled() {
+      return isAsyncBackup() && asyncBatchSize() > 0;
+   }
+
+   /**
+    * @see BackupConfigurationBuilder#asyncBatchDelay(long)
+    */
+   public long asyncBatchDelay() {
+      return asyncBatchDelay.get();
+   }
+
+   /**
+    * @see BackupConfigurationBuilder#asyncBatchCompression(boolean)
+    */
+   public boolean asyncBatchCompression() {
+      return asyncBatchCompression.get();
+   }
+
    public XSiteStateTransferConfiguration stateTransfer() {
       return xSiteStateTransferConfiguration;
    }
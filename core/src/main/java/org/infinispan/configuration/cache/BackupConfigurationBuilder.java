@@ -114,6 +114,35 @@ public BackupConfigurationBuilder enabled(boolean isEnabled) {
       return this;
    }
 
+   /**
+    * Sets the maximum number of writes sent to the site in a single batch when using the
+    * {@link org.infinispan.configuration.cache.BackupConfiguration.BackupStrategy#ASYNC} strategy. Writes are queued
+    * until the batch is full or {@link #asyncBatchDelay(long)} expires, and only the last write of a key is sent.
+    * The default value is 0, which sends every write to the site as soon as it happens.
+    */
+   public BackupConfigurationBuilder asyncBatchSize(int asyncBatchSize) {
+      attributes.attribute(ASYNC_BATCH_SIZE).set(asyncBatchSize);
+      return this;
+   }
+
+   /**
+    * Sets the maximum time (millis) a write waits in the asynchronous backup queue before being sent to the site.
+    * The default value is 100.
+    */
+   public BackupConfigurationBuilder asyncBatchDelay(long asyncBatchDelay) {
+      attributes.attribute(ASYNC_BATCH_DELAY).set(asyncBatchDelay);
+      return this;
+   }
+
+   /**
+    * Configures whether the batches of writes backed up asynchronously are compressed before being sent to the site.
+    * The default value is "true"
+    */
+   public BackupConfigurationBuilder asyncBatchCompression(boolean asyncBatchCompression) {
+      attributes.attribute(ASYNC_BATCH_COMPRESSION).set(asyncBatchCompression);
+      return this;
+   }
+
    public XSiteStateTransferConfigurationBuilder stateTransfer() {
       return this.stateTransferBuilder;
    }
@@ -130,6 +159,12 @@ public void validate() {
       if (attributes.attribute(USE_TWO_PHASE_COMMIT).get() && attributes.attribute(STRATEGY).get() == BackupConfiguration.BackupStrategy.ASYNC) {
          throw log.twoPhaseCommitAsyncBackup();
       }
+      if (attributes.attribute(ASYNC_BATCH_SIZE).get() < 0) {
+         throw log.invalidAsyncBackupBatchSize(attributes.attribute(ASYNC_BATCH_SIZE).get());
+      }
+      if (attributes.attribute(ASYNC_BATCH_DELAY).get() < 0) {
+         throw log.invalidAsyncBackupBatchDelay(attributes.attribute(ASYNC_BATCH_DELAY).get());
+      }
    }
 
    @Override
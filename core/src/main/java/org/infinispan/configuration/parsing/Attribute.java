@@ -18,6 +18,9 @@ public enum Attribute {
     AFTER("after"),
     ALIASES("aliases"),
     ALLOW_DUPLICATE_DOMAINS("duplicate-domains"),
+    ASYNC_BATCH_COMPRESSION("batch-compression"),
+    ASYNC_BATCH_DELAY("batch-delay"),
+    ASYNC_BATCH_SIZE("batch-size"),
     ASYNC_EXECUTOR("async-executor"),
     @Deprecated
     ASYNC_MARSHALLING("async-marshalling"),
@@ -27,6 +30,8 @@ public enum Attribute {
     AWAIT_INITIAL_TRANSFER("await-initial-transfer"),
     BACKUP_FAILURE_POLICY("failure-policy"),
     BEFORE("before"),
+    BLOOM_FILTER_EXPECTED_ENTRIES("bloom-filter-expected-entries"),
+    BLOOM_FILTER_FALSE_POSITIVE_RATE("bloom-filter-false-positive-rate"),
     CAPACITY_FACTOR("capacity"),
     CHUNK_SIZE("chunk-size"),
     CLASS("class"),
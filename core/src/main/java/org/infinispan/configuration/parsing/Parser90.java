@@ -1273,6 +1273,18 @@ private void parseBackup(XMLExtendedStreamReader reader, ConfigurationBuilder bu
                backup.failurePolicyClass(value);
                break;
             }
+            case ASYNC_BATCH_SIZE: {
+               backup.asyncBatchSize(Integer.parseInt(value));
+               break;
+            }
+            case ASYNC_BATCH_DELAY: {
+               backup.asyncBatchDelay(Long.parseLong(value));
+               break;
+            }
+            case ASYNC_BATCH_COMPRESSION: {
+               backup.asyncBatchCompression(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -2140,6 +2152,14 @@ public static void parseStoreAttribute(XMLExtendedStreamReader reader, int index
             storeBuilder.singleton().enabled(Boolean.parseBoolean(value));
             break;
          }
+         case BLOOM_FILTER_EXPECTED_ENTRIES: {
+            storeBuilder.bloomFilter(Integer.parseInt(value));
+            break;
+         }
+         case BLOOM_FILTER_FALSE_POSITIVE_RATE: {
+            storeBuilder.bloomFilterFalsePositiveRate(Double.parseDouble(value));
+            break;
+         }
          default: {
             throw ParseUtils.unexpectedAttribute(reader, index);
          }
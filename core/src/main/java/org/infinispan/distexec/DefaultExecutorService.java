@@ -23,6 +23,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.distexec.spi.DistributedTaskLifecycleService;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.interceptors.SequentialInterceptor;
@@ -92,6 +93,11 @@ public boolean include(TopologyAwareAddress thisAddress, TopologyAwareAddress ot
    public static final DistributedTaskFailoverPolicy NO_FAILOVER = new NoTaskFailoverPolicy();
    public static final DistributedTaskFailoverPolicy RANDOM_NODE_FAILOVER = new RandomNodeTaskFailoverPolicy();
 
+   /**
+    * Number of units of work of a work stealing task that each node executes at the same time
+    */
+   private static final int WORK_STEALING_UNITS_IN_FLIGHT = 2;
+
    private static final Log log = LogFactory.getLog(DefaultExecutorService.class);
    private static final boolean trace = log.isTraceEnabled();
    protected final AtomicBoolean isShutdown = new AtomicBoolean(false);
@@ -491,7 +497,9 @@ public <T, K> List<CompletableFuture<T>> submitEverywhere(Callable<T> task, K...
    @Override
    public <T, K> List<CompletableFuture<T>> submitEverywhere(DistributedTask<T> task, K... input) {
       if (task == null) throw new NullPointerException();
-      if(inputKeysSpecified(input)) {
+      if (inputKeysSpecified(input) && task.isWorkStealing() && cache.getDistributionManager() != null) {
+         return new WorkStealingScheduler<T>(task, input).start();
+      } else if(inputKeysSpecified(input)) {
          List<CompletableFuture<T>> futures = new ArrayList<>(input.length * 2);
          Address me = getAddress();
          Map<Address, List<K>> nodesKeysMap = keysToExecutionNodes(task.getTaskExecutionPolicy(), input);
@@ -719,6 +727,7 @@ interface NodeFilter {
       private long timeout;
       private DistributedTaskExecutionPolicy executionPolicy = DistributedTaskExecutionPolicy.ALL;
       private DistributedTaskFailoverPolicy failoverPolicy = NO_FAILOVER;
+      private boolean workStealing;
 
 
       public DefaultDistributedTaskBuilder(long taskTimeout) {
@@ -758,12 +767,19 @@ public DistributedTaskBuilder<T> failoverPolicy(DistributedTaskFailoverPolicy po
          return this;
       }
 
+      @Override
+      public DistributedTaskBuilder<T> workStealing(boolean workStealing) {
+         this.workStealing = workStealing;
+         return this;
+      }
+
       @Override
       public DistributedTask<T> build() {
          DefaultDistributedTaskBuilder<T> task = new DefaultDistributedTaskBuilder<T>(timeout);
          task.callable(callable);
          task.executionPolicy(executionPolicy);
          task.failoverPolicy(failoverPolicy);
+         task.workStealing(workStealing);
          return task;
       }
 
@@ -782,12 +798,210 @@ public DistributedTaskFailoverPolicy getTaskFailoverPolicy() {
          return failoverPolicy;
       }
 
+      @Override
+      public boolean isWorkStealing() {
+         return workStealing;
+      }
+
       @Override
       public Callable<T> getCallable() {
          return callable;
       }
    }
 
+   /**
+    * Schedules the input keys of a work stealing task as one unit of work per segment. Units are queued at the first
+    * owner of their segment allowed by the execution policy, and every node executes at most
+    * {@link #WORK_STEALING_UNITS_IN_FLIGHT} units at a time. A node whose queue is empty takes a unit from the back of
+    * the longest queue holding a unit it owns a copy of, so a skewed key set does not leave the other owners idle.
+    * <p>
+    * A failed unit is retried on the node selected by the task's {@link DistributedTaskFailoverPolicy}, offering the
+    * other owners of the segment as candidates first.
+    */
+   private class WorkStealingScheduler<T> {
+      private final DistributedTask<T> task;
+      private final List<WorkUnit> units = new ArrayList<>();
+      private final Map<Address, Deque<WorkUnit>> queues = new HashMap<>();
+      private final Map<Address, Integer> inFlight = new HashMap<>();
+
+      <K> WorkStealingScheduler(DistributedTask<T> task, K[] input) {
+         this.task = task;
+         ConsistentHash ch = cache.getDistributionManager().getReadConsistentHash();
+         Map<Integer, List<Object>> keysBySegment = new LinkedHashMap<>();
+         for (K key : input) {
+            keysBySegment.computeIfAbsent(ch.getSegment(key), segment -> new ArrayList<>()).add(key);
+         }
+         for (Entry<Integer, List<Object>> e : keysBySegment.entrySet()) {
+            List<Address> owners = ch.locateOwnersForSegment(e.getKey());
+            List<Address> filtered = filterMembers(task.getTaskExecutionPolicy(), owners);
+            WorkUnit unit = new WorkUnit(e.getValue(), filtered.isEmpty() ? owners.subList(0, 1) : filtered);
+            units.add(unit);
+            queues.computeIfAbsent(unit.owners.get(0), owner -> new ArrayDeque<>()).add(unit);
+         }
+      }
+
+      List<CompletableFuture<T>> start() {
+         List<Address> nodes;
+         synchronized (this) {
+            nodes = new ArrayList<>(queues.keySet());
+         }
+         for (Address node : nodes) {
+            schedule(node);
+         }
+         return new ArrayList<>(units);
+      }
+
+      private void schedule(Address node) {
+         List<WorkUnit> toExecute = new ArrayList<>(WORK_STEALING_UNITS_IN_FLIGHT);
+         synchronized (this) {
+            int running = inFlight.getOrDefault(node, 0);
+            WorkUnit unit;
+            while (running < WORK_STEALING_UNITS_IN_FLIGHT && (unit = next(node)) != null) {
+               toExecute.add(unit);
+               running++;
+            }
+            inFlight.put(node, running);
+         }
+         for (WorkUnit unit : toExecute) {
+            unit.execute(node);
+         }
+      }
+
+      private WorkUnit next(Address node) {
+         Deque<WorkUnit> own = queues.get(node);
+         if (own != null) {
+            WorkUnit unit;
+            while ((unit = own.pollFirst()) != null) {
+               if (!unit.isDone())
+                  return unit;
+            }
+         }
+         List<Deque<WorkUnit>> others = new ArrayList<>(queues.size());
+         for (Entry<Address, Deque<WorkUnit>> e : queues.entrySet()) {
+            if (!e.getKey().equals(node) && !e.getValue().isEmpty()) {
+               others.add(e.getValue());
+            }
+         }
+         others.sort((q1, q2) -> Integer.compare(q2.size(), q1.size()));
+         for (Deque<WorkUnit> queue : others) {
+            for (Iterator<WorkUnit> it = queue.descendingIterator(); it.hasNext(); ) {
+               WorkUnit unit = it.next();
+               if (!unit.isDone() && unit.owners.contains(node)) {
+                  it.remove();
+                  if (trace) log.tracef("%s steals unit with keys %s", node, unit.keys);
+                  return unit;
+               }
+            }
+         }
+         return null;
+      }
+
+      private void finished(Address node) {
+         synchronized (this) {
+            inFlight.merge(node, -1, Integer::sum);
+         }
+         schedule(node);
+      }
+
+      private void executeFailover(Address node, WorkUnit unit) {
+         synchronized (this) {
+            inFlight.merge(node, 1, Integer::sum);
+         }
+         unit.execute(node);
+      }
+
+      private class WorkUnit extends CompletableFuture<T> {
+         final List<Object> keys;
+         final List<Address> owners;
+         int failoverCount;
+         volatile DistributedTaskPart<T> part;
+
+         WorkUnit(List<Object> keys, List<Address> owners) {
+            this.keys = keys;
+            this.owners = owners;
+         }
+
+         void execute(Address node) {
+            if (isDone()) {
+               finished(node);
+               return;
+            }
+            Address me = getAddress();
+            DistributedExecuteCommand<T> c = factory.buildDistributedExecuteCommand(
+                  node.equals(me) ? clone(task.getCallable()) : task.getCallable(), me, keys);
+            DistributedTaskPart<T> p = createDistributedTaskPart(task, c, keys, node, failoverCount);
+            part = p;
+            p.whenComplete((result, t) -> {
+               if (t == null) {
+                  complete(result);
+                  finished(node);
+               } else {
+                  failed(node, t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+               }
+            });
+            p.execute();
+         }
+
+         private void failed(Address node, Throwable cause) {
+            Address target = null;
+            Throwable failure = cause;
+            DistributedTaskFailoverPolicy policy = task.getTaskFailoverPolicy();
+            if (!isDone() && !(cause instanceof org.infinispan.util.concurrent.TimeoutException)
+                  && failoverCount++ < policy.maxFailoverAttempts()) {
+               List<Address> candidates = new ArrayList<>(owners);
+               candidates.retainAll(executionCandidates(task));
+               if (candidates.size() < 2) {
+                  candidates = executionCandidates(task);
+               }
+               List<Address> failoverCandidates = candidates;
+               FailoverContext fc = new FailoverContext() {
+                  @Override
+                  public <K> List<K> inputKeys() {
+                     return (List<K>) keys;
+                  }
+
+                  @Override
+                  public Address executionFailureLocation() {
+                     return node;
+                  }
+
+                  @Override
+                  public List<Address> executionCandidates() {
+                     return failoverCandidates;
+                  }
+
+                  @Override
+                  public Throwable cause() {
+                     return cause;
+                  }
+               };
+               try {
+                  target = policy.failover(fc);
+                  log.distributedTaskFailover(node, target, cause);
+               } catch (Exception e) {
+                  failure = e;
+               }
+            }
+            finished(node);
+            if (target != null) {
+               executeFailover(target, this);
+            } else {
+               completeExceptionally(failure);
+            }
+         }
+
+         @Override
+         public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            DistributedTaskPart<T> p = part;
+            if (cancelled && p != null) {
+               p.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+         }
+      }
+   }
+
    /**
     * DistributedTaskPart represents a unit of work sent to remote VM and executed there
     *
@@ -33,6 +33,16 @@
     */
    DistributedTaskFailoverPolicy getTaskFailoverPolicy();
 
+   /**
+    * Returns whether idle nodes may execute parts of this task queued at other owners of the input keys
+    *
+    * @return true if work stealing is enabled, false by default
+    * @see DistributedTaskBuilder#workStealing(boolean)
+    */
+   default boolean isWorkStealing() {
+      return false;
+   }
+
    /**
     * Returns {@link Callable} for this task
     * 
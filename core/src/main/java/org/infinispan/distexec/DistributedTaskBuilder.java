@@ -50,6 +50,23 @@
     */
    DistributedTaskBuilder<T> failoverPolicy(DistributedTaskFailoverPolicy policy);
 
+   /**
+    * Enables work stealing for the task. When the task is submitted everywhere with input keys, the keys are split
+    * into one unit of work per segment, queued at the primary owner of the segment, and a node that runs out of work
+    * takes units queued at other nodes for which it holds a backup copy. Without input keys, or in caches that are not
+    * distributed or replicated, the task is executed as usual.
+    *
+    * @param workStealing
+    *           whether idle nodes may execute units of work queued at other owners
+    * @return this DistributedTaskBuilder
+    * @throws UnsupportedOperationException if work stealing is enabled and this builder does not support it
+    */
+   default DistributedTaskBuilder<T> workStealing(boolean workStealing) {
+      if (workStealing)
+         throw new UnsupportedOperationException("Work stealing is not supported by " + getClass().getName());
+      return this;
+   }
+
    /**
     * Completes creation of DistributedTask with the currently provided attributes of this
     * DistributedTaskBuilder
@@ -10,6 +10,7 @@
 import org.infinispan.marshall.core.ExternalizerTable;
 import org.infinispan.remoting.inboundhandler.GlobalInboundInvocationHandler;
 import org.infinispan.remoting.inboundhandler.InboundInvocationHandler;
+import org.infinispan.stats.impl.TimingStatistics;
 import org.infinispan.topology.PersistentUUIDManager;
 import org.infinispan.topology.PersistentUUIDManagerImpl;
 import org.infinispan.util.DefaultTimeService;
@@ -29,7 +30,7 @@
 
 @DefaultFactoryFor(classes = {BackupReceiverRepository.class, CancellationService.class, EventLogManager.class,
                               ExternalizerTable.class, InboundInvocationHandler.class, PersistentUUIDManager.class,
-                              RemoteCommandsFactory.class, TimeService.class})
+                              RemoteCommandsFactory.class, TimeService.class, TimingStatistics.class})
 @Scope(Scopes.GLOBAL)
 public class EmptyConstructorFactory extends AbstractComponentFactory implements AutoInstantiableFactory {
 
@@ -52,6 +53,8 @@ else if (componentType.equals(EventLogManager.class))
          return (T) new EventLogManagerImpl();
       else if (componentType.equals(PersistentUUIDManager.class))
          return (T) new PersistentUUIDManagerImpl();
+      else if (componentType.equals(TimingStatistics.class))
+         return (T) new TimingStatistics();
 
       throw new CacheConfigurationException("Don't know how to create a " + componentType.getName());
    }
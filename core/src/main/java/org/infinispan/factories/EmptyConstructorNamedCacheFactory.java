@@ -38,6 +38,7 @@
 import org.infinispan.statetransfer.CommitManager;
 import org.infinispan.statetransfer.StateTransferLock;
 import org.infinispan.statetransfer.StateTransferLockImpl;
+import org.infinispan.stats.impl.HotKeyTracker;
 import org.infinispan.transaction.impl.TransactionCoordinator;
 import org.infinispan.transaction.totalorder.TotalOrderManager;
 import org.infinispan.transaction.xa.TransactionFactory;
@@ -69,7 +70,7 @@
                               TotalOrderManager.class, ByteBufferFactory.class, MarshalledEntryFactory.class,
                               RemoteValueRetrievedListener.class, InvocationContextFactory.class, CommitManager.class,
                               XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class,
-                              FunctionalNotifier.class})
+                              FunctionalNotifier.class, HotKeyTracker.class})
 public class EmptyConstructorNamedCacheFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
 
    @Override
@@ -145,6 +146,8 @@ public <T> T construct(Class<T> componentType) {
             return (T) new XSiteStateProviderImpl();
          } else if (componentType.equals(FunctionalNotifier.class)) {
             return (T) new FunctionalNotifierImpl<>();
+         } else if (componentType.equals(HotKeyTracker.class)) {
+            return (T) new HotKeyTracker();
          }
       }
 
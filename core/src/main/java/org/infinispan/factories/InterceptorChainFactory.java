@@ -57,6 +57,7 @@
 import org.infinispan.partitionhandling.impl.PartitionHandlingInterceptor;
 import org.infinispan.statetransfer.StateTransferInterceptor;
 import org.infinispan.statetransfer.TransactionSynchronizerInterceptor;
+import org.infinispan.stats.impl.TimingStatistics;
 import org.infinispan.transaction.LockingMode;
 import org.infinispan.transaction.TransactionMode;
 import org.infinispan.util.logging.Log;
@@ -108,7 +109,9 @@ public SequentialInterceptorChain buildInterceptorChain() {
               Configurations.isVersioningEnabled(configuration);
 
       SequentialInterceptorChain interceptorChain =
-            new SequentialInterceptorChainImpl(componentRegistry.getComponentMetadataRepo());
+            new SequentialInterceptorChainImpl(componentRegistry.getComponentMetadataRepo(),
+                  componentRegistry.getGlobalComponentRegistry().getComponent(TimingStatistics.class),
+                  componentRegistry.getCacheName());
       // add the interceptor chain to the registry first, since some interceptors may ask for it.
       // Add both the old class and the new interface
       componentRegistry.registerComponent(interceptorChain, SequentialInterceptorChain.class);
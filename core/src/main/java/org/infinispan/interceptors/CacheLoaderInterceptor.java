@@ -20,6 +20,7 @@
 import org.infinispan.commands.functional.ReadOnlyKeyCommand;
 import org.infinispan.commands.functional.ReadWriteKeyCommand;
 import org.infinispan.commands.functional.ReadWriteKeyValueCommand;
+import org.infinispan.commands.functional.ReadWriteManyCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
 import org.infinispan.commands.read.EntrySetCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
@@ -64,6 +65,7 @@
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.StoreBloomFilter;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.util.PersistenceManagerCloseableSupplier;
 import org.infinispan.stream.impl.interceptor.AbstractDelegatingEntryCacheSet;
@@ -336,6 +338,16 @@ public Object visitReadWriteKeyValueCommand(InvocationContext ctx, ReadWriteKeyV
       return visitDataCommand(ctx, command);
    }
 
+   @Override
+   public Object visitReadWriteManyCommand(InvocationContext ctx, ReadWriteManyCommand command) throws Throwable {
+      if (enabled) {
+         for (Object key : command.getKeys()) {
+            loadIfNeeded(ctx, key, command);
+         }
+      }
+      return invokeNextInterceptor(ctx, command);
+   }
+
    protected final boolean isConditional(WriteCommand cmd) {
       return cmd.isConditional();
    }
@@ -485,6 +497,42 @@ public long getCacheLoaderMisses() {
    public void resetStatistics() {
       cacheLoads.set(0);
       cacheMisses.set(0);
+      for (StoreBloomFilter bloomFilter : persistenceManager.getBloomFilters())
+         bloomFilter.resetStatistics();
+   }
+
+   @ManagedAttribute(
+         description = "Number of store loads skipped because a bloom filter reported the key as absent",
+         displayName = "Number of store loads skipped by bloom filters",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getBloomFilterSkippedLoads() {
+      long skipped = 0;
+      for (StoreBloomFilter bloomFilter : persistenceManager.getBloomFilters())
+         skipped += bloomFilter.getSkippedLoads();
+      return skipped;
+   }
+
+   @ManagedAttribute(
+         description = "Number of store loads of keys which a bloom filter reported as present, but which were not in the store",
+         displayName = "Number of bloom filter false positives",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getBloomFilterFalsePositives() {
+      long falsePositives = 0;
+      for (StoreBloomFilter bloomFilter : persistenceManager.getBloomFilters())
+         falsePositives += bloomFilter.getFalsePositives();
+      return falsePositives;
+   }
+
+   @ManagedAttribute(
+         description = "Fraction of the keys missing from the stores which bloom filters reported as present",
+         displayName = "Bloom filter false positive rate"
+   )
+   public double getBloomFilterFalsePositiveRate() {
+      long falsePositives = getBloomFilterFalsePositives();
+      long negatives = falsePositives + getBloomFilterSkippedLoads();
+      return negatives == 0 ? 0 : (double) falsePositives / negatives;
    }
 
    @ManagedAttribute(
@@ -29,6 +29,8 @@
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.jmx.annotations.Units;
+import org.infinispan.stats.impl.HotKeyTracker;
+import org.infinispan.stats.impl.LatencyHistogram;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -54,9 +56,13 @@ public class CacheMgmtInterceptor extends JmxStatsCommandInterceptor {
    private final AtomicLong resetNanoseconds = new AtomicLong(0);
    private final LongAdder removeHits = new LongAdder();
    private final LongAdder removeMisses = new LongAdder();
+   private final LatencyHistogram readLatencies = new LatencyHistogram();
+   private final LatencyHistogram writeLatencies = new LatencyHistogram();
+   private final LatencyHistogram removeLatencies = new LatencyHistogram();
 
    private DataContainer dataContainer;
    private TimeService timeService;
+   private HotKeyTracker hotKeyTracker;
 
    private static final Log log = LogFactory.getLog(CacheMgmtInterceptor.class);
 
@@ -67,9 +73,10 @@ protected Log getLog() {
 
    @Inject
    @SuppressWarnings("unused")
-   public void setDependencies(DataContainer dataContainer, TimeService timeService) {
+   public void setDependencies(DataContainer dataContainer, TimeService timeService, HotKeyTracker hotKeyTracker) {
       this.dataContainer = dataContainer;
       this.timeService = timeService;
+      this.hotKeyTracker = hotKeyTracker;
    }
 
    @Start
@@ -95,6 +102,7 @@ public final Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEnt
       return visitDataReadCommand(ctx, command);
    }
    private Object visitDataReadCommand(InvocationContext ctx, AbstractDataCommand command) throws Throwable {
+      hotKeyTracker.recordAccess(command.getKey());
       long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
       if (statisticsEnabled)
@@ -103,7 +111,9 @@ private Object visitDataReadCommand(InvocationContext ctx, AbstractDataCommand c
       Object retval = invokeNextInterceptor(ctx, command);
 
       if (statisticsEnabled && ctx.isOriginLocal()) {
-         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+         long intervalNanoseconds = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+         long intervalMilliseconds = TimeUnit.NANOSECONDS.toMillis(intervalNanoseconds);
+         readLatencies.record(TimeUnit.NANOSECONDS.toMicros(intervalNanoseconds));
          if (retval == null) {
             missTimes.add(intervalMilliseconds);
             misses.increment();
@@ -119,6 +129,11 @@ private Object visitDataReadCommand(InvocationContext ctx, AbstractDataCommand c
    @SuppressWarnings("unchecked")
    @Override
    public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (hotKeyTracker.getStatisticsEnabled()) {
+         for (Object key : command.getKeys()) {
+            hotKeyTracker.recordAccess(key);
+         }
+      }
       long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
       if (statisticsEnabled)
@@ -127,8 +142,11 @@ public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) t
       Object retval = invokeNextInterceptor(ctx, command);
 
       if (statisticsEnabled && ctx.isOriginLocal()) {
-         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+         long intervalNanoseconds = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+         long intervalMilliseconds = TimeUnit.NANOSECONDS.toMillis(intervalNanoseconds);
          int requests = command.getKeys().size();
+         // Each key is counted as a read that took the time of the whole operation
+         readLatencies.record(TimeUnit.NANOSECONDS.toMicros(intervalNanoseconds), requests);
          int hitCount = 0;
          for (Entry<Object, Object> entry : ((Map<Object, Object>) retval).entrySet()) {
             if (entry.getValue() != null) {
@@ -152,6 +170,11 @@ public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) t
 
    @Override
    public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
+      if (hotKeyTracker.getStatisticsEnabled()) {
+         for (Object key : command.getAffectedKeys()) {
+            hotKeyTracker.recordAccess(key);
+         }
+      }
       long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
       if (statisticsEnabled)
@@ -160,10 +183,11 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       final Object retval = invokeNextInterceptor(ctx, command);
 
       if (statisticsEnabled && ctx.isOriginLocal()) {
-         final long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+         final long intervalNanoseconds = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
          final Map<Object, Object> data = command.getMap();
          if (data != null && !data.isEmpty()) {
-            storeTimes.add(intervalMilliseconds);
+            storeTimes.add(TimeUnit.NANOSECONDS.toMillis(intervalNanoseconds));
+            writeLatencies.record(TimeUnit.NANOSECONDS.toMicros(intervalNanoseconds), data.size());
             stores.add(data.size());
          }
       }
@@ -174,11 +198,13 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
    @Override
    //Map.put(key,value) :: oldValue
    public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+      hotKeyTracker.recordAccess(command.getKey());
       return updateStoreStatistics(ctx, command);
    }
 
    @Override
    public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
+      hotKeyTracker.recordAccess(command.getKey());
       return updateStoreStatistics(ctx, command);
    }
 
@@ -191,8 +217,9 @@ private Object updateStoreStatistics(InvocationContext ctx, WriteCommand command
       Object retval = invokeNextInterceptor(ctx, command);
 
       if (statisticsEnabled && ctx.isOriginLocal() && command.isSuccessful()) {
-         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
-         storeTimes.add(intervalMilliseconds);
+         long intervalNanoseconds = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+         storeTimes.add(TimeUnit.NANOSECONDS.toMillis(intervalNanoseconds));
+         writeLatencies.record(TimeUnit.NANOSECONDS.toMicros(intervalNanoseconds));
          stores.increment();
       }
 
@@ -201,6 +228,7 @@ private Object updateStoreStatistics(InvocationContext ctx, WriteCommand command
 
    @Override
    public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
+      hotKeyTracker.recordAccess(command.getKey());
       long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
       if (statisticsEnabled)
@@ -226,8 +254,9 @@ public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) t
    }
 
    private void increaseRemoveHits(long start) {
-      long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
-      removeTimes.add(intervalMilliseconds);
+      long intervalNanoseconds = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+      removeTimes.add(TimeUnit.NANOSECONDS.toMillis(intervalNanoseconds));
+      removeLatencies.record(TimeUnit.NANOSECONDS.toMicros(intervalNanoseconds));
       removeHits.increment();
    }
 
@@ -367,6 +396,159 @@ public long getAverageRemoveTime() {
       return (removeTimes.sum()) / removes;
    }
 
+   @ManagedAttribute(
+         description = "The 50th percentile of the number of microseconds for a read operation on the cache since the statistics were last reset",
+         displayName = "Read time (median)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getReadTimePercentile50() {
+      return readLatencies.snapshot().getPercentile(50);
+   }
+
+   @ManagedAttribute(
+         description = "The 99th percentile of the number of microseconds for a read operation on the cache since the statistics were last reset",
+         displayName = "Read time (99th percentile)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getReadTimePercentile99() {
+      return readLatencies.snapshot().getPercentile(99);
+   }
+
+   @ManagedAttribute(
+         description = "The 99.9th percentile of the number of microseconds for a read operation on the cache since the statistics were last reset",
+         displayName = "Read time (99.9th percentile)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getReadTimePercentile999() {
+      return readLatencies.snapshot().getPercentile(99.9);
+   }
+
+   @ManagedAttribute(
+         description = "The maximum of the number of microseconds for a read operation on the cache since the statistics were last reset",
+         displayName = "Read time (maximum)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getReadTimeMax() {
+      return readLatencies.snapshot().getMax();
+   }
+
+   @ManagedAttribute(
+         description = "The 50th percentile of the number of microseconds for a write operation on the cache since the statistics were last reset",
+         displayName = "Write time (median)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getWriteTimePercentile50() {
+      return writeLatencies.snapshot().getPercentile(50);
+   }
+
+   @ManagedAttribute(
+         description = "The 99th percentile of the number of microseconds for a write operation on the cache since the statistics were last reset",
+         displayName = "Write time (99th percentile)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getWriteTimePercentile99() {
+      return writeLatencies.snapshot().getPercentile(99);
+   }
+
+   @ManagedAttribute(
+         description = "The 99.9th percentile of the number of microseconds for a write operation on the cache since the statistics were last reset",
+         displayName = "Write time (99.9th percentile)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getWriteTimePercentile999() {
+      return writeLatencies.snapshot().getPercentile(99.9);
+   }
+
+   @ManagedAttribute(
+         description = "The maximum of the number of microseconds for a write operation on the cache since the statistics were last reset",
+         displayName = "Write time (maximum)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getWriteTimeMax() {
+      return writeLatencies.snapshot().getMax();
+   }
+
+   @ManagedAttribute(
+         description = "The 50th percentile of the number of microseconds for a remove operation on the cache since the statistics were last reset",
+         displayName = "Remove time (median)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getRemoveTimePercentile50() {
+      return removeLatencies.snapshot().getPercentile(50);
+   }
+
+   @ManagedAttribute(
+         description = "The 99th percentile of the number of microseconds for a remove operation on the cache since the statistics were last reset",
+         displayName = "Remove time (99th percentile)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getRemoveTimePercentile99() {
+      return removeLatencies.snapshot().getPercentile(99);
+   }
+
+   @ManagedAttribute(
+         description = "The 99.9th percentile of the number of microseconds for a remove operation on the cache since the statistics were last reset",
+         displayName = "Remove time (99.9th percentile)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getRemoveTimePercentile999() {
+      return removeLatencies.snapshot().getPercentile(99.9);
+   }
+
+   @ManagedAttribute(
+         description = "The maximum of the number of microseconds for a remove operation on the cache since the statistics were last reset",
+         displayName = "Remove time (maximum)",
+         units = Units.MICROSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getRemoveTimeMax() {
+      return removeLatencies.snapshot().getMax();
+   }
+
+   /**
+    * @return the latencies of cache gets in microseconds, since the statistics were last reset
+    */
+   public LatencyHistogram.Snapshot getReadLatencies() {
+      return readLatencies.snapshot();
+   }
+
+   /**
+    * @return the latencies of cache puts in microseconds, since the statistics were last reset
+    */
+   public LatencyHistogram.Snapshot getWriteLatencies() {
+      return writeLatencies.snapshot();
+   }
+
+   /**
+    * @return the latencies of successful cache removals in microseconds, since the statistics were last reset
+    */
+   public LatencyHistogram.Snapshot getRemoveLatencies() {
+      return removeLatencies.snapshot();
+   }
+
    @ManagedAttribute(
          description = "Number of entries currently in memory including expired entries",
          displayName = "Number of current cache entries",
@@ -433,6 +615,9 @@ public void resetStatistics() {
       removeHits.reset();
       removeTimes.reset();
       removeMisses.reset();
+      readLatencies.reset();
+      writeLatencies.reset();
+      removeLatencies.reset();
       resetNanoseconds.set(timeService.time());
    }
 
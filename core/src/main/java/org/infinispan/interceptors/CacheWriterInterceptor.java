@@ -6,7 +6,10 @@
 import org.infinispan.commands.functional.ParamsCommand;
 import org.infinispan.commands.functional.ReadWriteKeyCommand;
 import org.infinispan.commands.functional.ReadWriteKeyValueCommand;
+import org.infinispan.commands.functional.ReadWriteManyCommand;
+import org.infinispan.commands.functional.ReadWriteManyEntriesCommand;
 import org.infinispan.commands.functional.WriteOnlyKeyCommand;
+import org.infinispan.commands.functional.WriteOnlyManyCommand;
 import org.infinispan.commands.functional.WriteOnlyManyEntriesCommand;
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
@@ -33,7 +36,9 @@
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.persistence.async.AsyncCacheWriter;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
@@ -46,6 +51,8 @@
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
@@ -201,11 +208,13 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
 
       Map<Object, Object> map = command.getMap();
+      List<Object> keys = new ArrayList<>(map.size());
       for (Object key : map.keySet()) {
          if (isProperWriter(ctx, command, key)) {
-            storeEntry(ctx, key, command);
+            keys.add(key);
          }
       }
+      storeEntries(ctx, keys, command);
       if (getStatisticsEnabled()) cacheStores.getAndAdd(map.size());
       return returnValue;
    }
@@ -258,22 +267,23 @@ public Object visitWriteOnlyManyEntriesCommand(InvocationContext ctx, WriteOnlyM
       Param<PersistenceMode> persistMode = command.getParams().get(PersistenceMode.ID);
       switch (persistMode.get()) {
          case PERSIST:
-            Map<Object, Object> map = command.getEntries();
-            int storedCount = 0;
-            for (Object key : map.keySet()) {
-               CacheEntry entry = ctx.lookupEntry(key);
-               if (entry != null) {
-                  if (entry.isRemoved()) {
-                     boolean resp = persistenceManager.deleteFromAllStores(key, BOTH);
-                     if (trace) getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
-                  } else if (entry.isChanged() && isProperWriter(ctx, command, key)) {
-                     storeEntry(ctx, key, command);
-                     storedCount++;
-                  }
-               }
-            }
+            writeChangedEntries(ctx, command.getEntries().keySet(), command);
+            break;
+         case SKIP:
+            log.trace("Skipping cache store since persistence mode parameter is SKIP");
+      }
+      return returnValue;
+   }
 
-            if (getStatisticsEnabled()) cacheStores.getAndAdd(storedCount);
+   @Override
+   public Object visitWriteOnlyManyCommand(InvocationContext ctx, WriteOnlyManyCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
+
+      Param<PersistenceMode> persistMode = command.getParams().get(PersistenceMode.ID);
+      switch (persistMode.get()) {
+         case PERSIST:
+            writeChangedEntries(ctx, command.getKeys(), command);
             break;
          case SKIP:
             log.trace("Skipping cache store since persistence mode parameter is SKIP");
@@ -281,6 +291,46 @@ public Object visitWriteOnlyManyEntriesCommand(InvocationContext ctx, WriteOnlyM
       return returnValue;
    }
 
+   @Override
+   public Object visitReadWriteManyCommand(InvocationContext ctx, ReadWriteManyCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
+
+      writeChangedEntries(ctx, command.getKeys(), command);
+      return returnValue;
+   }
+
+   @Override
+   public Object visitReadWriteManyEntriesCommand(InvocationContext ctx, ReadWriteManyEntriesCommand command) throws Throwable {
+      Object returnValue = invokeNextInterceptor(ctx, command);
+      if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
+
+      writeChangedEntries(ctx, command.getEntries().keySet(), command);
+      return returnValue;
+   }
+
+   /**
+    * Writes the entries changed by a multi-key functional command to the stores, and deletes the ones it removed, with
+    * a single batch per store.
+    */
+   private void writeChangedEntries(InvocationContext ctx, Collection<?> keys, FlagAffectedCommand command) {
+      List<Object> changed = new ArrayList<>();
+      List<Object> removed = new ArrayList<>();
+      for (Object key : keys) {
+         CacheEntry entry = ctx.lookupEntry(key);
+         if (entry != null && isProperWriter(ctx, command, key)) {
+            if (entry.isRemoved()) {
+               removed.add(key);
+            } else if (entry.isChanged()) {
+               changed.add(key);
+            }
+         }
+      }
+      deleteEntries(ctx, removed, command);
+      storeEntries(ctx, changed, command);
+      if (getStatisticsEnabled()) cacheStores.getAndAdd(changed.size());
+   }
+
    protected final void store(TxInvocationContext ctx) throws Throwable {
       List<WriteCommand> modifications = ctx.getCacheTransaction().getAllModifications();
       if (modifications.isEmpty()) {
@@ -411,6 +461,41 @@ public long getWritesToTheStores() {
       return cacheStores.get();
    }
 
+   @ManagedAttribute(
+         description = "Number of modifications waiting to be written by asynchronous stores",
+         displayName = "Asynchronous store queue size"
+   )
+   public int getAsyncStoreQueueSize() {
+      int size = 0;
+      for (AsyncCacheWriter writer : persistenceManager.getAsyncWriters())
+         size += writer.getPendingModifications();
+      return size;
+   }
+
+   @ManagedAttribute(
+         description = "Number of writes blocked because an asynchronous store queue was full",
+         displayName = "Number of writes blocked by asynchronous stores",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getAsyncStoreBlockedWrites() {
+      long blocked = 0;
+      for (AsyncCacheWriter writer : persistenceManager.getAsyncWriters())
+         blocked += writer.getBlockedWrites();
+      return blocked;
+   }
+
+   @ManagedAttribute(
+         description = "Time writes spent blocked because an asynchronous store queue was full (in milliseconds)",
+         displayName = "Time blocked by asynchronous stores",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getAsyncStoreBlockedTime() {
+      long time = 0;
+      for (AsyncCacheWriter writer : persistenceManager.getAsyncWriters())
+         time += writer.getBlockedTime();
+      return time;
+   }
+
    void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       InternalCacheValue sv = getStoredValue(key, ctx);
       persistenceManager.writeToAllStores(new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller),
@@ -418,6 +503,45 @@ void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command)
       if (trace) getLog().tracef("Stored entry %s under key %s", sv, key);
    }
 
+   /**
+    * Stores the entries of all the keys with a single {@link PersistenceManager#writeBatchToAllStores} call for each
+    * access mode, instead of one write per key.
+    */
+   void storeEntries(InvocationContext ctx, Collection<Object> keys, FlagAffectedCommand command) {
+      List<MarshalledEntry> allStores = new ArrayList<>(keys.size());
+      List<MarshalledEntry> privateStores = new ArrayList<>();
+      for (Object key : keys) {
+         InternalCacheValue sv = getStoredValue(key, ctx);
+         MarshalledEntry me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
+         if (skipSharedStores(ctx, key, command)) {
+            privateStores.add(me);
+         } else {
+            allStores.add(me);
+         }
+      }
+      if (!allStores.isEmpty()) persistenceManager.writeBatchToAllStores(allStores, BOTH);
+      if (!privateStores.isEmpty()) persistenceManager.writeBatchToAllStores(privateStores, PRIVATE);
+      if (trace) getLog().tracef("Stored the entries of keys %s", keys);
+   }
+
+   /**
+    * Deletes all the keys with a single {@link PersistenceManager#deleteBatchFromAllStores} call for each access mode.
+    */
+   void deleteEntries(InvocationContext ctx, Collection<Object> keys, FlagAffectedCommand command) {
+      List<Object> allStores = new ArrayList<>(keys.size());
+      List<Object> privateStores = new ArrayList<>();
+      for (Object key : keys) {
+         if (skipSharedStores(ctx, key, command)) {
+            privateStores.add(key);
+         } else {
+            allStores.add(key);
+         }
+      }
+      if (!allStores.isEmpty()) persistenceManager.deleteBatchFromAllStores(allStores, BOTH);
+      if (!privateStores.isEmpty()) persistenceManager.deleteBatchFromAllStores(privateStores, PRIVATE);
+      if (trace) getLog().tracef("Removed the entries of keys %s from the stores", keys);
+   }
+
    protected boolean skipSharedStores(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return !ctx.isOriginLocal() || command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE);
    }
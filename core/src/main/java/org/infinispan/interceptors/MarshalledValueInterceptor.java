@@ -3,18 +3,27 @@
 import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 import static org.infinispan.marshall.core.MarshalledValue.isTypeExcluded;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.infinispan.Cache;
 import org.infinispan.CacheSet;
 import org.infinispan.commands.control.LockControlCommand;
+import org.infinispan.commands.functional.ReadWriteKeyCommand;
+import org.infinispan.commands.functional.ReadWriteManyCommand;
+import org.infinispan.commands.functional.ReadWriteManyEntriesCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
 import org.infinispan.commands.read.EntrySetCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
@@ -25,6 +34,8 @@
 import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
+import org.infinispan.commons.api.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.commons.api.functional.MetaParam;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.CloseableIteratorMapper;
@@ -227,6 +238,55 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return processRetVal(retVal, ctx);
    }
 
+   @Override
+   public Object visitReadWriteKeyCommand(InvocationContext ctx, ReadWriteKeyCommand command) throws Throwable {
+      if (wrapKeys && !isTypeExcluded(command.getKey().getClass())) {
+         command.setKey(createMarshalledValue(command.getKey(), ctx));
+      }
+      command.setFunction(wrapFunction(command.getFunction()));
+      Object retVal = invokeNextInterceptor(ctx, command);
+      return processRetVal(retVal, ctx);
+   }
+
+   @Override
+   public Object visitReadWriteManyCommand(InvocationContext ctx, ReadWriteManyCommand command) throws Throwable {
+      if (wrapKeys) {
+         Set<Object> marshalledKeys = new LinkedHashSet<>();
+         for (Object key : command.getKeys()) {
+            marshalledKeys.add(isTypeExcluded(key.getClass()) ? key : createMarshalledValue(key, ctx));
+         }
+         command.setKeys(marshalledKeys);
+      }
+      command.setFunction(wrapFunction(command.getFunction()));
+      return invokeNextInterceptor(ctx, command);
+   }
+
+   @Override
+   public Object visitReadWriteManyEntriesCommand(InvocationContext ctx, ReadWriteManyEntriesCommand command) throws Throwable {
+      if (wrapKeys) {
+         // The values are only passed to the function, which wraps them when setting them in the entry
+         Map<Object, Object> marshalledEntries = new LinkedHashMap<>();
+         for (Map.Entry<?, ?> entry : ((Map<?, ?>) command.getEntries()).entrySet()) {
+            Object key = entry.getKey();
+            marshalledEntries.put(isTypeExcluded(key.getClass()) ? key : createMarshalledValue(key, ctx), entry.getValue());
+         }
+         command.setEntries(marshalledEntries);
+      }
+      BiFunction f = command.getFunction();
+      if (!(f instanceof UnwrappingBiFunction)) {
+         command.setFunction(new UnwrappingBiFunction<>(f, marshaller, wrapValues));
+      }
+      return invokeNextInterceptor(ctx, command);
+   }
+
+   private Function wrapFunction(Function f) {
+      if (f instanceof UnwrappingFunction) {
+         // Already wrapped, e.g. the command is retried after a topology change
+         return f;
+      }
+      return new UnwrappingFunction<>(f, marshaller, wrapValues);
+   }
+
    protected <R> R processRetVal(R retVal, InvocationContext ctx) {
       if (retVal instanceof MarshalledValue) {
          if (ctx == null || ctx.isOriginLocal()) {
@@ -317,4 +377,102 @@ protected Map<Object, Object> wrapMap(Map<Object, Object> m, Set<MarshalledValue
    protected MarshalledValue createMarshalledValue(Object toWrap, InvocationContext ctx) {
       return new MarshalledValue(toWrap, marshaller);
    }
+
+   /**
+    * Applies a functional command's function to a view that hides the {@link MarshalledValue} wrappers, so that the
+    * function sees the same keys and values it would see without storeAsBinary. Only the wrapped function is
+    * marshalled when the command is sent to another node, which wraps it again in its own interceptor.
+    */
+   private static final class UnwrappingFunction<K, V, R> implements Function<ReadWriteEntryView<K, V>, R>, Serializable {
+      private final Function<ReadWriteEntryView<K, V>, R> f;
+      private final transient StreamingMarshaller marshaller;
+      private final transient boolean wrapValues;
+
+      UnwrappingFunction(Function<ReadWriteEntryView<K, V>, R> f, StreamingMarshaller marshaller, boolean wrapValues) {
+         this.f = f;
+         this.marshaller = marshaller;
+         this.wrapValues = wrapValues;
+      }
+
+      @Override
+      public R apply(ReadWriteEntryView<K, V> view) {
+         return f.apply(new UnwrappingEntryView<>(view, marshaller, wrapValues));
+      }
+
+      private Object writeReplace() {
+         return f;
+      }
+   }
+
+   private static final class UnwrappingBiFunction<T, K, V, R>
+         implements BiFunction<T, ReadWriteEntryView<K, V>, R>, Serializable {
+      private final BiFunction<T, ReadWriteEntryView<K, V>, R> f;
+      private final transient StreamingMarshaller marshaller;
+      private final transient boolean wrapValues;
+
+      UnwrappingBiFunction(BiFunction<T, ReadWriteEntryView<K, V>, R> f, StreamingMarshaller marshaller,
+                           boolean wrapValues) {
+         this.f = f;
+         this.marshaller = marshaller;
+         this.wrapValues = wrapValues;
+      }
+
+      @Override
+      public R apply(T value, ReadWriteEntryView<K, V> view) {
+         return f.apply(value, new UnwrappingEntryView<>(view, marshaller, wrapValues));
+      }
+
+      private Object writeReplace() {
+         return f;
+      }
+   }
+
+   private static final class UnwrappingEntryView<K, V> implements ReadWriteEntryView<K, V> {
+      private final ReadWriteEntryView<K, V> view;
+      private final StreamingMarshaller marshaller;
+      private final boolean wrapValues;
+
+      UnwrappingEntryView(ReadWriteEntryView<K, V> view, StreamingMarshaller marshaller, boolean wrapValues) {
+         this.view = view;
+         this.marshaller = marshaller;
+         this.wrapValues = wrapValues;
+      }
+
+      @Override
+      public K key() {
+         return unwrap(view.key());
+      }
+
+      @Override
+      public V get() throws NoSuchElementException {
+         return unwrap(view.get());
+      }
+
+      @Override
+      public Optional<V> find() {
+         return view.find().map(UnwrappingEntryView::unwrap);
+      }
+
+      @Override
+      public Void set(V value, MetaParam.Writable... metas) {
+         if (wrapValues && value != null && !isTypeExcluded(value.getClass())) {
+            return view.set((V) new MarshalledValue(value, marshaller), metas);
+         }
+         return view.set(value, metas);
+      }
+
+      @Override
+      public Void remove() {
+         return view.remove();
+      }
+
+      @Override
+      public <T> Optional<T> findMetaParam(Class<T> type) {
+         return view.findMetaParam(type);
+      }
+
+      private static <T> T unwrap(T o) {
+         return o instanceof MarshalledValue ? (T) ((MarshalledValue) o).get() : o;
+      }
+   }
 }
@@ -6,6 +6,7 @@
 import org.infinispan.context.SequentialInvocationContext;
 import org.infinispan.interceptors.SequentialInterceptor;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.stats.impl.TimingStatistics;
 import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -41,6 +42,8 @@
    private CompletableFuture<Object> future;
    private int action;
    private Object actionValue;
+   // Time spent in the interceptors invoked synchronously by the interceptor being timed
+   private long nestedNanos;
 
    @Override
    public CompletableFuture<Void> onReturn(SequentialInterceptor.ReturnHandler returnHandler) {
@@ -144,6 +147,7 @@ private void invokeNext(VisitableCommand command, Object returnValue, Throwable
          action = INVOKE_NEXT;
          if (interceptorNode != null) {
             SequentialInterceptor interceptor = interceptorNode.interceptor;
+            TimingStatistics.Timer timer = interceptorNode.timer;
             interceptorNode = interceptorNode.nextNode;
             nextInterceptor = interceptorNode;
             if (EXTRA_LOGS && trace) {
@@ -151,7 +155,7 @@ private void invokeNext(VisitableCommand command, Object returnValue, Throwable
                      className(command));
             }
             try {
-               CompletableFuture<Void> nextFuture = interceptor.visitCommand(this, command);
+               CompletableFuture<Void> nextFuture = visitCommand(interceptor, timer, command);
                if (nextFuture == null) {
                   throw new IllegalStateException(interceptor.getClass() + ".visitCommand() must not return null");
                }
@@ -231,6 +235,29 @@ private void invokeNext(VisitableCommand command, Object returnValue, Throwable
       }
    }
 
+   private CompletableFuture<Void> visitCommand(SequentialInterceptor interceptor, TimingStatistics.Timer timer,
+         VisitableCommand command) throws Throwable {
+      if (timer == null || !timer.isEnabled())
+         return interceptor.visitCommand(this, command);
+
+      // Only the synchronous part is timed, the rest of the invocation continues when the future completes
+      long savedNestedNanos = nestedNanos;
+      nestedNanos = 0;
+      long start = System.nanoTime();
+      try {
+         return interceptor.visitCommand(this, command);
+      } finally {
+         endTiming(timer, command, start, savedNestedNanos);
+      }
+   }
+
+   private void endTiming(TimingStatistics.Timer timer, VisitableCommand command, long start, long savedNestedNanos) {
+      long duration = System.nanoTime() - start;
+      // Exclude the time spent in the next interceptors, which is recorded by their own timers
+      timer.record(command.getClass(), duration - nestedNanos);
+      nestedNanos = savedNestedNanos + duration;
+   }
+
    private CompletableFuture<Object> handleForkReturn(ForkInfo forkInfo, Object returnValue,
          Throwable throwable) throws Throwable {
       if (EXTRA_LOGS && trace) {
@@ -255,6 +282,22 @@ Object invokeSync(VisitableCommand command, InterceptorListNode firstInterceptor
 
    private Object doInvokeNextSync(VisitableCommand command, InterceptorListNode interceptorNode)
          throws Throwable {
+      TimingStatistics.Timer timer = interceptorNode.timer;
+      if (timer == null || !timer.isEnabled())
+         return doInvokeInterceptorSync(command, interceptorNode);
+
+      long savedNestedNanos = nestedNanos;
+      nestedNanos = 0;
+      long start = System.nanoTime();
+      try {
+         return doInvokeInterceptorSync(command, interceptorNode);
+      } finally {
+         endTiming(timer, command, start, savedNestedNanos);
+      }
+   }
+
+   private Object doInvokeInterceptorSync(VisitableCommand command, InterceptorListNode interceptorNode)
+         throws Throwable {
       SequentialInterceptor interceptor = interceptorNode.interceptor;
       nextInterceptor = interceptorNode.nextNode;
 
@@ -1,6 +1,7 @@
 package org.infinispan.interceptors.impl;
 
 import org.infinispan.interceptors.SequentialInterceptor;
+import org.infinispan.stats.impl.TimingStatistics;
 
 /**
  * Node in a single-linked list of interceptors.
@@ -11,9 +12,17 @@
 public class InterceptorListNode {
    public final SequentialInterceptor interceptor;
    public final InterceptorListNode nextNode;
+   // Null if the chain is not timed
+   public final TimingStatistics.Timer timer;
 
    public InterceptorListNode(SequentialInterceptor interceptor, InterceptorListNode next) {
+      this(interceptor, next, null);
+   }
+
+   public InterceptorListNode(SequentialInterceptor interceptor, InterceptorListNode next,
+                              TimingStatistics.Timer timer) {
       this.interceptor = interceptor;
       this.nextNode = next;
+      this.timer = timer;
    }
 }
@@ -15,6 +15,7 @@
 import org.infinispan.interceptors.SequentialInterceptor;
 import org.infinispan.interceptors.SequentialInterceptorChain;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.stats.impl.TimingStatistics;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -51,6 +52,8 @@ public class SequentialInterceptorChainImpl implements SequentialInterceptorChai
    private static final Log log = LogFactory.getLog(SequentialInterceptorChainImpl.class);
 
    final ComponentMetadataRepo componentMetadataRepo;
+   final TimingStatistics timingStatistics;
+   final String cacheName;
 
    final ReentrantLock lock = new ReentrantLock();
 
@@ -59,7 +62,18 @@ public class SequentialInterceptorChainImpl implements SequentialInterceptorChai
    private volatile InterceptorListNode firstInterceptor = null;
 
    public SequentialInterceptorChainImpl(ComponentMetadataRepo componentMetadataRepo) {
+      this(componentMetadataRepo, null, null);
+   }
+
+   /**
+    * Creates a chain that records the time spent in each interceptor with {@code timingStatistics}, in timers named
+    * {@code <cache name>/<interceptor class>}.
+    */
+   public SequentialInterceptorChainImpl(ComponentMetadataRepo componentMetadataRepo,
+                                         TimingStatistics timingStatistics, String cacheName) {
       this.componentMetadataRepo = componentMetadataRepo;
+      this.timingStatistics = timingStatistics;
+      this.cacheName = cacheName;
    }
 
    @Start
@@ -322,7 +336,10 @@ private void rebuildInterceptors() {
       this.firstInterceptor = null;
       ListIterator<SequentialInterceptor> it = interceptors.listIterator(interceptors.size());
       while (it.hasPrevious()) {
-         firstInterceptor = new InterceptorListNode(it.previous(), firstInterceptor);
+         SequentialInterceptor interceptor = it.previous();
+         TimingStatistics.Timer timer = timingStatistics != null ?
+               timingStatistics.getTimer(cacheName + "/" + interceptor.getClass().getSimpleName()) : null;
+         firstInterceptor = new InterceptorListNode(interceptor, firstInterceptor, timer);
       }
    }
 
@@ -1,5 +1,8 @@
 package org.infinispan.marshall.core;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
@@ -7,6 +10,7 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.commons.marshall.AbstractDelegatingMarshaller;
+import org.infinispan.stats.impl.TimingStatistics;
 
 /**
  * A globally-scoped marshaller. This is needed so that the transport layer
@@ -19,15 +23,21 @@
 @Scope(Scopes.GLOBAL)
 public class GlobalMarshaller extends AbstractDelegatingMarshaller {
 
+   // Null until injected
+   private TimingStatistics.Timer marshallTimer;
+   private TimingStatistics.Timer unmarshallTimer;
+
    public GlobalMarshaller(VersionAwareMarshaller marshaller) {
       this.marshaller = marshaller;
    }
 
    @Inject
    public void inject(ExternalizerTable extTable,
-            GlobalConfiguration globalCfg) {
+            GlobalConfiguration globalCfg, TimingStatistics timingStatistics) {
       ((VersionAwareMarshaller) this.marshaller)
             .inject(null, null, null, extTable, globalCfg);
+      this.marshallTimer = timingStatistics.getTimer("GlobalMarshaller/marshall");
+      this.unmarshallTimer = timingStatistics.getTimer("GlobalMarshaller/unmarshall");
    }
 
    @Override
@@ -42,4 +52,71 @@ public void stop() {
       super.stop();
    }
 
+   @Override
+   public byte[] objectToByteBuffer(Object obj, int estimatedSize) throws IOException, InterruptedException {
+      if (!isTimed(marshallTimer))
+         return marshaller.objectToByteBuffer(obj, estimatedSize);
+
+      long start = System.nanoTime();
+      try {
+         return marshaller.objectToByteBuffer(obj, estimatedSize);
+      } finally {
+         marshallTimer.record(typeOf(obj), System.nanoTime() - start);
+      }
+   }
+
+   @Override
+   public byte[] objectToByteBuffer(Object obj) throws IOException, InterruptedException {
+      if (!isTimed(marshallTimer))
+         return marshaller.objectToByteBuffer(obj);
+
+      long start = System.nanoTime();
+      try {
+         return marshaller.objectToByteBuffer(obj);
+      } finally {
+         marshallTimer.record(typeOf(obj), System.nanoTime() - start);
+      }
+   }
+
+   @Override
+   public ByteBuffer objectToBuffer(Object o) throws IOException, InterruptedException {
+      if (!isTimed(marshallTimer))
+         return marshaller.objectToBuffer(o);
+
+      long start = System.nanoTime();
+      try {
+         return marshaller.objectToBuffer(o);
+      } finally {
+         marshallTimer.record(typeOf(o), System.nanoTime() - start);
+      }
+   }
+
+   @Override
+   public Object objectFromByteBuffer(byte[] buf) throws IOException, ClassNotFoundException {
+      return objectFromByteBuffer(buf, 0, buf.length);
+   }
+
+   @Override
+   public Object objectFromByteBuffer(byte[] buf, int offset, int length) throws IOException, ClassNotFoundException {
+      if (!isTimed(unmarshallTimer))
+         return marshaller.objectFromByteBuffer(buf, offset, length);
+
+      long start = System.nanoTime();
+      Object o = null;
+      try {
+         o = marshaller.objectFromByteBuffer(buf, offset, length);
+         return o;
+      } finally {
+         unmarshallTimer.record(typeOf(o), System.nanoTime() - start);
+      }
+   }
+
+   private static boolean isTimed(TimingStatistics.Timer timer) {
+      return timer != null && timer.isEnabled();
+   }
+
+   private static Class<?> typeOf(Object o) {
+      return o == null ? Void.class : o.getClass();
+   }
+
 }
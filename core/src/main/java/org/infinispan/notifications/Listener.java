@@ -241,6 +241,31 @@
     **/
    boolean includeCurrentState() default false;
 
+   /**
+    * Only used by {@link #clustered()} listeners that are not {@link #sync()}. When positive, the events raised on the
+    * other nodes are not sent one write at a time but buffered per node and sent together once this many events are
+    * buffered, or {@link #batchDelay()} milliseconds after the first buffered event. The default, 0, disables
+    * batching.
+    * @return the maximum number of events buffered per node before they are sent
+    * @since 9.0
+    */
+   int batchSize() default 0;
+
+   /**
+    * Only used when {@link #batchSize()} is positive.
+    * @return the maximum time in milliseconds an event is buffered before it is sent, even if the batch is not full
+    * @since 9.0
+    */
+   long batchDelay() default 100;
+
+   /**
+    * Only used when {@link #batchSize()} is positive. If set to true, a buffered event replaces any other buffered
+    * event for the same key, so the listener only receives the last change of every key in a batch.
+    * @return true if the listener accepts that intermediate events for a key are dropped
+    * @since 9.0
+    */
+   boolean coalesceEvents() default false;
+
    Observation observation() default Observation.BOTH;
 
 
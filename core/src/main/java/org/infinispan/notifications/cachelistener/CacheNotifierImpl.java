@@ -32,6 +32,7 @@
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.*;
 import org.infinispan.notifications.cachelistener.cluster.ClusterCacheNotifier;
+import org.infinispan.notifications.cachelistener.cluster.ClusterEventBatching;
 import org.infinispan.notifications.cachelistener.cluster.ClusterEventManager;
 import org.infinispan.notifications.cachelistener.cluster.ClusterListenerRemoveCallable;
 import org.infinispan.notifications.cachelistener.cluster.ClusterListenerReplicateCallable;
@@ -684,15 +685,18 @@ private void registerClusterListenerCallablesToInstall(Set<Object> enlistedAlrea
          if (!enlistedAlready.contains(listener.getTarget())) {
             // If clustered means it is local - so use our address
             if (listener.isClustered()) {
+               ClusterEventBatching batching = ClusterEventBatching.fromListener(
+                     listener.getTarget().getClass().getAnnotation(Listener.class));
                callables.add(new ClusterListenerReplicateCallable(listener.getIdentifier(),
                                                                   cache.getCacheManager().getAddress(), listener.getFilter(),
-                                                                  listener.getConverter(), listener.isSync()));
+                                                                  listener.getConverter(), listener.isSync(), batching));
                enlistedAlready.add(listener.getTarget());
             }
             else if (listener.getTarget() instanceof RemoteClusterListener) {
                RemoteClusterListener lcl = (RemoteClusterListener)listener.getTarget();
                callables.add(new ClusterListenerReplicateCallable(lcl.getId(), lcl.getOwnerAddress(), listener.getFilter(),
-                                                                  listener.getConverter(), listener.isSync()));
+                                                                  listener.getConverter(), listener.isSync(),
+                                                                  lcl.getBatching()));
                enlistedAlready.add(listener.getTarget());
             }
          }
@@ -788,7 +792,8 @@ public <C> void addListener(Object listener, CacheEventFilter<? super K, ? super
                   log.tracef("Replicating cluster listener to other nodes %s for cluster listener with id %s",
                              members, generatedId);
                }
-               Callable callable = new ClusterListenerReplicateCallable(generatedId, ourAddress, filter, converter, l.sync());
+               Callable callable = new ClusterListenerReplicateCallable(generatedId, ourAddress, filter, converter, l.sync(),
+                                                                  ClusterEventBatching.fromListener(l));
                for (Address member : members) {
                   if (!member.equals(ourAddress)) {
                      decs.submit(member, callable);
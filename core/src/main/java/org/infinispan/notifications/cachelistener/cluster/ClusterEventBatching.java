@@ -0,0 +1,88 @@
+package org.infinispan.notifications.cachelistener.cluster;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import org.infinispan.notifications.Listener;
+
+/**
+ * How the events of an asynchronous cluster listener are buffered on the nodes where they are raised before being
+ * sent to the node where the listener is registered.
+ *
+ * @since 9.0
+ * @see Listener#batchSize()
+ */
+public final class ClusterEventBatching {
+   public static final ClusterEventBatching DISABLED = new ClusterEventBatching(0, 0, false);
+
+   private final int maxEvents;
+   private final long maxDelay;
+   private final boolean coalesce;
+
+   public ClusterEventBatching(int maxEvents, long maxDelay, boolean coalesce) {
+      this.maxEvents = maxEvents;
+      this.maxDelay = maxDelay;
+      this.coalesce = coalesce;
+   }
+
+   /**
+    * @return the batching requested by the listener annotation, which is always disabled for synchronous listeners
+    */
+   public static ClusterEventBatching fromListener(Listener l) {
+      if (l == null || l.sync() || l.batchSize() <= 0) {
+         return DISABLED;
+      }
+      return new ClusterEventBatching(l.batchSize(), Math.max(0, l.batchDelay()), l.coalesceEvents());
+   }
+
+   public boolean isEnabled() {
+      return maxEvents > 0;
+   }
+
+   /**
+    * @return the number of buffered events for a node that causes them to be sent
+    */
+   public int getMaxEvents() {
+      return maxEvents;
+   }
+
+   /**
+    * @return the time in milliseconds after which buffered events are sent, even if fewer than {@link #getMaxEvents()}
+    */
+   public long getMaxDelay() {
+      return maxDelay;
+   }
+
+   /**
+    * @return whether only the last buffered event of every key needs to be sent
+    */
+   public boolean isCoalesce() {
+      return coalesce;
+   }
+
+   static void writeTo(ObjectOutput output, ClusterEventBatching batching) throws IOException {
+      output.writeInt(batching.maxEvents);
+      if (batching.isEnabled()) {
+         output.writeLong(batching.maxDelay);
+         output.writeBoolean(batching.coalesce);
+      }
+   }
+
+   static ClusterEventBatching readFrom(ObjectInput input) throws IOException {
+      int maxEvents = input.readInt();
+      if (maxEvents <= 0) {
+         return DISABLED;
+      }
+      return new ClusterEventBatching(maxEvents, input.readLong(), input.readBoolean());
+   }
+
+   @Override
+   public String toString() {
+      return "ClusterEventBatching{" +
+            "maxEvents=" + maxEvents +
+            ", maxDelay=" + maxDelay +
+            ", coalesce=" + coalesce +
+            '}';
+   }
+}
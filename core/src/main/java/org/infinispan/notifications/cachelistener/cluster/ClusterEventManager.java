@@ -17,6 +17,23 @@
     * @param sync Whether these events need to be sent synchronously or not
     */
    public void addEvents(Address target, UUID identifier, Collection<ClusterEvent<K, V>> events, boolean sync);
+
+   /**
+    * Adds cluster events for an asynchronous listener that batches its events. As with
+    * {@link ClusterEventManager#addEvents(Address, UUID, Collection, boolean)} nothing is done until
+    * {@link ClusterEventManager#sendEvents()} is invoked, but then the events are buffered per target node rather than
+    * sent right away. The buffer of a listener is sent once it holds {@link ClusterEventBatching#getMaxEvents()} events
+    * or {@link ClusterEventBatching#getMaxDelay()} milliseconds after its first event was buffered, whichever comes
+    * first. Implementations that don't batch send the events as asynchronous events.
+    * @param target The target node this event was meant for
+    * @param identifier The cluster listener that is identified for these events
+    * @param events The events that were generated
+    * @param batching How the events of this listener are batched
+    */
+   default void addBatchedEvents(Address target, UUID identifier, Collection<ClusterEvent<K, V>> events,
+                                 ClusterEventBatching batching) {
+      addEvents(target, identifier, events, false);
+   }
    
    /**
     * Sends all previously added events on this thread
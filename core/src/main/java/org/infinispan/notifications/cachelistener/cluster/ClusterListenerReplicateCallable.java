@@ -47,14 +47,22 @@
    private final CacheEventConverter<K, V, ?> converter;
    private final Address origin;
    private final boolean sync;
+   private final ClusterEventBatching batching;
 
    public ClusterListenerReplicateCallable(UUID identifier, Address origin, CacheEventFilter<K, V> filter,
                                            CacheEventConverter<K, V, ?> converter, boolean sync) {
+      this(identifier, origin, filter, converter, sync, ClusterEventBatching.DISABLED);
+   }
+
+   public ClusterListenerReplicateCallable(UUID identifier, Address origin, CacheEventFilter<K, V> filter,
+                                           CacheEventConverter<K, V, ?> converter, boolean sync,
+                                           ClusterEventBatching batching) {
       this.identifier = identifier;
       this.origin = origin;
       this.filter = filter;
       this.converter = converter;
       this.sync = sync;
+      this.batching = batching;
    }
 
    @Override
@@ -95,7 +103,7 @@ public Void call() throws Exception {
                }
                if (!alreadyInstalled) {
                   RemoteClusterListener listener = new RemoteClusterListener(identifier, origin, distExecutor, cacheNotifier,
-                                                                             cacheManagerNotifier, eventManager, sync);
+                                                                             cacheManagerNotifier, eventManager, sync, batching);
                   cacheNotifier.addListener(listener, filter, converter);
                   cacheManagerNotifier.addListener(listener);
                   // It is possible the member is now gone after registered, if so we have to remove just to be sure
@@ -142,6 +150,7 @@ public void writeObject(ObjectOutput output, ClusterListenerReplicateCallable ob
             output.writeObject(object.converter);
          }
          output.writeBoolean(object.sync);
+         ClusterEventBatching.writeTo(output, object.batching);
       }
 
       @Override
@@ -157,7 +166,8 @@ public ClusterListenerReplicateCallable readObject(ObjectInput input) throws IOE
             converter = (CacheEventConverter)input.readObject();
          }
          boolean sync = input.readBoolean();
-         return new ClusterListenerReplicateCallable(id, address, filter, converter, sync);
+         ClusterEventBatching batching = ClusterEventBatching.readFrom(input);
+         return new ClusterListenerReplicateCallable(id, address, filter, converter, sync, batching);
       }
 
       @Override
@@ -1,6 +1,7 @@
 package org.infinispan.notifications.cachelistener.cluster;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
@@ -48,12 +49,20 @@ public class RemoteClusterListener {
    private final CacheManagerNotifier cacheManagerNotifier;
    private final ClusterEventManager eventManager;
    private final boolean sync;
+   private final ClusterEventBatching batching;
 
    private final ConcurrentMap<GlobalTransaction, Queue<CacheEntryEvent>> transactionChanges =
          CollectionFactory.makeConcurrentMap();
 
    public RemoteClusterListener(UUID id, Address origin, DistributedExecutorService distExecService, CacheNotifier cacheNotifier,
                                 CacheManagerNotifier cacheManagerNotifier, ClusterEventManager eventManager, boolean sync) {
+      this(id, origin, distExecService, cacheNotifier, cacheManagerNotifier, eventManager, sync,
+           ClusterEventBatching.DISABLED);
+   }
+
+   public RemoteClusterListener(UUID id, Address origin, DistributedExecutorService distExecService, CacheNotifier cacheNotifier,
+                                CacheManagerNotifier cacheManagerNotifier, ClusterEventManager eventManager, boolean sync,
+                                ClusterEventBatching batching) {
       this.id = id;
       this.origin = origin;
       this.distExecService = distExecService;
@@ -61,6 +70,7 @@ public RemoteClusterListener(UUID id, Address origin, DistributedExecutorService
       this.cacheManagerNotifier = cacheManagerNotifier;
       this.eventManager = eventManager;
       this.sync = sync;
+      this.batching = batching;
    }
 
    public UUID getId() {
@@ -71,6 +81,10 @@ public Address getOwnerAddress() {
       return origin;
    }
 
+   public ClusterEventBatching getBatching() {
+      return batching;
+   }
+
    @ViewChanged
    public void viewChange(ViewChangedEvent event) {
       if (!event.getNewMembers().contains(origin)) {
@@ -108,7 +122,7 @@ public void handleClusterEvents(CacheEntryEvent event) throws Exception {
          if (trace) {
             log.tracef("Passing Event to manager %s to send to %s", event, origin);
          }
-         eventManager.addEvents(origin, id, Collections.singleton(ClusterEvent.fromEvent(event)), sync);
+         addEvents(Collections.singleton(ClusterEvent.fromEvent(event)));
       }
    }
 
@@ -124,7 +138,15 @@ public void transactionCompleted(TransactionCompletedEvent event) throws Excepti
                log.tracef("Passing Event(s) to manager %s to send to %s", eventsToSend, origin);
             }
          }
-         eventManager.addEvents(origin, id, eventsToSend, sync);
+         addEvents(eventsToSend);
+      }
+   }
+
+   private void addEvents(Collection<ClusterEvent> events) {
+      if (batching.isEnabled()) {
+         eventManager.addBatchedEvents(origin, id, events, batching);
+      } else {
+         eventManager.addEvents(origin, id, events, sync);
       }
    }
 }
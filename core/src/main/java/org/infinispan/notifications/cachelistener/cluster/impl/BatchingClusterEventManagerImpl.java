@@ -1,17 +1,30 @@
 package org.infinispan.notifications.cachelistener.cluster.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.Cache;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.distexec.DistributedExecutionCompletionService;
 import org.infinispan.distexec.DistributedExecutorService;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.notifications.cachelistener.cluster.ClusterEvent;
+import org.infinispan.notifications.cachelistener.cluster.ClusterEventBatching;
 import org.infinispan.notifications.cachelistener.cluster.ClusterEventCallable;
 import org.infinispan.notifications.cachelistener.cluster.ClusterEventManager;
 import org.infinispan.notifications.cachelistener.cluster.MultiClusterEventCallable;
@@ -21,26 +34,58 @@
    private final Cache<K, V> cache;
    
    private DistributedExecutorService distExecService;
+
+   // Sends the batches whose delay expired, a flush should not wait behind the timeouts of the other components
+   private ScheduledThreadPoolExecutor scheduler;
    
    private final ThreadLocal<EventContext<K, V>> localContext = new ThreadLocal<>();
+
+   // Events of batching listeners that were sent by their threads but are still waiting to be sent to the target node,
+   // one buffer per listener and target so that every listener keeps its own batching settings
+   private final ConcurrentMap<OutboundKey, OutboundEvents<K, V>> outbound = CollectionFactory.makeConcurrentMap();
    
    public BatchingClusterEventManagerImpl(Cache<K, V> cache) {
       this.cache = cache;
    }
-   
+
    @Start
    public void start() {
       distExecService = SecurityActions.getDefaultExecutorService(cache);
+      String threadName = "ClusterListenerBatching-" + cache.getName();
+      scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+         Thread t = new Thread(r, threadName);
+         t.setDaemon(true);
+         return t;
+      });
+      scheduler.setRemoveOnCancelPolicy(true);
+   }
+
+   @Stop
+   public void stop() {
+      scheduler.shutdownNow();
+      for (OutboundEvents<K, V> buffer : outbound.values()) {
+         flush(buffer, false);
+      }
    }
    
    @Override
    public void addEvents(Address target, UUID identifier, Collection<ClusterEvent<K, V>> events, boolean sync) {
+      getOrCreateContext().addTargets(target, identifier, events, sync);
+   }
+
+   @Override
+   public void addBatchedEvents(Address target, UUID identifier, Collection<ClusterEvent<K, V>> events,
+                                ClusterEventBatching batching) {
+      getOrCreateContext().addBatchedTargets(target, identifier, events, batching);
+   }
+
+   private EventContext<K, V> getOrCreateContext() {
       EventContext<K, V> ctx = localContext.get();
       if (ctx == null) {
          ctx = new UnicastEventContext<K, V>();
          localContext.set(ctx);
       }
-      ctx.addTargets(target, identifier, events, sync);
+      return ctx;
    }
 
    @Override
@@ -48,6 +93,9 @@ public void sendEvents() {
       EventContext<K, V> ctx = localContext.get();
       if (ctx != null) {
          ctx.sendToTargets(distExecService);
+         for (BatchedEvents<K, V> batched : ctx.getBatchedEvents()) {
+            enqueue(batched);
+         }
          localContext.remove();
       }
    }
@@ -56,15 +104,94 @@ public void sendEvents() {
    public void dropEvents() {
       localContext.remove();
    }
+
+   private void enqueue(BatchedEvents<K, V> batched) {
+      OutboundKey key = new OutboundKey(batched.target, batched.identifier);
+      OutboundEvents<K, V> buffer;
+      boolean drained;
+      while (true) {
+         buffer = outbound.computeIfAbsent(key, k -> new OutboundEvents<>(batched.target, batched.identifier,
+                                                                          batched.batching));
+         synchronized (buffer) {
+            if (buffer.retired) {
+               // A scheduled flush removed this buffer from the map concurrently, use a new one
+               continue;
+            }
+            boolean wasEmpty = buffer.size == 0;
+            buffer.add(batched.events);
+            drained = buffer.size >= buffer.batching.getMaxEvents();
+            if (drained) {
+               buffer.drain();
+            } else if (wasEmpty) {
+               scheduleFlush(buffer);
+            }
+         }
+         break;
+      }
+      if (drained) {
+         send(buffer);
+      }
+   }
+
+   private void scheduleFlush(OutboundEvents<K, V> buffer) {
+      try {
+         buffer.flushTask = scheduler.schedule(() -> flush(buffer, true), buffer.batching.getMaxDelay(),
+                                               TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+         // Stopping, the buffers are flushed by stop()
+      }
+   }
+
+   private void flush(OutboundEvents<K, V> buffer, boolean retire) {
+      synchronized (buffer) {
+         buffer.drain();
+         if (retire) {
+            // The next event for this listener creates a new buffer, so listeners that are gone aren't kept
+            buffer.retired = true;
+            outbound.remove(new OutboundKey(buffer.target, buffer.identifier), buffer);
+         }
+      }
+      send(buffer);
+   }
+
+   /**
+    * Sends the drained batches of a buffer. Batches are sent one thread at a time and in the order they were drained,
+    * so a batch drained because the buffer was full can't overtake one drained by an earlier flush.
+    */
+   private void send(OutboundEvents<K, V> buffer) {
+      synchronized (buffer.sendLock) {
+         Collection<ClusterEvent<K, V>> events;
+         while ((events = buffer.drained.poll()) != null) {
+            distExecService.submit(buffer.target, new ClusterEventCallable<K, V>(buffer.identifier, events));
+         }
+      }
+   }
    
    private static interface EventContext<K, V> {
       public void addTargets(Address address, UUID identifier, Collection<ClusterEvent<K, V>> events, boolean sync);
+
+      public void addBatchedTargets(Address address, UUID identifier, Collection<ClusterEvent<K, V>> events,
+                                    ClusterEventBatching batching);
+
+      public Collection<BatchedEvents<K, V>> getBatchedEvents();
       
       public void sendToTargets(DistributedExecutorService service);
    }
    
    protected static class UnicastEventContext<K, V> implements EventContext<K, V> {
       protected final Map<Address, TargetEvents<K, V>> targets = new HashMap<>();
+      protected final List<BatchedEvents<K, V>> batched = new ArrayList<>();
+
+      @Override
+      public void addBatchedTargets(Address address, UUID identifier, Collection<ClusterEvent<K, V>> events,
+                                    ClusterEventBatching batching) {
+         batched.add(new BatchedEvents<>(address, identifier, events, batching));
+      }
+
+      @Override
+      public Collection<BatchedEvents<K, V>> getBatchedEvents() {
+         return batched;
+      }
 
       @Override
       public void addTargets(Address address, UUID identifier, Collection<ClusterEvent<K, V>> events, boolean sync) {
@@ -125,4 +252,98 @@ public void sendToTargets(DistributedExecutorService service) {
       final Map<UUID, Collection<ClusterEvent<K, V>>> events = new HashMap<>();
       boolean sync = false;
    }
+
+   private static class BatchedEvents<K, V> {
+      final Address target;
+      final UUID identifier;
+      final Collection<ClusterEvent<K, V>> events;
+      final ClusterEventBatching batching;
+
+      BatchedEvents(Address target, UUID identifier, Collection<ClusterEvent<K, V>> events,
+                    ClusterEventBatching batching) {
+         this.target = target;
+         this.identifier = identifier;
+         this.events = events;
+         this.batching = batching;
+      }
+   }
+
+   private static final class OutboundKey {
+      final Address target;
+      final UUID identifier;
+
+      OutboundKey(Address target, UUID identifier) {
+         this.target = target;
+         this.identifier = identifier;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o) return true;
+         if (!(o instanceof OutboundKey)) return false;
+         OutboundKey other = (OutboundKey) o;
+         return target.equals(other.target) && identifier.equals(other.identifier);
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * target.hashCode() + identifier.hashCode();
+      }
+   }
+
+   /**
+    * The events of a batching listener waiting to be sent to a single node, guarded by its own monitor.
+    */
+   private static class OutboundEvents<K, V> {
+      final Address target;
+      final UUID identifier;
+      final ClusterEventBatching batching;
+      // Batches drained from the buffer and not sent yet, sent while holding sendLock
+      final Queue<Collection<ClusterEvent<K, V>>> drained = new ConcurrentLinkedQueue<>();
+      final Object sendLock = new Object();
+      // A coalescing listener keeps only the last event of every key, the others keep all their events in order
+      Map<Object, ClusterEvent<K, V>> coalesced = new LinkedHashMap<>();
+      List<ClusterEvent<K, V>> ordered = new ArrayList<>();
+      ScheduledFuture<?> flushTask;
+      int size;
+      boolean retired;
+
+      OutboundEvents(Address target, UUID identifier, ClusterEventBatching batching) {
+         this.target = target;
+         this.identifier = identifier;
+         this.batching = batching;
+      }
+
+      void add(Collection<ClusterEvent<K, V>> events) {
+         if (batching.isCoalesce()) {
+            for (ClusterEvent<K, V> event : events) {
+               // Remove first so that the event moves to the end, after the events it happened after
+               if (coalesced.remove(event.getKey()) == null) {
+                  size++;
+               }
+               coalesced.put(event.getKey(), event);
+            }
+         } else {
+            ordered.addAll(events);
+            size += events.size();
+         }
+      }
+
+      void drain() {
+         if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+         }
+         if (size > 0) {
+            if (batching.isCoalesce()) {
+               drained.add(new ArrayList<>(coalesced.values()));
+               coalesced = new LinkedHashMap<>();
+            } else {
+               drained.add(ordered);
+               ordered = new ArrayList<>();
+            }
+            size = 0;
+         }
+      }
+   }
 }
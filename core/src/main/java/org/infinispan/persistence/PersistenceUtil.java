@@ -1,10 +1,13 @@
 package org.infinispan.persistence;
 
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.HashConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.InternalMetadata;
@@ -12,6 +15,7 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
@@ -36,6 +40,21 @@ public static KeyFilter notNull(KeyFilter filter) {
       return filter == null ? KeyFilter.ACCEPT_ALL_FILTER : filter;
    }
 
+   /**
+    * @return the partitioner the cache uses to map keys to segments, for stores that keep track of segments
+    */
+   public static KeyPartitioner getKeyPartitioner(InitializationContext ctx) {
+      Cache<?, ?> cache = ctx.getCache();
+      KeyPartitioner keyPartitioner = cache.getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
+      if (keyPartitioner == null) {
+         // the store is used outside of a running cache
+         HashConfiguration hashConfiguration = cache.getCacheConfiguration().clustering().hash();
+         keyPartitioner = hashConfiguration.keyPartitioner();
+         keyPartitioner.init(hashConfiguration);
+      }
+      return keyPartitioner;
+   }
+
    public static <K, V> int count(AdvancedCacheLoader<K, V> acl, KeyFilter<? super K> filter) {
       final AtomicInteger result = new AtomicInteger(0);
       acl.process(filter, new AdvancedCacheLoader.CacheLoaderTask<K, V>() {
@@ -49,6 +49,9 @@
  * <p/>
  * Write operations affecting same key are now coalesced so that only the final state is actually stored.
  * <p/>
+ * Each AsyncStoreProcessor hands its share of the modifications to the underlying store with one
+ * {@link CacheWriter#writeBatch(Iterable)} and one {@link CacheWriter#deleteBatch(Iterable)} call.
+ * <p/>
  *
  * @author Manik Surtani
  * @author Galder Zamarreño
@@ -152,18 +155,25 @@ public boolean delete(Object key) {
    }
 
    protected void applyModificationsSync(List<Modification> mods) throws PersistenceException {
+      // modifications are coalesced by key, so the order of stores and removes doesn't matter
+      List<MarshalledEntry> entries = new ArrayList<>(mods.size());
+      List<Object> keys = new ArrayList<>();
       for (Modification m : mods) {
          switch (m.getType()) {
             case STORE:
-               actual.write(((Store) m).getStoredValue());
+               entries.add(((Store) m).getStoredValue());
                break;
             case REMOVE:
-               actual.delete(((Remove) m).getKey());
+               keys.add(((Remove) m).getKey());
                break;
             default:
                throw new IllegalArgumentException("Unknown modification type " + m.getType());
          }
       }
+      if (!entries.isEmpty())
+         actual.writeBatch(entries);
+      if (!keys.isEmpty())
+         actual.deleteBatch(keys);
    }
 
 
@@ -194,6 +204,30 @@ public AtomicReference<State> getState() {
       return state;
    }
 
+   /**
+    * @return the number of modifications buffered or being written to the underlying store
+    */
+   public int getPendingModifications() {
+      int count = 0;
+      for (State s = state.get(); s != null; s = s.next)
+         count += s.modifications.size();
+      return count;
+   }
+
+   /**
+    * @return the number of writes that had to wait because the modification queue was full
+    */
+   public long getBlockedWrites() {
+      return stateLock.getBlockedWrites();
+   }
+
+   /**
+    * @return the total time writes waited because the modification queue was full, in milliseconds
+    */
+   public long getBlockedTime() {
+      return stateLock.getBlockedTime();
+   }
+
    protected void clearStore() {
       // No-op, not supported for async
    }
@@ -1,5 +1,8 @@
 package org.infinispan.persistence.async;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 
 /**
@@ -12,6 +15,10 @@
  * Additionally, {@link #writeLock(int)} blocks if the buffer is full, and {@link #readLock()}
  * blocks if no data is available.
  * <p/>
+ * The shared (writer) side of the lock is striped, so concurrent writers only contend on the
+ * buffer counter. The number of writers that had to wait for buffer space, and the time they
+ * waited, are recorded as a measure of backpressure.
+ * <p/>
  * This lock implementation is <em>not</em> reentrant!
  *
  *  @author Karsten Blees
@@ -67,6 +74,10 @@ protected int tryAcquireShared(int unused) {
          return getState() > 0 ? 1 : -1;
       }
 
+      boolean isAvailable() {
+         return getState() > 0;
+      }
+
       @Override
       protected boolean tryReleaseShared(int state) {
          setState(state > 0 ? 1 : 0);
@@ -75,51 +86,76 @@ protected boolean tryReleaseShared(int state) {
    }
 
    /**
-    * Minimal non-reentrant read-write-lock. AQS state is number of concurrent shared locks, or 0
-    * if unlocked, or -1 if locked exclusively.
+    * Minimal non-reentrant read-write-lock. The shared lock increments the counter of a stripe
+    * picked by thread id, the exclusive lock announces itself with a flag and waits until the
+    * counters of all the stripes drop to 0. Shared lockers that see the flag back off and wait on
+    * a monitor until the exclusive lock is released.
     */
-   private static class Sync extends AbstractQueuedSynchronizer {
-      private static final long serialVersionUID = 2983687000985096017L;
-
-      @Override
-      protected boolean tryAcquire(int unused) {
-         if (!compareAndSetState(0, -1))
-            return false;
-         setExclusiveOwnerThread(Thread.currentThread());
-         return true;
+   private static class StripedSync {
+      // each stripe is padded to its own cache line
+      private static final int PADDING = 8;
+      private final int stripes;
+      private final AtomicLongArray counts;
+      private final Object monitor = new Object();
+      private volatile boolean exclusive;
+
+      StripedSync() {
+         stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+         counts = new AtomicLongArray(stripes * PADDING);
       }
 
-      @Override
-      protected boolean tryRelease(int unused) {
-         setExclusiveOwnerThread(null);
-         setState(0);
-         return true;
+      private int index() {
+         return ((int) Thread.currentThread().getId() & (stripes - 1)) * PADDING;
       }
 
-      @Override
-      protected int tryAcquireShared(int unused) {
+      void acquireShared() {
+         int index = index();
          for (;;) {
-            int state = getState();
-            if (state < 0)
-               return -1;
-            if (compareAndSetState(state, state + 1))
-               return 1;
+            counts.incrementAndGet(index);
+            if (!exclusive)
+               return;
+            counts.decrementAndGet(index);
+            boolean interrupted = false;
+            synchronized (monitor) {
+               while (exclusive) {
+                  try {
+                     monitor.wait();
+                  } catch (InterruptedException e) {
+                     interrupted = true;
+                  }
+               }
+            }
+            if (interrupted)
+               Thread.currentThread().interrupt();
          }
       }
 
-      @Override
-      protected boolean tryReleaseShared(int unused) {
-         for (;;) {
-            int state = getState();
-            if (compareAndSetState(state, state - 1))
-               return true;
+      void releaseShared() {
+         counts.decrementAndGet(index());
+      }
+
+      void acquire() {
+         exclusive = true;
+         for (int i = 0; i < stripes; i++) {
+            // the shared lock is only held while updating the state map, so spinning is cheap
+            while (counts.get(i * PADDING) != 0)
+               Thread.yield();
+         }
+      }
+
+      void release() {
+         synchronized (monitor) {
+            exclusive = false;
+            monitor.notifyAll();
          }
       }
    }
 
-   private final Sync sync;
+   private final StripedSync sync;
    private final Counter counter;
    private final Available available;
+   private final LongAdder blockedWrites = new LongAdder();
+   private final LongAdder blockedNanos = new LongAdder();
 
    /**
     * Create a new BufferLock with the specified buffer size.
@@ -128,7 +164,7 @@ protected boolean tryReleaseShared(int unused) {
     *           the buffer size
     */
    BufferLock(int size) {
-      sync = new Sync();
+      sync = new StripedSync();
       counter = size > 0 ? new Counter(size) : null;
       available = new Available();
    }
@@ -141,17 +177,24 @@ protected boolean tryReleaseShared(int unused) {
     *           number of items the caller intends to write
     */
    void writeLock(int count) {
-      if (count > 0 && counter != null)
+      if (count > 0 && counter != null && counter.tryAcquireShared(count) < 0) {
+         // the buffer is full, wait for the coordinator to hand it off to the store
+         long start = System.nanoTime();
          counter.acquireShared(count);
-      sync.acquireShared(1);
+         blockedWrites.increment();
+         blockedNanos.add(System.nanoTime() - start);
+      }
+      sync.acquireShared();
    }
 
    /**
     * Releases the write lock.
     */
    void writeUnlock() {
-      sync.releaseShared(1);
-      available.releaseShared(1);
+      sync.releaseShared();
+      // avoid writing to the shared state if data was already available
+      if (!available.isAvailable())
+         available.releaseShared(1);
    }
 
    /**
@@ -160,14 +203,14 @@ void writeUnlock() {
     */
    void readLock() {
       available.acquireShared(1);
-      sync.acquire(1);
+      sync.acquire();
    }
 
    /**
     * Releases the read lock.
     */
    void readUnlock() {
-      sync.release(1);
+      sync.release();
    }
 
    /**
@@ -193,4 +236,18 @@ void add(int count) {
          count = counter.add(count);
       available.releaseShared(count);
    }
+
+   /**
+    * @return the number of writers that had to wait because the buffer was full
+    */
+   long getBlockedWrites() {
+      return blockedWrites.sum();
+   }
+
+   /**
+    * @return the total time writers waited because the buffer was full, in milliseconds
+    */
+   long getBlockedTime() {
+      return TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum());
+   }
 }
@@ -7,14 +7,15 @@
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.TaskContextImpl;
-import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -32,10 +33,19 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -50,6 +60,9 @@
  * <p/>
  * So, the space taken by this cache store is both the space in the file
  * itself plus the in-memory index with the keys and their file positions.
+ * In clustered caches the index is also split by segment, so that state
+ * transfer iterates the entries of a few segments without going through all
+ * the keys, which adds about 40 bytes per cache entry.
  * With this in mind and to avoid the cache store leading to
  * OutOfMemoryExceptions, you can optionally configure the maximum number
  * of entries to maintain in this cache store, which affects both the size
@@ -61,14 +74,18 @@
  * source.
  * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
- * of individual cache entries.
+ * of individual cache entries. Updates of the index only lock the segment
+ * of the key, loads don't lock the index at all, and free space is kept in
+ * per size class sets from which writers claim entries without a common lock.
+ * Adjacent free entries are merged and the file is truncated in the background
+ * once enough entries have been freed, and on every purge.
  *
  * @author Karsten Blees
  * @author Mircea Markus
  * @since 6.0
  */
 @ConfiguredBy(SingleFileStoreConfiguration.class)
-public class SingleFileStore<K, V> implements AdvancedLoadWriteStore<K, V> {
+public class SingleFileStore<K, V> implements SegmentedAdvancedLoadWriteStore<K, V> {
    private static final Log log = LogFactory.getLog(SingleFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
 
@@ -77,26 +94,48 @@
    private static final int KEYLEN_POS = 4;
    private static final int KEY_POS = 4 + 4 + 4 + 4 + 8;
    private static final int SMALLEST_ENTRY_SIZE = 128;
+   // Number of entries freed after which the free space is compacted in the background
+   private static final int COMPACTION_THRESHOLD = 1024;
+   // Entries up to this size are serialized into a pooled direct buffer: writing a heap buffer would need a new
+   // buffer per write, and the JDK would copy it into a temporary direct buffer anyway
+   private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+   // Buffers returned when the pool is full are left to the GC
+   private static final int WRITE_BUFFER_POOL_SIZE = Runtime.getRuntime().availableProcessors();
 
    private SingleFileStoreConfiguration configuration;
 
    protected InitializationContext ctx;
 
    private FileChannel channel;
+   // released when the store stops
+   private final BlockingQueue<ByteBuffer> writeBuffers = new ArrayBlockingQueue<>(WRITE_BUFFER_POOL_SIZE);
    private Map<K, FileEntry> entries;
-   private SortedSet<FileEntry> freeList;
-   private long filePos = MAGIC.length;
+   // the same entries, by segment. Local caches have no state transfer, so their only "segment" is the entries map itself
+   private List<Map<K, FileEntry>> entriesBySegment;
+   private boolean segmented;
+   // A key is added to or removed from the index only while holding the monitor of its segment: the segment map in
+   // clustered caches, a plain lock in local caches
+   private Object[] segmentLocks;
+   private KeyPartitioner keyPartitioner;
+   private FreeList freeList;
+   // Guards appending entries at the end of the file and truncating it
+   private final Object appendLock = new Object();
+   private volatile long filePos = MAGIC.length;
    private File file;
    private float fragmentationFactor = .75f;
    // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
    private ReadWriteLock resizeLock = new ReentrantReadWriteLock();
    private TimeService timeService;
+   private ExecutorService compactionExecutor;
+   private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+   private final AtomicInteger freedSinceCompaction = new AtomicInteger();
 
    @Override
    public void init(InitializationContext ctx) {
       this.ctx = ctx;
       this.configuration = ctx.getConfiguration();
       this.timeService = ctx.getTimeService();
+      this.keyPartitioner = PersistenceUtil.getKeyPartitioner(ctx);
    }
 
    @Override
@@ -114,11 +153,41 @@ public void start() {
                throw log.directoryCannotBeCreated(dir.getAbsolutePath());
             }
          }
+
+         // merges free entries and truncates the file in the background
+         final String cacheName = ctx.getCache().getName();
+         compactionExecutor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                                                     new ThreadFactory() {
+                                                        @Override
+                                                        public Thread newThread(Runnable r) {
+                                                           Thread t = new Thread(r, "SingleFileStoreCompactor-" + cacheName);
+                                                           t.setDaemon(true);
+                                                           return t;
+                                                        }
+                                                     });
+         ((ThreadPoolExecutor) compactionExecutor).allowCoreThreadTimeOut(true);
+
          channel = new RandomAccessFile(file, "rw").getChannel();
 
          // initialize data structures
          entries = newEntryMap();
-         freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
+         segmented = ctx.getCache().getCacheConfiguration().clustering().cacheMode().isClustered();
+         int numSegments = ctx.getCache().getCacheConfiguration().clustering().hash().numSegments();
+         segmentLocks = new Object[numSegments];
+         if (segmented) {
+            entriesBySegment = new ArrayList<>(numSegments);
+            for (int i = 0; i < numSegments; i++) {
+               Map<K, FileEntry> segmentEntries = newSegmentMap();
+               entriesBySegment.add(segmentEntries);
+               segmentLocks[i] = segmentEntries;
+            }
+         } else {
+            entriesBySegment = Collections.singletonList(entries);
+            for (int i = 0; i < numSegments; i++) {
+               segmentLocks[i] = new Object();
+            }
+         }
+         freeList = new FreeList();
 
          // check file format and read persistent state if enabled for the cache
          byte[] header = new byte[MAGIC.length];
@@ -141,13 +210,63 @@ private <Key> Map<Key, FileEntry> newEntryMap() {
       final Map<Key, FileEntry> entryMap;
       Equivalence<Object> keyEq = ctx.getCache().getCacheConfiguration().dataContainer().keyEquivalence();
       if (configuration.maxEntries() > 0)
-         entryMap = CollectionFactory.makeLinkedMap(16, 0.75f,
+         entryMap = Collections.synchronizedMap(CollectionFactory.<Key, FileEntry>makeLinkedMap(16, 0.75f,
                EquivalentLinkedHashMap.IterationOrder.ACCESS_ORDER,
-               keyEq, AnyEquivalence.<FileEntry>getInstance());
+               keyEq, AnyEquivalence.<FileEntry>getInstance()));
       else
-         entryMap = CollectionFactory.makeMap(keyEq, AnyEquivalence.<FileEntry>getInstance());
+         entryMap = CollectionFactory.makeConcurrentMap(keyEq, AnyEquivalence.<FileEntry>getInstance());
 
-      return Collections.synchronizedMap(entryMap);
+      return entryMap;
+   }
+
+   private Map<K, FileEntry> newSegmentMap() {
+      Equivalence<Object> keyEq = ctx.getCache().getCacheConfiguration().dataContainer().keyEquivalence();
+      return CollectionFactory.makeMap(keyEq, AnyEquivalence.<FileEntry>getInstance());
+   }
+
+   /**
+    * Adds or replaces an entry in the index.
+    *
+    * @return the replaced entry, or null
+    */
+   private FileEntry putEntry(K key, FileEntry fe) {
+      int segment = keyPartitioner.getSegment(key);
+      synchronized (segmentLocks[segment]) {
+         if (segmented)
+            entriesBySegment.get(segment).put(key, fe);
+         return entries.put(key, fe);
+      }
+   }
+
+   /**
+    * Removes an entry from the index.
+    *
+    * @return the removed entry, or null
+    */
+   private FileEntry removeEntry(Object key) {
+      int segment = keyPartitioner.getSegment(key);
+      synchronized (segmentLocks[segment]) {
+         if (segmented)
+            entriesBySegment.get(segment).remove(key);
+         return entries.remove(key);
+      }
+   }
+
+   /**
+    * Removes an entry from the index, unless the key was mapped to another entry in the meantime.
+    *
+    * @return true if the entry was removed
+    */
+   private boolean removeEntry(Object key, FileEntry fe) {
+      int segment = keyPartitioner.getSegment(key);
+      synchronized (segmentLocks[segment]) {
+         if (entries.get(key) != fe)
+            return false;
+         if (segmented)
+            entriesBySegment.get(segment).remove(key);
+         entries.remove(key);
+         return true;
+      }
    }
 
    @Override
@@ -156,11 +275,19 @@ public void stop() {
          if (channel != null) {
             log.tracef("Stopping store %s, size = %d, file size = %d", ctx.getCache().getName(), entries.size(), channel.size());
 
+            // let a running compaction finish before closing the file
+            compactionExecutor.shutdown();
+            if (!compactionExecutor.awaitTermination(10, TimeUnit.SECONDS))
+               log.tracef("Compaction of store %s did not finish in time", ctx.getCache().getName());
+
             // reset state
             channel.close();
             channel = null;
             entries = null;
+            entriesBySegment = null;
+            segmentLocks = null;
             freeList = null;
+            writeBuffers.clear();
             filePos = MAGIC.length;
          }
       } catch (Exception e) {
@@ -210,7 +337,7 @@ private void rebuildIndex() throws Exception {
             // deserialize key and add to entries map
             // Marshaller should allow for provided type return for safety
             K key = (K) ctx.getMarshaller().objectFromByteBuffer(buf.array(), 0, fe.keyLen);
-            entries.put(key, fe);
+            putEntry(key, fe);
          } else {
             // add to free list
             freeList.add(fe);
@@ -235,34 +362,24 @@ public boolean contains(Object key) {
     * @return allocated file position and length as FileEntry object
     */
    private FileEntry allocate(int len) {
-      synchronized (freeList) {
-         // lookup a free entry of sufficient size
-         SortedSet<FileEntry> candidates = freeList.tailSet(new FileEntry(0, len));
-         for (Iterator<FileEntry> it = candidates.iterator(); it.hasNext(); ) {
-            FileEntry free = it.next();
-            // ignore entries that are still in use by concurrent readers
-            if (free.isLocked())
-               continue;
-
-            // There's no race condition risk between locking the entry on
-            // loading and checking whether it's locked (or store allocation),
-            // because for the entry to be lockable, it needs to be in the
-            // entries collection, in which case it's not in the free list.
-            // The only way an entry can be found in the free list is if it's
-            // been removed, and to remove it, lock on "entries" needs to be
-            // acquired, which is also a pre-requisite for loading data.
-
-            // found one, remove from freeList
-            it.remove();
-            return allocateExistingEntry(free, len);
-         }
-
-         // no appropriate free section available, append at end of file
-         FileEntry fe = new FileEntry(filePos, len);
+      // lookup a free entry of sufficient size, that isn't in use by concurrent readers.
+      // There's no race condition risk between locking the entry on
+      // loading and checking whether it's locked (or store allocation),
+      // because a reader only uses an entry that is still in the index
+      // after locking it, and an entry is removed from the index before
+      // it is added to the free list.
+      FileEntry free = freeList.claim(len);
+      if (free != null)
+         return allocateExistingEntry(free, len);
+
+      // no appropriate free section available, append at end of file
+      FileEntry fe;
+      synchronized (appendLock) {
+         fe = new FileEntry(filePos, len);
          filePos += len;
-         if (trace) log.tracef("New entry allocated at %d:%d, %d free entries, file size is %d", fe.offset, fe.size, freeList.size(), filePos);
-         return fe;
       }
+      if (trace) log.tracef("New entry allocated at %d:%d, %d free entries, file size is %d", fe.offset, fe.size, freeList.size(), filePos);
+      return fe;
    }
 
    private FileEntry allocateExistingEntry(FileEntry free, int len) {
@@ -317,6 +434,36 @@ private void free(FileEntry fe) throws IOException {
             throw new IllegalStateException(String.format("Trying to free an entry that was not allocated: %s", fe));
          }
          if (trace) log.tracef("Deleted entry at %d:%d, there are now %d free entries", fe.offset, fe.size, freeList.size());
+         if (freedSinceCompaction.incrementAndGet() >= COMPACTION_THRESHOLD)
+            scheduleCompaction();
+      }
+   }
+
+   /**
+    * Merges the free entries and truncates the file in the background, unless a compaction is already scheduled.
+    */
+   private void scheduleCompaction() {
+      if (!compactionScheduled.compareAndSet(false, true))
+         return;
+      try {
+         compactionExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+               resizeLock.readLock().lock();
+               try {
+                  compactionScheduled.set(false);
+                  freedSinceCompaction.set(0);
+                  processFreeEntries();
+               } catch (Exception e) {
+                  log.unableToCompactFileStore(file.getPath(), e);
+               } finally {
+                  resizeLock.readLock().unlock();
+               }
+            }
+         });
+      } catch (RejectedExecutionException e) {
+         // the store is stopping
+         compactionScheduled.set(false);
       }
    }
 
@@ -339,22 +486,26 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
             long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
             newEntry = new FileEntry(newEntry, key.getLength(), data.getLength(), metadataLength, expiryTime);
 
-            ByteBuffer buf = ByteBuffer.allocate(len);
-            buf.putInt(newEntry.size);
-            buf.putInt(newEntry.keyLen);
-            buf.putInt(newEntry.dataLen);
-            buf.putInt(newEntry.metadataLen);
-            buf.putLong(newEntry.expiryTime);
-            buf.put(key.getBuf(), key.getOffset(), key.getLength());
-            buf.put(data.getBuf(), data.getOffset(), data.getLength());
-            if (metadata != null)
-               buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
-            buf.flip();
-            channel.write(buf, newEntry.offset);
+            ByteBuffer buf = acquireWriteBuffer(len);
+            try {
+               buf.putInt(newEntry.size);
+               buf.putInt(newEntry.keyLen);
+               buf.putInt(newEntry.dataLen);
+               buf.putInt(newEntry.metadataLen);
+               buf.putLong(newEntry.expiryTime);
+               buf.put(key.getBuf(), key.getOffset(), key.getLength());
+               buf.put(data.getBuf(), data.getOffset(), data.getLength());
+               if (metadata != null)
+                  buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
+               buf.flip();
+               channel.write(buf, newEntry.offset);
+            } finally {
+               releaseWriteBuffer(buf);
+            }
             if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
 
             // add the new entry to in-memory index
-            oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
+            oldEntry = putEntry(marshalledEntry.getKey(), newEntry);
 
             // if we added an entry, check if we need to evict something
             if (oldEntry == null)
@@ -372,6 +523,22 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
       }
    }
 
+   private ByteBuffer acquireWriteBuffer(int len) {
+      if (len > WRITE_BUFFER_SIZE)
+         return ByteBuffer.allocate(len);
+      ByteBuffer buf = writeBuffers.poll();
+      if (buf == null)
+         buf = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+      buf.clear();
+      buf.limit(len);
+      return buf;
+   }
+
+   private void releaseWriteBuffer(ByteBuffer buf) {
+      if (buf.isDirect())
+         writeBuffers.offer(buf);
+   }
+
    /**
     * Try to evict an entry if the capacity of the cache store is reached.
     *
@@ -379,13 +546,20 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
     */
    private FileEntry evict() {
       if (configuration.maxEntries() > 0) {
-         synchronized (entries) {
-            if (entries.size() > configuration.maxEntries()) {
-               Iterator<FileEntry> it = entries.values().iterator();
-               FileEntry fe = it.next();
-               it.remove();
-               return fe;
+         for (; ; ) {
+            K eldestKey;
+            FileEntry eldest;
+            synchronized (entries) {
+               if (entries.size() <= configuration.maxEntries())
+                  return null;
+               Map.Entry<K, FileEntry> e = entries.entrySet().iterator().next();
+               eldestKey = e.getKey();
+               eldest = e.getValue();
             }
+            // The segment monitor must be acquired before the entries monitor, so the eldest entry is removed
+            // after releasing it, and only if another writer didn't replace or evict it in the meantime
+            if (removeEntry(eldestKey, eldest))
+               return eldest;
          }
       }
       return null;
@@ -395,25 +569,32 @@ private FileEntry evict() {
    public void clear() {
       resizeLock.writeLock().lock();
       try {
-         synchronized (entries) {
-            synchronized (freeList) {
-               // wait until all readers are done reading file entries
-               for (FileEntry fe : entries.values())
-                  fe.waitUnlocked();
-               for (FileEntry fe : freeList)
+         // wait until all readers are done reading file entries
+         for (Map<K, FileEntry> segmentEntries : entriesBySegment) {
+            synchronized (segmentEntries) {
+               for (FileEntry fe : segmentEntries.values())
                   fe.waitUnlocked();
+            }
+         }
+         for (FileEntry fe : freeList.entries())
+            fe.waitUnlocked();
 
-               // clear in-memory state
-               entries.clear();
-               freeList.clear();
-
-               // reset file
-               if (trace) log.tracef("Truncating file, current size is %d", filePos);
-               channel.truncate(0);
-               channel.write(ByteBuffer.wrap(MAGIC), 0);
-               filePos = MAGIC.length;
+         // clear in-memory state
+         for (Map<K, FileEntry> segmentEntries : entriesBySegment) {
+            synchronized (segmentEntries) {
+               segmentEntries.clear();
             }
          }
+         entries.clear();
+         freeList.clear();
+
+         // reset file
+         synchronized (appendLock) {
+            if (trace) log.tracef("Truncating file, current size is %d", filePos);
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(MAGIC), 0);
+            filePos = MAGIC.length;
+         }
       } catch (Exception e) {
          throw new PersistenceException(e);
       } finally {
@@ -425,7 +606,7 @@ public void clear() {
    public boolean delete(Object key) {
       resizeLock.readLock().lock();
       try {
-         FileEntry fe = entries.remove(key);
+         FileEntry fe = removeEntry(key);
          free(fe);
          return fe != null;
       } catch (Exception e) {
@@ -444,20 +625,9 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
       final FileEntry fe;
       resizeLock.readLock().lock();
       try {
-         synchronized (entries) {
-            // lookup FileEntry of the key
-            fe = entries.get(key);
-            if (fe == null)
-               return null;
-
-            // Entries are removed due to expiration from {@link SingleFileStore#purge}
-            if (fe.isExpired(timeService.wallClockTime())) {
-               return null;
-            } else {
-               // lock entry for reading before releasing entries monitor
-               fe.lock();
-            }
-         }
+         fe = lockEntry(key);
+         if (fe == null)
+            return null;
       } finally {
          resizeLock.readLock().unlock();
       }
@@ -474,12 +644,15 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
          }
       }
 
+      // The key is already known, so only the value and/or the metadata are read and the key is not unmarshalled again
+      final int valueLen = loadValue ? fe.dataLen : 0;
+      final int metadataLen = loadMetadata ? fe.metadataLen : 0;
       final byte[] data;
       try {
          // load serialized data from disk
-         data = new byte[fe.keyLen + fe.dataLen + (loadMetadata ? fe.metadataLen : 0)];
+         data = new byte[valueLen + metadataLen];
          // The entry lock will prevent clear() from truncating the file at this point
-         channel.read(ByteBuffer.wrap(data), fe.offset + KEY_POS);
+         channel.read(ByteBuffer.wrap(data), fe.offset + KEY_POS + fe.keyLen + (loadValue ? 0 : fe.dataLen));
       } catch (Exception e) {
          throw new PersistenceException(e);
       } finally {
@@ -490,36 +663,95 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
 
       if (trace) log.tracef("Read entry %s at %d:%d", key, fe.offset, fe.actualSize());
       ByteBufferFactory factory = ctx.getByteBufferFactory();
-      org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(data, 0, fe.keyLen);
       if (loadValue) {
-         valueBb = factory.newByteBuffer(data, fe.keyLen, fe.dataLen);
+         valueBb = factory.newByteBuffer(data, 0, valueLen);
+      }
+      if (metadataLen > 0) {
+         metadataBb = factory.newByteBuffer(data, valueLen, metadataLen);
       }
-      if (loadMetadata && fe.metadataLen > 0) {
-         metadataBb = factory.newByteBuffer(data, fe.keyLen + fe.dataLen, fe.metadataLen);
+      return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, valueBb, metadataBb);
+   }
+
+   /**
+    * Looks up the entry of a key and locks it for reading.
+    * <p/>
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    *
+    * @return the locked entry, or null if the key is missing or expired
+    */
+   private FileEntry lockEntry(Object key) {
+      for (; ; ) {
+         FileEntry fe = entries.get(key);
+         // Entries are removed due to expiration from {@link SingleFileStore#purge}
+         if (fe == null || fe.isExpired(timeService.wallClockTime()))
+            return null;
+
+         // The entry could have been removed and freed after the lookup. Once it is locked, allocate() and the
+         // compaction won't reuse its space, so it can be read as long as it is still in the index.
+         fe.lock();
+         if (entries.get(key) == fe)
+            return fe;
+         fe.unlock();
       }
-      return ctx.getMarshalledEntryFactory().newMarshalledEntry(keyBb, valueBb, metadataBb);
    }
 
    @Override
    public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
       filter = PersistenceUtil.notNull(filter);
       ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
-      synchronized (entries) {
-         for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
+      for (Map<K, FileEntry> segmentEntries : entriesBySegment) {
+         collectEntries(segmentEntries, filter, keysToLoad);
+      }
+      sortByOffset(keysToLoad);
+      // keysToLoad values (i.e. FileEntries) must not be used past this point
+      load(keysToLoad, task, executor, fetchValue, fetchMetadata);
+   }
+
+   @Override
+   public void process(Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      filter = PersistenceUtil.notNull(filter);
+      ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>();
+      if (segmented) {
+         for (int segment : segments) {
+            if (segment >= 0 && segment < entriesBySegment.size())
+               collectEntries(entriesBySegment.get(segment), filter, keysToLoad);
+         }
+      } else {
+         KeyFilter<? super K> keyFilter = filter;
+         collectEntries(entries, key -> segments.contains(keyPartitioner.getSegment(key)) && keyFilter.accept(key),
+               keysToLoad);
+      }
+      sortByOffset(keysToLoad);
+      // keysToLoad values (i.e. FileEntries) must not be used past this point
+      load(keysToLoad, task, executor, fetchValue, fetchMetadata);
+   }
+
+   private void collectEntries(Map<K, FileEntry> segmentEntries, KeyFilter<? super K> filter,
+                               List<KeyValuePair<K, FileEntry>> keysToLoad) {
+      synchronized (segmentEntries) {
+         for (Map.Entry<K, FileEntry> e : segmentEntries.entrySet()) {
             if (filter.accept(e.getKey()))
                keysToLoad.add(new KeyValuePair<>(e.getKey(), e.getValue()));
          }
-         Collections.sort(keysToLoad, new Comparator<KeyValuePair<K, FileEntry>>() {
-            @Override
-            public int compare(KeyValuePair<K, FileEntry> o1, KeyValuePair<K, FileEntry> o2) {
-               long offset1 = o1.getValue().offset;
-               long offset2 = o2.getValue().offset;
-               return offset1 < offset2 ? -1 : offset1 == offset2 ? 0 : 1;
-            }
-         });
-         // keysToLoad values (i.e. FileEntries) must not be used past this point
       }
+   }
+
+   /**
+    * Sorts the entries so that the file is read sequentially.
+    */
+   private void sortByOffset(List<KeyValuePair<K, FileEntry>> keysToLoad) {
+      Collections.sort(keysToLoad, new Comparator<KeyValuePair<K, FileEntry>>() {
+         @Override
+         public int compare(KeyValuePair<K, FileEntry> o1, KeyValuePair<K, FileEntry> o2) {
+            long offset1 = o1.getValue().offset;
+            long offset2 = o2.getValue().offset;
+            return offset1 < offset2 ? -1 : offset1 == offset2 ? 0 : 1;
+         }
+      });
+   }
 
+   private void load(List<KeyValuePair<K, FileEntry>> keysToLoad, final CacheLoaderTask<K, V> task, Executor executor,
+                     final boolean fetchValue, final boolean fetchMetadata) {
       ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
 
       final TaskContextImpl taskContext = new TaskContextImpl();
@@ -556,7 +788,7 @@ public Void call() throws Exception {
    private void processFreeEntries() {
       // Get a reverse sorted list of free entries based on file offset
       // This helps to work backwards with free entries at end of the file
-      List<FileEntry> l  = new ArrayList<FileEntry>(freeList);
+      List<FileEntry> l = freeList.entries();
       Collections.sort(l, new FileEntryByOffsetComparator());
 
       truncateFile(l);
@@ -573,28 +805,32 @@ private void truncateFile(List<FileEntry> entries) {
       int reclaimedSpace = 0;
       int removedEntries = 0;
       long truncateOffset = -1;
-      for (Iterator<FileEntry> it = entries.iterator() ; it.hasNext(); ) {
-         FileEntry fe = it.next();
-         // Till we have free entries at the end of the file,
-         // we can remove them and contract the file to release disk
-         // space.
-         if (!fe.isLocked() && ((fe.offset + fe.size) == filePos)) {
-            truncateOffset = fe.offset;
-            filePos = fe.offset;
-            freeList.remove(fe);
-            it.remove();
-            reclaimedSpace += fe.size;
-            removedEntries++;
-         } else {
-            break;
+      // Writers append at the end of the file while holding the same lock,
+      // so the file can't grow between checking the last entry and truncating
+      synchronized (appendLock) {
+         for (Iterator<FileEntry> it = entries.iterator() ; it.hasNext(); ) {
+            FileEntry fe = it.next();
+            // Till we have free entries at the end of the file,
+            // we can remove them and contract the file to release disk
+            // space. An entry that can't be removed from the free list
+            // has just been allocated by a writer.
+            if (!fe.isLocked() && ((fe.offset + fe.size) == filePos) && freeList.remove(fe)) {
+               truncateOffset = fe.offset;
+               filePos = fe.offset;
+               it.remove();
+               reclaimedSpace += fe.size;
+               removedEntries++;
+            } else {
+               break;
+            }
          }
-      }
 
-      if (truncateOffset > 0) {
-         try {
-            channel.truncate(truncateOffset);
-         } catch (IOException e) {
-            throw new PersistenceException("Error while truncating file", e);
+         if (truncateOffset > 0) {
+            try {
+               channel.truncate(truncateOffset);
+            } catch (IOException e) {
+               throw new PersistenceException("Error while truncating file", e);
+            }
          }
       }
 
@@ -610,42 +846,52 @@ private void truncateFile(List<FileEntry> entries) {
    private void mergeFreeEntries(List<FileEntry> entries) {
       long startTime = 0;
       if (trace) startTime = timeService.wallClockTime();
-      FileEntry lastEntry = null;
-      FileEntry newEntry = null;
-      int mergeCounter = 0;
-      for (Iterator<FileEntry> it = entries.iterator() ; it.hasNext(); ) {
-         FileEntry fe = it.next();
+      List<FileEntry> adjacentEntries = new ArrayList<>();
+      for (FileEntry fe : entries) {
          if (fe.isLocked()) {
+            mergeAdjacentEntries(adjacentEntries);
             continue;
          }
 
          // Merge any holes created (consecutive free entries) in the file
-         if ((lastEntry != null) && (lastEntry.offset == (fe.offset + fe.size))) {
-            if (newEntry == null) {
-               newEntry = new FileEntry(fe.offset, fe.size + lastEntry.size);
-               freeList.remove(lastEntry);
+         if (!adjacentEntries.isEmpty() && adjacentEntries.get(adjacentEntries.size() - 1).offset != fe.offset + fe.size) {
+            mergeAdjacentEntries(adjacentEntries);
+         }
+         adjacentEntries.add(fe);
+      }
+      mergeAdjacentEntries(adjacentEntries);
+
+      if (trace) log.tracef("Total time taken for mergeFreeEntries: " + (timeService.wallClockTime() - startTime) + " (ms)");
+   }
+
+   /**
+    * Replaces adjacent free entries, sorted by offset in reverse order, with a single free entry. Entries allocated by
+    * writers after the free list was copied can't be removed from it any more, and split the merged entry.
+    */
+   private void mergeAdjacentEntries(List<FileEntry> adjacentEntries) {
+      if (adjacentEntries.size() > 1) {
+         FileEntry newEntry = null;
+         int mergeCounter = 0;
+         for (FileEntry fe : adjacentEntries) {
+            if (freeList.remove(fe)) {
+               newEntry = newEntry == null ? fe : new FileEntry(fe.offset, fe.size + newEntry.size);
                mergeCounter++;
             } else {
-               newEntry = new FileEntry(fe.offset, fe.size + newEntry.size);
-            }
-            freeList.remove(fe);
-            mergeCounter++;
-         } else {
-            if (newEntry != null) {
-               try {
-                  addNewFreeEntry(newEntry);
-                  if (trace) log.tracef("Merged %d entries at %d:%d, %d free entries", mergeCounter, newEntry.offset, newEntry.size, freeList.size());
-               } catch (IOException e) {
-                  throw new PersistenceException("Could not add new merged entry", e);
-               }
+               addMergedEntry(newEntry, mergeCounter);
                newEntry = null;
                mergeCounter = 0;
             }
          }
-         lastEntry = fe;
+         addMergedEntry(newEntry, mergeCounter);
       }
-      
-      if (newEntry != null) {
+      adjacentEntries.clear();
+   }
+
+   private void addMergedEntry(FileEntry newEntry, int mergeCounter) {
+      if (mergeCounter == 1) {
+         // nothing to merge it with, give it back
+         freeList.add(newEntry);
+      } else if (mergeCounter > 1) {
          try {
             addNewFreeEntry(newEntry);
             if (trace) log.tracef("Merged %d entries at %d:%d, %d free entries", mergeCounter, newEntry.offset, newEntry.size, freeList.size());
@@ -653,10 +899,8 @@ private void mergeFreeEntries(List<FileEntry> entries) {
             throw new PersistenceException("Could not add new merged entry", e);
          }
       }
-
-      if (trace) log.tracef("Total time taken for mergeFreeEntries: " + (timeService.wallClockTime() - startTime) + " (ms)");
    }
-   
+
    @Override
    public void purge(Executor threadPool, final PurgeListener task) {
 
@@ -665,37 +909,32 @@ public void purge(Executor threadPool, final PurgeListener task) {
          public void run() {
             long now = timeService.wallClockTime();
             List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<KeyValuePair<Object, FileEntry>>();
-            synchronized (entries) {
-               for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
-                  Map.Entry<K, FileEntry> next = it.next();
-                  FileEntry fe = next.getValue();
-                  if (fe.isExpired(now)) {
-                     it.remove();
-                     entriesToPurge.add(new KeyValuePair<Object, FileEntry>(next.getKey(), fe));
-                  }
-               }
-            }
-
             resizeLock.readLock().lock();
             try {
-               for (Iterator<KeyValuePair<Object, FileEntry>> it = entriesToPurge.iterator(); it.hasNext(); ) {
-                  KeyValuePair<Object, FileEntry> next = it.next();
-                  FileEntry fe = next.getValue();
-                  if (fe.isExpired(now)) {
-                     it.remove();
+               for (Map<K, FileEntry> segmentEntries : entriesBySegment) {
+                  synchronized (segmentEntries) {
+                     for (Map.Entry<K, FileEntry> next : segmentEntries.entrySet()) {
+                        if (next.getValue().isExpired(now))
+                           entriesToPurge.add(new KeyValuePair<Object, FileEntry>(next.getKey(), next.getValue()));
+                     }
+                  }
+
+                  for (KeyValuePair<Object, FileEntry> next : entriesToPurge) {
+                     // skip the entries that were replaced or removed in the meantime
+                     if (!removeEntry(next.getKey(), next.getValue()))
+                        continue;
                      try {
-                        free(fe);
+                        free(next.getValue());
                      } catch (Exception e) {
                         throw new PersistenceException(e);
                      }
                      if (task != null) task.entryPurged(next.getKey());
                   }
+                  entriesToPurge.clear();
                }
-               
+
                // Disk space optimizations
-               synchronized (freeList) {
-                 processFreeEntries();
-               }
+               processFreeEntries();
             } finally {
                resizeLock.readLock().unlock();
             }
@@ -708,12 +947,31 @@ public int size() {
       return entries.size();
    }
 
+   @Override
+   public int size(Set<Integer> segments) {
+      if (!segmented) {
+         synchronized (entries) {
+            return (int) entries.keySet().stream().filter(key -> segments.contains(keyPartitioner.getSegment(key))).count();
+         }
+      }
+      int size = 0;
+      for (int segment : segments) {
+         if (segment >= 0 && segment < entriesBySegment.size()) {
+            Map<K, FileEntry> segmentEntries = entriesBySegment.get(segment);
+            synchronized (segmentEntries) {
+               size += segmentEntries.size();
+            }
+         }
+      }
+      return size;
+   }
+
    Map<K, FileEntry> getEntries() {
       return entries;
    }
 
-   SortedSet<FileEntry> getFreeList() {
-      return freeList;
+   List<FileEntry> getFreeList() {
+      return freeList.entries();
    }
 
    long getFileSize() {
@@ -739,7 +997,7 @@ public SingleFileStoreConfiguration getConfiguration() {
     * <li>{@link #metadataLen} bytes: serialized key</li>
     * </ul>
     */
-   private static class FileEntry implements Comparable<FileEntry> {
+   private static class FileEntry {
       /**
        * File offset of this block.
        */
@@ -824,14 +1082,6 @@ public int actualSize() {
          return KEY_POS + keyLen + dataLen + metadataLen;
       }
 
-      @Override
-      public int compareTo(FileEntry fe) {
-         // We compare the size first, as the entries in the free list must be sorted by size
-         int diff = size - fe.size;
-         if (diff != 0) return diff;
-         return (offset < fe.offset) ? -1 : ((offset == fe.offset) ? 0 : 1);
-      }
-
       @Override
       public boolean equals(Object o) {
          if (this == o) return true;
@@ -862,6 +1112,105 @@ public String toString() {
       }
    }
 
+   /**
+    * The free entries, grouped in classes by the highest bit of their size. Writers claim an entry by removing it from
+    * its class, so allocating and freeing space doesn't need a common lock, and allocation only scans the classes
+    * which may hold an entry large enough.
+    */
+   private static class FreeList {
+      private final Set<FileEntry>[] sizeClasses;
+      private final AtomicInteger size = new AtomicInteger();
+
+      @SuppressWarnings("unchecked")
+      FreeList() {
+         sizeClasses = new Set[Integer.SIZE];
+         for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = Collections.newSetFromMap(CollectionFactory.<FileEntry, Boolean>makeConcurrentMap());
+         }
+      }
+
+      private static int sizeClass(int size) {
+         return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(size);
+      }
+
+      /**
+       * @return false if the entry was already free
+       */
+      boolean add(FileEntry fe) {
+         if (sizeClasses[sizeClass(fe.size)].add(fe)) {
+            size.incrementAndGet();
+            return true;
+         }
+         return false;
+      }
+
+      /**
+       * @return true if the entry was free and the caller now owns it
+       */
+      boolean remove(FileEntry fe) {
+         if (sizeClasses[sizeClass(fe.size)].remove(fe)) {
+            size.decrementAndGet();
+            return true;
+         }
+         return false;
+      }
+
+      /**
+       * Removes a free entry of at least {@code len} bytes that isn't in use by concurrent readers.
+       * <p>
+       * The size class of {@code len} also holds entries smaller than {@code len}, and entries up to twice its size,
+       * so it is searched for the best fit. Any entry of a bigger class fits, and allocating it splits off the remainder
+       * when it is big enough, so the first one is taken.
+       *
+       * @return the entry now owned by the caller, or null
+       */
+      FileEntry claim(int len) {
+         int sizeClass = sizeClass(len);
+         for (; ; ) {
+            FileEntry best = null;
+            for (FileEntry free : sizeClasses[sizeClass]) {
+               if (free.size >= len && (best == null || free.size < best.size) && !free.isLocked()) {
+                  best = free;
+                  if (free.size == len)
+                     break;
+               }
+            }
+            if (best == null)
+               break;
+            if (remove(best))
+               return best;
+            // claimed by another writer in the meantime
+         }
+         for (int i = sizeClass + 1; i < sizeClasses.length; i++) {
+            for (FileEntry free : sizeClasses[i]) {
+               if (!free.isLocked() && remove(free))
+                  return free;
+            }
+         }
+         return null;
+      }
+
+      int size() {
+         return size.get();
+      }
+
+      List<FileEntry> entries() {
+         List<FileEntry> l = new ArrayList<>(size());
+         for (Set<FileEntry> sizeClass : sizeClasses) {
+            l.addAll(sizeClass);
+         }
+         return l;
+      }
+
+      void clear() {
+         for (Set<FileEntry> sizeClass : sizeClasses) {
+            for (FileEntry fe : sizeClass) {
+               remove(fe);
+            }
+         }
+      }
+   }
+
    /**
     * Compares two file entries based on their offset in the file
     * in the reverse order (bigger entries will be ahead of smaller entries)
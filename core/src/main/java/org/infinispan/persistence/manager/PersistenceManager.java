@@ -8,6 +8,7 @@
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.filter.KeyFilter;
+import org.infinispan.persistence.async.AsyncCacheWriter;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.marshall.core.MarshalledEntry;
 
@@ -34,6 +35,16 @@ public interface PersistenceManager extends Lifecycle {
 
    Collection<String> getStoresAsString();
 
+   /**
+    * @return the write-behind wrappers of the stores configured as asynchronous
+    */
+   Set<AsyncCacheWriter> getAsyncWriters();
+
+   /**
+    * @return the bloom filters in front of the stores configured with one
+    */
+   Collection<StoreBloomFilter> getBloomFilters();
+
    /**
     * Removes the expired entries from all the existing storage.
     */
@@ -54,10 +65,30 @@ public interface PersistenceManager extends Lifecycle {
 
    void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
 
+   /**
+    * Same as {@link #processOnAllStores(KeyFilter, AdvancedCacheLoader.CacheLoaderTask, boolean, boolean, AccessMode)},
+    * but only the entries of the given segments are processed. Stores implementing {@link
+    * org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore} only read those segments, the other stores are
+    * scanned entirely and their keys filtered by segment.
+    */
+   void processOnAllStores(Set<Integer> segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
+
    MarshalledEntry loadFromAllStores(Object key, InvocationContext context);
 
    void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes);
 
+   /**
+    * Writes all the entries to every store, using a single
+    * {@link org.infinispan.persistence.spi.CacheWriter#writeBatch(Iterable)} call per store.
+    */
+   void writeBatchToAllStores(Iterable<MarshalledEntry> marshalledEntries, AccessMode modes);
+
+   /**
+    * Deletes all the keys from every store, using a single
+    * {@link org.infinispan.persistence.spi.CacheWriter#deleteBatch(Iterable)} call per store.
+    */
+   void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode modes);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
@@ -5,6 +5,7 @@
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.AbstractStoreConfiguration;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.EvictionConfigurationBuilder;
 import org.infinispan.configuration.cache.Index;
@@ -17,6 +18,7 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.CacheLoaderInterceptor;
 import org.infinispan.interceptors.CacheWriterInterceptor;
@@ -28,6 +30,7 @@
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.InitializationContextImpl;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.async.AdvancedAsyncCacheLoader;
 import org.infinispan.persistence.async.AdvancedAsyncCacheWriter;
 import org.infinispan.persistence.async.AsyncCacheLoader;
@@ -41,6 +44,7 @@
 import org.infinispan.persistence.spi.CacheWriter;
 import org.infinispan.persistence.spi.LocalOnlyCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.persistence.support.AdvancedSingletonCacheWriter;
 import org.infinispan.persistence.support.DelegatingCacheLoader;
 import org.infinispan.persistence.support.DelegatingCacheWriter;
@@ -84,6 +88,8 @@ public class PersistenceManagerImpl implements PersistenceManager {
 
    private final ReadWriteLock storesMutex = new ReentrantReadWriteLock();
    private final Map<Object, StoreConfiguration> configMap = new HashMap<>();
+   // the bloom filter of a store, by its loader and its writer
+   private final Map<Object, StoreBloomFilter> bloomFilters = new HashMap<>();
 
    private CacheStoreFactoryRegistry cacheStoreFactoryRegistry;
    private ExpirationManager expirationManager;
@@ -99,6 +105,7 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private ByteBufferFactory byteBufferFactory;
    private MarshalledEntryFactory marshalledEntryFactory;
    private volatile boolean clearOnStop;
+   private KeyPartitioner keyPartitioner;
 
    @Inject
    public void inject(AdvancedCache<Object, Object> cache, @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
@@ -120,6 +127,11 @@ public void inject(AdvancedCache<Object, Object> cache, @ComponentName(CACHE_MAR
       this.advanedListener = new AdvancedPurgeListener(expirationManager);
    }
 
+   @Inject
+   public void injectKeyPartitioner(KeyPartitioner keyPartitioner) {
+      this.keyPartitioner = keyPartitioner;
+   }
+
    @Override
    @Start(priority = 10)
    public void start() {
@@ -163,6 +175,10 @@ public void start() {
                   }
                }
             }
+
+            for (StoreBloomFilter bloomFilter : new HashSet<>(bloomFilters.values())) {
+               bloomFilter.rebuild();
+            }
          } finally {
             if (xaTx != null) {
                transactionManager.resume(xaTx);
@@ -203,6 +219,13 @@ public void stop() {
          }
       }
 
+      // the filters are created again with the stores on start
+      storesMutex.writeLock().lock();
+      try {
+         bloomFilters.clear();
+      } finally {
+         storesMutex.writeLock().unlock();
+      }
    }
 
    @Override
@@ -256,14 +279,18 @@ public void disableStore(String storeType) {
             Iterator<CacheLoader> clIt = loaders.iterator();
             while (clIt.hasNext()) {
                CacheLoader l = clIt.next();
-               if (undelegate(l).getClass().getName().equals(storeType))
+               if (undelegate(l).getClass().getName().equals(storeType)) {
                   clIt.remove();
+                  bloomFilters.remove(l);
+               }
             }
             Iterator<CacheWriter> cwIt = writers.iterator();
             while (cwIt.hasNext()) {
                CacheWriter w = cwIt.next();
-               if (undelegate(w).getClass().getName().equals(storeType))
+               if (undelegate(w).getClass().getName().equals(storeType)) {
                   cwIt.remove();
+                  bloomFilters.remove(w);
+               }
             }
          } finally {
             storesMutex.writeLock().unlock();
@@ -312,6 +339,37 @@ public <T> Set<T> getStores(Class<T> storeClass) {
       }
    }
 
+   @Override
+   public Set<AsyncCacheWriter> getAsyncWriters() {
+      storesMutex.readLock().lock();
+      try {
+         Set<AsyncCacheWriter> result = new HashSet<AsyncCacheWriter>();
+         for (CacheWriter w : writers) {
+            // async writers may be wrapped by other delegating writers, e.g. singleton ones
+            while (w instanceof DelegatingCacheWriter) {
+               if (w instanceof AsyncCacheWriter) {
+                  result.add((AsyncCacheWriter) w);
+                  break;
+               }
+               w = ((DelegatingCacheWriter) w).getActual();
+            }
+         }
+         return result;
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public Collection<StoreBloomFilter> getBloomFilters() {
+      storesMutex.readLock().lock();
+      try {
+         return new HashSet<>(bloomFilters.values());
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public Collection<String> getStoresAsString() {
       storesMutex.readLock().lock();
@@ -390,6 +448,9 @@ public void clearAllStores(AccessMode mode) {
             if (w instanceof AdvancedCacheWriter) {
                if (mode.canPerform(configMap.get(w))) {
                   ((AdvancedCacheWriter) w).clear();
+                  StoreBloomFilter bloomFilter = bloomFilters.get(w);
+                  if (bloomFilter != null)
+                     bloomFilter.cleared();
                }
             }
          }
@@ -405,7 +466,11 @@ public boolean deleteFromAllStores(Object key, AccessMode mode) {
          boolean removed = false;
          for (CacheWriter w : writers) {
             if (mode.canPerform(configMap.get(w))) {
-               removed |= w.delete(key);
+               boolean deleted = w.delete(key);
+               StoreBloomFilter bloomFilter = bloomFilters.get(w);
+               if (deleted && bloomFilter != null)
+                  bloomFilter.removed(1);
+               removed |= deleted;
             }
          }
          return removed;
@@ -445,6 +510,31 @@ public void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedC
       }
    }
 
+   @Override
+   public void processOnAllStores(Set<Integer> segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task,
+                                  boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+      KeyFilter segmentFilter = null;
+      storesMutex.readLock().lock();
+      try {
+         for (CacheLoader loader : loaders) {
+            if (!mode.canPerform(configMap.get(loader)))
+               continue;
+            if (loader instanceof SegmentedAdvancedLoadWriteStore) {
+               ((SegmentedAdvancedLoadWriteStore) loader).process(segments, keyFilter, task, persistenceExecutor,
+                     fetchValue, fetchMetadata);
+            } else if (loader instanceof AdvancedCacheLoader) {
+               if (segmentFilter == null) {
+                  KeyFilter filter = PersistenceUtil.notNull(keyFilter);
+                  segmentFilter = key -> segments.contains(keyPartitioner.getSegment(key)) && filter.accept(key);
+               }
+               ((AdvancedCacheLoader) loader).process(segmentFilter, task, persistenceExecutor, fetchValue, fetchMetadata);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public MarshalledEntry loadFromAllStores(Object key, InvocationContext context) {
       storesMutex.readLock().lock();
@@ -453,9 +543,15 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
             if (!context.isOriginLocal() && isLocalOnlyLoader(l))
                continue;
 
+            StoreBloomFilter bloomFilter = bloomFilters.get(l);
+            if (bloomFilter != null && !bloomFilter.mightContain(key))
+               continue;
+
             MarshalledEntry load = l.load(key);
             if (load != null)
                return load;
+            if (bloomFilter != null)
+               bloomFilter.falsePositive();
          }
          return null;
       } finally {
@@ -479,7 +575,31 @@ public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode mode) {
       try {
          for (CacheWriter w : writers) {
             if (mode.canPerform(configMap.get(w))) {
+               StoreBloomFilter bloomFilter = bloomFilters.get(w);
+               if (bloomFilter != null)
+                  bloomFilter.add(marshalledEntry.getKey());
                w.write(marshalledEntry);
+               if (bloomFilter != null)
+                  bloomFilter.add(marshalledEntry.getKey());
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void writeBatchToAllStores(Iterable<MarshalledEntry> marshalledEntries, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               StoreBloomFilter bloomFilter = bloomFilters.get(w);
+               if (bloomFilter != null)
+                  addToBloomFilter(bloomFilter, marshalledEntries);
+               w.writeBatch(marshalledEntries);
+               if (bloomFilter != null)
+                  addToBloomFilter(bloomFilter, marshalledEntries);
             }
          }
       } finally {
@@ -487,6 +607,28 @@ public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode mode) {
       }
    }
 
+   @Override
+   public void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               w.deleteBatch(keys);
+               StoreBloomFilter bloomFilter = bloomFilters.get(w);
+               if (bloomFilter != null)
+                  bloomFilter.removed(keys);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   private void addToBloomFilter(StoreBloomFilter bloomFilter, Iterable<MarshalledEntry> marshalledEntries) {
+      for (MarshalledEntry marshalledEntry : marshalledEntries)
+         bloomFilter.add(marshalledEntry.getKey());
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       storesMutex.readLock().lock();
@@ -546,7 +688,26 @@ private void createLoadersAndWriters() {
          initializeLoader(processedConfiguration, loader, ctx);
          initializeWriter(processedConfiguration, writer, ctx);
          initializeBareInstance(bareInstance, ctx);
+         createBloomFilter(processedConfiguration, loader, writer, bareInstance);
+      }
+   }
+
+   private void createBloomFilter(StoreConfiguration cfg, CacheLoader loader, CacheWriter writer, Object bareInstance) {
+      if (!(cfg instanceof AbstractStoreConfiguration) || loader == null || writer == null)
+         return;
+      AbstractStoreConfiguration storeConfiguration = (AbstractStoreConfiguration) cfg;
+      if (storeConfiguration.bloomFilterExpectedEntries() <= 0)
+         return;
+      String storeName = bareInstance.getClass().getName();
+      if (!(loader instanceof AdvancedCacheLoader)) {
+         log.bloomFilterRequiresAdvancedLoader(storeName);
+         return;
       }
+      StoreBloomFilter bloomFilter = new StoreBloomFilter(storeName, (AdvancedCacheLoader) loader,
+            configuration.dataContainer().keyEquivalence(), storeConfiguration.bloomFilterExpectedEntries(),
+            storeConfiguration.bloomFilterFalsePositiveRate(), persistenceExecutor);
+      bloomFilters.put(loader, bloomFilter);
+      bloomFilters.put(writer, bloomFilter);
    }
 
    private CacheLoader postProcessReader(StoreConfiguration cfg, CacheWriter writer, CacheLoader loader) {
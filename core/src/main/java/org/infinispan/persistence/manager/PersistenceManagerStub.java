@@ -4,6 +4,7 @@
 import org.infinispan.factories.annotations.SurvivesRestarts;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.async.AsyncCacheWriter;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 
@@ -38,6 +39,16 @@ public <T> Set<T> getStores(Class<T> storeClass) {
       return Collections.EMPTY_SET;
    }
 
+   @Override
+   public Set<AsyncCacheWriter> getAsyncWriters() {
+      return Collections.emptySet();
+   }
+
+   @Override
+   public Collection<StoreBloomFilter> getBloomFilters() {
+      return Collections.emptySet();
+   }
+
    @Override
    public Collection<String> getStoresAsString() {
       return Collections.EMPTY_SET;
@@ -72,6 +83,10 @@ public void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoa
    public void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
    }
 
+   @Override
+   public void processOnAllStores(Set<Integer> segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+   }
+
    @Override
    public MarshalledEntry loadFromAllStores(Object key, InvocationContext context) {
       return null;
@@ -81,6 +96,14 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
    public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes) {
    }
 
+   @Override
+   public void writeBatchToAllStores(Iterable<MarshalledEntry> marshalledEntries, AccessMode modes) {
+   }
+
+   @Override
+   public void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode modes) {
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       return null;
@@ -0,0 +1,193 @@
+package org.infinispan.persistence.manager;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.BloomFilter;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * A bloom filter of the keys written to a store, consulted before loading a key so that keys which were never written
+ * don't cost a store access.
+ * <p>
+ * Keys are added both before and after they are written to the store, so the filter never reports a key in the store
+ * as absent, even while it is being rebuilt. Removed keys can't be taken out of a bloom filter, so once the number of
+ * removals reaches half the expected number of entries, or the store is cleared, the filter is rebuilt in the background
+ * from the keys in the store.
+ *
+ * @since 9.0
+ */
+public class StoreBloomFilter {
+   private static final Log log = LogFactory.getLog(StoreBloomFilter.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final String storeName;
+   private final AdvancedCacheLoader loader;
+   private final Equivalence<Object> keyEquivalence;
+   private final int expectedEntries;
+   private final double falsePositiveRate;
+   private final Executor executor;
+
+   private volatile BloomFilter filter;
+   // the filter being rebuilt, which also gets the keys written while the store is iterated
+   private volatile BloomFilter nextFilter;
+   private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+   private final AtomicInteger removalsSinceRebuild = new AtomicInteger();
+
+   private final LongAdder skippedLoads = new LongAdder();
+   private final LongAdder falsePositives = new LongAdder();
+   private final LongAdder rebuilds = new LongAdder();
+
+   StoreBloomFilter(String storeName, AdvancedCacheLoader loader, Equivalence<Object> keyEquivalence,
+                    int expectedEntries, double falsePositiveRate, Executor executor) {
+      this.storeName = storeName;
+      this.loader = loader;
+      this.keyEquivalence = keyEquivalence;
+      this.expectedEntries = expectedEntries;
+      this.falsePositiveRate = falsePositiveRate;
+      this.executor = executor;
+      this.filter = BloomFilter.create(expectedEntries, falsePositiveRate);
+   }
+
+   private long hash(Object key) {
+      return BloomFilter.hash(keyEquivalence.hashCode(key));
+   }
+
+   /**
+    * Adds a key to the filter, must be invoked both before and after writing the key to the store.
+    */
+   void add(Object key) {
+      long hash = hash(key);
+      // read the next filter first: if it was already swapped in, reading the current filter afterwards returns it
+      BloomFilter next = nextFilter;
+      if (next != null)
+         next.add(hash);
+      filter.add(hash);
+   }
+
+   /**
+    * @return false if the key was never written to the store, true if it might be in the store
+    */
+   boolean mightContain(Object key) {
+      if (filter.mightContain(hash(key)))
+         return true;
+      skippedLoads.increment();
+      return false;
+   }
+
+   /**
+    * Records that a key reported as present by {@link #mightContain(Object)} was not found in the store.
+    */
+   void falsePositive() {
+      falsePositives.increment();
+   }
+
+   void removed(int count) {
+      if (removalsSinceRebuild.addAndGet(count) >= Math.max(1, expectedEntries / 2))
+         scheduleRebuild();
+   }
+
+   /**
+    * Records the removal of a batch of keys. Only the keys the filter might contain can have been in the store.
+    */
+   void removed(Iterable<Object> keys) {
+      BloomFilter current = filter;
+      int count = 0;
+      for (Object key : keys) {
+         if (current.mightContain(hash(key)))
+            count++;
+      }
+      if (count > 0)
+         removed(count);
+   }
+
+   void cleared() {
+      scheduleRebuild();
+   }
+
+   private void scheduleRebuild() {
+      if (!rebuildScheduled.compareAndSet(false, true))
+         return;
+      try {
+         executor.execute(() -> {
+            try {
+               rebuild();
+            } catch (Throwable t) {
+               log.errorExecutingParallelStoreTask(t);
+            } finally {
+               rebuildScheduled.set(false);
+            }
+         });
+      } catch (RejectedExecutionException e) {
+         rebuildScheduled.set(false);
+      }
+   }
+
+   /**
+    * Replaces the filter with one built from the keys in the store.
+    */
+   void rebuild() {
+      long start = trace ? System.nanoTime() : 0;
+      BloomFilter next = BloomFilter.create(expectedEntries, falsePositiveRate);
+      removalsSinceRebuild.set(0);
+      nextFilter = next;
+      try {
+         loader.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
+            @Override
+            public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+               next.add(hash(marshalledEntry.getKey()));
+            }
+         }, new WithinThreadExecutor(), false, false);
+         filter = next;
+         rebuilds.increment();
+      } finally {
+         nextFilter = null;
+      }
+      if (trace) log.tracef("Rebuilt the bloom filter of store %s in %d ms", storeName,
+            (System.nanoTime() - start) / 1000000);
+   }
+
+   public String getStoreName() {
+      return storeName;
+   }
+
+   /**
+    * @return the number of loads skipped because the key was definitely not in the store
+    */
+   public long getSkippedLoads() {
+      return skippedLoads.sum();
+   }
+
+   /**
+    * @return the number of loads of keys reported as present by the filter but not found in the store
+    */
+   public long getFalsePositives() {
+      return falsePositives.sum();
+   }
+
+   public long getRebuilds() {
+      return rebuilds.sum();
+   }
+
+   public void resetStatistics() {
+      skippedLoads.reset();
+      falsePositives.reset();
+      rebuilds.reset();
+   }
+
+   @Override
+   public String toString() {
+      return "StoreBloomFilter{" +
+            "store=" + storeName +
+            ", filter=" + filter +
+            '}';
+   }
+}
@@ -35,4 +35,28 @@
     * @throws PersistenceException in case of an error, e.g. communicating with the external storage
     */
    boolean delete(Object key);
+
+   /**
+    * Persists all the entries to the storage. Stores that can write several entries at once more efficiently than one
+    * by one, e.g. in a single round trip or transaction, should override this method.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      for (MarshalledEntry<? extends K, ? extends V> entry : entries)
+         write(entry);
+   }
+
+   /**
+    * Deletes all the keys from the storage. Stores that can delete several entries at once more efficiently than one
+    * by one should override this method.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default void deleteBatch(Iterable<Object> keys) {
+      for (Object key : keys)
+         delete(key);
+   }
 }
@@ -0,0 +1,38 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.filter.KeyFilter;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * An {@link AdvancedLoadWriteStore} that keeps track of the segment each entry belongs to, so that the entries of a few
+ * segments can be iterated without reading the whole store. State transfer and the removal of the segments a node no
+ * longer owns use these methods when a store implements this interface.
+ * <p>
+ * Segments are the ones computed by the cache's {@link org.infinispan.distribution.ch.KeyPartitioner}, see {@link
+ * org.infinispan.persistence.PersistenceUtil#getKeyPartitioner(InitializationContext)}.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public interface SegmentedAdvancedLoadWriteStore<K, V> extends AdvancedLoadWriteStore<K, V> {
+
+   /**
+    * Same as {@link #process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)}, but only the entries belonging
+    * to the given segments are iterated.
+    *
+    * @param segments the segments whose entries should be fed into the task
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void process(Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                boolean fetchValue, boolean fetchMetadata);
+
+   /**
+    * Returns the number of entries in the given segments.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   int size(Set<Integer> segments);
+}
@@ -48,6 +48,13 @@ public boolean delete(Object key) {
       return actual.delete(key);
    }
 
+   /**
+    * @return the writer this instance delegates to, which may itself be a delegating writer
+    */
+   public CacheWriter getActual() {
+      return actual;
+   }
+
    public CacheWriter undelegate() {
       CacheWriter cl = this;
       do {
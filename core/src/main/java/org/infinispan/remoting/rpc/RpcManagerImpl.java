@@ -34,6 +34,7 @@
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.Transport;
 import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.stats.impl.TimingStatistics;
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.CompletableFutures;
@@ -67,15 +68,20 @@ public class RpcManagerImpl implements RpcManager, JmxStatisticsExposer {
    private CommandsFactory cf;
    private StateTransferManager stateTransferManager;
    private TimeService timeService;
+   private TimingStatistics timingStatistics;
+   // Created on the first invocation, because the cache name is not known before
+   private volatile TimingStatistics.Timer rpcTimer;
 
    @Inject
    public void injectDependencies(Transport t, Configuration cfg, CommandsFactory cf,
-                                  StateTransferManager stateTransferManager, TimeService timeService) {
+                                  StateTransferManager stateTransferManager, TimeService timeService,
+                                  TimingStatistics timingStatistics) {
       this.t = t;
       this.configuration = cfg;
       this.cf = cf;
       this.stateTransferManager = stateTransferManager;
       this.timeService = timeService;
+      this.timingStatistics = timingStatistics;
    }
 
    @Start(priority = 9)
@@ -120,7 +126,9 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
       CacheRpcCommand cacheRpc =
             rpc instanceof CacheRpcCommand ? (CacheRpcCommand) rpc : cf.buildSingleRpcCommand(rpc);
 
-      long startTimeNanos = statisticsEnabled ? timeService.time() : 0;
+      TimingStatistics.Timer timer = getRpcTimer(cacheRpc);
+      boolean timed = timer.isEnabled();
+      long startTimeNanos = statisticsEnabled || timed ? timeService.time() : 0;
       // TODO Re-enable the filter (and test MissingRpcDispatcherTest) after we find a way to update the cache members list before state transfer has started
       // add a response filter that will ensure we don't wait for replies from non-members
       // but only if the target is the whole cluster and the call is synchronous
@@ -151,6 +159,10 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
          return rethrowAsCacheException(e);
       }
       return invocation.handle((responseMap, throwable) -> {
+         if (timed) {
+            // Keyed by the type of the replicated command, not the type of the wrapper
+            timer.record(rpc.getClass(), timeService.timeDuration(startTimeNanos, TimeUnit.NANOSECONDS));
+         }
          if (statisticsEnabled) {
             long timeTaken = timeService.timeDuration(startTimeNanos, TimeUnit.MILLISECONDS);
             totalReplicationTime.getAndAdd(timeTaken);
@@ -167,6 +179,15 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
       });
    }
 
+   private TimingStatistics.Timer getRpcTimer(CacheRpcCommand cacheRpc) {
+      TimingStatistics.Timer timer = rpcTimer;
+      if (timer == null) {
+         timer = timingStatistics.getTimer(cacheRpc.getCacheName() + "/" + getClass().getSimpleName());
+         rpcTimer = timer;
+      }
+      return timer;
+   }
+
    protected <T> T rethrowAsCacheException(Throwable throwable) {
       if (throwable.getCause() != null && throwable instanceof CompletionException) {
          throwable = throwable.getCause();
@@ -942,16 +942,14 @@ private void removeStaleData(final Set<Integer> removedSegments) throws Interrup
       // gather all keys from cache store that belong to the segments that are being removed/moved to L1
       if (!removedSegments.isEmpty()) {
          try {
+            // the stores only iterate the keys of the removed segments
             KeyFilter filter = new KeyFilter() {
                @Override
                public boolean accept(Object key) {
-                  if (dataContainer.containsKey(key))
-                     return false;
-                  int keySegment = getSegment(key);
-                  return (removedSegments.contains(keySegment));
+                  return !dataContainer.containsKey(key);
                }
             };
-            persistenceManager.processOnAllStores(filter, new AdvancedCacheLoader.CacheLoaderTask() {
+            persistenceManager.processOnAllStores(removedSegments, filter, new AdvancedCacheLoader.CacheLoaderTask() {
                @Override
                public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
                   keysToRemove.add(marshalledEntry.getKey());
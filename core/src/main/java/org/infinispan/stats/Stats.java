@@ -84,6 +84,36 @@ public interface Stats {
     */
    long getAverageRemoveTime();
 
+   /**
+    * Returns a percentile of the latency of cache gets since the statistics were last reset.
+    *
+    * @param percentile between 0 and 100, where 100 returns the maximum
+    * @return the latency in microseconds, or -1 if not available
+    */
+   default long getReadTimePercentile(double percentile) {
+      return -1;
+   }
+
+   /**
+    * Returns a percentile of the latency of cache puts since the statistics were last reset.
+    *
+    * @param percentile between 0 and 100, where 100 returns the maximum
+    * @return the latency in microseconds, or -1 if not available
+    */
+   default long getWriteTimePercentile(double percentile) {
+      return -1;
+   }
+
+   /**
+    * Returns a percentile of the latency of successful cache removals since the statistics were last reset.
+    *
+    * @param percentile between 0 and 100, where 100 returns the maximum
+    * @return the latency in microseconds, or -1 if not available
+    */
+   default long getRemoveTimePercentile(double percentile) {
+      return -1;
+   }
+
    /**
     * Reset statistics
     */
@@ -0,0 +1,178 @@
+package org.infinispan.stats.impl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.JmxStatisticsExposer;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Parameter;
+
+/**
+ * Finds the most accessed keys and segments of a cache, and the keys whose locks are most contended, so that skew
+ * saturating a single node can be spotted without the extended statistics module.
+ * <p>
+ * Accesses are sampled: only one in {@link #getSampleRate()} is counted, in a {@link SpaceSavingSketch}, and the
+ * reported counts are scaled back up. Lock contention is rare compared to accesses, and it is already a slow path, so
+ * every contended lock is counted. Tracking is disabled by default, it can be enabled with the
+ * {@code infinispan.stats.hotkeys} system property or at runtime through the {@code statisticsEnabled} attribute.
+ *
+ * @since 9.0
+ */
+@Scope(Scopes.NAMED_CACHE)
+@MBean(objectName = "HotKeys", description = "Samples the most accessed keys and segments, and the most contended locks")
+public class HotKeyTracker implements JmxStatisticsExposer {
+   private static final int DEFAULT_TOP = 10;
+
+   private DistributionManager distributionManager;
+   private Equivalence<Object> keyEquivalence = AnyEquivalence.getInstance();
+
+   private volatile boolean statisticsEnabled = Boolean.getBoolean("infinispan.stats.hotkeys");
+   private volatile int sampleRate = 100;
+   private volatile Sketches sketches = new Sketches(100, keyEquivalence);
+
+   @Inject
+   public void inject(Configuration configuration, DistributionManager distributionManager) {
+      this.distributionManager = distributionManager;
+      this.keyEquivalence = configuration.dataContainer().keyEquivalence();
+      this.sketches = new Sketches(sketches.keys.getCapacity(), keyEquivalence);
+   }
+
+   /**
+    * Counts an access to a key, if it is sampled.
+    */
+   public void recordAccess(Object key) {
+      if (!statisticsEnabled || ThreadLocalRandom.current().nextInt(sampleRate) != 0)
+         return;
+      Sketches s = sketches;
+      s.keys.offer(key);
+      if (distributionManager != null) {
+         ConsistentHash ch = distributionManager.getReadConsistentHash();
+         if (ch != null) {
+            s.segments.offer(ch.getSegment(key));
+         }
+      }
+   }
+
+   /**
+    * Counts a lock acquisition that had to wait for another owner.
+    */
+   public void recordContendedLock(Object key) {
+      if (statisticsEnabled) {
+         sketches.locks.offer(key);
+      }
+   }
+
+   @Override
+   @ManagedAttribute(description = "Enables or disables the sampling of hot keys, hot segments and contended locks",
+         displayName = "Statistics enabled", dataType = DataType.TRAIT, writable = true)
+   public boolean getStatisticsEnabled() {
+      return statisticsEnabled;
+   }
+
+   @Override
+   public void setStatisticsEnabled(boolean enabled) {
+      this.statisticsEnabled = enabled;
+   }
+
+   @ManagedAttribute(description = "One in this many accesses is sampled",
+         displayName = "Sample rate", dataType = DataType.TRAIT, writable = true)
+   public int getSampleRate() {
+      return sampleRate;
+   }
+
+   public void setSampleRate(int sampleRate) {
+      this.sampleRate = Math.max(1, sampleRate);
+   }
+
+   @ManagedAttribute(description = "Number of keys, segments and locks tracked, larger values are more accurate",
+         displayName = "Capacity", dataType = DataType.TRAIT, writable = true)
+   public int getCapacity() {
+      return sketches.keys.getCapacity();
+   }
+
+   /**
+    * Changes the number of items tracked, discarding the counts so far.
+    */
+   public void setCapacity(int capacity) {
+      this.sketches = new Sketches(Math.max(1, capacity), keyEquivalence);
+   }
+
+   @Override
+   @ManagedOperation(description = "Resets the sampled counts", displayName = "Reset statistics")
+   public void resetStatistics() {
+      Sketches s = sketches;
+      s.keys.reset();
+      s.segments.reset();
+      s.locks.reset();
+   }
+
+   @ManagedAttribute(description = "Shows the " + DEFAULT_TOP + " most accessed keys, with their estimated number of accesses",
+         displayName = "Hot keys")
+   public Map<String, Long> getHotKeys() {
+      return getTopKeys(DEFAULT_TOP);
+   }
+
+   @ManagedOperation(description = "Shows the n most accessed keys, with their estimated number of accesses",
+         displayName = "Top n hot keys")
+   public Map<String, Long> getTopKeys(@Parameter(name = "n", description = "Number of keys to show") int n) {
+      return toMap(sketches.keys.top(n), sampleRate);
+   }
+
+   @ManagedAttribute(description = "Shows the " + DEFAULT_TOP + " most accessed segments, with their estimated number of accesses",
+         displayName = "Hot segments")
+   public Map<String, Long> getHotSegments() {
+      return getTopSegments(DEFAULT_TOP);
+   }
+
+   @ManagedOperation(description = "Shows the n most accessed segments, with their estimated number of accesses",
+         displayName = "Top n hot segments")
+   public Map<String, Long> getTopSegments(@Parameter(name = "n", description = "Number of segments to show") int n) {
+      return toMap(sketches.segments.top(n), sampleRate);
+   }
+
+   @ManagedAttribute(description = "Shows the " + DEFAULT_TOP + " keys whose locks were most contended, with the number of times a lock owner had to wait",
+         displayName = "Contended locks")
+   public Map<String, Long> getContendedLocks() {
+      return getTopContendedLocks(DEFAULT_TOP);
+   }
+
+   @ManagedOperation(description = "Shows the n keys whose locks were most contended, with the number of times a lock owner had to wait",
+         displayName = "Top n contended locks")
+   public Map<String, Long> getTopContendedLocks(@Parameter(name = "n", description = "Number of keys to show") int n) {
+      return toMap(sketches.locks.top(n), 1);
+   }
+
+   private static Map<String, Long> toMap(List<? extends SpaceSavingSketch.Counter<?>> counters, int scale) {
+      Map<String, Long> map = new LinkedHashMap<>();
+      for (SpaceSavingSketch.Counter<?> counter : counters) {
+         map.merge(Util.toStr(counter.getItem()), counter.getCount() * scale, Long::sum);
+      }
+      return map;
+   }
+
+   private static final class Sketches {
+      final SpaceSavingSketch<Object> keys;
+      final SpaceSavingSketch<Integer> segments;
+      final SpaceSavingSketch<Object> locks;
+
+      Sketches(int capacity, Equivalence<Object> keyEquivalence) {
+         keys = new SpaceSavingSketch<>(capacity, keyEquivalence);
+         segments = new SpaceSavingSketch<>(capacity, AnyEquivalence.getInstance());
+         locks = new SpaceSavingSketch<>(capacity, keyEquivalence);
+      }
+   }
+}
@@ -0,0 +1,161 @@
+package org.infinispan.stats.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies, for calculating percentiles without keeping the recorded values. Values are
+ * counted in log-linear buckets: values below {@code 2^SUB_BUCKET_BITS} get a bucket each, and every following power of
+ * two is split into {@code 2^(SUB_BUCKET_BITS - 1)} buckets, so the value reported for a percentile is never more than
+ * ~3% above the recorded one. Values above {@link #MAX_TRACKABLE_VALUE} are counted as {@link #MAX_TRACKABLE_VALUE},
+ * but the maximum is tracked exactly.
+ * <p>
+ * Recording a value is an increment of a single bucket, and it does not block other recordings. Percentiles are
+ * calculated from a {@link #snapshot()}, which is not atomic with respect to concurrent recordings, so a percentile
+ * might miss the values recorded while the snapshot is taken.
+ *
+ * @since 9.0
+ */
+public final class LatencyHistogram {
+
+   private static final int SUB_BUCKET_BITS = 6;
+   private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+
+   /**
+    * Values above this one, over 19 hours when recording microseconds, are counted in the last bucket.
+    */
+   public static final long MAX_TRACKABLE_VALUE = (1L << 36) - 1;
+
+   private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+   private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+   private final AtomicLong max = new AtomicLong();
+
+   /**
+    * Records a value, negative values are recorded as 0.
+    */
+   public void record(long value) {
+      record(value, 1);
+   }
+
+   /**
+    * Records the same value for a number of operations, e.g. the keys of a bulk operation.
+    */
+   public void record(long value, int count) {
+      if (count <= 0)
+         return;
+      if (value < 0)
+         value = 0;
+      buckets.addAndGet(bucketIndex(Math.min(value, MAX_TRACKABLE_VALUE)), count);
+      long currentMax;
+      while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+         // Retry, another thread updated the max
+      }
+   }
+
+   /**
+    * Starts a new window, forgetting the values recorded so far.
+    */
+   public void reset() {
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+         buckets.set(i, 0);
+      }
+      max.set(0);
+   }
+
+   public Snapshot snapshot() {
+      long[] counts = new long[BUCKET_COUNT];
+      long total = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+         counts[i] = buckets.get(i);
+         total += counts[i];
+      }
+      return new Snapshot(counts, total, max.get());
+   }
+
+   static int bucketIndex(long value) {
+      int shift = Math.max(0, (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1));
+      return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+   }
+
+   /**
+    * @return the highest value counted in the bucket
+    */
+   static long highestValueInBucket(int index) {
+      if (index < 2 * SUB_BUCKET_HALF_COUNT)
+         return index;
+      int shift = (index >> (SUB_BUCKET_BITS - 1)) - 1;
+      long subBucket = index - ((long) shift << (SUB_BUCKET_BITS - 1));
+      return ((subBucket + 1) << shift) - 1;
+   }
+
+   /**
+    * Immutable copy of the counts of a {@link LatencyHistogram}.
+    */
+   public static final class Snapshot {
+      private static final Snapshot EMPTY = new Snapshot(new long[0], 0, 0);
+
+      private final long[] counts;
+      private final long count;
+      private final long max;
+
+      private Snapshot(long[] counts, long count, long max) {
+         this.counts = counts;
+         this.count = count;
+         this.max = max;
+      }
+
+      public static Snapshot empty() {
+         return EMPTY;
+      }
+
+      /**
+       * @return the number of values recorded
+       */
+      public long getCount() {
+         return count;
+      }
+
+      /**
+       * @return the highest value recorded, or 0 if no value was recorded
+       */
+      public long getMax() {
+         return max;
+      }
+
+      /**
+       * Returns the value below which the given percentage of the recorded values fall.
+       *
+       * @param percentile between 0 and 100, where 100 returns the {@link #getMax() maximum}
+       * @return the value, or 0 if no value was recorded
+       */
+      public long getPercentile(double percentile) {
+         if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+         if (count == 0)
+            return 0;
+         if (percentile == 100)
+            return max;
+
+         long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+         long seen = 0;
+         for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+               return Math.min(highestValueInBucket(i), max);
+         }
+         return max;
+      }
+
+      @Override
+      public String toString() {
+         return "Snapshot{" +
+               "count=" + count +
+               ", p50=" + getPercentile(50) +
+               ", p99=" + getPercentile(99) +
+               ", p99.9=" + getPercentile(99.9) +
+               ", max=" + max +
+               '}';
+      }
+   }
+}
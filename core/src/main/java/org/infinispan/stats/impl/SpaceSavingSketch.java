@@ -0,0 +1,118 @@
+package org.infinispan.stats.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+
+/**
+ * Space-saving sketch (Metwally et al.) estimating the most frequent items of a stream with a fixed number of counters.
+ * <p>
+ * When an item without a counter is offered and all the counters are taken, the counter with the lowest count is
+ * given to the new item, which inherits its count plus one. The count of an item is therefore never underestimated,
+ * and it is overestimated by at most its {@link Counter#getError() error}. Any item occurring more than {@code N /
+ * capacity} times in a stream of {@code N} items is guaranteed to have a counter.
+ * <p>
+ * Finding the lowest counter is linear in the capacity, so the sketch is meant to be fed a sample of the stream and to
+ * keep a small capacity. All the methods are synchronized.
+ *
+ * @since 9.0
+ */
+public final class SpaceSavingSketch<T> {
+
+   private final int capacity;
+   private final Map<T, Counter<T>> counters;
+
+   public SpaceSavingSketch(int capacity, Equivalence<? super T> equivalence) {
+      if (capacity <= 0)
+         throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+      this.capacity = capacity;
+      this.counters = CollectionFactory.makeMap(capacity + 1, equivalence, AnyEquivalence.getInstance());
+   }
+
+   public int getCapacity() {
+      return capacity;
+   }
+
+   /**
+    * Counts one occurrence of the item.
+    */
+   public synchronized void offer(T item) {
+      Counter<T> counter = counters.get(item);
+      if (counter != null) {
+         counter.count++;
+         return;
+      }
+      if (counters.size() < capacity) {
+         counters.put(item, new Counter<>(item, 1, 0));
+         return;
+      }
+      Counter<T> lowest = null;
+      for (Counter<T> c : counters.values()) {
+         if (lowest == null || c.count < lowest.count) {
+            lowest = c;
+         }
+      }
+      counters.remove(lowest.item);
+      counters.put(item, new Counter<>(item, lowest.count + 1, lowest.count));
+   }
+
+   /**
+    * @param n the maximum number of items to return
+    * @return copies of the counters of the {@code n} most frequent items, the most frequent first
+    */
+   public synchronized List<Counter<T>> top(int n) {
+      List<Counter<T>> top = new ArrayList<>(counters.size());
+      for (Counter<T> c : counters.values()) {
+         top.add(new Counter<>(c.item, c.count, c.error));
+      }
+      top.sort(Comparator.comparingLong((Counter<T> c) -> c.count).reversed());
+      return n < top.size() ? top.subList(0, Math.max(0, n)) : top;
+   }
+
+   public synchronized void reset() {
+      counters.clear();
+   }
+
+   /**
+    * The estimated number of occurrences of an item.
+    */
+   public static final class Counter<T> {
+      private final T item;
+      private long count;
+      private final long error;
+
+      private Counter(T item, long count, long error) {
+         this.item = item;
+         this.count = count;
+         this.error = error;
+      }
+
+      public T getItem() {
+         return item;
+      }
+
+      /**
+       * @return the estimated number of occurrences, never lower than the real one
+       */
+      public long getCount() {
+         return count;
+      }
+
+      /**
+       * @return the maximum overestimation of the {@link #getCount() count}
+       */
+      public long getError() {
+         return error;
+      }
+
+      @Override
+      public String toString() {
+         return "Counter{item=" + item + ", count=" + count + ", error=" + error + '}';
+      }
+   }
+}
@@ -1,5 +1,7 @@
 package org.infinispan.stats.impl;
 
+import java.util.function.ToLongFunction;
+
 import net.jcip.annotations.Immutable;
 
 import org.infinispan.interceptors.CacheMgmtInterceptor;
@@ -28,6 +30,9 @@ public class StatsImpl implements Stats {
    final long averageReadTime;
    final long averageWriteTime;
    final long averageRemoveTime;
+   final LatencyHistogram.Snapshot readLatencies;
+   final LatencyHistogram.Snapshot writeLatencies;
+   final LatencyHistogram.Snapshot removeLatencies;
    final CacheMgmtInterceptor mgmtInterceptor;
    final Stats source;
 
@@ -50,6 +55,9 @@ public StatsImpl(SequentialInterceptorChain chain) {
          averageReadTime = mgmtInterceptor.getAverageReadTime();
          averageWriteTime = mgmtInterceptor.getAverageWriteTime();
          averageRemoveTime = mgmtInterceptor.getAverageRemoveTime();
+         readLatencies = mgmtInterceptor.getReadLatencies();
+         writeLatencies = mgmtInterceptor.getWriteLatencies();
+         removeLatencies = mgmtInterceptor.getRemoveLatencies();
       } else {
          timeSinceReset = -1;
          timeSinceStart = -1;
@@ -65,12 +73,18 @@ public StatsImpl(SequentialInterceptorChain chain) {
          averageReadTime = -1;
          averageWriteTime = -1;
          averageRemoveTime = -1;
+         readLatencies = null;
+         writeLatencies = null;
+         removeLatencies = null;
       }
    }
 
    public StatsImpl(Stats other) {
       mgmtInterceptor = null;
       source = other;
+      readLatencies = null;
+      writeLatencies = null;
+      removeLatencies = null;
       if (other != null) {
          timeSinceReset = other.getTimeSinceReset();
          timeSinceStart = other.getTimeSinceStart();
@@ -174,6 +188,28 @@ public long getAverageRemoveTime() {
       return averageRemoveTime;
    }
 
+   @Override
+   public long getReadTimePercentile(double percentile) {
+      return percentile(readLatencies, percentile, s -> s.getReadTimePercentile(percentile));
+   }
+
+   @Override
+   public long getWriteTimePercentile(double percentile) {
+      return percentile(writeLatencies, percentile, s -> s.getWriteTimePercentile(percentile));
+   }
+
+   @Override
+   public long getRemoveTimePercentile(double percentile) {
+      return percentile(removeLatencies, percentile, s -> s.getRemoveTimePercentile(percentile));
+   }
+
+   private long percentile(LatencyHistogram.Snapshot latencies, double percentile, ToLongFunction<Stats> fromSource) {
+      if (latencies != null)
+         return latencies.getPercentile(percentile);
+      // The histograms are not copied from other stats, since the percentile is only known when requested
+      return source != null ? fromSource.applyAsLong(source) : -1;
+   }
+
    @Override
    public void reset() {
       if (mgmtInterceptor != null) {
@@ -0,0 +1,181 @@
+package org.infinispan.stats.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.JmxStatisticsExposer;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Parameter;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Records where the time goes when executing commands: in each interceptor of each cache, waiting for the responses of
+ * remote invocations, and marshalling. Every {@link Timer} keeps a count, a total and a maximum per command type, so
+ * recording a time does not allocate or block.
+ * <p>
+ * Timing is disabled by default, since reading the clock around every interceptor is not free. It can be enabled with
+ * the {@code infinispan.stats.timing} system property, or at runtime through the {@code statisticsEnabled} attribute.
+ * When TRACE is enabled for this class, one in {@link #getSampleRate()} recorded times is also logged.
+ *
+ * @since 9.0
+ */
+@Scope(Scopes.GLOBAL)
+@MBean(objectName = "TimingStatistics", description = "Time spent in interceptors, remote invocations and marshalling")
+public class TimingStatistics implements JmxStatisticsExposer {
+   private static final Log log = LogFactory.getLog(TimingStatistics.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+   private volatile boolean statisticsEnabled = Boolean.getBoolean("infinispan.stats.timing");
+   private volatile int sampleRate = 1000;
+
+   /**
+    * @param name the name of what is being timed, e.g. {@code "myCache/LockingInterceptor"}
+    * @return the timer with the given name, created if necessary
+    */
+   public Timer getTimer(String name) {
+      return timers.computeIfAbsent(name, n -> new Timer(this, n));
+   }
+
+   @Override
+   @ManagedAttribute(description = "Enables or disables the timing of interceptors, remote invocations and marshalling",
+         displayName = "Statistics enabled", dataType = DataType.TRAIT, writable = true)
+   public boolean getStatisticsEnabled() {
+      return statisticsEnabled;
+   }
+
+   @Override
+   public void setStatisticsEnabled(boolean enabled) {
+      this.statisticsEnabled = enabled;
+   }
+
+   @ManagedAttribute(description = "One in this many recorded times is logged, if TRACE is enabled",
+         displayName = "Trace sample rate", dataType = DataType.TRAIT, writable = true)
+   public int getSampleRate() {
+      return sampleRate;
+   }
+
+   public void setSampleRate(int sampleRate) {
+      this.sampleRate = Math.max(1, sampleRate);
+   }
+
+   @Override
+   @ManagedOperation(description = "Resets the recorded times", displayName = "Reset statistics")
+   public void resetStatistics() {
+      timers.values().forEach(Timer::reset);
+   }
+
+   @ManagedOperation(description = "Prints the recorded times, sorted by the total time spent", displayName = "Print timings")
+   public String printTimings() {
+      return printTimingsWithPrefix("");
+   }
+
+   @ManagedOperation(description = "Prints the recorded times of the timers starting with the given prefix, e.g. a cache name, sorted by the total time spent",
+         displayName = "Print timings with prefix")
+   public String printTimingsWithPrefix(@Parameter(name = "prefix", description = "Prefix of the timer names") String prefix) {
+      List<Object[]> rows = new ArrayList<>();
+      for (Timer timer : timers.values()) {
+         if (!timer.name.startsWith(prefix))
+            continue;
+         for (Map.Entry<Class<?>, Counter> e : timer.counters.entrySet()) {
+            Counter counter = e.getValue();
+            long count = counter.count.sum();
+            if (count > 0) {
+               rows.add(new Object[]{timer.name, e.getKey().getSimpleName(), count, counter.totalNanos.sum(),
+                     counter.maxNanos.get()});
+            }
+         }
+      }
+      rows.sort(Comparator.comparingLong((Object[] row) -> (Long) row[3]).reversed());
+
+      StringBuilder sb = new StringBuilder();
+      sb.append(String.format("%-60s %-35s %12s %14s %12s %12s%n", "Timer", "Command", "Count", "Total (ms)",
+            "Avg (us)", "Max (us)"));
+      for (Object[] row : rows) {
+         long count = (Long) row[2];
+         long totalNanos = (Long) row[3];
+         sb.append(String.format("%-60s %-35s %12d %14d %12d %12d%n", row[0], row[1], count,
+               TimeUnit.NANOSECONDS.toMillis(totalNanos), TimeUnit.NANOSECONDS.toMicros(totalNanos / count),
+               TimeUnit.NANOSECONDS.toMicros((Long) row[4])));
+      }
+      return sb.toString();
+   }
+
+   /**
+    * Times spent doing one thing, e.g. running an interceptor, per command type.
+    */
+   public static final class Timer {
+      private final TimingStatistics statistics;
+      private final String name;
+      private final ConcurrentMap<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+      private Timer(TimingStatistics statistics, String name) {
+         this.statistics = statistics;
+         this.name = name;
+      }
+
+      public boolean isEnabled() {
+         return statistics.statisticsEnabled;
+      }
+
+      /**
+       * @param type the type of the command, or of the object, the time was spent on
+       * @param durationNanos the time spent, in nanoseconds
+       */
+      public void record(Class<?> type, long durationNanos) {
+         Counter counter = counters.get(type);
+         if (counter == null) {
+            counter = counters.computeIfAbsent(type, t -> new Counter());
+         }
+         counter.record(durationNanos);
+         if (trace && ThreadLocalRandom.current().nextInt(statistics.sampleRate) == 0) {
+            log.tracef("%s took %d us for %s", name, TimeUnit.NANOSECONDS.toMicros(durationNanos),
+                  type.getSimpleName());
+         }
+      }
+
+      void reset() {
+         counters.values().forEach(Counter::reset);
+      }
+
+      @Override
+      public String toString() {
+         return "Timer{" + name + '}';
+      }
+   }
+
+   private static final class Counter {
+      final LongAdder count = new LongAdder();
+      final LongAdder totalNanos = new LongAdder();
+      final AtomicLong maxNanos = new AtomicLong();
+
+      void record(long durationNanos) {
+         count.increment();
+         totalNanos.add(durationNanos);
+         long currentMax;
+         while (durationNanos > (currentMax = maxNanos.get()) && !maxNanos.compareAndSet(currentMax, durationNanos)) {
+            // Retry, another thread updated the max
+         }
+      }
+
+      void reset() {
+         count.reset();
+         totalNanos.reset();
+         maxNanos.set(0);
+      }
+   }
+}
@@ -9,6 +9,7 @@
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.stats.impl.HotKeyTracker;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.DeadlockDetectedException;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
@@ -54,6 +55,7 @@ public class DefaultLockManager implements LockManager {
    protected LockContainer lockContainer;
    protected Configuration configuration;
    protected ScheduledExecutorService scheduler;
+   private HotKeyTracker hotKeyTracker;
 
    @Inject
    public void inject(LockContainer container, Configuration configuration,
@@ -63,6 +65,11 @@ public void inject(LockContainer container, Configuration configuration,
       this.scheduler = executorService;
    }
 
+   @Inject
+   public void injectHotKeyTracker(HotKeyTracker hotKeyTracker) {
+      this.hotKeyTracker = hotKeyTracker;
+   }
+
 
    @Override
    public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit) {
@@ -75,6 +82,7 @@ public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUni
       }
 
       ExtendedLockPromise promise = lockContainer.acquire(key, lockOwner, time, unit);
+      recordContention(promise, key);
       return new KeyAwareExtendedLockPromise(promise, key, unit.toMillis(time)).scheduleLockTimeoutTask(scheduler);
    }
 
@@ -110,13 +118,21 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
       //ordering will not solve the problem since acquire() is non-blocking and each lock owner can iterate faster/slower than the other.
       synchronized (this) {
          for (Object key : uniqueKeys) {
-            compositeLockPromise.addLock(new KeyAwareExtendedLockPromise(lockContainer.acquire(key, lockOwner, time, unit), key, unit.toMillis(time)));
+            ExtendedLockPromise promise = lockContainer.acquire(key, lockOwner, time, unit);
+            recordContention(promise, key);
+            compositeLockPromise.addLock(new KeyAwareExtendedLockPromise(promise, key, unit.toMillis(time)));
          }
       }
       compositeLockPromise.markListAsFinal();
       return compositeLockPromise.scheduleLockTimeoutTask(scheduler, time, unit);
    }
 
+   private void recordContention(ExtendedLockPromise promise, Object key) {
+      if (hotKeyTracker != null && !promise.isAvailable()) {
+         hotKeyTracker.recordContendedLock(key);
+      }
+   }
+
    private Set<Object> filterDistinctKeys(Collection<?> collection) {
       if (collection instanceof Set) {
          //noinspection unchecked
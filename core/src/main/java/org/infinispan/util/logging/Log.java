@@ -1412,4 +1412,31 @@ TimeoutException timeoutWaitingForView(int expectedViewId, int currentViewId,
    @LogMessage(level = WARN)
    @Message(value = "Classpath does not look correct. Make sure you are not mixing uber and jars", id = 411)
    void warnAboutUberJarDuplicates();
+
+   @Message(value = "Invalid asynchronous backup batch size %d, it must be 0 (disabled) or a positive number", id = 412)
+   CacheConfigurationException invalidAsyncBackupBatchSize(int batchSize);
+
+   @Message(value = "Invalid asynchronous backup batch delay %d, it cannot be negative", id = 413)
+   CacheConfigurationException invalidAsyncBackupBatchDelay(long batchDelay);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to send a batch of %d asynchronous backups of cache '%s' to site '%s'", id = 414)
+   void unableToSendAsyncBackupBatch(int size, String cacheName, String site, @Cause Throwable cause);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to compact the free space of file store %s", id = 415)
+   void unableToCompactFileStore(String path, @Cause Throwable cause);
+
+   @Message(value = "Invalid bloom filter size %d, it must be 0 (disabled) or a positive number of entries", id = 416)
+   CacheConfigurationException invalidBloomFilterExpectedEntries(int expectedEntries);
+
+   @Message(value = "Invalid bloom filter false positive rate %s, it must be greater than 0 and less than 1", id = 417)
+   CacheConfigurationException invalidBloomFilterFalsePositiveRate(double falsePositiveRate);
+
+   @Message(value = "A bloom filter can only be used with stores that are neither shared nor ignoring modifications", id = 418)
+   CacheConfigurationException bloomFilterRequiresPrivateWritableStore();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Cannot build a bloom filter for store %s, as it doesn't implement AdvancedCacheLoader", id = 419)
+   void bloomFilterRequiresAdvancedLoader(String store);
 }
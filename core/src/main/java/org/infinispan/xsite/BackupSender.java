@@ -47,6 +47,19 @@ public interface BackupSender {
     */
    Map<String, Boolean> status();
 
+   /**
+    * @return the number of writes waiting to be sent in a batch to the given site, or -1 if the writes are not sent
+    * in batches to the site.
+    * @see org.infinispan.configuration.cache.BackupConfiguration#asyncBatchSize()
+    */
+   int getAsyncQueueSize(String siteName);
+
+   /**
+    * @return the time in milliseconds the oldest write waiting to be sent in a batch to the given site has been
+    * queued, or -1 if the writes are not sent in batches to the site.
+    */
+   long getAsyncQueueLag(String siteName);
+
    public enum BringSiteOnlineResponse {
       NO_SUCH_SITE,
       ALREADY_ONLINE,
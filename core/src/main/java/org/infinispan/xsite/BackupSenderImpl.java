@@ -13,6 +13,7 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.BackupConfiguration;
@@ -22,8 +23,10 @@
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.remoting.transport.AggregateBackupResponse;
 import org.infinispan.remoting.transport.BackupResponse;
 import org.infinispan.remoting.transport.Transport;
@@ -47,7 +50,9 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 import static org.infinispan.util.logging.events.Messages.MESSAGES;
 
 /**
@@ -68,6 +73,10 @@ public class BackupSenderImpl implements BackupSender {
    private final Map<String, CustomFailurePolicy> siteFailurePolicy = new HashMap<>();
    private final ConcurrentMap<String, OfflineStatus> offlineStatus = CollectionFactory.makeConcurrentMap();
    private EventLogManager eventLogManager;
+   private StreamingMarshaller marshaller;
+   // Flushes the asynchronous backup queues, not shared with other components because a flush waits for the send
+   private ScheduledThreadPoolExecutor asyncBackupExecutor;
+   private final Map<String, XSiteAsyncBackupQueue> asyncQueues = new HashMap<>();
 
    private final String localSiteName;
    private String cacheName;
@@ -81,7 +90,8 @@ public BackupSenderImpl(String localSiteName) {
 
    @Inject
    public void init(Cache cache, Transport transport, TransactionTable txTable, GlobalConfiguration gc,
-                    TimeService timeService, CommandsFactory commandsFactory, EventLogManager eventLogManager) {
+                    TimeService timeService, CommandsFactory commandsFactory, EventLogManager eventLogManager,
+                    @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller) {
       this.cache = cache;
       this.transport = transport;
       this.txTable = txTable;
@@ -89,6 +99,7 @@ public void init(Cache cache, Transport transport, TransactionTable txTable, Glo
       this.timeService = timeService;
       this.commandsFactory = commandsFactory;
       this.eventLogManager = eventLogManager;
+      this.marshaller = marshaller;
    }
 
    @Start
@@ -119,9 +130,38 @@ public void siteOffline() {
                                                       }
                                                    });
          offlineStatus.put(siteName, offline);
+         if (bc.isAsyncBatchingEnabled() && !siteName.equals(localSiteName)) {
+            if (asyncBackupExecutor == null) {
+               String threadName = "XSiteAsyncBackup-" + cacheName;
+               asyncBackupExecutor = new ScheduledThreadPoolExecutor(1, r -> {
+                  Thread t = new Thread(r, threadName);
+                  t.setDaemon(true);
+                  return t;
+               });
+               asyncBackupExecutor.setRemoveOnCancelPolicy(true);
+            }
+            asyncQueues.put(siteName, new XSiteAsyncBackupQueue(cacheName, bc, offline, transport, commandsFactory,
+                                                                marshaller, asyncBackupExecutor, timeService));
+         }
+      }
+      if (asyncBackupExecutor != null) {
+         // One thread per site, so that a slow site does not delay the batches of the others
+         asyncBackupExecutor.setCorePoolSize(asyncQueues.size());
       }
    }
 
+   @Stop
+   public void stop() {
+      if (asyncBackupExecutor != null) {
+         asyncBackupExecutor.shutdownNow();
+         asyncBackupExecutor = null;
+      }
+      for (XSiteAsyncBackupQueue queue : asyncQueues.values()) {
+         queue.stop();
+      }
+      asyncQueues.clear();
+   }
+
    @Override
    public BackupResponse backupPrepare(PrepareCommand command) throws Exception {
       List<WriteCommand> modifications = filterModifications(command.getModifications());
@@ -132,6 +172,9 @@ public BackupResponse backupPrepare(PrepareCommand command) throws Exception {
                                                                    command.isOnePhaseCommit());
       //if we run a 2PC then filter out 1PC prepare backup calls as they will happen during the local commit phase.
       BackupFilter filter = !prepare.isOnePhaseCommit() ? BackupFilter.KEEP_2PC_ONLY : BackupFilter.KEEP_ALL;
+      if (prepare.isOnePhaseCommit()) {
+         enqueueAsyncBackups(modifications);
+      }
       List<XSiteBackup> backups = calculateBackupInfo(filter);
       return backupCommand(prepare, backups);
    }
@@ -168,6 +211,7 @@ private void updateOfflineSites(BackupResponse backupResponse) {
 
    @Override
    public BackupResponse backupWrite(WriteCommand command) throws Exception {
+      enqueueAsyncBackups(Collections.singletonList(command));
       List<XSiteBackup> xSiteBackups = calculateBackupInfo(BackupFilter.KEEP_ALL);
       return backupCommand(command, xSiteBackups);
    }
@@ -211,6 +255,16 @@ public TakeSiteOfflineResponse takeSiteOffline(String siteName) {
       }
    }
 
+   private void enqueueAsyncBackups(List<WriteCommand> modifications) {
+      for (XSiteAsyncBackupQueue queue : asyncQueues.values()) {
+         if (isOffline(queue.getSiteName())) {
+            log.tracef("The site '%s' is offline, not backing up information to it", queue.getSiteName());
+            continue;
+         }
+         queue.enqueue(modifications);
+      }
+   }
+
    private BackupResponse backupCommand(VisitableCommand command, List<XSiteBackup> xSiteBackups) throws Exception {
       return transport.backupRemotely(xSiteBackups, commandsFactory.buildSingleXSiteRpcCommand(command));
    }
@@ -221,6 +275,7 @@ private BackupResponse sendTo1PCBackups(CommitCommand command) throws Exception
       if (modifications.isEmpty()) {
          return EMPTY_RESPONSE;
       }
+      enqueueAsyncBackups(modifications);
       List<XSiteBackup> backups = calculateBackupInfo(BackupFilter.KEEP_1PC_ONLY);
       PrepareCommand prepare = commandsFactory.buildPrepareCommand(command.getGlobalTransaction(),
                                                                    modifications, true);
@@ -257,6 +312,10 @@ private List<XSiteBackup> calculateBackupInfo(BackupFilter backupFilter) {
             log.cacheBackupsDataToSameSite(localSiteName);
             continue;
          }
+         if (asyncQueues.containsKey(bc.site())) {
+            // the writes are sent in batches by the site's queue
+            continue;
+         }
          boolean isSync = bc.strategy() == BackupConfiguration.BackupStrategy.SYNC;
          if (backupFilter == BackupFilter.KEEP_1PC_ONLY) {
             if (isSync && bc.isTwoPhaseCommit())
@@ -402,6 +461,18 @@ public OfflineStatus getOfflineStatus(String site) {
       return offlineStatus.get(site);
    }
 
+   @Override
+   public int getAsyncQueueSize(String siteName) {
+      XSiteAsyncBackupQueue queue = asyncQueues.get(siteName);
+      return queue == null ? -1 : queue.size();
+   }
+
+   @Override
+   public long getAsyncQueueLag(String siteName) {
+      XSiteAsyncBackupQueue queue = asyncQueues.get(siteName);
+      return queue == null ? -1 : queue.lag();
+   }
+
    @Override
    public Map<String, Boolean> status() {
       Map<String, Boolean> result = new HashMap<>(offlineStatus.size());
@@ -252,6 +252,18 @@ public String getTakeOfflineAfterFailures(@Parameter(name = "site", description
       return String.valueOf(offlineStatus.getTakeOffline().afterFailures());
    }
 
+   @ManagedOperation(description = "Returns the number of writes waiting in this node to be sent in a batch to the given site, or -1 if the writes are not batched.", displayName = "Returns the number of writes waiting in this node to be sent in a batch to the given site.")
+   public String getAsyncBackupQueueSize(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      if (backupSender.getOfflineStatus(site) == null) return incorrectSiteName(site);
+      return String.valueOf(backupSender.getAsyncQueueSize(site));
+   }
+
+   @ManagedOperation(description = "Returns how long (millis) the oldest write waiting in this node to be sent in a batch to the given site has been queued, or -1 if the writes are not batched.", displayName = "Returns how long the oldest write waiting to be sent in a batch to the given site has been queued.")
+   public String getAsyncBackupQueueLag(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      if (backupSender.getOfflineStatus(site) == null) return incorrectSiteName(site);
+      return String.valueOf(backupSender.getAsyncQueueLag(site));
+   }
+
    @ManagedOperation(description = "Brings the given site back online on all the cluster.", displayName = "Brings the given site back online on all the cluster.")
    public String bringSiteOnline(@Parameter(name = "site", description = "The name of the backup site") String site) {
       OfflineStatus offlineStatus = backupSender.getOfflineStatus(site);
@@ -0,0 +1,288 @@
+package org.infinispan.xsite;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.PutMapCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.ReplaceCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.BackupConfiguration;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound queue of the writes backed up asynchronously to a single site. The writes are sent to the site in batches,
+ * either when {@link BackupConfiguration#asyncBatchSize()} writes are queued or when the oldest queued write waited
+ * for {@link BackupConfiguration#asyncBatchDelay()} milliseconds, whichever happens first.
+ * <p>
+ * Only the last put or remove of a key is kept in the queue, and a clear discards all the writes queued before it.
+ * Conditional writes (put if absent, replace, remove if equal) were already evaluated on this site, so they are queued
+ * as the unconditional write of their outcome, the same way the non-transactional backup interceptor sends them.
+ * The batches are sent in order, one at a time, but they are marshalled and compressed by the flushing threads
+ * concurrently.
+ * <p>
+ * All the writes of a transaction are queued together, so they are never split across batches. A transactional
+ * backup cache applies each batch in a single transaction, so a reader on the backup site sees either all or none of
+ * the writes of a transaction. A non-transactional backup cache applies the writes one by one, as it does without
+ * batching.
+ * <p>
+ * The batches are sent asynchronously, so the site is only known to have failed when a batch cannot be sent at all.
+ * Such failures count towards the site's {@link OfflineStatus}, and a successful send resets it.
+ *
+ * @since 9.0
+ */
+class XSiteAsyncBackupQueue {
+
+   private static final Log log = LogFactory.getLog(XSiteAsyncBackupQueue.class);
+   private static final boolean trace = log.isTraceEnabled();
+   private static final Object CLEAR_KEY = new Object();
+
+   private final String cacheName;
+   private final XSiteBackup backup;
+   private final int maxSize;
+   private final long maxDelay;
+   private final boolean compress;
+   private final OfflineStatus offlineStatus;
+   private final Transport transport;
+   private final CommandsFactory commandsFactory;
+   private final StreamingMarshaller marshaller;
+   private final ScheduledExecutorService scheduler;
+   private final TimeService timeService;
+   // Serializes the batches, so that the site receives them in the same order they were queued
+   private final Object sendLock = new Object();
+   // Batches drained from the queue, in order, and possibly still being encoded
+   private final Queue<OutboundBatch> outbound = new ConcurrentLinkedQueue<>();
+
+   // Guarded by this
+   private LinkedHashMap<Object, WriteCommand> pending = new LinkedHashMap<>();
+   private long oldestWriteTime;
+   private ScheduledFuture<?> scheduledFlush;
+   private boolean stopped;
+
+   XSiteAsyncBackupQueue(String cacheName, BackupConfiguration configuration, OfflineStatus offlineStatus,
+                         Transport transport, CommandsFactory commandsFactory, StreamingMarshaller marshaller,
+                         ScheduledExecutorService scheduler, TimeService timeService) {
+      this.cacheName = cacheName;
+      this.backup = new XSiteBackup(configuration.site(), false, configuration.replicationTimeout());
+      this.maxSize = configuration.asyncBatchSize();
+      this.maxDelay = configuration.asyncBatchDelay();
+      this.compress = configuration.asyncBatchCompression();
+      this.offlineStatus = offlineStatus;
+      this.transport = transport;
+      this.commandsFactory = commandsFactory;
+      this.marshaller = marshaller;
+      this.scheduler = scheduler;
+      this.timeService = timeService;
+   }
+
+   /**
+    * Queues the writes, sending the queued writes to the site if the batch is full.
+    */
+   void enqueue(Collection<WriteCommand> modifications) {
+      if (modifications.isEmpty()) {
+         return;
+      }
+      boolean full;
+      synchronized (this) {
+         if (stopped) {
+            return;
+         }
+         if (pending.isEmpty()) {
+            oldestWriteTime = timeService.time();
+         }
+         for (WriteCommand modification : modifications) {
+            if (modification instanceof ClearCommand) {
+               pending.clear();
+               pending.put(CLEAR_KEY, modification);
+            } else if (modification instanceof PutMapCommand) {
+               PutMapCommand putMap = (PutMapCommand) modification;
+               for (Map.Entry<Object, Object> entry : putMap.getMap().entrySet()) {
+                  conflate(entry.getKey(), commandsFactory.buildPutKeyValueCommand(entry.getKey(), entry.getValue(),
+                        putMap.getMetadata(), putMap.getFlagsBitSet()));
+               }
+            } else if (modification instanceof PutKeyValueCommand) {
+               PutKeyValueCommand put = (PutKeyValueCommand) modification;
+               conflate(put.getKey(), !put.isConditional() ? put :
+                     commandsFactory.buildPutKeyValueCommand(put.getKey(), put.getValue(), put.getMetadata(),
+                                                            put.getFlagsBitSet()));
+            } else if (modification instanceof ReplaceCommand) {
+               ReplaceCommand replace = (ReplaceCommand) modification;
+               conflate(replace.getKey(), commandsFactory.buildPutKeyValueCommand(replace.getKey(),
+                     replace.getNewValue(), replace.getMetadata(), replace.getFlagsBitSet()));
+            } else if (modification instanceof RemoveCommand) {
+               RemoveCommand remove = (RemoveCommand) modification;
+               conflate(remove.getKey(), !remove.isConditional() ? remove :
+                     commandsFactory.buildRemoveCommand(remove.getKey(), null, remove.getFlagsBitSet()));
+            } else {
+               // Applying it to the previous value of the key matters, so it cannot replace another write
+               pending.put(new Object(), modification);
+            }
+         }
+         full = pending.size() >= maxSize;
+         if (!full && scheduledFlush == null) {
+            try {
+               scheduledFlush = scheduler.schedule(this::flush, maxDelay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+               // The cache is stopping, stop() sends the queued writes
+               if (trace) log.tracef("Cannot schedule the flush of the writes queued for site '%s'", backup.getSiteName());
+            }
+         }
+      }
+      if (full) {
+         flush();
+      }
+   }
+
+   private void conflate(Object key, WriteCommand modification) {
+      // Remove first so that the write moves after the writes that happened before it
+      pending.remove(key);
+      pending.put(key, modification);
+   }
+
+   /**
+    * Sends all the queued writes to the site.
+    */
+   void flush() {
+      OutboundBatch batch = drain();
+      if (batch == null) {
+         return;
+      }
+      try {
+         batch.command = encode(batch.writes);
+      } finally {
+         batch.encoded = true;
+         sendEncoded();
+      }
+   }
+
+   private XSiteBatchRpcCommand encode(Collection<WriteCommand> writes) {
+      if (offlineStatus.isOffline()) {
+         if (trace) log.tracef("The site '%s' is offline, discarding %d queued writes", backup.getSiteName(), writes.size());
+         return null;
+      }
+      try {
+         byte[] bytes = marshaller.objectToByteBuffer(writes.toArray(new WriteCommand[writes.size()]));
+         return commandsFactory.buildXSiteBatchRpcCommand(bytes, compress);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } catch (Exception e) {
+         log.unableToSendAsyncBackupBatch(writes.size(), cacheName, backup.getSiteName(), e);
+      }
+      return null;
+   }
+
+   /**
+    * Sends the encoded batches at the head of the outbound queue. A batch encoded before the ones drained earlier
+    * is left to the thread that encodes the earliest batch.
+    */
+   private void sendEncoded() {
+      synchronized (sendLock) {
+         OutboundBatch batch;
+         while ((batch = outbound.peek()) != null && batch.encoded) {
+            outbound.poll();
+            if (batch.command != null) {
+               send(batch.command, batch.writes.size());
+            }
+         }
+      }
+   }
+
+   private void send(XSiteBatchRpcCommand command, int size) {
+      long sendTime = timeService.time();
+      try {
+         if (trace) log.tracef("Sending %d writes to site '%s' in %s", size, backup.getSiteName(), command);
+         transport.backupRemotely(Collections.singleton(backup), command);
+         updateOfflineStatus(false, sendTime);
+      } catch (Exception e) {
+         if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+         }
+         log.unableToSendAsyncBackupBatch(size, cacheName, backup.getSiteName(), e);
+         updateOfflineStatus(true, sendTime);
+      }
+   }
+
+   private void updateOfflineStatus(boolean failed, long sendTime) {
+      if (!offlineStatus.isEnabled()) {
+         return;
+      }
+      if (failed) {
+         offlineStatus.updateOnCommunicationFailure(TimeUnit.NANOSECONDS.toMillis(sendTime));
+         if (trace) log.tracef("OfflineStatus updated %s", offlineStatus);
+      } else if (!offlineStatus.isOffline()) {
+         offlineStatus.reset();
+      }
+   }
+
+   /**
+    * Takes the queued writes and appends them to the outbound queue, under the same lock so that the batches are
+    * appended in the order they were queued.
+    */
+   private synchronized OutboundBatch drain() {
+      if (scheduledFlush != null) {
+         scheduledFlush.cancel(false);
+         scheduledFlush = null;
+      }
+      if (pending.isEmpty()) {
+         return null;
+      }
+      OutboundBatch batch = new OutboundBatch(pending.values());
+      pending = new LinkedHashMap<>();
+      outbound.add(batch);
+      return batch;
+   }
+
+   /**
+    * Stops accepting new writes and sends the writes still queued.
+    */
+   void stop() {
+      synchronized (this) {
+         stopped = true;
+      }
+      flush();
+   }
+
+   /**
+    * @return the number of writes waiting to be sent to the site
+    */
+   synchronized int size() {
+      return pending.size();
+   }
+
+   /**
+    * @return the time in milliseconds the oldest queued write has been waiting to be sent, or 0 if the queue is empty
+    */
+   synchronized long lag() {
+      return pending.isEmpty() ? 0 : timeService.timeDuration(oldestWriteTime, TimeUnit.MILLISECONDS);
+   }
+
+   String getSiteName() {
+      return backup.getSiteName();
+   }
+
+   private static class OutboundBatch {
+      final Collection<WriteCommand> writes;
+      // Null if the batch is discarded
+      volatile XSiteBatchRpcCommand command;
+      volatile boolean encoded;
+
+      OutboundBatch(Collection<WriteCommand> writes) {
+         this.writes = writes;
+      }
+   }
+}
@@ -0,0 +1,166 @@
+package org.infinispan.xsite;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.transaction.xa.TransactionFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * RPC command to replicate a batch of writes, queued by the {@link XSiteAsyncBackupQueue}, to the backup site. The
+ * writes are marshalled with the cache marshaller and optionally compressed, so that a batch takes as little bandwidth
+ * as possible.
+ * <p>
+ * A transactional backup cache applies the whole batch in a single transaction, a non-transactional one applies the
+ * writes one by one.
+ *
+ * @since 9.0
+ */
+public class XSiteBatchRpcCommand extends XSiteReplicateCommand {
+
+   public static final byte COMMAND_ID = 61;
+   private byte[] payload;
+   private int uncompressedLength;
+   private Cache<Object, Object> cache;
+
+   public XSiteBatchRpcCommand(String cacheName, byte[] marshalledModifications, boolean compress) {
+      super(cacheName);
+      if (compress) {
+         this.payload = deflate(marshalledModifications);
+         this.uncompressedLength = marshalledModifications.length;
+      } else {
+         this.payload = marshalledModifications;
+         this.uncompressedLength = -1;
+      }
+   }
+
+   public XSiteBatchRpcCommand(String cacheName) {
+      super(cacheName);
+   }
+
+   public XSiteBatchRpcCommand() {
+      super(null);
+   }
+
+   public void initialize(Cache<Object, Object> cache) {
+      this.cache = cache;
+   }
+
+   @Override
+   public Object performInLocalSite(BackupReceiver receiver) throws Throwable {
+      ComponentRegistry registry = receiver.getCache().getAdvancedCache().getComponentRegistry();
+      StreamingMarshaller marshaller = registry.getComponent(StreamingMarshaller.class,
+                                                             KnownComponentNames.CACHE_MARSHALLER);
+      byte[] bytes = isCompressed() ? inflate(payload, uncompressedLength) : payload;
+      WriteCommand[] modifications = (WriteCommand[]) marshaller.objectFromByteBuffer(bytes);
+      if (receiver.getCache().getCacheConfiguration().transaction().transactionMode().isTransactional()) {
+         // replayed as a one phase transaction, so the global transaction only identifies it in the logs
+         GlobalTransaction gtx = registry.getComponent(TransactionFactory.class)
+               .newGlobalTransaction(receiver.getCache().getCacheManager().getAddress(), true);
+         receiver.handleRemoteCommand(registry.getCommandsFactory()
+                                            .buildPrepareCommand(gtx, Arrays.asList(modifications), true));
+      } else {
+         for (WriteCommand modification : modifications) {
+            receiver.handleRemoteCommand(modification);
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      // Received from another node of the backup site, apply it as if it came from the origin site
+      return performInLocalSite(new LocalCacheBackupReceiver(cache));
+   }
+
+   public boolean isCompressed() {
+      return uncompressedLength >= 0;
+   }
+
+   /**
+    * @return the number of bytes sent to the backup site
+    */
+   public int getPayloadLength() {
+      return payload.length;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeInt(uncompressedLength);
+      output.writeInt(payload.length);
+      output.write(payload);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      uncompressedLength = input.readInt();
+      payload = new byte[input.readInt()];
+      input.readFully(payload);
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   private static byte[] deflate(byte[] bytes) {
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+         deflater.setInput(bytes);
+         deflater.finish();
+         ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 2));
+         byte[] buffer = new byte[4096];
+         while (!deflater.finished()) {
+            int length = deflater.deflate(buffer);
+            out.write(buffer, 0, length);
+         }
+         return out.toByteArray();
+      } finally {
+         deflater.end();
+      }
+   }
+
+   private static byte[] inflate(byte[] bytes, int uncompressedLength) throws DataFormatException {
+      Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(bytes);
+         byte[] result = new byte[uncompressedLength];
+         int offset = 0;
+         while (offset < uncompressedLength && !inflater.finished()) {
+            int length = inflater.inflate(result, offset, uncompressedLength - offset);
+            if (length == 0 && inflater.needsInput()) {
+               throw new DataFormatException("Truncated cross-site batch");
+            }
+            offset += length;
+         }
+         return result;
+      } finally {
+         inflater.end();
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "XSiteBatchRpcCommand{" +
+            "payloadLength=" + payload.length +
+            ", uncompressedLength=" + uncompressedLength +
+            '}';
+   }
+}
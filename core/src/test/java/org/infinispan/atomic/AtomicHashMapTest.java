@@ -68,4 +68,43 @@ public void testDeltasWithRepeatedChanges() {
       assert newMap.get("k1").equals("v3");
       assert newMap.size() == 1;
    }
+
+   public void testDeltaCoalescesChanges() {
+      AtomicHashMap m = new AtomicHashMap();
+      m.initForWriting();
+      for (int i = 0; i < 100; i++) {
+         m.put("k1", "v" + i);
+      }
+      m.put("k2", "v");
+      m.remove("k2");
+      AtomicHashMapDelta d = (AtomicHashMapDelta) m.delta();
+      assert d.getChangeLogSize() == 2;
+      assert !d.hasClearOperation();
+      assert d.getKeys().size() == 2;
+
+      AtomicHashMap newMap = new AtomicHashMap();
+      newMap.initForWriting();
+      newMap.put("k2", "v");
+      newMap = (AtomicHashMap) d.merge(newMap);
+      assert newMap.size() == 1;
+      assert newMap.get("k1").equals("v99");
+   }
+
+   public void testDeltaWithClear() {
+      AtomicHashMap m = new AtomicHashMap();
+      m.initForWriting();
+      m.put("k1", "v1");
+      m.clear();
+      m.put("k2", "v2");
+      AtomicHashMapDelta d = (AtomicHashMapDelta) m.delta();
+      assert d.hasClearOperation();
+      assert d.getKeys().size() == 1;
+
+      AtomicHashMap newMap = new AtomicHashMap();
+      newMap.initForWriting();
+      newMap.put("k3", "v3");
+      newMap = (AtomicHashMap) d.merge(newMap);
+      assert newMap.size() == 1;
+      assert newMap.get("k2").equals("v2");
+   }
 }
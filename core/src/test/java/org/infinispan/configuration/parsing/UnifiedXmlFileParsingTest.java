@@ -10,6 +10,7 @@
 import org.infinispan.commons.marshall.AdvancedExternalizer;
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
 import org.infinispan.configuration.QueryableDataContainer;
+import org.infinispan.configuration.cache.AbstractStoreConfiguration;
 import org.infinispan.configuration.cache.BackupConfiguration;
 import org.infinispan.configuration.cache.BackupFailurePolicy;
 import org.infinispan.configuration.cache.CacheMode;
@@ -99,6 +100,10 @@ private static void configurationCheck90(EmbeddedCacheManager cm) {
       GlobalConfiguration globalConfiguration = cm.getCacheManagerConfiguration();
       assertEquals(4, globalConfiguration.transport().initialClusterSize());
       assertEquals(30000, globalConfiguration.transport().initialClusterTimeout());
+
+      AbstractStoreConfiguration fileStore = (AbstractStoreConfiguration) cm.getCacheConfiguration("local-template").persistence().stores().get(0);
+      assertEquals(10000, fileStore.bloomFilterExpectedEntries());
+      assertEquals(0.05, fileStore.bloomFilterFalsePositiveRate(), 0);
    }
 
    private static void configurationCheck82(EmbeddedCacheManager cm) {
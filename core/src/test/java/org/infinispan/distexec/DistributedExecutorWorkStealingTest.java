@@ -0,0 +1,110 @@
+package org.infinispan.distexec;
+
+import static org.infinispan.distribution.DistributionTestHelper.isFirstOwner;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that idle owners steal units of work of a {@link DistributedTask} whose input keys all belong to one node.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "distexec.DistributedExecutorWorkStealingTest")
+public class DistributedExecutorWorkStealingTest extends MultipleCacheManagersTest {
+
+   private static final AtomicInteger processedKeys = new AtomicInteger();
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(3).numSegments(60);
+      createClusteredCaches(3, builder);
+   }
+
+   public void testSkewedKeysAreStolen() throws Exception {
+      Cache<Object, Object> cache = cache(0);
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; keys.size() < 100; i++) {
+         String key = "key" + i;
+         if (isFirstOwner(cache, key)) {
+            keys.add(key);
+         }
+      }
+
+      processedKeys.set(0);
+      DistributedExecutorService des = new DefaultExecutorService(cache);
+      try {
+         DistributedTask<String> task = des.createDistributedTaskBuilder(new SlowCallable())
+               .workStealing(true).build();
+         List<CompletableFuture<String>> futures = des.submitEverywhere(task, keys.toArray(new String[keys.size()]));
+
+         Set<String> executors = new HashSet<>();
+         for (CompletableFuture<String> future : futures) {
+            executors.add(future.get(30, TimeUnit.SECONDS));
+         }
+         assertEquals(keys.size(), processedKeys.get());
+         assertTrue("Only " + executors + " executed the task", executors.size() > 1);
+      } finally {
+         des.shutdownNow();
+      }
+   }
+
+   public void testWithoutWorkStealing() throws Exception {
+      Cache<Object, Object> cache = cache(0);
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; keys.size() < 20; i++) {
+         String key = "key" + i;
+         if (isFirstOwner(cache, key)) {
+            keys.add(key);
+         }
+      }
+
+      processedKeys.set(0);
+      DistributedExecutorService des = new DefaultExecutorService(cache);
+      try {
+         List<CompletableFuture<String>> futures = des.submitEverywhere(new SlowCallable(),
+               keys.toArray(new String[keys.size()]));
+         assertEquals(1, futures.size());
+         assertEquals(address(0).toString(), futures.get(0).get(30, TimeUnit.SECONDS));
+         assertEquals(keys.size(), processedKeys.get());
+      } finally {
+         des.shutdownNow();
+      }
+   }
+
+   static class SlowCallable implements DistributedCallable<Object, Object, String>, Serializable {
+
+      private static final long serialVersionUID = 4012364858738127419L;
+
+      private transient Cache<Object, Object> cache;
+      private transient Set<Object> inputKeys;
+
+      @Override
+      public void setEnvironment(Cache<Object, Object> cache, Set<Object> inputKeys) {
+         this.cache = cache;
+         this.inputKeys = inputKeys;
+      }
+
+      @Override
+      public String call() throws Exception {
+         TimeUnit.MILLISECONDS.sleep(50);
+         processedKeys.addAndGet(inputKeys.size());
+         return cache.getCacheManager().getAddress().toString();
+      }
+   }
+}
@@ -0,0 +1,142 @@
+package org.infinispan.functional;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.api.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.commons.api.functional.FunctionalMap.ReadWriteMap;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.infinispan.functional.FunctionalTestUtils.await;
+import static org.testng.AssertJUnit.assertEquals;
+
+/**
+ * Tests that the read-write functions applied to a cache storing its entries as binary see the same keys and values
+ * as without storeAsBinary, and that the values they write are read back by the regular cache methods.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "functional.FunctionalStoreAsBinaryTest")
+public class FunctionalStoreAsBinaryTest extends MultipleCacheManagersTest {
+
+   private static final Function<ReadWriteEntryView<Object, Object>, Object> APPEND =
+         (Function<ReadWriteEntryView<Object, Object>, Object> & Serializable) view -> {
+            if (!(view.key() instanceof MagicKey)) {
+               throw new AssertionError("Wrapped key " + view.key());
+            }
+            Value prev = (Value) view.get();
+            view.set(new Value(prev.value + "-appended"));
+            return prev;
+         };
+
+   private static final BiFunction<Object, ReadWriteEntryView<Object, Object>, Object> SET =
+         (BiFunction<Object, ReadWriteEntryView<Object, Object>, Object> & Serializable) (value, view) -> {
+            if (!(value instanceof Value)) {
+               throw new AssertionError("Wrapped value " + value);
+            }
+            view.set(value);
+            return view.key();
+         };
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1);
+      builder.storeAsBinary().enable();
+      createClusteredCaches(2, builder);
+   }
+
+   public void testReadWriteOnOwner() {
+      doReadWrite(new MagicKey("owner", cache(0)));
+   }
+
+   public void testReadWriteOnNonOwner() {
+      doReadWrite(new MagicKey("nonOwner", cache(1)));
+   }
+
+   public void testReadWriteMany() {
+      Cache<Object, Object> cache = cache(0);
+      Map<Object, Object> entries = new HashMap<>();
+      for (int i = 0; i < 4; i++) {
+         MagicKey key = new MagicKey("many" + i, cache(i % 2));
+         cache.put(key, new Value("v" + i));
+         entries.put(key, new Value("v" + i));
+      }
+
+      Set<Object> prevs = new HashSet<>();
+      readWriteMap(cache).evalMany(entries.keySet(), APPEND).forEach(prevs::add);
+
+      assertEquals(new HashSet<>(entries.values()), prevs);
+      for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+         Value appended = new Value(((Value) entry.getValue()).value + "-appended");
+         assertEquals(appended, cache(0).get(entry.getKey()));
+         assertEquals(appended, cache(1).get(entry.getKey()));
+      }
+   }
+
+   public void testReadWriteManyEntries() {
+      Cache<Object, Object> cache = cache(0);
+      Map<Object, Object> entries = new HashMap<>();
+      for (int i = 0; i < 4; i++) {
+         entries.put(new MagicKey("entries" + i, cache(i % 2)), new Value("v" + i));
+      }
+
+      Set<Object> keys = new HashSet<>();
+      readWriteMap(cache).evalMany(entries, SET).forEach(keys::add);
+
+      assertEquals(entries.keySet(), keys);
+      for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+         assertEquals(entry.getValue(), cache(0).get(entry.getKey()));
+         assertEquals(entry.getValue(), cache(1).get(entry.getKey()));
+      }
+   }
+
+   private void doReadWrite(MagicKey key) {
+      Cache<Object, Object> cache = cache(0);
+      cache.put(key, new Value("v"));
+
+      assertEquals(new Value("v"), await(readWriteMap(cache).eval(key, APPEND)));
+
+      assertEquals(new Value("v-appended"), cache(0).get(key));
+      assertEquals(new Value("v-appended"), cache(1).get(key));
+   }
+
+   private ReadWriteMap<Object, Object> readWriteMap(Cache<Object, Object> cache) {
+      return ReadWriteMapImpl.create(FunctionalMapImpl.create(cache.getAdvancedCache()));
+   }
+
+   private static final class Value implements Serializable {
+      final String value;
+
+      Value(String value) {
+         this.value = value;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         return o instanceof Value && value.equals(((Value) o).value);
+      }
+
+      @Override
+      public int hashCode() {
+         return value.hashCode();
+      }
+
+      @Override
+      public String toString() {
+         return "Value{" + value + '}';
+      }
+   }
+}
@@ -199,6 +199,30 @@ public void testGetAll() throws Exception {
       assertEquals(0.5f, hitRatio);
    }
 
+   public void testLatencyPercentiles() throws Exception {
+      assertAttributeValue("ReadTimeMax", 0);
+      assertAttributeValue("WriteTimeMax", 0);
+      for (int i = 0; i < 100; i++) {
+         cache.put("key" + i, "value" + i);
+         cache.get("key" + i);
+      }
+      cache.remove("key0");
+
+      for (String op : new String[]{"Read", "Write", "Remove"}) {
+         long p50 = (Long) server.getAttribute(mgmtInterceptor, op + "TimePercentile50");
+         long p99 = (Long) server.getAttribute(mgmtInterceptor, op + "TimePercentile99");
+         long p999 = (Long) server.getAttribute(mgmtInterceptor, op + "TimePercentile999");
+         long max = (Long) server.getAttribute(mgmtInterceptor, op + "TimeMax");
+         assertTrue(op, p50 <= p99 && p99 <= p999 && p999 <= max);
+      }
+      assertEquals(advanced.getStats().getReadTimePercentile(100), server.getAttribute(mgmtInterceptor, "ReadTimeMax"));
+
+      resetStats();
+      assertAttributeValue("ReadTimePercentile99", 0);
+      assertAttributeValue("WriteTimeMax", 0);
+      assertAttributeValue("RemoveTimeMax", 0);
+   }
+
    private void assertAttributeValue(String attrName, float expectedValue) throws Exception {
       String receivedVal = server.getAttribute(mgmtInterceptor, attrName).toString();
       assert Float.parseFloat(receivedVal) == expectedValue : "expecting " + expectedValue + " for " + attrName + ", but received " + receivedVal;
@@ -7,6 +7,7 @@
 import org.infinispan.container.versioning.EntryVersionsMap;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.atomic.impl.AtomicHashMap;
+import org.infinispan.atomic.impl.AtomicHashMapDelta;
 import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
@@ -424,6 +425,28 @@ public void testAtomicHashMap() throws Exception {
       assert m.isEmpty();
    }
 
+   public void testAtomicHashMapDelta() throws Exception {
+      AtomicHashMap<String, String> m = new AtomicHashMap<String, String>();
+      m.initForWriting();
+      m.put("k1", "v1");
+      m.clear();
+      m.put("k2", "v2");
+      m.put("k3", "v3");
+      m.remove("k3");
+      byte[] bytes = marshaller.objectToByteBuffer(m.delta());
+      AtomicHashMapDelta delta = (AtomicHashMapDelta) marshaller.objectFromByteBuffer(bytes);
+      assert delta.hasClearOperation();
+      assert delta.getChangeLogSize() == 3;
+
+      AtomicHashMap<String, String> target = new AtomicHashMap<String, String>();
+      target.initForWriting();
+      target.put("k1", "v0");
+      target.put("k3", "v0");
+      target = (AtomicHashMap<String, String>) delta.merge(target);
+      assert target.size() == 1;
+      assert "v2".equals(target.get("k2"));
+   }
+
    public void testMarshallObjectThatContainsACustomReadObjectMethod() throws Exception {
       ObjectThatContainsACustomReadObjectMethod obj = new ObjectThatContainsACustomReadObjectMethod();
       obj.anObjectWithCustomReadObjectMethod = new CustomReadObjectMethod();
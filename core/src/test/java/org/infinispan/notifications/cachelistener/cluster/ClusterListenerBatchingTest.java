@@ -0,0 +1,163 @@
+package org.infinispan.notifications.cachelistener.cluster;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distexec.DistributedExecutorService;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.notifications.cachelistener.cluster.impl.BatchingClusterEventManagerImpl;
+import org.infinispan.notifications.cachelistener.event.Event;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests cluster listeners that batch the events raised on other nodes.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "notifications.cachelistener.cluster.ClusterListenerBatchingTest")
+public class ClusterListenerBatchingTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_ENTRIES = 12;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder cfgBuilder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      createClusteredCaches(2, cfgBuilder);
+   }
+
+   public void testBatchedEventsAreAllDelivered() {
+      BatchingListener listener = new BatchingListener();
+      cache(0).addListener(listener);
+
+      Cache<Object, String> cache = cache(1);
+      for (int i = 0; i < NUM_ENTRIES; ++i) {
+         cache.put(new MagicKey(cache), "value " + i);
+      }
+
+      // 10 events are sent because of the batch size, the last 2 once the batch delay expires
+      eventuallyEquals(NUM_ENTRIES, () -> listener.events.size());
+      cache(0).removeListener(listener);
+   }
+
+   public void testCoalescedEventsOnlyDeliverTheLastEventOfAKey() {
+      CoalescingListener listener = new CoalescingListener();
+      cache(0).addListener(listener);
+
+      Cache<Object, String> cache = cache(1);
+      MagicKey key = new MagicKey(cache);
+      cache.put(key, "first");
+      cache.put(key, "second");
+      cache.put(key, "third");
+
+      eventuallyEquals(1, () -> listener.events.size());
+      CacheEntryEvent event = listener.events.get(0);
+      assertEquals(Event.Type.CACHE_ENTRY_MODIFIED, event.getType());
+      assertEquals("third", event.getValue());
+      cache(0).removeListener(listener);
+   }
+
+   public void testListenersKeepTheirOwnBatchingSettings() {
+      SlowBatchingListener slow = new SlowBatchingListener();
+      BatchingListener fast = new BatchingListener();
+      cache(0).addListener(slow);
+      cache(0).addListener(fast);
+
+      Cache<Object, String> cache = cache(1);
+      for (int i = 0; i < SlowBatchingListener.BATCH_SIZE - 1; ++i) {
+         cache.put(new MagicKey(cache), "value " + i);
+      }
+      // the delay of the other listener expires, but the slow listener's batch is not full yet
+      eventuallyEquals(SlowBatchingListener.BATCH_SIZE - 1, () -> fast.events.size());
+      assertEquals(0, slow.events.size());
+
+      cache.put(new MagicKey(cache), "last");
+      eventuallyEquals(SlowBatchingListener.BATCH_SIZE, () -> slow.events.size());
+      cache(0).removeListener(slow);
+      cache(0).removeListener(fast);
+   }
+
+   public void testBatchesAreSentInOrder() throws Exception {
+      ClusterEventManager<Object, Object> manager = TestingUtil.extractComponent(cache(1), ClusterEventManager.class);
+      DistributedExecutorService service = TestingUtil.extractField(manager, "distExecService");
+      List<Object> sent = Collections.synchronizedList(new ArrayList<>());
+      DistributedExecutorService recording = mock(DistributedExecutorService.class, invocation -> {
+         for (Object argument : invocation.getArguments()) {
+            if (argument instanceof ClusterEventCallable) {
+               Collection<ClusterEvent<Object, Object>> events = TestingUtil.extractField(argument, "events");
+               for (ClusterEvent<Object, Object> event : events) {
+                  sent.add(event.getKey());
+               }
+            }
+         }
+         return null;
+      });
+      TestingUtil.replaceField(recording, "distExecService", manager, BatchingClusterEventManagerImpl.class);
+      try {
+         // a short delay, so that the scheduled flushes race with the batches sent because they are full
+         ClusterEventBatching batching = new ClusterEventBatching(3, 1, false);
+         UUID identifier = UUID.randomUUID();
+         int numEvents = 10000;
+         for (int i = 0; i < numEvents; ++i) {
+            ClusterEvent<Object, Object> event = new ClusterEvent<>(i, "value", null, null, Event.Type.CACHE_ENTRY_CREATED,
+                                                                    address(1), null, false);
+            manager.addBatchedEvents(address(0), identifier, Collections.singletonList(event), batching);
+            manager.sendEvents();
+         }
+         eventuallyEquals(numEvents, sent::size);
+         for (int i = 0; i < numEvents; ++i) {
+            assertEquals(i, sent.get(i));
+         }
+      } finally {
+         TestingUtil.replaceField(service, "distExecService", manager, BatchingClusterEventManagerImpl.class);
+      }
+   }
+
+   @Listener(clustered = true, sync = false, batchSize = 10, batchDelay = 500)
+   public static class BatchingListener {
+      final List<CacheEntryEvent> events = Collections.synchronizedList(new ArrayList<>());
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      public void onEvent(CacheEntryEvent event) {
+         events.add(event);
+      }
+   }
+
+   @Listener(clustered = true, sync = false, batchSize = SlowBatchingListener.BATCH_SIZE, batchDelay = 600000)
+   public static class SlowBatchingListener {
+      static final int BATCH_SIZE = 5;
+      final List<CacheEntryEvent> events = Collections.synchronizedList(new ArrayList<>());
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      public void onEvent(CacheEntryEvent event) {
+         events.add(event);
+      }
+   }
+
+   @Listener(clustered = true, sync = false, batchSize = 100, batchDelay = 1000, coalesceEvents = true)
+   public static class CoalescingListener {
+      final List<CacheEntryEvent> events = Collections.synchronizedList(new ArrayList<>());
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      public void onEvent(CacheEntryEvent event) {
+         events.add(event);
+      }
+   }
+}
@@ -0,0 +1,78 @@
+package org.infinispan.persistence;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.infinispan.commons.api.functional.EntryView.WriteEntryView;
+import org.infinispan.commons.api.functional.FunctionalMap.WriteOnlyMap;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.WriteOnlyMapImpl;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the multi-key writes reach the stores in a single batch.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.BatchedStoreWritesTest")
+@CleanupAfterMethod
+public class BatchedStoreWritesTest extends SingleCacheManagerTest {
+
+   private DummyInMemoryStore store;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      return TestCacheManagerFactory.createCacheManager(cfg);
+   }
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      store = (DummyInMemoryStore) TestingUtil.getFirstWriter(cache);
+   }
+
+   public void testPutAllWritesSingleBatch() {
+      Map<Object, Object> data = new HashMap<>();
+      for (int i = 0; i < 10; i++) {
+         data.put("k" + i, "v" + i);
+      }
+      store.clearStats();
+      cache.putAll(data);
+
+      assertEquals(1, (int) store.stats().get("writeBatch"));
+      assertEquals(10, (int) store.stats().get("write"));
+      for (int i = 0; i < 10; i++) {
+         assertTrue(store.contains("k" + i));
+      }
+   }
+
+   public void testMultiKeyRemoveDeletesSingleBatch() {
+      for (int i = 0; i < 10; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      store.clearStats();
+      WriteOnlyMap<Object, Object> wo = WriteOnlyMapImpl.create(FunctionalMapImpl.create(cache.getAdvancedCache()));
+      wo.evalMany(new HashSet<>(cache.keySet()), WriteEntryView::remove).join();
+
+      assertEquals(1, (int) store.stats().get("deleteBatch"));
+      assertEquals(10, (int) store.stats().get("delete"));
+      for (int i = 0; i < 10; i++) {
+         assertFalse(store.contains("k" + i));
+      }
+   }
+}
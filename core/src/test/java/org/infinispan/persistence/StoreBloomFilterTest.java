@@ -0,0 +1,163 @@
+package org.infinispan.persistence;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.interceptors.CacheLoaderInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PersistenceManager.AccessMode;
+import org.infinispan.persistence.manager.StoreBloomFilter;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a store configured with a bloom filter is not accessed for keys that were never written to it.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.StoreBloomFilterTest")
+@CleanupAfterMethod
+public class StoreBloomFilterTest extends SingleCacheManagerTest {
+
+   private static final int EXPECTED_ENTRIES = 10;
+
+   private DummyInMemoryStore store;
+   private CacheLoaderInterceptor loaderInterceptor;
+   private StoreBloomFilter bloomFilter;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class).bloomFilter(EXPECTED_ENTRIES);
+      return TestCacheManagerFactory.createCacheManager(cfg);
+   }
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      store = (DummyInMemoryStore) TestingUtil.getFirstWriter(cache);
+      loaderInterceptor = (CacheLoaderInterceptor) cache.getAdvancedCache().getSequentialInterceptorChain()
+            .findInterceptorExtending(CacheLoaderInterceptor.class);
+      bloomFilter = TestingUtil.extractComponent(cache, PersistenceManager.class).getBloomFilters().iterator().next();
+   }
+
+   public void testMissingKeyNotLoaded() {
+      store.clearStats();
+      assertNull(cache.get("missing"));
+      assertEquals(0, (int) store.stats().get("load"));
+      assertEquals(1, loaderInterceptor.getBloomFilterSkippedLoads());
+   }
+
+   public void testWrittenKeyLoaded() {
+      cache.put("k", "v");
+      cache.evict("k");
+      store.clearStats();
+      assertEquals("v", cache.get("k"));
+      assertEquals(1, (int) store.stats().get("load"));
+      assertEquals(0, loaderInterceptor.getBloomFilterFalsePositives());
+   }
+
+   public void testRebuiltAfterRemovals() {
+      long rebuilds = bloomFilter.getRebuilds();
+      for (int i = 0; i < EXPECTED_ENTRIES; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      for (int i = 0; i < EXPECTED_ENTRIES / 2; i++) {
+         cache.remove("k" + i);
+      }
+      eventuallyEquals(rebuilds + 1, bloomFilter::getRebuilds);
+
+      for (int i = EXPECTED_ENTRIES / 2; i < EXPECTED_ENTRIES; i++) {
+         cache.evict("k" + i);
+         assertEquals("v" + i, cache.get("k" + i));
+      }
+   }
+
+   public void testRebuiltAfterClear() {
+      for (int i = 0; i < EXPECTED_ENTRIES; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      long rebuilds = bloomFilter.getRebuilds();
+      cache.clear();
+      eventuallyEquals(rebuilds + 1, bloomFilter::getRebuilds);
+
+      // the rebuilt filter is empty, so none of the cleared keys reaches the store
+      store.clearStats();
+      long skippedLoads = loaderInterceptor.getBloomFilterSkippedLoads();
+      for (int i = 0; i < EXPECTED_ENTRIES; i++) {
+         assertNull(cache.get("k" + i));
+      }
+      assertEquals(0, (int) store.stats().get("load"));
+      assertEquals(skippedLoads + EXPECTED_ENTRIES, loaderInterceptor.getBloomFilterSkippedLoads());
+
+      cache.put("k0", "v0");
+      cache.evict("k0");
+      assertEquals("v0", cache.get("k0"));
+   }
+
+   public void testBatchRemovalOfUnknownKeysNotCounted() {
+      PersistenceManager persistenceManager = TestingUtil.extractComponent(cache, PersistenceManager.class);
+      List<Object> written = new ArrayList<>();
+      for (int i = 0; i < EXPECTED_ENTRIES / 2; i++) {
+         cache.put("k" + i, "v" + i);
+         written.add("k" + i);
+      }
+      long rebuilds = bloomFilter.getRebuilds();
+      List<Object> unknown = new ArrayList<>();
+      for (int i = 0; i < EXPECTED_ENTRIES; i++) {
+         unknown.add("unknown" + i);
+      }
+      persistenceManager.deleteBatchFromAllStores(unknown, AccessMode.BOTH);
+      // one removal short of a rebuild, unless the unknown keys were counted
+      persistenceManager.deleteBatchFromAllStores(written.subList(1, written.size()), AccessMode.BOTH);
+      persistenceManager.deleteBatchFromAllStores(written.subList(0, 1), AccessMode.BOTH);
+
+      eventuallyEquals(rebuilds + 1, bloomFilter::getRebuilds);
+      TestingUtil.sleepThread(100);
+      assertEquals(rebuilds + 1, bloomFilter.getRebuilds());
+   }
+
+   public void testDroppedWhenStoreDisabled() {
+      PersistenceManager persistenceManager = TestingUtil.extractComponent(cache, PersistenceManager.class);
+      persistenceManager.disableStore(DummyInMemoryStore.class.getName());
+      assertTrue(persistenceManager.getBloomFilters().isEmpty());
+   }
+
+   public void testRebuiltFromStoreOnRestart(Method m) {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      // the named store keeps its entries when the cache is stopped
+      cfg.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class).storeName(m.getName())
+            .bloomFilter(EXPECTED_ENTRIES);
+      cacheManager.defineConfiguration(m.getName(), cfg.build());
+      Cache<String, String> restarted = cacheManager.getCache(m.getName());
+      for (int i = 0; i < EXPECTED_ENTRIES; i++) {
+         restarted.put("k" + i, "v" + i);
+      }
+      restarted.stop();
+      restarted.start();
+
+      // nothing was written since the restart, so the keys are only in the filter built from the store
+      CacheLoaderInterceptor restartedInterceptor = (CacheLoaderInterceptor) restarted.getAdvancedCache()
+            .getSequentialInterceptorChain().findInterceptorExtending(CacheLoaderInterceptor.class);
+      for (int i = 0; i < EXPECTED_ENTRIES; i++) {
+         assertEquals("v" + i, restarted.get("k" + i));
+      }
+      assertEquals(0, restartedInterceptor.getBloomFilterSkippedLoads());
+      assertNull(restarted.get("missing"));
+      assertEquals(1, restartedInterceptor.getBloomFilterSkippedLoads());
+      restarted.clear();
+   }
+}
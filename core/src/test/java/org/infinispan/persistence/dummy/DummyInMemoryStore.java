@@ -94,6 +94,22 @@ public void write(MarshalledEntry entry) {
       }
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      record("writeBatch");
+      for (Object entry : entries) {
+         write((MarshalledEntry) entry);
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      record("deleteBatch");
+      for (Object key : keys) {
+         delete(key);
+      }
+   }
+
    @Override
    public void clear() {
       record("clear");
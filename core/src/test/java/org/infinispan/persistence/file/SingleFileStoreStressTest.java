@@ -13,12 +13,15 @@
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.test.fwk.TestResourceTracker;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
@@ -141,6 +144,69 @@ public void testWritesAndClear() throws ExecutionException, InterruptedException
       clearFuture.get();
    }
 
+   public void testWritesDeletesAndLoadsWithCompaction() throws ExecutionException, InterruptedException {
+      final int NUM_WRITER_THREADS = 2;
+      final int NUM_READER_THREADS = 2;
+      final int NUM_KEYS = 200;
+      final int TEST_DURATION_SECONDS = 2;
+
+      Cache<String, String> cache = cacheManager.getCache(CACHE_NAME);
+      PersistenceManager persistenceManager = TestingUtil.extractComponent(cache, PersistenceManager.class);
+      final SingleFileStore store = persistenceManager.getStores(SingleFileStore.class).iterator().next();
+      final StreamingMarshaller marshaller = TestingUtil.extractComponentRegistry(cache).getCacheMarshaller();
+      assertEquals(0, store.size());
+
+      final List<String> keys = new ArrayList<String>(NUM_KEYS);
+      for (int j = 0; j < NUM_KEYS; j++) {
+         keys.add("key" + j);
+      }
+
+      // Overwrites and deletes free enough entries to start the background compaction repeatedly,
+      // and the purges merge the free entries and truncate the file as well
+      final CountDownLatch stopLatch = new CountDownLatch(1);
+      Future[] writeFutures = new Future[NUM_WRITER_THREADS];
+      for (int i = 0; i < NUM_WRITER_THREADS; i++) {
+         writeFutures[i] = fork(stopOnException(new WriteTask(store, marshaller, keys, stopLatch), stopLatch));
+      }
+      Future deleteFuture = fork(stopOnException(new DeleteTask(store, keys, stopLatch), stopLatch));
+      Future[] readFutures = new Future[NUM_READER_THREADS];
+      for (int i = 0; i < NUM_READER_THREADS; i++) {
+         readFutures[i] = fork(stopOnException(new ReadTask(store, keys, true, stopLatch), stopLatch));
+      }
+      Future purgeFuture = fork(stopOnException(new PurgeTask(store, stopLatch), stopLatch));
+
+      stopLatch.await(TEST_DURATION_SECONDS, SECONDS);
+      stopLatch.countDown();
+
+      for (int i = 0; i < NUM_WRITER_THREADS; i++) {
+         writeFutures[i].get();
+      }
+      deleteFuture.get();
+      for (int i = 0; i < NUM_READER_THREADS; i++) {
+         readFutures[i].get();
+      }
+      purgeFuture.get();
+
+      Map<String, Object> values = new HashMap<String, Object>();
+      for (String key : keys) {
+         MarshalledEntry entry = store.load(key);
+         if (entry != null) {
+            assertTrue(((String) entry.getValue()).startsWith(key));
+            values.put(key, entry.getValue());
+         }
+      }
+      assertEquals(values.size(), store.size());
+
+      // The index rebuilt from the file must match the index the store had in memory
+      store.stop();
+      store.start();
+      assertEquals(values.size(), store.size());
+      for (String key : keys) {
+         MarshalledEntry entry = store.load(key);
+         assertEquals(values.get(key), entry == null ? null : entry.getValue());
+      }
+   }
+
    public void testSpaceOptimization() throws ExecutionException, InterruptedException {
       final int NUM_KEYS = 100;
       final int TIMES = 10;
@@ -389,6 +455,46 @@ public Object call() throws Exception {
       }
    }
 
+   private class DeleteTask implements Callable<Object> {
+      private final SingleFileStore store;
+      private final List<String> keys;
+      private final CountDownLatch stopLatch;
+
+      public DeleteTask(SingleFileStore store, List<String> keys, CountDownLatch stopLatch) {
+         this.store = store;
+         this.keys = keys;
+         this.stopLatch = stopLatch;
+      }
+
+      @Override
+      public Object call() throws Exception {
+         Random random = new Random();
+         while (stopLatch.getCount() != 0) {
+            store.delete(keys.get(random.nextInt(keys.size())));
+         }
+         return null;
+      }
+   }
+
+   private class PurgeTask implements Callable<Object> {
+      private final SingleFileStore store;
+      private final CountDownLatch stopLatch;
+
+      public PurgeTask(SingleFileStore store, CountDownLatch stopLatch) {
+         this.store = store;
+         this.stopLatch = stopLatch;
+      }
+
+      @Override
+      public Object call() throws Exception {
+         while (stopLatch.getCount() != 0) {
+            store.purge(new WithinThreadExecutor(), null);
+            MILLISECONDS.sleep(10);
+         }
+         return null;
+      }
+   }
+
    private class ReadTask implements Callable<Object> {
       private final boolean allowNulls;
       private final CountDownLatch stopLatch;
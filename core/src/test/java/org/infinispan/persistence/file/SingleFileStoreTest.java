@@ -1,16 +1,29 @@
 package org.infinispan.persistence.file;
 
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.infinispan.test.TestingUtil.recursiveFileRemove;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
 
 /**
  * Low level single-file cache store tests.
@@ -22,6 +35,7 @@
 public class SingleFileStoreTest extends BaseStoreTest {
 
    String tmpDirectory;
+   Configuration configuration;
 
    @BeforeClass(alwaysRun = true)
    protected void setUpTempDir() {
@@ -42,7 +56,108 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
             .persistence()
                .addStore(SingleFileStoreConfigurationBuilder.class)
                   .location(this.tmpDirectory);
-      store.init(createContext(configurationBuilder.build()));
+      configuration = configurationBuilder.build();
+      store.init(createContext(configuration));
       return store;
    }
+
+   public void testSegmentedProcessAndSize() {
+      assertSegmentedProcessAndSize((SingleFileStore<Object, Object>) (AdvancedLoadWriteStore) cl, configuration);
+   }
+
+   public void testSegmentedProcessAndSizeInClusteredCache() throws Exception {
+      ConfigurationBuilder configurationBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      configurationBuilder
+            .clustering().cacheMode(CacheMode.DIST_SYNC)
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory + "/dist");
+      Configuration distConfiguration = configurationBuilder.build();
+      SingleFileStore<Object, Object> store = new SingleFileStore<>();
+      store.init(createContext(distConfiguration));
+      store.start();
+      try {
+         assertSegmentedProcessAndSize(store, distConfiguration);
+      } finally {
+         store.stop();
+      }
+   }
+
+   private void assertSegmentedProcessAndSize(SingleFileStore<Object, Object> store, Configuration configuration) {
+      KeyPartitioner keyPartitioner = configuration.clustering().hash().keyPartitioner();
+      int segment = keyPartitioner.getSegment("k0");
+      Set<Object> keysInSegment = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+         String key = "k" + i;
+         store.write(marshalledEntry(key, "v" + i, null));
+         if (keyPartitioner.getSegment(key) == segment)
+            keysInSegment.add(key);
+      }
+      Set<Integer> segments = Collections.singleton(segment);
+
+      final Set<Object> processed = new HashSet<>();
+      store.process(segments, null, new AdvancedCacheLoader.CacheLoaderTask<Object, Object>() {
+         @Override
+         public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+            processed.add(marshalledEntry.getKey());
+         }
+      }, new WithinThreadExecutor(), false, false);
+      assertEquals(keysInSegment, processed);
+      assertEquals(keysInSegment.size(), store.size(segments));
+
+      for (Object key : keysInSegment)
+         store.delete(key);
+      assertEquals(0, store.size(segments));
+      assertEquals(100 - keysInSegment.size(), store.size());
+   }
+
+   public void testFreeSpaceCompactedInBackground() {
+      SingleFileStore<Object, Object> store = (SingleFileStore<Object, Object>) (AdvancedLoadWriteStore) cl;
+      int numEntries = 2048;
+      for (int i = 0; i < numEntries; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      final long fileSize = store.getFileSize();
+
+      // free the entries at the end of the file first, without calling purge
+      for (int i = numEntries - 1; i >= 0; i--) {
+         assertTrue(cl.delete("k" + i));
+      }
+      eventually(() -> "File size " + store.getFileSize() + " was not reduced from " + fileSize,
+            () -> store.getFileSize() < fileSize);
+
+      // the merged free entries can still be allocated
+      for (int i = 0; i < numEntries; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      assertEquals(numEntries, store.size());
+      for (int i = 0; i < numEntries; i++) {
+         assertEquals("v" + i, cl.load("k" + i).getValue());
+      }
+   }
+
+   public void testWriteBuffersReleasedOnStop() {
+      Collection<?> writeBuffers = TestingUtil.extractField(cl, "writeBuffers");
+      for (int i = 0; i < 10; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      // the writes run one after another, so they share a single buffer
+      assertEquals(1, writeBuffers.size());
+      cl.stop();
+      assertTrue(writeBuffers.isEmpty());
+      cl.start();
+      assertEquals("v0", cl.load("k0").getValue());
+   }
+
+   public void testSmallAndLargeEntries() {
+      // entries larger than the pooled write buffers are written from a heap buffer
+      String large = new String(new char[128 * 1024]).replace('\0', 'x');
+      cl.write(marshalledEntry("small", "v", null));
+      cl.write(marshalledEntry("large", large, null));
+      cl.write(marshalledEntry("small2", "v2", null));
+      assertEquals("v", cl.load("small").getValue());
+      assertEquals(large, cl.load("large").getValue());
+      assertEquals("v2", cl.load("small2").getValue());
+      assertEquals("large", cl.load("large").getKey());
+   }
 }
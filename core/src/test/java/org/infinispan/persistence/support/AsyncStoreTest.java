@@ -56,6 +56,7 @@
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
 @Test(groups = "unit", testName = "persistence.support.AsyncStoreTest", sequential=true)
@@ -548,6 +549,35 @@ public void run() {
       assertEquals(3, underlying.threads.size());
    }
 
+   @Test(timeOut=30000)
+   public void testModificationsFlushedInBatches() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(AsyncStoreTest.class.getName() + "-batches")
+               .async().enable().threadPoolSize(2);
+      DummyInMemoryStore underlying = new DummyInMemoryStore();
+      writer = new AdvancedAsyncCacheWriter(underlying);
+      InitializationContext ctx = PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller);
+      writer.init(ctx);
+      writer.start();
+      underlying.init(ctx);
+      underlying.start();
+
+      for (int i = 0; i < 100; i++)
+         writer.write(new MarshalledEntryImpl("k" + i, "v" + i, null, marshaller()));
+      for (int i = 0; i < 50; i++)
+         writer.delete("k" + i);
+
+      eventuallyEquals(0, writer::getPendingModifications);
+      eventuallyEquals(50, underlying::size);
+      for (int i = 50; i < 100; i++)
+         assertEquals("v" + i, underlying.load("k" + i).getValue());
+      assertTrue(underlying.stats().get("writeBatch") > 0);
+      assertTrue(underlying.stats().get("deleteBatch") > 0);
+      assertEquals(0, writer.getBlockedWrites());
+   }
+
    private static abstract class OneEntryCacheManagerCallable extends CacheManagerCallable {
       protected final Cache<String, String> cache;
       protected final LockableStore store;
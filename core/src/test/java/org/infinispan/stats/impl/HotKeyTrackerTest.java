@@ -0,0 +1,88 @@
+package org.infinispan.stats.impl;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.infinispan.test.TestingUtil.extractLockManager;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link HotKeyTracker} finds the most accessed keys and the most contended locks.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "stats.impl.HotKeyTrackerTest")
+public class HotKeyTrackerTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(false);
+   }
+
+   @AfterMethod
+   public void disableTracking() {
+      HotKeyTracker tracker = tracker();
+      tracker.setStatisticsEnabled(false);
+      tracker.setSampleRate(100);
+      tracker.resetStatistics();
+   }
+
+   public void testDisabledByDefault() {
+      cache.put("k", "v");
+      assertTrue(tracker().getHotKeys().isEmpty());
+   }
+
+   public void testHotKeys() {
+      HotKeyTracker tracker = tracker();
+      tracker.setStatisticsEnabled(true);
+      tracker.setSampleRate(1);
+      for (int i = 0; i < 100; i++) {
+         cache.put("hot", "v" + i);
+         cache.get("hot");
+         cache.get("warm");
+         cache.put("cold" + i, "v");
+      }
+
+      Iterator<Map.Entry<String, Long>> top = tracker.getTopKeys(2).entrySet().iterator();
+      Map.Entry<String, Long> first = top.next();
+      assertEquals("hot", first.getKey());
+      assertEquals(200, first.getValue().longValue());
+      assertEquals("warm", top.next().getKey());
+
+      tracker.resetStatistics();
+      assertTrue(tracker.getHotKeys().isEmpty());
+   }
+
+   public void testContendedLocks() throws Exception {
+      HotKeyTracker tracker = tracker();
+      tracker.setStatisticsEnabled(true);
+      LockManager lockManager = extractLockManager(cache);
+      lockManager.lock("k", "owner1", 0, TimeUnit.MILLISECONDS).lock();
+      try {
+         lockManager.lock("k", "owner2", 0, TimeUnit.MILLISECONDS);
+         lockManager.lock("other", "owner2", 0, TimeUnit.MILLISECONDS).lock();
+      } finally {
+         lockManager.unlock("other", "owner2");
+         lockManager.unlock("k", "owner2");
+         lockManager.unlock("k", "owner1");
+      }
+
+      Map<String, Long> contended = tracker.getContendedLocks();
+      assertEquals(1, contended.size());
+      assertEquals(1, contended.get("k").longValue());
+   }
+
+   private HotKeyTracker tracker() {
+      return extractComponent(cache, HotKeyTracker.class);
+   }
+}
@@ -0,0 +1,81 @@
+package org.infinispan.stats.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link LatencyHistogram}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "stats.impl.LatencyHistogramTest")
+public class LatencyHistogramTest extends AbstractInfinispanTest {
+
+   public void testEmpty() {
+      LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+      assertEquals(0, snapshot.getCount());
+      assertEquals(0, snapshot.getPercentile(50));
+      assertEquals(0, snapshot.getPercentile(100));
+   }
+
+   public void testBucketsAreContiguous() {
+      int previous = -1;
+      for (long value = 0; value < 1 << 20; value++) {
+         int index = LatencyHistogram.bucketIndex(value);
+         assertTrue(index == previous || index == previous + 1);
+         assertTrue(value <= LatencyHistogram.highestValueInBucket(index));
+         previous = index;
+      }
+   }
+
+   public void testPercentiles() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      for (int i = 1; i <= 1000; i++) {
+         histogram.record(i);
+      }
+      histogram.record(1_000_000);
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+      assertEquals(1001, snapshot.getCount());
+      assertWithinPrecision(501, snapshot.getPercentile(50));
+      assertWithinPrecision(991, snapshot.getPercentile(99));
+      assertWithinPrecision(1000, snapshot.getPercentile(99.9));
+      assertEquals(1_000_000, snapshot.getPercentile(100));
+      assertEquals(1_000_000, snapshot.getMax());
+   }
+
+   public void testBulkRecording() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(10, 99);
+      histogram.record(5000);
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      assertEquals(100, snapshot.getCount());
+      assertEquals(10, snapshot.getPercentile(99));
+      assertEquals(5000, snapshot.getMax());
+   }
+
+   public void testValuesOverMaximum() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(Long.MAX_VALUE);
+      histogram.record(-1);
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      assertEquals(0, snapshot.getPercentile(50));
+      assertEquals(Long.MAX_VALUE, snapshot.getPercentile(100));
+   }
+
+   public void testReset() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(42);
+      histogram.reset();
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      assertEquals(0, snapshot.getCount());
+      assertEquals(0, snapshot.getMax());
+   }
+
+   private void assertWithinPrecision(long expected, long actual) {
+      assertTrue("Expected " + expected + " but was " + actual, actual >= expected && actual <= expected * 1.04);
+   }
+}
@@ -0,0 +1,76 @@
+package org.infinispan.stats.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.ByteArrayEquivalence;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link SpaceSavingSketch}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "stats.impl.SpaceSavingSketchTest")
+public class SpaceSavingSketchTest extends AbstractInfinispanTest {
+
+   public void testExactBelowCapacity() {
+      SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(10, AnyEquivalence.getInstance());
+      offer(sketch, "a", 5);
+      offer(sketch, "b", 3);
+      offer(sketch, "c", 1);
+
+      List<SpaceSavingSketch.Counter<String>> top = sketch.top(2);
+      assertEquals(2, top.size());
+      assertEquals("a", top.get(0).getItem());
+      assertEquals(5, top.get(0).getCount());
+      assertEquals(0, top.get(0).getError());
+      assertEquals("b", top.get(1).getItem());
+      assertEquals(3, top.get(1).getCount());
+   }
+
+   public void testHeavyHittersSurviveEviction() {
+      SpaceSavingSketch<Integer> sketch = new SpaceSavingSketch<>(20, AnyEquivalence.getInstance());
+      for (int i = 0; i < 1000; i++) {
+         sketch.offer(i % 10 == 0 ? -1 : i);
+         if (i % 4 == 0) {
+            sketch.offer(-2);
+         }
+      }
+
+      List<SpaceSavingSketch.Counter<Integer>> top = sketch.top(2);
+      assertEquals(Integer.valueOf(-2), top.get(0).getItem());
+      assertEquals(Integer.valueOf(-1), top.get(1).getItem());
+      for (SpaceSavingSketch.Counter<Integer> counter : top) {
+         long real = counter.getItem() == -2 ? 250 : 100;
+         assertTrue(counter.getCount() >= real);
+         assertTrue(counter.getCount() - counter.getError() <= real);
+      }
+   }
+
+   public void testEquivalence() {
+      SpaceSavingSketch<byte[]> sketch = new SpaceSavingSketch<>(10, ByteArrayEquivalence.INSTANCE);
+      sketch.offer(new byte[]{1, 2});
+      sketch.offer(new byte[]{1, 2});
+      List<SpaceSavingSketch.Counter<byte[]>> top = sketch.top(10);
+      assertEquals(1, top.size());
+      assertEquals(2, top.get(0).getCount());
+   }
+
+   public void testReset() {
+      SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(10, AnyEquivalence.getInstance());
+      offer(sketch, "a", 5);
+      sketch.reset();
+      assertTrue(sketch.top(10).isEmpty());
+   }
+
+   private static <T> void offer(SpaceSavingSketch<T> sketch, T item, int times) {
+      for (int i = 0; i < times; i++) {
+         sketch.offer(item);
+      }
+   }
+}
@@ -0,0 +1,70 @@
+package org.infinispan.stats.impl;
+
+import static org.infinispan.test.TestingUtil.extractGlobalComponent;
+import static org.infinispan.test.TestingUtil.extractGlobalMarshaller;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link TimingStatistics} records the time spent in interceptors and marshalling only when enabled.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "stats.impl.TimingStatisticsTest")
+public class TimingStatisticsTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(false);
+   }
+
+   @AfterMethod
+   public void disableTiming() {
+      TimingStatistics timings = timingStatistics();
+      timings.setStatisticsEnabled(false);
+      timings.resetStatistics();
+   }
+
+   public void testDisabledByDefault() {
+      cache.put("k", "v");
+      assertFalse(timingStatistics().printTimings().contains("PutKeyValueCommand"));
+   }
+
+   public void testInterceptorTimings() {
+      TimingStatistics timings = timingStatistics();
+      timings.setStatisticsEnabled(true);
+      cache.put("k", "v");
+      cache.get("k");
+
+      String report = timings.printTimingsWithPrefix(cache.getName() + "/");
+      assertTrue(report, report.contains("InvocationContextInterceptor"));
+      assertTrue(report, report.contains("CallInterceptor"));
+      assertTrue(report, report.contains("PutKeyValueCommand"));
+      assertTrue(report, report.contains("GetKeyValueCommand"));
+
+      timings.resetStatistics();
+      assertFalse(timings.printTimings().contains("PutKeyValueCommand"));
+   }
+
+   public void testMarshallingTimings() throws Exception {
+      TimingStatistics timings = timingStatistics();
+      timings.setStatisticsEnabled(true);
+      byte[] bytes = extractGlobalMarshaller(cacheManager).objectToByteBuffer("value");
+      extractGlobalMarshaller(cacheManager).objectFromByteBuffer(bytes);
+
+      String report = timings.printTimingsWithPrefix("GlobalMarshaller/");
+      assertTrue(report, report.contains("GlobalMarshaller/marshall"));
+      assertTrue(report, report.contains("GlobalMarshaller/unmarshall"));
+      assertTrue(report, report.contains("String"));
+   }
+
+   private TimingStatistics timingStatistics() {
+      return extractGlobalComponent(cacheManager, TimingStatistics.class);
+   }
+}
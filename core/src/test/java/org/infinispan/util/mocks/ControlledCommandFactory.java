@@ -68,6 +68,7 @@
 import org.infinispan.util.logging.LogFactory;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
+import org.infinispan.xsite.XSiteBatchRpcCommand;
 import org.infinispan.xsite.statetransfer.XSiteState;
 import org.infinispan.xsite.statetransfer.XSiteStatePushCommand;
 import org.infinispan.xsite.statetransfer.XSiteStateTransferControlCommand;
@@ -373,6 +374,11 @@ public SingleXSiteRpcCommand buildSingleXSiteRpcCommand(VisitableCommand command
       return actual.buildSingleXSiteRpcCommand(command);
    }
 
+   @Override
+   public XSiteBatchRpcCommand buildXSiteBatchRpcCommand(byte[] marshalledModifications, boolean compress) {
+      return actual.buildXSiteBatchRpcCommand(marshalledModifications, compress);
+   }
+
    @Override
    public GetKeysInGroupCommand buildGetKeysInGroupCommand(long flagsBitSet, String groupName) {
       return actual.buildGetKeysInGroupCommand(flagsBitSet, groupName);
@@ -0,0 +1,154 @@
+package org.infinispan.xsite;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.cache.BackupConfiguration;
+import org.infinispan.configuration.cache.BackupConfigurationBuilder;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests the asynchronous backups sent in batches, where only the last write of every key is sent.
+ *
+ * @since 9.0
+ */
+@Test(groups = "xsite", testName = "xsite.AsyncBackupBatchingTest")
+public class AsyncBackupBatchingTest extends AbstractTwoSitesTest {
+
+   private static final int BATCH_SIZE = 10;
+
+   public AsyncBackupBatchingTest() {
+      super.lonBackupStrategy = BackupConfiguration.BackupStrategy.ASYNC;
+      // a single node, so that it is the primary owner of all the keys and queues all the writes
+      super.initialClusterSize = 1;
+   }
+
+   @Override
+   protected void adaptLONConfiguration(BackupConfigurationBuilder builder) {
+      // the batches are only sent once full
+      builder.asyncBatchSize(BATCH_SIZE).asyncBatchDelay(TimeUnit.HOURS.toMillis(1));
+   }
+
+   @Override
+   protected ConfigurationBuilder getNycActiveConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+
+   @Override
+   protected ConfigurationBuilder getLonActiveConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+
+   public void testWritesToTheSameKeyAreConflated() {
+      Cache<Object, Object> cache = cache(LON, 0);
+      for (int i = 0; i < 5; i++) {
+         cache.put("conflated", "v" + i);
+      }
+      cache.put("removed", "v");
+      cache.remove("removed");
+
+      assertEquals("2", adminOperations().getAsyncBackupQueueSize(NYC));
+      assertFalse("-1".equals(adminOperations().getAsyncBackupQueueLag(NYC)));
+      assertNull(backup(LON).get("conflated"));
+
+      fillBatch(cache, 2);
+
+      eventuallyEquals("v4", () -> backup(LON).get("conflated"));
+      assertNull(backup(LON).get("removed"));
+      for (int i = 0; i < BATCH_SIZE - 2; i++) {
+         assertEquals("v", backup(LON).get("fill" + i));
+      }
+      assertEquals("0", adminOperations().getAsyncBackupQueueSize(NYC));
+      assertEquals("0", adminOperations().getAsyncBackupQueueLag(NYC));
+   }
+
+   public void testClearDiscardsQueuedWrites() {
+      Cache<Object, Object> cache = cache(LON, 0);
+      cache.put("beforeClear", "v");
+      cache.clear();
+      cache.put("afterClear", "v");
+
+      assertEquals("2", adminOperations().getAsyncBackupQueueSize(NYC));
+
+      fillBatch(cache, 2);
+
+      eventuallyEquals("v", () -> backup(LON).get("afterClear"));
+      assertNull(backup(LON).get("beforeClear"));
+   }
+
+   public void testConditionalWritesAreSentAsUnconditional() {
+      Cache<Object, Object> cache = cache(LON, 0);
+      cache.put("conditionalPut", "old");
+      cache.put("conditionalRemove", "v");
+      fillBatch(cache, 2);
+      eventuallyEquals("old", () -> backup(LON).get("conditionalPut"));
+
+      // the successful conditional writes of a one phase transaction, as the backup sender queues them
+      CommandsFactory commandsFactory = cache.getAdvancedCache().getComponentRegistry().getComponent(CommandsFactory.class);
+      PutKeyValueCommand putIfAbsent = commandsFactory.buildPutKeyValueCommand("conditionalPut", "new",
+            new EmbeddedMetadata.Builder().build(), EnumUtil.EMPTY_BIT_SET);
+      putIfAbsent.setPutIfAbsent(true);
+      WriteCommand removeIfEquals = commandsFactory.buildRemoveCommand("conditionalRemove", "other", EnumUtil.EMPTY_BIT_SET);
+      asyncQueue(cache).enqueue(Arrays.asList(putIfAbsent, removeIfEquals));
+
+      fillBatch(cache, 2);
+
+      // the backup site applies the outcome, it does not evaluate the conditions again
+      eventuallyEquals("new", () -> backup(LON).get("conditionalPut"));
+      assertNull(backup(LON).get("conditionalRemove"));
+   }
+
+   public void testBatchForwardedWithinTheBackupSite() throws Throwable {
+      // a batch is a regular cache command when a node of the backup site forwards it to another one
+      Cache<Object, Object> backupCache = backup(LON);
+      ComponentRegistry registry = backupCache.getAdvancedCache().getComponentRegistry();
+      CommandsFactory commandsFactory = registry.getCommandsFactory();
+      StreamingMarshaller marshaller = registry.getComponent(StreamingMarshaller.class, KnownComponentNames.CACHE_MARSHALLER);
+      WriteCommand put = commandsFactory.buildPutKeyValueCommand("forwarded", "v", new EmbeddedMetadata.Builder().build(),
+            EnumUtil.EMPTY_BIT_SET);
+      XSiteBatchRpcCommand command = commandsFactory.buildXSiteBatchRpcCommand(
+            marshaller.objectToByteBuffer(new WriteCommand[]{put}), true);
+      commandsFactory.initializeReplicableCommand(command, false);
+
+      command.perform(null);
+
+      assertEquals("v", backupCache.get("forwarded"));
+   }
+
+   public void testMetricsOfUnknownSite() {
+      assertEquals("Incorrect site name: unknown", adminOperations().getAsyncBackupQueueSize("unknown"));
+   }
+
+   private void fillBatch(Cache<Object, Object> cache, int queued) {
+      for (int i = 0; i < BATCH_SIZE - queued; i++) {
+         cache.put("fill" + i, "v");
+      }
+   }
+
+   private XSiteAsyncBackupQueue asyncQueue(Cache<Object, Object> cache) {
+      BackupSender backupSender = cache.getAdvancedCache().getComponentRegistry().getComponent(BackupSender.class);
+      Map<String, XSiteAsyncBackupQueue> asyncQueues = TestingUtil.extractField(backupSender, "asyncQueues");
+      return asyncQueues.get(NYC);
+   }
+
+   private XSiteAdminOperations adminOperations() {
+      return cache(LON, 0).getAdvancedCache().getComponentRegistry().getComponent(XSiteAdminOperations.class);
+   }
+}
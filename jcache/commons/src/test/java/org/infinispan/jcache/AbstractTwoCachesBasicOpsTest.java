@@ -14,6 +14,7 @@
 import javax.cache.event.CacheEntryUpdatedListener;
 import javax.cache.processor.EntryProcessor;
 import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
 import javax.cache.processor.MutableEntry;
 import java.io.Serializable;
 import java.lang.reflect.Method;
@@ -268,6 +269,28 @@ public void testEntryProcessor(Method m) {
       assertEquals(cache2.get("key1"), "val1_processed");
    }
 
+   @Test
+   public void testInvokeAll(Method m) {
+      Cache<String, String> cache1 = getCache1(m);
+      Cache<String, String> cache2 = getCache2(m);
+
+      Set<String> keys = new HashSet<>();
+      for (int i = 0; i < 10; i++) {
+         cache1.put("key" + i, "val" + i);
+         keys.add("key" + i);
+      }
+      keys.add("missing");
+
+      Map<String, EntryProcessorResult<String>> results = cache2.invokeAll(keys, new SerializableEntryProcessor());
+      assertEquals(results.size(), 10);
+      for (int i = 0; i < 10; i++) {
+         assertEquals(results.get("key" + i).get(), "val" + i);
+         assertEquals(cache1.get("key" + i), "val" + i + "_processed");
+         assertEquals(cache2.get("key" + i), "val" + i + "_processed");
+      }
+      assertFalse(cache1.containsKey("missing"));
+   }
+
    @Test
    public void testUpdatedListener(Method m) {
       Cache<String, String> cache1 = getCache1(m);
@@ -418,6 +441,19 @@ public Object process(MutableEntry entry, Object... arguments) throws EntryProce
       }
    }
 
+   private static class SerializableEntryProcessor implements EntryProcessor<String, String, String>, Serializable {
+
+      @Override
+      public String process(MutableEntry<String, String> entry, Object... arguments) throws EntryProcessorException {
+         if (!entry.exists())
+            return null;
+
+         String value = entry.getValue();
+         entry.setValue(value + "_processed");
+         return value;
+      }
+   }
+
    public abstract Cache getCache1(Method m);
    public abstract Cache getCache2(Method m);
 }
@@ -0,0 +1,57 @@
+package org.infinispan.jcache.embedded;
+
+import java.io.Serializable;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.cache.expiry.Duration;
+
+import org.infinispan.commons.api.functional.EntryView.ReadWriteEntryView;
+
+/**
+ * Functions applied by the bulk JCache operations on the owners of the keys, so that every owner receives a single
+ * command for all its keys and writes them to the {@link javax.cache.integration.CacheWriter} in a single batch.
+ *
+ * @since 9.0
+ */
+final class BulkFunctions {
+
+   private BulkFunctions() {
+      // Cannot be instantiated, it's just a holder class
+   }
+
+   /**
+    * Removes the entry, returning whether it existed.
+    */
+   static final class Remove<K, V> implements Function<ReadWriteEntryView<K, V>, Boolean>, Serializable {
+      @Override
+      public Boolean apply(ReadWriteEntryView<K, V> view) {
+         boolean existed = view.find().isPresent();
+         view.remove();
+         return existed;
+      }
+   }
+
+   /**
+    * Stores the value with the creation or update expiry, calculated by the invoker, depending on whether the entry
+    * exists. Returns whether the value was stored.
+    */
+   static final class Put<K, V> implements BiFunction<V, ReadWriteEntryView<K, V>, Boolean>, Serializable {
+      private final Duration creation;
+      private final Duration update;
+
+      Put(Duration creation, Duration update) {
+         this.creation = creation;
+         this.update = update;
+      }
+
+      @Override
+      public Boolean apply(V value, ReadWriteEntryView<K, V> view) {
+         boolean exists = view.find().isPresent();
+         Duration ttl = exists ? update : creation;
+         EntryProcessorFunction.write(view, value, ttl, exists);
+         return ttl == null || !ttl.equals(Duration.ZERO);
+      }
+   }
+
+}
@@ -0,0 +1,162 @@
+package org.infinispan.jcache.embedded;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.cache.expiry.Duration;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.MutableEntry;
+
+import org.infinispan.commons.api.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.commons.api.functional.MetaParam;
+import org.infinispan.commons.util.ReflectionUtil;
+import org.infinispan.jcache.MutableJCacheEntry.Operation;
+
+/**
+ * Function that runs a JCache {@link EntryProcessor} against an entry, applying the changes made by the processor to
+ * the entry within the same invocation. Sent to the primary owner of the key with a read-write functional command, so
+ * the processor executes while the key is locked there and neither the value nor its changes travel to the invoker.
+ * <p/>
+ * The expiry durations are calculated by the invoker, since the expiry policy of the cache is not serializable.
+ *
+ * @since 9.0
+ */
+final class EntryProcessorFunction<K, V, T>
+      implements Function<ReadWriteEntryView<K, V>, EntryProcessorFunction.Outcome<K, T>>, Serializable {
+
+   private final EntryProcessor<K, V, T> processor;
+   private final Object[] arguments;
+   private final Duration creation;
+   private final Duration update;
+   private final Duration access;
+
+   EntryProcessorFunction(EntryProcessor<K, V, T> processor, Object[] arguments,
+         Duration creation, Duration update, Duration access) {
+      this.processor = processor;
+      this.arguments = arguments;
+      this.creation = creation;
+      this.update = update;
+      this.access = access;
+   }
+
+   @Override
+   public Outcome<K, T> apply(ReadWriteEntryView<K, V> view) {
+      Optional<V> previous = view.find();
+      ViewMutableEntry<K, V> entry = new ViewMutableEntry<>(view.key(), previous.orElse(null));
+      T result;
+      try {
+         result = processor.process(entry, arguments);
+      } catch (Exception e) {
+         // Returned rather than thrown, so that it reaches the invoker even if the processor ran remotely
+         return new Outcome<>(view.key(), null, Operation.NONE, previous.isPresent(), e);
+      }
+
+      Operation operation = entry.operation;
+      switch (operation) {
+         case UPDATE:
+            write(view, entry.value, previous.isPresent() ? update : creation, previous.isPresent());
+            break;
+         case REMOVE:
+            view.remove();
+            break;
+         case ACCESS:
+            if (access != null)
+               write(view, previous.get(), access, true);
+            break;
+         default:
+            break;
+      }
+      return new Outcome<>(view.key(), result, operation, previous.isPresent(), null);
+   }
+
+   static <V> void write(ReadWriteEntryView<?, V> view, V value, Duration ttl, boolean exists) {
+      if (ttl == null || ttl.isEternal()) {
+         view.set(value);
+      } else if (ttl.equals(Duration.ZERO)) {
+         // Same as the non-functional put(), the entry is not stored if it expires immediately
+         if (exists)
+            view.remove();
+      } else {
+         view.set(value, new MetaParam.MetaLifespan(ttl.getTimeUnit().toMillis(ttl.getDurationAmount())));
+      }
+   }
+
+   /**
+    * Result of running the processor against an entry, returned to the invoker.
+    */
+   static final class Outcome<K, T> implements Serializable {
+      final K key;
+      final T result;
+      final Operation operation;
+      final boolean existed;
+      final Exception failure;
+
+      Outcome(K key, T result, Operation operation, boolean existed, Exception failure) {
+         this.key = key;
+         this.result = result;
+         this.operation = operation;
+         this.existed = existed;
+         this.failure = failure;
+      }
+   }
+
+   /**
+    * {@link MutableEntry} passed to the processor, with the same semantics as
+    * {@link org.infinispan.jcache.MutableJCacheEntry} but reading from the entry being processed. Any loading
+    * required by read-through has already happened by the time the function is applied.
+    */
+   private static final class ViewMutableEntry<K, V> implements MutableEntry<K, V> {
+      private final K key;
+      private final V oldValue;
+      private V value;
+      private Operation operation = Operation.NONE;
+
+      ViewMutableEntry(K key, V oldValue) {
+         this.key = key;
+         this.oldValue = oldValue;
+      }
+
+      @Override
+      public boolean exists() {
+         if (value != null)
+            return true;
+         return operation != Operation.REMOVE && oldValue != null;
+      }
+
+      @Override
+      public void remove() {
+         operation = value != null ? Operation.NONE : Operation.REMOVE;
+         value = null;
+      }
+
+      @Override
+      public void setValue(V value) {
+         this.value = value;
+         operation = Operation.UPDATE;
+      }
+
+      @Override
+      public K getKey() {
+         return key;
+      }
+
+      @Override
+      public V getValue() {
+         if (value != null)
+            return value;
+
+         if (operation != Operation.REMOVE && oldValue != null) {
+            operation = Operation.ACCESS;
+            return oldValue;
+         }
+         return null;
+      }
+
+      @Override
+      public <U> U unwrap(Class<U> clazz) {
+         return ReflectionUtil.unwrap(this, clazz);
+      }
+   }
+
+}
@@ -1,8 +1,11 @@
 package org.infinispan.jcache.embedded;
 
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -25,20 +28,28 @@
 import javax.cache.management.CacheStatisticsMXBean;
 import javax.cache.processor.EntryProcessor;
 import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
 import javax.management.MBeanServer;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.CacheListenerException;
 import org.infinispan.commons.api.AsyncCache;
+import org.infinispan.commons.api.functional.FunctionalMap.ReadWriteMap;
+import org.infinispan.commons.api.functional.Param.FutureMode;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.commons.util.ReflectionUtil;
 import org.infinispan.context.Flag;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
 import org.infinispan.jcache.AbstractJCache;
 import org.infinispan.jcache.AbstractJCacheListenerAdapter;
 import org.infinispan.jcache.Exceptions;
+import org.infinispan.jcache.Expiration;
+import org.infinispan.jcache.FailureEntryProcessorResult;
 import org.infinispan.jcache.JCacheEntry;
 import org.infinispan.jcache.MutableJCacheEntry;
+import org.infinispan.jcache.SuccessEntryProcessorResult;
 import org.infinispan.jcache.embedded.logging.Log;
 import org.infinispan.jmx.JmxUtil;
 import org.infinispan.persistence.manager.PersistenceManager;
@@ -68,9 +79,17 @@
    private final AdvancedCache<K, V> skipStatisticsCache;
    private final RICacheStatistics stats;
 
+   // Number of keys removed with a single command by removeAll()
+   private static final int BULK_BATCH_SIZE = 1024;
+
    private final LockContainer processorLocks;
    private final long lockTimeout; // milliseconds
 
+   // Runs entry processors and bulk operations on the owners of the keys,
+   // null in transactional caches, which do not support functional commands yet
+   private final ReadWriteMap<K, V> readWriteMap;
+   private final boolean processOnOwner;
+
    public JCache(AdvancedCache<K, V> cache, CacheManager cacheManager, ConfigurationAdapter<K, V> c) {
       super(c.getConfiguration(), cacheManager, new JCacheNotifier<K, V>());
       this.cache = cache;
@@ -89,6 +108,14 @@ public JCache(AdvancedCache<K, V> cache, CacheManager cacheManager, Configuratio
       this.lockTimeout =  cache.getCacheConfiguration()
             .locking().lockAcquisitionTimeout();
 
+      this.readWriteMap = cache.getCacheConfiguration().transaction().transactionMode().isTransactional()
+            ? null
+            : ReadWriteMapImpl.create(FunctionalMapImpl.create(cache)).withParams(FutureMode.COMPLETED);
+      // Entry processors applied on the owner would load entries through any
+      // configured loader, even if the cache is not read-through
+      this.processOnOwner = readWriteMap != null
+            && (configuration.isReadThrough() || configuration.getCacheLoaderFactory() == null);
+
       addConfigurationListeners();
 
       setCacheLoader(configuration);
@@ -265,6 +292,22 @@ public <T> T invoke(final K key, final EntryProcessor<K, V, T> entryProcessor, f
       if (trace)
          log.tracef("Invoke entry processor %s for key=%s", entryProcessor, key);
 
+      if (isProcessedOnOwner(entryProcessor, arguments)) {
+         // The owner applies the processor under its own key lock, but the
+         // processor lock is held here too, so that the CRUD methods of this
+         // node wait for the processor as they do for processors applied
+         // locally.
+         return new WithProcessorLock<T>().call(key, () -> {
+            EntryProcessorFunction.Outcome<K, T> outcome =
+                  readWriteMap.eval(key, newProcessorFunction(entryProcessor, arguments)).join();
+            updateStatistics(outcome);
+            if (outcome.failure != null)
+               throw Exceptions.launderEntryProcessorException(outcome.failure);
+
+            return outcome.result;
+         });
+      }
+
       return new WithProcessorLock<T>().call(key, new Callable<T>() {
          @Override
          public T call() throws Exception {
@@ -310,6 +353,91 @@ public T call() throws Exception {
       });
    }
 
+   @Override
+   public <T> Map<K, EntryProcessorResult<T>> invokeAll(
+         Set<? extends K> keys, EntryProcessor<K, V, T> entryProcessor, Object... arguments) {
+      if (!isProcessedOnOwner(entryProcessor, arguments))
+         return super.invokeAll(keys, entryProcessor, arguments);
+
+      checkNotClosed().checkNotNull(entryProcessor, "entryProcessor").verifyKeys(keys);
+
+      if (trace)
+         log.tracef("Invoke entry processor %s for keys=%s", entryProcessor, keys);
+
+      // A single command processes all the keys, grouped by primary owner
+      Map<K, EntryProcessorResult<T>> map = new HashMap<K, EntryProcessorResult<T>>(keys.size());
+      if (keys.isEmpty())
+         return map;
+
+      Set<K> processed = new HashSet<K>(keys.size());
+      try {
+         readWriteMap.evalMany(keys, newProcessorFunction(entryProcessor, arguments)).forEach(outcome -> {
+            processed.add(outcome.key);
+            updateStatistics(outcome);
+            if (outcome.failure != null) {
+               map.put(outcome.key, new FailureEntryProcessorResult<T>(
+                     Exceptions.launderEntryProcessorException(outcome.failure)));
+            } else if (outcome.result != null) {
+               map.put(outcome.key, new SuccessEntryProcessorResult<T>(outcome.result));
+            }
+         });
+      } catch (Exception e) {
+         // The command failed, e.g. the cache writer threw an exception, so
+         // the keys without an outcome were not processed
+         Throwable t = e instanceof CacheListenerException
+               ? Exceptions.launderCacheListenerException((CacheListenerException) e) : e;
+         for (K key : keys) {
+            if (!processed.contains(key))
+               map.put(key, new FailureEntryProcessorResult<T>(t));
+         }
+      }
+      return map;
+   }
+
+   private boolean isProcessedOnOwner(EntryProcessor<K, V, ?> entryProcessor, Object[] arguments) {
+      if (!processOnOwner)
+         return false;
+
+      if (!cache.getCacheConfiguration().clustering().cacheMode().isClustered())
+         return true;
+
+      // Processors and arguments that cannot be marshalled are applied locally
+      if (!(entryProcessor instanceof Serializable))
+         return false;
+
+      if (arguments != null) {
+         for (Object argument : arguments) {
+            if (argument != null && !(argument instanceof Serializable))
+               return false;
+         }
+      }
+      return true;
+   }
+
+   private <T> EntryProcessorFunction<K, V, T> newProcessorFunction(
+         EntryProcessor<K, V, T> entryProcessor, Object[] arguments) {
+      return new EntryProcessorFunction<K, V, T>(entryProcessor, arguments,
+            Expiration.getExpiry(expiryPolicy, Expiration.Operation.CREATION),
+            Expiration.getExpiry(expiryPolicy, Expiration.Operation.UPDATE),
+            Expiration.getExpiry(expiryPolicy, Expiration.Operation.ACCESS));
+   }
+
+   private void updateStatistics(EntryProcessorFunction.Outcome<K, ?> outcome) {
+      // Functional commands are not tracked by the cache statistics
+      if (!statisticsEnabled())
+         return;
+
+      if (outcome.existed)
+         stats.increaseCacheHits(1);
+      else
+         stats.increaseCacheMisses(1);
+
+      if (outcome.operation == MutableJCacheEntry.Operation.UPDATE)
+         stats.increaseCachePuts(1);
+      else if (outcome.operation == MutableJCacheEntry.Operation.REMOVE && outcome.existed)
+         stats.increaseCacheRemovals(1);
+   }
+
    private MutableJCacheEntry<K, V> createMutableCacheEntry(V safeOldValue, K key) {
       return new MutableJCacheEntry<K, V>(
             configuration.isReadThrough() ? cache : skipCacheLoadCache, skipStatisticsCache, key, safeOldValue);
@@ -329,6 +457,39 @@ private V safeCopy(V original) {
       }
    }
 
+   private boolean isBulkSupported(Set<? extends K> keys) {
+      if (readWriteMap == null)
+         return false;
+
+      // Keys being processed with the node-local lock need the per-key path
+      for (K key : keys) {
+         if (lockRequired(key))
+            return false;
+      }
+      return true;
+   }
+
+   private void removeBatch(Set<? extends K> keys) {
+      try {
+         long removed = readWriteMap.evalMany(keys, new BulkFunctions.Remove<K, V>())
+               .filter(Boolean::booleanValue).count();
+         if (statisticsEnabled())
+            stats.increaseCacheRemovals(removed);
+      } catch (CacheListenerException e) {
+         throw Exceptions.launderCacheListenerException(e);
+      }
+   }
+
+   private void removeKeys(Set<K> keys) {
+      if (isBulkSupported(keys)) {
+         removeBatch(keys);
+      } else {
+         // Some key is locked by an entry processor, remove one by one
+         for (K key : keys)
+            remove(key);
+      }
+   }
+
    private boolean lockRequired(K key) {
       // Check if processor is locking a key, so that exclusive locking can
       // be avoided for majority of use cases. This way, only when
@@ -404,11 +565,21 @@ public Void call() {
    public void putAll(Map<? extends K, ? extends V> inputMap) {
       checkNotClosed();
       InfinispanCollections.assertNotNullEntries(inputMap, "inputMap");  // spec required check
-      /**
-       * TODO Similar to mentioned before, it'd be interesting to see if multiple putAsync() calls
-       * could be executed in parallel to speed up.
-       *
-       */
+      if (isBulkSupported(inputMap.keySet())) {
+         // A single command stores all the entries, grouped by owner
+         try {
+            long stored = readWriteMap.evalMany(inputMap, new BulkFunctions.Put<K, V>(
+                  Expiration.getExpiry(expiryPolicy, Expiration.Operation.CREATION),
+                  Expiration.getExpiry(expiryPolicy, Expiration.Operation.UPDATE)))
+                  .filter(Boolean::booleanValue).count();
+            if (statisticsEnabled())
+               stats.increaseCachePuts(stored);
+         } catch (CacheListenerException e) {
+            throw Exceptions.launderCacheListenerException(e);
+         }
+         return;
+      }
+
       for (final Map.Entry<? extends K, ? extends V> e : inputMap.entrySet()) {
          final K key = e.getKey();
          if (lockRequired(key)) {
@@ -490,6 +661,21 @@ public void removeAll() {
       // for an Infinispan cache store to figure out all keys store and pass
       // them to CacheWriter.deleteAll(), hence, delete individually.
       // TODO: What happens with entries only in store but not in memory?
+      if (readWriteMap != null) {
+         // Remove the keys in batches, each of them with a single command
+         // grouped by owner, without holding all the keys in memory
+         Set<K> batch = new HashSet<K>(BULK_BATCH_SIZE);
+         for (K key : cache.keySet()) {
+            batch.add(key);
+            if (batch.size() == BULK_BATCH_SIZE) {
+               removeKeys(batch);
+               batch.clear();
+            }
+         }
+         if (!batch.isEmpty())
+            removeKeys(batch);
+         return;
+      }
 
       // Delete asynchronously and then wait for removals to complete
       List<Future<V>> futures = new ArrayList<Future<V>>();
@@ -524,6 +710,12 @@ public Void call() {
    public void removeAll(Set<? extends K> keys) {
       checkNotClosed();
       verifyKeys(keys);
+      if (isBulkSupported(keys)) {
+         if (!keys.isEmpty())
+            removeBatch(keys);
+         return;
+      }
+
       for (K k : keys) {
          remove(k);
       }
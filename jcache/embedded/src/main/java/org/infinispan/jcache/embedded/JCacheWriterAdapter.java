@@ -5,6 +5,9 @@
 import org.infinispan.jcache.JCacheEntry;
 import org.infinispan.marshall.core.MarshalledEntry;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.cache.integration.CacheWriter;
 
 public class JCacheWriterAdapter<K, V> implements org.infinispan.persistence.spi.CacheWriter {
@@ -44,6 +47,32 @@ public boolean delete(Object key) {
       return false;
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      List<JCacheEntry> batch = new ArrayList<>();
+      for (Object o : entries) {
+         MarshalledEntry entry = (MarshalledEntry) o;
+         batch.add(new JCacheEntry(entry.getKey(), entry.getValue()));
+      }
+      try {
+         delegate.writeAll((List) batch);
+      } catch (Exception e) {
+         throw Exceptions.launderCacheWriterException(e);
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      List<Object> batch = new ArrayList<>();
+      for (Object key : keys)
+         batch.add(key);
+      try {
+         delegate.deleteAll(batch);
+      } catch (Exception e) {
+         throw Exceptions.launderCacheWriterException(e);
+      }
+   }
+
    @Override
    public void start() {
    }
@@ -17,6 +17,9 @@ public class RICacheStatistics implements CacheStatisticsMXBean, Serializable {
 
    private final AdvancedCache<?, ?> cache;
    private final AtomicLong unsupportCacheHits = new AtomicLong();
+   private final AtomicLong unsupportCacheMisses = new AtomicLong();
+   private final AtomicLong unsupportCachePuts = new AtomicLong();
+   private final AtomicLong unsupportCacheRemovals = new AtomicLong();
    private final AtomicLong unsupportCacheGetTotalTime = new AtomicLong();
 
    /**
@@ -37,6 +40,10 @@ public RICacheStatistics(AdvancedCache<?, ?> cache) {
    @Override
    public void clear() {
       cache.getStats().reset();
+      unsupportCacheHits.set(0);
+      unsupportCacheMisses.set(0);
+      unsupportCachePuts.set(0);
+      unsupportCacheRemovals.set(0);
    }
 
    /**
@@ -66,7 +73,7 @@ public float getCacheHitPercentage() {
     */
    @Override
    public long getCacheMisses() {
-      return mapToSpecValidStat(cache.getStats().getMisses());
+      return mapToSpecValidStat(cache.getStats().getMisses() + unsupportCacheMisses.longValue());
    }
 
    /**
@@ -94,7 +101,7 @@ public float getCacheMissPercentage() {
    @Override
    public long getCacheGets() {
       Stats stats = cache.getStats();
-      return stats.getHits() + stats.getMisses() + unsupportCacheHits.longValue();
+      return stats.getHits() + stats.getMisses() + unsupportCacheHits.longValue() + unsupportCacheMisses.longValue();
    }
 
    /**
@@ -107,7 +114,7 @@ public long getCacheGets() {
     */
    @Override
    public long getCachePuts() {
-      return mapToSpecValidStat(cache.getStats().getStores());
+      return mapToSpecValidStat(cache.getStats().getStores() + unsupportCachePuts.longValue());
    }
 
    /**
@@ -120,7 +127,7 @@ public long getCachePuts() {
    @Override
    public long getCacheRemovals() {
       Stats stats = cache.getStats();
-      return mapToSpecValidStat(stats.getRemoveHits());
+      return mapToSpecValidStat(stats.getRemoveHits() + unsupportCacheRemovals.longValue());
    }
 
    /**
@@ -172,6 +179,18 @@ public void increaseCacheHits(long number) {
       unsupportCacheHits.getAndAdd(number);
    }
 
+   void increaseCacheMisses(long number) {
+      unsupportCacheMisses.getAndAdd(number);
+   }
+
+   void increaseCachePuts(long number) {
+      unsupportCachePuts.getAndAdd(number);
+   }
+
+   void increaseCacheRemovals(long number) {
+      unsupportCacheRemovals.getAndAdd(number);
+   }
+
    //TODO: was package-level initially
    public void addGetTimeNano(long duration) {
       if (unsupportCacheGetTotalTime.get() <= Long.MAX_VALUE - duration) {
@@ -24,14 +24,20 @@
 import javax.cache.expiry.Duration;
 import javax.cache.expiry.ExpiryPolicy;
 import javax.cache.integration.CompletionListenerFuture;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorResult;
+import javax.cache.processor.MutableEntry;
+import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import static org.infinispan.test.TestingUtil.withCacheManager;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertTrue;
 
 /**
@@ -112,6 +118,37 @@ public void call() {
       });
    }
 
+   public void testInvokeAllWithInfinispanStore() {
+      withCacheManager(new CacheManagerCallable(
+            TestCacheManagerFactory.createCacheManager(false)) {
+         @Override
+         public void call() {
+            ConfigurationBuilder builder = new ConfigurationBuilder();
+            builder.persistence()
+                  .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+                  .storeName(this.getClass().getName() + "-invokeAll");
+
+            cm.defineConfiguration("dummyStore", builder.build());
+            JCacheManager jCacheManager = createJCacheManager(cm, this);
+            Cache<Integer, String> cache = jCacheManager.getCache("dummyStore");
+
+            // The entry is only in the store
+            loadInitialData(cm);
+            DummyInMemoryStore dummyStore = TestingUtil.getFirstWriter(cm.getCache("dummyStore"));
+            dummyStore.clearStats();
+
+            Map<Integer, EntryProcessorResult<String>> results = cache.invokeAll(
+                  CollectionFactory.makeSet(1, 2), new AppendProcessor());
+            // The entry was read through from the store
+            assertEquals("v1", results.get(1).get());
+            assertFalse(results.containsKey(2));
+            // and both processed entries were written through to the store
+            assertEquals(2, dummyStore.stats().get("write").intValue());
+            assertTrue(dummyStore.contains(2));
+         }
+      });
+   }
+
    public void testLoadEntryWithExpiration(Method m) {
       final String cacheName = m.getName();
       withCacheManager(new CacheManagerCallable(
@@ -166,6 +203,15 @@ public Duration getExpiryForUpdate() {
       });
    }
 
+   static class AppendProcessor implements EntryProcessor<Integer, String, String>, Serializable {
+      @Override
+      public String process(MutableEntry<Integer, String> entry, Object... arguments) {
+         String value = entry.getValue();
+         entry.setValue(value + "-processed");
+         return value;
+      }
+   }
+
    private Void futureGet(CompletionListenerFuture future) {
       try {
          return future.get();
@@ -0,0 +1,176 @@
+package org.infinispan.jcache;
+
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.jcache.embedded.JCacheManager;
+import org.infinispan.jcache.embedded.JCacheWriterAdapter;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.CacheManagerCallable;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import javax.cache.Cache;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.integration.CacheWriter;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.infinispan.test.TestingUtil.withCacheManager;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that the bulk JCache operations reach a write-through {@link CacheWriter} as batches.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "jcache.JCacheWriterTest")
+public class JCacheWriterTest extends AbstractInfinispanTest {
+
+   public void testPutAllWritesThroughInOneBatch(Method m) {
+      final String cacheName = m.getName();
+      withCacheManager(new CacheManagerCallable(
+            TestCacheManagerFactory.createCacheManager(false)) {
+         @Override
+         public void call() {
+            RecordingCacheWriter writer = new RecordingCacheWriter();
+            Cache<Integer, String> cache = createCache(cm, this, cacheName, writer);
+
+            Map<Integer, String> entries = new HashMap<Integer, String>();
+            for (int i = 0; i < 5; i++)
+               entries.put(i, "v" + i);
+            cache.putAll(entries);
+
+            assertEquals(1, writer.writeAllCount.get());
+            assertEquals(0, writer.writeCount.get());
+            assertEquals(entries, writer.entries);
+            for (int i = 0; i < 5; i++)
+               assertEquals("v" + i, cache.get(i));
+         }
+      });
+   }
+
+   public void testRemoveAllKeysDeletesInOneBatch(Method m) {
+      final String cacheName = m.getName();
+      withCacheManager(new CacheManagerCallable(
+            TestCacheManagerFactory.createCacheManager(false)) {
+         @Override
+         public void call() {
+            RecordingCacheWriter writer = new RecordingCacheWriter();
+            Cache<Integer, String> cache = createCache(cm, this, cacheName, writer);
+            for (int i = 0; i < 3; i++)
+               cache.put(i, "v" + i);
+
+            cache.removeAll(CollectionFactory.makeSet(0, 1));
+
+            assertEquals(1, writer.deleteAllCount.get());
+            assertEquals(0, writer.deleteCount.get());
+            assertFalse(cache.containsKey(0));
+            assertFalse(cache.containsKey(1));
+            assertEquals("v2", cache.get(2));
+            assertEquals(1, writer.entries.size());
+            assertTrue(writer.entries.containsKey(2));
+         }
+      });
+   }
+
+   public void testRemoveAllDeletesInBatches(Method m) {
+      final String cacheName = m.getName();
+      withCacheManager(new CacheManagerCallable(
+            TestCacheManagerFactory.createCacheManager(false)) {
+         @Override
+         public void call() {
+            RecordingCacheWriter writer = new RecordingCacheWriter();
+            Cache<Integer, String> cache = createCache(cm, this, cacheName, writer);
+            for (int i = 0; i < 10; i++)
+               cache.put(i, "v" + i);
+
+            cache.removeAll();
+
+            assertEquals(0, writer.deleteCount.get());
+            assertEquals(1, writer.deleteAllCount.get());
+            assertTrue(writer.entries.isEmpty());
+            for (int i = 0; i < 10; i++)
+               assertFalse(cache.containsKey(i));
+         }
+      });
+   }
+
+   public void testWriterAdapterDelegatesBatches() {
+      RecordingCacheWriter writer = new RecordingCacheWriter();
+      JCacheWriterAdapter<Integer, String> adapter = new JCacheWriterAdapter<Integer, String>();
+      adapter.setCacheWriter(writer);
+
+      adapter.writeBatch(Arrays.asList(
+            new MarshalledEntryImpl<Integer, String>(1, "v1", (InternalMetadata) null, null),
+            new MarshalledEntryImpl<Integer, String>(2, "v2", (InternalMetadata) null, null)));
+      assertEquals(1, writer.writeAllCount.get());
+      assertEquals("v1", writer.entries.get(1));
+      assertEquals("v2", writer.entries.get(2));
+
+      adapter.deleteBatch(Arrays.asList(1, 3));
+      assertEquals(1, writer.deleteAllCount.get());
+      assertNull(writer.entries.get(1));
+      assertEquals("v2", writer.entries.get(2));
+      assertEquals(0, writer.writeCount.get());
+      assertEquals(0, writer.deleteCount.get());
+   }
+
+   private static Cache<Integer, String> createCache(EmbeddedCacheManager cm, Object creator,
+         String cacheName, RecordingCacheWriter writer) {
+      JCacheManager jCacheManager = new JCacheManager(URI.create(creator.getClass().getName()), cm, null);
+      MutableConfiguration<Integer, String> cfg = new MutableConfiguration<Integer, String>();
+      cfg.setWriteThrough(true);
+      cfg.setCacheWriterFactory(new FactoryBuilder.SingletonFactory(writer));
+      return jCacheManager.createCache(cacheName, cfg);
+   }
+
+   static class RecordingCacheWriter implements CacheWriter<Integer, String> {
+      final Map<Integer, String> entries = new ConcurrentHashMap<Integer, String>();
+      final AtomicInteger writeCount = new AtomicInteger();
+      final AtomicInteger writeAllCount = new AtomicInteger();
+      final AtomicInteger deleteCount = new AtomicInteger();
+      final AtomicInteger deleteAllCount = new AtomicInteger();
+
+      @Override
+      public void write(Cache.Entry<? extends Integer, ? extends String> entry) {
+         writeCount.incrementAndGet();
+         entries.put(entry.getKey(), entry.getValue());
+      }
+
+      @Override
+      public void writeAll(Collection<Cache.Entry<? extends Integer, ? extends String>> batch) {
+         writeAllCount.incrementAndGet();
+         for (Cache.Entry<? extends Integer, ? extends String> entry : batch)
+            entries.put(entry.getKey(), entry.getValue());
+         // the entries written successfully are removed from the collection
+         batch.clear();
+      }
+
+      @Override
+      public void delete(Object key) {
+         deleteCount.incrementAndGet();
+         entries.remove(key);
+      }
+
+      @Override
+      public void deleteAll(Collection<?> keys) {
+         deleteAllCount.incrementAndGet();
+         for (Object key : keys)
+            entries.remove(key);
+         keys.clear();
+      }
+   }
+
+}
@@ -41,6 +41,8 @@ public class TableManipulation implements Cloneable {
    /* Cache the sql for managing data */
    private String insertRowSql;
    private String updateRowSql;
+   private String upsertRowSql;
+   private boolean upsertRowSqlInitialized;
    private String selectRowSql;
    private String selectIdRowSql;
    private String deleteRowSql;
@@ -191,6 +193,48 @@ public String getUpdateRowSql() {
       return updateRowSql;
    }
 
+   /**
+    * Returns a statement that inserts a row, or updates it if a row with the same id already exists, in a single
+    * round trip. The parameters are the same as those of {@link #getInsertRowSql()}.
+    *
+    * @return the statement, or {@code null} if the dialect doesn't support it
+    */
+   public String getUpsertRowSql() {
+      if (!upsertRowSqlInitialized) {
+         String dataColumn = config.dataColumnName();
+         String timestampColumn = config.timestampColumnName();
+         String idColumn = config.idColumnName();
+         switch (getDialect()) {
+            case MYSQL:
+               upsertRowSql = getInsertRowSql() + " ON DUPLICATE KEY UPDATE " + dataColumn + " = VALUES(" + dataColumn + "), " + timestampColumn + " = VALUES(" + timestampColumn + ")";
+               break;
+            case POSTGRES:
+               // INSERT ... ON CONFLICT was added in PostgreSQL 9.5
+               if (isDatabaseVersionAtLeast(9, 5)) {
+                  upsertRowSql = getInsertRowSql() + " ON CONFLICT (" + idColumn + ") DO UPDATE SET " + dataColumn + " = EXCLUDED." + dataColumn + ", " + timestampColumn + " = EXCLUDED." + timestampColumn;
+               }
+               break;
+            case H2:
+               upsertRowSql = "MERGE INTO " + getTableName() + " (" + dataColumn + ", " + timestampColumn + ", " + idColumn + ") KEY(" + idColumn + ") VALUES(?,?,?)";
+               break;
+            case SQLITE:
+               upsertRowSql = "INSERT OR REPLACE INTO " + getTableName() + " (" + dataColumn + ", " + timestampColumn + ", " + idColumn + ") VALUES(?,?,?)";
+               break;
+            case SQL_SERVER:
+               upsertRowSql = "MERGE " + getTableName() + " WITH (HOLDLOCK) AS t USING (VALUES(?,?,?)) AS s (" + dataColumn + ", " + timestampColumn + ", " + idColumn + ") ON (t." + idColumn + " = s." + idColumn + ")" +
+                     " WHEN MATCHED THEN UPDATE SET " + dataColumn + " = s." + dataColumn + ", " + timestampColumn + " = s." + timestampColumn +
+                     " WHEN NOT MATCHED THEN INSERT (" + dataColumn + ", " + timestampColumn + ", " + idColumn + ") VALUES (s." + dataColumn + ", s." + timestampColumn + ", s." + idColumn + ");";
+               break;
+            default:
+               // the other dialects need the parameter types in a MERGE, keep using a select followed by an insert or update
+               upsertRowSql = null;
+               break;
+         }
+         upsertRowSqlInitialized = true;
+      }
+      return upsertRowSql;
+   }
+
    public String getSelectRowSql() {
       if (selectRowSql == null) {
          switch(getDialect()) {
@@ -416,6 +460,23 @@ private DatabaseType getDialect() {
       return databaseType;
    }
 
+   private boolean isDatabaseVersionAtLeast(int major, int minor) {
+      if (connectionFactory == null)
+         return false;
+      Connection connection = null;
+      try {
+         connection = connectionFactory.getConnection();
+         DatabaseMetaData metaData = connection.getMetaData();
+         int databaseMajor = metaData.getDatabaseMajorVersion();
+         return databaseMajor > major || databaseMajor == major && metaData.getDatabaseMinorVersion() >= minor;
+      } catch (Exception e) {
+         log.debug("Unable to read the database version from JDBC metadata.", e);
+         return false;
+      } finally {
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
    private DatabaseType guessDialect(String name) {
       DatabaseType type = null;
       if (name != null) {
@@ -153,7 +153,17 @@ public void write(MarshalledEntry entry) {
       String keyStr = key2Str(entry.getKey());
       try {
          connection = connectionFactory.getConnection();
-         String sql = tableManipulation.getSelectIdRowSql();
+         String sql = tableManipulation.getUpsertRowSql();
+         if (sql != null) {
+            if (trace) {
+               log.tracef("Running sql '%s'. Key string is '%s'", sql, keyStr);
+            }
+            ps = connection.prepareStatement(sql);
+            updateStatement(entry, keyStr, ps);
+            ps.executeUpdate();
+            return;
+         }
+         sql = tableManipulation.getSelectIdRowSql();
          if (trace) {
             log.tracef("Running sql '%s'. Key string is '%s'", sql, keyStr);
          }
@@ -187,6 +197,144 @@ public void write(MarshalledEntry entry) {
       }
    }
 
+   /**
+    * Stores the entries with JDBC batches of {@link TableManipulation#getBatchSize()} statements, in a single
+    * transaction, if the dialect supports a single statement insert or update.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      String sql = tableManipulation.getUpsertRowSql();
+      if (sql == null) {
+         for (Object entry : entries) {
+            write((MarshalledEntry) entry);
+         }
+         return;
+      }
+      Connection connection = null;
+      PreparedStatement ps = null;
+      boolean commit = false;
+      try {
+         connection = connectionFactory.getConnection();
+         commit = beginBatch(connection);
+         ps = connection.prepareStatement(sql);
+         int batchSize = tableManipulation.getBatchSize();
+         int count = 0;
+         for (Object e : entries) {
+            MarshalledEntry entry = (MarshalledEntry) e;
+            updateStatement(entry, key2Str(entry.getKey()), ps);
+            ps.addBatch();
+            if (++count % batchSize == 0) {
+               ps.executeBatch();
+            }
+         }
+         if (count % batchSize != 0) {
+            ps.executeBatch();
+         }
+         if (commit) {
+            connection.commit();
+         }
+         if (trace) {
+            log.tracef("Stored %d entries with sql '%s'", count, sql);
+         }
+      } catch (SQLException ex) {
+         rollbackBatch(connection, commit);
+         log.sqlFailureStoringKeys(ex);
+         throw new PersistenceException("Error while storing string keys to database", ex);
+      } catch (RuntimeException e) {
+         rollbackBatch(connection, commit);
+         throw e;
+      } catch (InterruptedException e) {
+         rollbackBatch(connection, commit);
+         if (trace) {
+            log.trace("Interrupted while marshalling to store");
+         }
+         Thread.currentThread().interrupt();
+      } finally {
+         JdbcUtil.safeClose(ps);
+         endBatch(connection, commit);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   /**
+    * Deletes the keys with JDBC batches of {@link TableManipulation#getBatchSize()} statements, in a single
+    * transaction.
+    */
+   @Override
+   public void deleteBatch(Iterable keys) {
+      Connection connection = null;
+      PreparedStatement ps = null;
+      boolean commit = false;
+      String sql = tableManipulation.getDeleteRowSql();
+      try {
+         connection = connectionFactory.getConnection();
+         commit = beginBatch(connection);
+         ps = connection.prepareStatement(sql);
+         int batchSize = tableManipulation.getBatchSize();
+         int count = 0;
+         for (Object key : keys) {
+            ps.setString(1, key2Str(key));
+            ps.addBatch();
+            if (++count % batchSize == 0) {
+               ps.executeBatch();
+            }
+         }
+         if (count % batchSize != 0) {
+            ps.executeBatch();
+         }
+         if (commit) {
+            connection.commit();
+         }
+         if (trace) {
+            log.tracef("Deleted %d keys with sql '%s'", count, sql);
+         }
+      } catch (SQLException ex) {
+         rollbackBatch(connection, commit);
+         log.sqlFailureRemovingKeys(ex);
+         throw new PersistenceException("Error while removing string keys from database", ex);
+      } catch (RuntimeException e) {
+         rollbackBatch(connection, commit);
+         throw e;
+      } finally {
+         JdbcUtil.safeClose(ps);
+         endBatch(connection, commit);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   /**
+    * Runs the batch in a local transaction, unless the connection is already part of one.
+    *
+    * @return true if the batch must be committed by the store
+    */
+   private boolean beginBatch(Connection connection) throws SQLException {
+      if (connection.getAutoCommit()) {
+         connection.setAutoCommit(false);
+         return true;
+      }
+      return false;
+   }
+
+   private void rollbackBatch(Connection connection, boolean commit) {
+      if (commit && connection != null) {
+         try {
+            connection.rollback();
+         } catch (SQLException e) {
+            log.debug("Exception while rolling back batch", e);
+         }
+      }
+   }
+
+   private void endBatch(Connection connection, boolean commit) {
+      if (commit && connection != null) {
+         try {
+            connection.setAutoCommit(true);
+         } catch (SQLException e) {
+            log.debug("Exception while restoring auto-commit", e);
+         }
+      }
+   }
+
    @Override
    public MarshalledEntry load(Object key) {
       String lockingKey = key2Str(key);
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.jdbc.stringbased;
 
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.jdbc.TableManipulation;
@@ -12,8 +13,13 @@
 import org.infinispan.test.fwk.UnitTestDatabaseManager;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
 
 /**
@@ -68,6 +74,32 @@ public void testNotCreateConnectionFactory() throws Exception {
       stringBasedCacheStore.stop();
    }
 
+   public void testWriteAndDeleteBatch() {
+      JdbcStringBasedStore store = (JdbcStringBasedStore) (AdvancedLoadWriteStore) cl;
+      // the test database supports upserts, so the batch goes through executeBatch
+      assertNotNull(store.getTableManipulation().getUpsertRowSql());
+
+      // more entries than the default batch size, some of them already stored
+      cl.write(marshalledEntry("k0", "old", null));
+      cl.write(marshalledEntry("k1", "old", null));
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      List<Object> keys = new ArrayList<>();
+      for (int i = 0; i < 300; i++) {
+         entries.add(marshalledEntry("k" + i, "v" + i, null));
+         keys.add("k" + i);
+      }
+      cl.writeBatch(entries);
+      assertEquals(300, cl.size());
+      for (int i = 0; i < 300; i++) {
+         assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+      }
+
+      cl.deleteBatch(keys.subList(0, 200));
+      assertEquals(100, cl.size());
+      assertNull(cl.load("k0"));
+      assertEquals("v299", unwrap(cl.load("k299").getValue()));
+   }
+
    @Override
    @Test(expectedExceptions = UnsupportedKeyTypeException.class)
    public void testLoadAndStoreMarshalledValues() throws PersistenceException {
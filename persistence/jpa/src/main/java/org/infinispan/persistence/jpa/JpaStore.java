@@ -1,7 +1,10 @@
 package org.infinispan.persistence.jpa;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
 import javax.persistence.EntityManager;
@@ -13,6 +16,7 @@
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.IdentifiableType;
 import javax.persistence.metamodel.ManagedType;
 import javax.persistence.metamodel.Type;
@@ -47,6 +51,15 @@
 import org.infinispan.util.logging.LogFactory;
 
 /**
+ * Cache store persisting values as JPA entities, and their metadata, if enabled, as {@link MetadataEntity} rows.
+ * <p>
+ * Iterating and purging read the identifiers with a single cursor and hand them in batches of {@link
+ * JpaStoreConfiguration#batchSize()} to the executor. Each batch is loaded, or purged, in its own entity manager with
+ * one query for the entities and one for the metadata.
+ * <p>
+ * With {@link JpaStoreConfiguration#parallelSegments()} above 1, the identifiers, or the expiration times when purging,
+ * are split in ranges read in parallel, each with its own cursor. Purging without a listener removes entities made of
+ * basic attributes with a bulk delete.
  *
  * @author <a href="mailto:rtsang@redhat.com">Ray Tsang</a>
  *
@@ -55,6 +68,8 @@
 public class JpaStore implements AdvancedLoadWriteStore {
    private static final Log log = LogFactory.getLog(JpaStore.class);
    private static boolean trace = log.isTraceEnabled();
+   // Oracle rejects IN lists with more than 1000 elements, so bigger batches are queried in chunks
+   static final int MAX_IN_LIST_SIZE = 1000;
 
    private JpaStoreConfiguration configuration;
    private EntityManagerFactory emf;
@@ -64,6 +79,11 @@ public class JpaStore implements AdvancedLoadWriteStore {
    private TimeService timeService;
    private Stats stats = new Stats();
    private boolean setFetchSizeMinInteger = false;
+   private String entityName;
+   private String metadataEntityName;
+   private String idAttributeName;
+   private boolean basicId;
+   private boolean bulkDeletable;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -106,6 +126,19 @@ public void start() {
          throw new JpaStoreException(
                "Entity class has one identifier, but it must not have @GeneratedValue annotation");
       }
+      entityName = emf.getMetamodel().entity(configuration.entityClass()).getName();
+      metadataEntityName = emf.getMetamodel().entity(MetadataEntity.class).getName();
+      idAttributeName = it.getId(idJavaType).getName();
+      // Only simple identifiers can be loaded in batches with an IN clause
+      basicId = idType.getPersistenceType() == Type.PersistenceType.BASIC;
+      // JPQL bulk deletes skip cascades, collection tables and entity callbacks, so purging without a listener only
+      // uses them for entities made of basic attributes
+      bulkDeletable = basicId;
+      for (Attribute<?, ?> attribute : mt.getAttributes()) {
+         if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+            bulkDeletable = false;
+         }
+      }
 
       // Hack: MySQL needs to have fetchSize set to Integer.MIN_VALUE in order to do streaming
       SessionFactory sessionFactory = emf.createEntityManager().unwrap(Session.class).getSessionFactory();
@@ -500,13 +533,8 @@ public Criteria getCriteria(Session session) {
             }
 
             @Override
-            public Object getKey(Object scrollResult) {
-               return scrollResult;
-            }
-
-            @Override
-            public Callable<Void> getTask(CacheLoaderTask task, TaskContext taskContext, Object scrollResult, Object key) {
-               return new LoadingProcessTask(task, taskContext, key, fv, fm);
+            public Callable<Void> getTask(CacheLoaderTask task, TaskContext taskContext, List<Object> keys) {
+               return new LoadingProcessTask(task, taskContext, keys, fv, fm);
             }
          });
       } else {
@@ -517,21 +545,73 @@ public Criteria getCriteria(Session session) {
             }
 
             @Override
-            public Object getKey(Object scrollResult) {
-               return scrollResult;
-            }
-
-            @Override
-            public Callable<Void> getTask(CacheLoaderTask task, TaskContext taskContext, Object scrollResult, Object key) {
-               return new ProcessTask(task, taskContext, key, null, null);
+            public Callable<Void> getTask(CacheLoaderTask task, TaskContext taskContext, List<Object> keys) {
+               return new ProcessTask(task, taskContext, keys);
             }
          });
       }
    }
 
-   private void process(KeyFilter filter, final CacheLoaderTask task, Executor executor, ProcessStrategy strategy) {
-      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
-      TaskContextImpl taskContext = new TaskContextImpl();
+   private void process(final KeyFilter filter, final CacheLoaderTask task, Executor executor, final ProcessStrategy strategy) {
+      final ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      final TaskContextImpl taskContext = new TaskContextImpl();
+      List<Object> boundaries = null;
+      if (configuration.parallelSegments() > 1 && basicId) {
+         EntityManager em = emf.createEntityManager();
+         try {
+            boundaries = findSegmentBoundaries(
+                  em.createQuery("SELECT COUNT(e) FROM " + entityName + " e"),
+                  em.createQuery("SELECT e." + idAttributeName + " FROM " + entityName + " e ORDER BY e." + idAttributeName));
+         } finally {
+            em.close();
+         }
+         if (trace) log.tracef("Iterating %d identifier ranges in parallel", boundaries.size() + 1);
+      }
+      if (boundaries == null || boundaries.isEmpty()) {
+         try {
+            scrollKeys(strategy, filter, taskContext, null, null, new BatchHandler() {
+               @Override
+               public void handle(List<Object> batch) {
+                  eacs.submit(strategy.getTask(task, taskContext, batch));
+               }
+            });
+         } catch (RuntimeException e) {
+            throw e;
+         } catch (Exception e) {
+            throw new JpaStoreException(e);
+         }
+      } else {
+         // every range is read with its own cursor; its batches are loaded by the same thread, as with MySQL the
+         // streaming connection cannot run other queries
+         for (int i = 0; i <= boundaries.size(); i++) {
+            final Object lower = i == 0 ? null : boundaries.get(i - 1);
+            final Object upper = i == boundaries.size() ? null : boundaries.get(i);
+            eacs.submit(new Callable<Void>() {
+               @Override
+               public Void call() throws Exception {
+                  scrollKeys(strategy, filter, taskContext, lower, upper, new BatchHandler() {
+                     @Override
+                     public void handle(List<Object> batch) throws Exception {
+                        strategy.getTask(task, taskContext, batch).call();
+                     }
+                  });
+                  return null;
+               }
+            });
+         }
+      }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         throw new org.infinispan.persistence.spi.PersistenceException("Execution exception!", eacs.getFirstException());
+      }
+   }
+
+   /**
+    * Reads the identifiers in [lower, upper) with a forward-only cursor, passing them in batches to the handler. A null
+    * bound leaves that side of the range open.
+    */
+   private void scrollKeys(ProcessStrategy strategy, KeyFilter filter, TaskContext taskContext, Object lower, Object upper,
+                           BatchHandler handler) throws Exception {
       EntityManager emStream = emf.createEntityManager();
       try {
          EntityTransaction txStream = emStream.getTransaction();
@@ -540,21 +620,34 @@ private void process(KeyFilter filter, final CacheLoaderTask task, Executor exec
          try {
             Session session = emStream.unwrap(Session.class);
             Criteria criteria = strategy.getCriteria(session).setReadOnly(true);
+            if (lower != null) {
+               criteria.add(Restrictions.ge(idAttributeName, lower));
+            }
+            if (upper != null) {
+               criteria.add(Restrictions.lt(idAttributeName, upper));
+            }
             if (setFetchSizeMinInteger) {
                criteria.setFetchSize(Integer.MIN_VALUE);
             }
             results = criteria.scroll(ScrollMode.FORWARD_ONLY);
             try {
+               List<Object> batch = new ArrayList<Object>((int) configuration.batchSize());
                while (results.next()) {
                   if (taskContext.isStopped())
                      break;
-                  Object result = results.get(0);
-                  Object key = strategy.getKey(result);
+                  Object key = results.get(0);
                   if (filter != null && !filter.accept(key)) {
                      if (trace) log.trace("Key " + key + " filtered");
                      continue;
                   }
-                  eacs.submit(strategy.getTask(task, taskContext, result, key));
+                  batch.add(key);
+                  if (batch.size() == configuration.batchSize()) {
+                     handler.handle(batch);
+                     batch = new ArrayList<Object>((int) configuration.batchSize());
+                  }
+               }
+               if (!batch.isEmpty() && !taskContext.isStopped()) {
+                  handler.handle(batch);
                }
             } finally {
                if (results != null) results.close();
@@ -568,29 +661,96 @@ private void process(KeyFilter filter, final CacheLoaderTask task, Executor exec
       } finally {
          emStream.close();
       }
-      eacs.waitUntilAllCompleted();
-      if (eacs.isExceptionThrown()) {
-         throw new org.infinispan.persistence.spi.PersistenceException("Execution exception!", eacs.getFirstException());
+   }
+
+   /**
+    * Picks the values that split the rows of the values query, which must be ordered, in {@link
+    * JpaStoreConfiguration#parallelSegments()} ranges of similar size. The values come from the database itself, so the
+    * ranges follow its ordering whatever the type and collation of the column. Duplicate values are returned once,
+    * hence the ranges may be fewer than configured.
+    */
+   private List<Object> findSegmentBoundaries(Query count, Query values) {
+      long rows = ((Number) count.getSingleResult()).longValue();
+      int segments = configuration.parallelSegments();
+      List<Object> boundaries = new ArrayList<Object>(segments - 1);
+      for (int i = 1; i < segments; i++) {
+         long offset = rows * i / segments;
+         if (offset == 0 || offset > Integer.MAX_VALUE) continue;
+         List<?> result = values.setFirstResult((int) offset).setMaxResults(1).getResultList();
+         if (result.isEmpty()) break;
+         Object boundary = result.get(0);
+         if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+            boundaries.add(boundary);
+         }
       }
+      return boundaries;
    }
 
-   private InternalMetadata getMetadata(EntityManager em, Object key) {
+   private String getKeySha(Object key) {
       byte[] keyBytes;
       try {
          keyBytes = marshaller.objectToByteBuffer(key);
       } catch (Exception e) {
          throw new JpaStoreException("Failed to marshall key", e);
       }
-      MetadataEntity m = findMetadata(em, new MetadataEntityKey(keyBytes));
-      if (m == null) return null;
+      return new MetadataEntityKey(keyBytes).getKeySha();
+   }
 
+   /**
+    * Finds the entities with the given identifiers, with a single query if the identifier is a basic type.
+    */
+   private Map<Object, Object> findEntities(EntityManager em, List<Object> keys) {
+      Map<Object, Object> entities = new HashMap<Object, Object>(keys.size() * 2);
+      if (!basicId) {
+         for (Object key : keys) {
+            Object entity = findEntity(em, key);
+            if (entity != null) entities.put(key, entity);
+         }
+         return entities;
+      }
+      long begin = timeService.time();
       try {
-         return (InternalMetadata) marshaller.objectFromByteBuffer(m.getMetadata());
-      } catch (Exception e) {
-         throw new JpaStoreException("Failed to unmarshall metadata", e);
+         Query query = em.createQuery("SELECT e FROM " + entityName + " e WHERE e." + idAttributeName + " IN :ids");
+         for (List<Object> ids : inListChunks(keys)) {
+            for (Object entity : query.setParameter("ids", ids).getResultList()) {
+               entities.put(emf.getPersistenceUnitUtil().getIdentifier(entity), entity);
+            }
+         }
+         return entities;
+      } finally {
+         stats.addEntityFind(timeService.time() - begin);
       }
    }
 
+   private Map<String, MetadataEntity> findMetadataBySha(EntityManager em, List<String> keyShas) {
+      long begin = timeService.time();
+      try {
+         Query query = em.createQuery("SELECT m FROM " + metadataEntityName + " m WHERE m.key.keySha IN :shas");
+         Map<String, MetadataEntity> metadata = new HashMap<String, MetadataEntity>(keyShas.size() * 2);
+         for (List<String> shas : inListChunks(keyShas)) {
+            for (Object o : query.setParameter("shas", shas).getResultList()) {
+               MetadataEntity m = (MetadataEntity) o;
+               metadata.put(m.getKey().getKeySha(), m);
+            }
+         }
+         return metadata;
+      } finally {
+         stats.addMetadataFind(timeService.time() - begin);
+      }
+   }
+
+   /**
+    * Splits the values of an IN clause in lists of at most {@link #MAX_IN_LIST_SIZE} elements.
+    */
+   private static <T> List<List<T>> inListChunks(List<T> values) {
+      if (values.size() <= MAX_IN_LIST_SIZE) return Collections.singletonList(values);
+      List<List<T>> chunks = new ArrayList<List<T>>((values.size() + MAX_IN_LIST_SIZE - 1) / MAX_IN_LIST_SIZE);
+      for (int i = 0; i < values.size(); i += MAX_IN_LIST_SIZE) {
+         chunks.add(values.subList(i, Math.min(values.size(), i + MAX_IN_LIST_SIZE)));
+      }
+      return chunks;
+   }
+
    @Override
    public int size() {
       EntityManager em = emf.createEntityManager();
@@ -619,32 +779,95 @@ public void purge(Executor threadPool, final PurgeListener listener) {
          log.debug("JPA Store cannot be purged as metadata holding expirations are not available");
          return;
       }
-      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(threadPool);
+      final ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(threadPool);
+      final long currentTime = timeService.wallClockTime();
+      // nobody needs the purged entities, so they can go with a bulk delete
+      final boolean bulkDelete = listener == null && bulkDeletable;
+      List<Object> boundaries = null;
+      if (configuration.parallelSegments() > 1) {
+         EntityManager em = emf.createEntityManager();
+         try {
+            String expiration = "m." + MetadataEntity.EXPIRATION;
+            String expired = " FROM " + metadataEntityName + " m WHERE " + expiration + " <= :now";
+            boundaries = findSegmentBoundaries(
+                  em.createQuery("SELECT COUNT(m)" + expired).setParameter("now", currentTime),
+                  em.createQuery("SELECT " + expiration + expired + " ORDER BY " + expiration).setParameter("now", currentTime));
+         } finally {
+            em.close();
+         }
+         if (trace) log.tracef("Purging %d expiration ranges in parallel", boundaries.size() + 1);
+      }
+      if (boundaries == null || boundaries.isEmpty()) {
+         try {
+            purgeRange(null, null, currentTime, bulkDelete, new BatchHandler() {
+               @Override
+               public void handle(List<Object> purgedKeys) {
+                  notifyPurged(purgedKeys, listener, eacs);
+               }
+            });
+         } catch (RuntimeException e) {
+            throw e;
+         } catch (Exception e) {
+            throw new JpaStoreException(e);
+         }
+      } else {
+         for (int i = 0; i <= boundaries.size(); i++) {
+            final Long lower = i == 0 ? null : (Long) boundaries.get(i - 1);
+            final Long upper = i == boundaries.size() ? null : (Long) boundaries.get(i);
+            eacs.submit(new Callable<Void>() {
+               @Override
+               public Void call() throws Exception {
+                  purgeRange(lower, upper, currentTime, bulkDelete, new BatchHandler() {
+                     @Override
+                     public void handle(List<Object> purgedKeys) {
+                        notifyPurged(purgedKeys, listener, null);
+                     }
+                  });
+                  return null;
+               }
+            });
+         }
+      }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         throw new JpaStoreException(eacs.getFirstException());
+      }
+   }
+
+   /**
+    * Purges the entries expired at currentTime whose expiration is in [lower, upper), reading their metadata keys with
+    * a forward-only cursor. The keys of every purged batch are passed to the handler.
+    */
+   private void purgeRange(Long lower, Long upper, long currentTime, boolean bulkDelete, BatchHandler purgedHandler) throws Exception {
       EntityManager emStream = emf.createEntityManager();
       try {
          EntityTransaction txStream = emStream.getTransaction();
          ScrollableResults metadataKeys = null;
          txStream.begin();
          try {
-            long currentTime = timeService.wallClockTime();
             Session session = emStream.unwrap(Session.class);
             Criteria criteria = session.createCriteria(MetadataEntity.class).setReadOnly(true)
                   .add(Restrictions.le(MetadataEntity.EXPIRATION, currentTime)).setProjection(Projections.id());
+            if (lower != null) {
+               criteria.add(Restrictions.ge(MetadataEntity.EXPIRATION, lower));
+            }
+            if (upper != null) {
+               criteria.add(Restrictions.lt(MetadataEntity.EXPIRATION, upper));
+            }
             if (setFetchSizeMinInteger) {
                criteria.setFetchSize(Integer.MIN_VALUE);
             }
-
             metadataKeys = criteria.scroll(ScrollMode.FORWARD_ONLY);
             ArrayList<MetadataEntityKey> batch = new ArrayList<MetadataEntityKey>((int) configuration.batchSize());
             while (metadataKeys.next()) {
                MetadataEntityKey mKey = (MetadataEntityKey) metadataKeys.get(0);
                batch.add(mKey);
                if (batch.size() == configuration.batchSize()) {
-                  purgeBatch(batch, listener, eacs, currentTime);
+                  purgedHandler.handle(purgeBatch(batch, currentTime, bulkDelete));
                   batch.clear();
                }
             }
-            purgeBatch(batch, listener, eacs, currentTime);
+            purgedHandler.handle(purgeBatch(batch, currentTime, bulkDelete));
             txStream.commit();
          } finally {
             if (metadataKeys != null) metadataKeys.close();
@@ -655,21 +878,49 @@ public void purge(Executor threadPool, final PurgeListener listener) {
       } finally {
          emStream.close();
       }
-      eacs.waitUntilAllCompleted();
-      if (eacs.isExceptionThrown()) {
-         throw new JpaStoreException(eacs.getFirstException());
+   }
+
+   /**
+    * Notifies the listener of the purged keys, through the completion service if given or else in the calling thread.
+    */
+   private void notifyPurged(final List<Object> purgedKeys, final PurgeListener listener, ExecutorAllCompletionService eacs) {
+      if (listener == null || purgedKeys.isEmpty()) return;
+      Runnable notification = new Runnable() {
+         @Override
+         public void run() {
+            for (Object key : purgedKeys) {
+               listener.entryPurged(key);
+            }
+         }
+      };
+      if (eacs != null) {
+         eacs.submit(notification, null);
+      } else {
+         notification.run();
       }
    }
 
-   private void purgeBatch(List<MetadataEntityKey> batch, final PurgeListener listener, ExecutorAllCompletionService eacs, long currentTime) {
+   /**
+    * Removes the entries of the batch still expired at currentTime, in a single transaction. The entities are removed
+    * one by one, so that their associations are removed too, unless bulkDelete is set.
+    *
+    * @return the keys of the removed entries
+    */
+   private List<Object> purgeBatch(List<MetadataEntityKey> batch, long currentTime, boolean bulkDelete) {
+      if (batch.isEmpty()) return Collections.emptyList();
+      List<String> keyShas = new ArrayList<String>(batch.size());
+      for (MetadataEntityKey metadataKey : batch) {
+         keyShas.add(metadataKey.getKeySha());
+      }
+      List<Object> purgedKeys = new ArrayList<Object>(batch.size());
       EntityManager emExec = emf.createEntityManager();
       try {
          EntityTransaction txn = emExec.getTransaction();
          txn.begin();
          try {
-            for (MetadataEntityKey metadataKey : batch) {
-               MetadataEntity metadata = findMetadata(emExec, metadataKey);
-               // check for transaction - I hope write skew check is done here
+            List<String> purgedShas = new ArrayList<String>(batch.size());
+            for (MetadataEntity metadata : findMetadataBySha(emExec, keyShas).values()) {
+               // the entry could have been written again since the expired keys were read
                if (metadata.getExpiration() > currentTime) {
                   continue;
                }
@@ -680,23 +931,43 @@ private void purgeBatch(List<MetadataEntityKey> batch, final PurgeListener liste
                } catch (Exception e) {
                   throw new JpaStoreException("Cannot unmarshall key", e);
                }
-               Object entity = null;
+               if (!bulkDelete) {
+                  Object entity = null;
+                  try {
+                     entity = emExec.getReference(configuration.entityClass(), key);
+                     removeEntity(emExec, entity);
+                  } catch (EntityNotFoundException e) {
+                     log.trace("Expired entity with key " + key + " not found", e);
+                  }
+                  if (trace) log.trace("Expired " + key + " -> " + entity + "(" + toString(metadata) + ")");
+               } else if (trace) {
+                  log.trace("Expired " + key + "(" + toString(metadata) + ")");
+               }
+               purgedKeys.add(key);
+               purgedShas.add(metadata.getKey().getKeySha());
+            }
+            if (bulkDelete && !purgedKeys.isEmpty()) {
+               long begin = timeService.time();
                try {
-                  entity = emExec.getReference(configuration.entityClass(), key);
-                  removeEntity(emExec, entity);
-               } catch (EntityNotFoundException e) {
-                  log.trace("Expired entity with key " + key + " not found", e);
+                  Query delete = emExec.createQuery("DELETE FROM " + entityName + " e WHERE e." + idAttributeName + " IN :ids");
+                  for (List<Object> ids : inListChunks(purgedKeys)) {
+                     delete.setParameter("ids", ids).executeUpdate();
+                  }
+               } finally {
+                  stats.addEntityRemove(timeService.time() - begin);
                }
-               removeMetadata(emExec, metadata);
-
-               if (trace) log.trace("Expired " + key + " -> " + entity + "(" + toString(metadata) + ")");
-               if (listener != null) {
-                  eacs.submit(new Runnable() {
-                     @Override
-                     public void run() {
-                        listener.entryPurged(key);
-                     }
-                  }, null);
+            }
+            if (!purgedShas.isEmpty()) {
+               // the metadata rows can always go in a single statement
+               long begin = timeService.time();
+               try {
+                  Query delete = emExec.createQuery("DELETE FROM " + metadataEntityName + " m WHERE m.key.keySha IN :shas AND m." + MetadataEntity.EXPIRATION + " <= :now")
+                        .setParameter("now", currentTime);
+                  for (List<String> shas : inListChunks(purgedShas)) {
+                     delete.setParameter("shas", shas).executeUpdate();
+                  }
+               } finally {
+                  stats.addMetadataRemove(timeService.time() - begin);
                }
             }
             txn.commit();
@@ -708,6 +979,7 @@ public void run() {
       } finally {
          emExec.close();
       }
+      return purgedKeys;
    }
 
    private String toString(MetadataEntity metadata) {
@@ -722,34 +994,37 @@ private String toString(MetadataEntity metadata) {
 
    private interface ProcessStrategy {
       Criteria getCriteria(Session session);
-      Object getKey(Object scrollResult);
-      Callable<Void> getTask(CacheLoaderTask task, TaskContext taskContext, Object scrollResult, Object key);
+      Callable<Void> getTask(CacheLoaderTask task, TaskContext taskContext, List<Object> keys);
+   }
+
+   private interface BatchHandler {
+      void handle(List<Object> batch) throws Exception;
    }
 
    private class ProcessTask implements Callable<Void> {
       private final CacheLoaderTask task;
       private final TaskContext taskContext;
-      private final Object key;
-      private final Object entity;
-      private final InternalMetadata metadata;
+      private final List<Object> keys;
 
-      private ProcessTask(CacheLoaderTask task, TaskContext taskContext, Object key, Object entity, InternalMetadata metadata) {
+      private ProcessTask(CacheLoaderTask task, TaskContext taskContext, List<Object> keys) {
          this.task = task;
          this.taskContext = taskContext;
-         this.key = key;
-         this.entity = entity;
-         this.metadata = metadata;
+         this.keys = keys;
          if (trace) {
-            log.tracef("Created process task with key=%s, value=%s, metadata=%s", key, entity, metadata);
+            log.tracef("Created process task with %d keys", keys.size());
          }
       }
 
       @Override
       public Void call() throws Exception {
          try {
-            final MarshalledEntry marshalledEntry = marshallerEntryFactory.newMarshalledEntry(key, entity, metadata);
-            if (marshalledEntry != null) {
-               task.processEntry(marshalledEntry, taskContext);
+            for (Object key : keys) {
+               if (taskContext.isStopped())
+                  break;
+               final MarshalledEntry marshalledEntry = marshallerEntryFactory.newMarshalledEntry(key, (Object) null, (InternalMetadata) null);
+               if (marshalledEntry != null) {
+                  task.processEntry(marshalledEntry, taskContext);
+               }
             }
             return null;
          } catch (Exception e) {
@@ -762,76 +1037,96 @@ public Void call() throws Exception {
    private class LoadingProcessTask implements Callable<Void> {
       private final CacheLoaderTask task;
       private final TaskContext taskContext;
-      private final Object key;
+      private final List<Object> keys;
       private final boolean fetchValue;
       private final boolean fetchMetadata;
 
-      private LoadingProcessTask(CacheLoaderTask task, TaskContext taskContext, Object key, boolean fetchValue, boolean fetchMetadata) {
+      private LoadingProcessTask(CacheLoaderTask task, TaskContext taskContext, List<Object> keys, boolean fetchValue, boolean fetchMetadata) {
          this.task = task;
          this.taskContext = taskContext;
-         this.key = key;
+         this.keys = keys;
          this.fetchValue = fetchValue;
          this.fetchMetadata = fetchMetadata;
          if (trace) {
-            log.tracef("Created process task with key=%s, fetchMetadata=%s", key, fetchMetadata);
+            log.tracef("Created process task with %d keys, fetchMetadata=%s", keys.size(), fetchMetadata);
          }
       }
 
       @Override
       public Void call() throws Exception {
-         boolean loaded = false;
-         Object entity;
-         InternalMetadata metadata;
+         Map<Object, Object> entities = null;
+         Map<String, MetadataEntity> metadata = null;
+         List<String> keyShas = null;
 
          // The loading of entries and metadata is offloaded to another thread.
          // We need second entity manager anyway because with MySQL we can't do streaming
          // in parallel with other queries using single connection
+         if (fetchMetadata) {
+            keyShas = new ArrayList<String>(keys.size());
+            for (Object key : keys) {
+               keyShas.add(getKeySha(key));
+            }
+         }
          EntityManager emExec = emf.createEntityManager();
          try {
-            EntityTransaction txExec = emExec.getTransaction();
-            txExec.begin();
-            try {
-               do {
-                  try {
-                     metadata = fetchMetadata ? getMetadata(emExec, key) : null;
+            boolean loaded = false;
+            do {
+               EntityTransaction txExec = emExec.getTransaction();
+               txExec.begin();
+               try {
+                  if (fetchMetadata) {
+                     metadata = findMetadataBySha(emExec, keyShas);
                      if (trace) {
-                        log.tracef("Fetched metadata (fetching? %s) %s", fetchMetadata, metadata);
+                        log.tracef("Fetched metadata of %d keys", metadata.size());
                      }
-                     if (metadata != null && metadata.isExpired(timeService.wallClockTime())) {
-                        return null;
-                     }
-                     if (fetchValue) {
-                        entity = findEntity(emExec, key);
-                        if (trace) {
-                           log.tracef("Fetched value %s", entity);
-                        }
-                     } else {
-                        entity = null;
-                     }
-                  } finally {
-                     try {
-                        txExec.commit();
-                        loaded = true;
-                     } catch (Exception e) {
-                        log.trace("Failed to load once", e);
+                  }
+                  if (fetchValue) {
+                     entities = findEntities(emExec, keys);
+                     if (trace) {
+                        log.tracef("Fetched %d values", entities.size());
                      }
                   }
-               } while (!loaded);
-            } finally {
-               if (txExec != null && txExec.isActive()) {
-                  txExec.rollback();
+                  try {
+                     txExec.commit();
+                     loaded = true;
+                  } catch (Exception e) {
+                     // the whole batch is read again in a new transaction
+                     log.trace("Failed to load once", e);
+                     emExec.clear();
+                  }
+               } finally {
+                  if (txExec.isActive()) {
+                     txExec.rollback();
+                  }
                }
-
-            }
+            } while (!loaded);
          } finally {
-            if (emExec != null) {
-               emExec.close();
-            }
+            emExec.close();
          }
          try {
-            final MarshalledEntry marshalledEntry = marshallerEntryFactory.newMarshalledEntry(key, entity, metadata);
-            if (marshalledEntry != null) {
-               task.processEntry(marshalledEntry, taskContext);
+            long now = timeService.wallClockTime();
+            for (int i = 0; i < keys.size(); i++) {
+               if (taskContext.isStopped())
+                  break;
+               Object key = keys.get(i);
+               Object entity = null;
+               if (fetchValue) {
+                  entity = entities.get(key);
+                  // removed since the keys were read
+                  if (entity == null) continue;
+               }
+               InternalMetadata m = null;
+               if (fetchMetadata) {
+                  MetadataEntity metadataEntity = metadata.get(keyShas.get(i));
+                  if (metadataEntity != null && metadataEntity.hasBytes()) {
+                     m = (InternalMetadata) marshaller.objectFromByteBuffer(metadataEntity.getMetadata());
+                     if (m.isExpired(now)) continue;
+                  }
+               }
+               final MarshalledEntry marshalledEntry = marshallerEntryFactory.newMarshalledEntry(key, entity, m);
+               if (marshalledEntry != null) {
+                  task.processEntry(marshalledEntry, taskContext);
+               }
             }
             return null;
          } catch (Exception e) {
@@ -15,7 +15,8 @@ public enum Attribute {
    PERSISTENCE_UNIT_NAME("persistence-unit"),
    ENTITY_CLASS_NAME("entity-class"),
    BATCH_SIZE("batch-size"),
-   STORE_METADATA("store-metadata")
+   STORE_METADATA("store-metadata"),
+   PARALLEL_SEGMENTS("parallel-segments")
    ;
 
    private final String name;
@@ -22,15 +22,17 @@ public class JpaStoreConfiguration extends AbstractStoreConfiguration {
    static final AttributeDefinition<Class> ENTITY_CLASS = AttributeDefinition.builder("entityClass", null, Class.class).immutable().build();
    static final AttributeDefinition<Long> BATCH_SIZE = AttributeDefinition.builder("batchSize", 100l).immutable().build();
    static final AttributeDefinition<Boolean> STORE_METADATA = AttributeDefinition.builder("storeMetadata", true).immutable().build();
+   static final AttributeDefinition<Integer> PARALLEL_SEGMENTS = AttributeDefinition.builder("parallelSegments", 1).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(JpaStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), PERSISTENCE_UNIT_NAME, ENTITY_CLASS, BATCH_SIZE, STORE_METADATA);
+      return new AttributeSet(JpaStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), PERSISTENCE_UNIT_NAME, ENTITY_CLASS, BATCH_SIZE, STORE_METADATA, PARALLEL_SEGMENTS);
    }
 
    private final Attribute<String> persistenceUnitName;
    private final Attribute<Class> entityClass;
    private final Attribute<Long> batchSize;
    private final Attribute<Boolean> storeMetadata;
+   private final Attribute<Integer> parallelSegments;
 
    protected JpaStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore) {
       super(attributes, async, singletonStore);
@@ -38,6 +40,7 @@ protected JpaStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration
       entityClass = attributes.attribute(ENTITY_CLASS);
       batchSize = attributes.attribute(BATCH_SIZE);
       storeMetadata = attributes.attribute(STORE_METADATA);
+      parallelSegments = attributes.attribute(PARALLEL_SEGMENTS);
    }
 
    public String persistenceUnitName() {
@@ -55,4 +58,11 @@ public long batchSize() {
    public boolean storeMetadata() {
       return storeMetadata.get();
    }
+
+   /**
+    * @return the number of key ranges iterated, or purged, in parallel. 1 reads all the keys with a single cursor.
+    */
+   public int parallelSegments() {
+      return parallelSegments.get();
+   }
 }
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.jpa.configuration;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.util.TypedProperties;
 import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
@@ -37,10 +38,24 @@ public JpaStoreConfigurationBuilder storeMetadata(boolean storeMetadata) {
       return self();
    }
 
+   /**
+    * Splits the iteration and the purge of the store in the given number of key ranges, each read with its own cursor
+    * and connection, in parallel. The ranges are computed from the database ordering of the identifiers, or of the
+    * expiration times when purging, so this only applies to entities with a basic identifier. Defaults to 1, a
+    * single cursor.
+    */
+   public JpaStoreConfigurationBuilder parallelSegments(int parallelSegments) {
+      attributes.attribute(PARALLEL_SEGMENTS).set(parallelSegments);
+      return self();
+   }
+
    @Override
    public void validate() {
       // how do you validate required attributes?
       super.validate();
+      if (attributes.attribute(PARALLEL_SEGMENTS).get() < 1) {
+         throw new CacheConfigurationException("parallelSegments must be at least 1");
+      }
    }
 
    @Override
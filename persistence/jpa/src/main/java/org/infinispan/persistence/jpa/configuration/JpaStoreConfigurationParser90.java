@@ -66,6 +66,10 @@ private void parseJpaCacheStore(XMLExtendedStreamReader reader, JpaStoreConfigur
                builder.storeMetadata(Boolean.valueOf(value));
                break;
             }
+            case PARALLEL_SEGMENTS: {
+               builder.parallelSegments(Integer.parseInt(value));
+               break;
+            }
             default: {
                Parser90.parseStoreAttribute(reader, i, builder);
             }
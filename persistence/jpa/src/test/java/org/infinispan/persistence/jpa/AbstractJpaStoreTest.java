@@ -54,7 +54,24 @@ protected AdvancedLoadWriteStore createCacheStore() {
       builder.persistence().addStore(JpaStoreConfigurationBuilder.class)
             .persistenceUnitName(PERSISTENCE_UNIT_NAME)
             .entityClass(getEntityClass());
+      return createCacheStore(builder);
+   }
+
+   protected AdvancedLoadWriteStore createCacheStore(long batchSize) {
+      return createCacheStore(batchSize, 1);
+   }
+
+   protected AdvancedLoadWriteStore createCacheStore(long batchSize, int parallelSegments) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence().addStore(JpaStoreConfigurationBuilder.class)
+            .persistenceUnitName(PERSISTENCE_UNIT_NAME)
+            .entityClass(getEntityClass())
+            .batchSize(batchSize)
+            .parallelSegments(parallelSegments);
+      return createCacheStore(builder);
+   }
 
+   private AdvancedLoadWriteStore createCacheStore(ConfigurationBuilder builder) {
       JpaStore store = new JpaStore();
       store.init(new InitializationContextImpl(builder.persistence().stores().get(0).create(), cm.getCache(),
             getMarshaller(), new DefaultTimeService(), null, new MarshalledEntryFactoryImpl(getMarshaller())));
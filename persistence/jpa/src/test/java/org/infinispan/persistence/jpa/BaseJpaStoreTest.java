@@ -2,6 +2,11 @@
 
 import static org.testng.Assert.*;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -15,8 +20,11 @@
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.AdvancedCacheWriter;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.test.TestingUtil;
 import org.infinispan.util.concurrent.ConcurrentHashSet;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.testng.annotations.Test;
 
 /**
@@ -171,6 +179,178 @@ public void testLoadValuesViaNonJpaCacheStore() {
       em.close();
    }
 
+   public void testProcessInBatches() throws Exception {
+      // smaller batches than entries; JpaStoreVehicleEntityTest runs this with an embedded identifier,
+      // whose entities are found one by one instead of with an IN query
+      cs.stop();
+      cs = createCacheStore(2);
+      List<TestObject> objects = new ArrayList<TestObject>();
+      for (int i = 0; i < 5; i++) {
+         TestObject obj = createTestObject("testProcessInBatches" + i);
+         cs.write(i % 2 == 0 ? createEntry(obj) : createEntry(obj.getKey(), obj.getValue(), 60000));
+         objects.add(obj);
+      }
+      TestObject expired = createTestObject("testProcessInBatchesExpired");
+      cs.write(createEntry(expired.getKey(), expired.getValue(), 1));
+      TestingUtil.sleepThread(10);
+
+      Map<Object, MarshalledEntry> processed = processAll();
+      assertEquals(processed.size(), objects.size());
+      for (int i = 0; i < objects.size(); i++) {
+         MarshalledEntry entry = processed.get(objects.get(i).getKey());
+         assertNotNull(entry);
+         assertEquals(entry.getValue(), objects.get(i).getValue());
+         if (i % 2 == 0) {
+            assertNull(entry.getMetadata());
+         } else {
+            assertNotNull(entry.getMetadata());
+         }
+      }
+   }
+
+   public void testProcessMoreKeysThanInListSize() throws Exception {
+      cs.stop();
+      cs = createCacheStore(JpaStore.MAX_IN_LIST_SIZE * 2);
+      int numEntries = JpaStore.MAX_IN_LIST_SIZE + 10;
+      for (int i = 0; i < numEntries; i++) {
+         TestObject obj = createTestObject("testProcessMoreKeysThanInListSize" + i);
+         cs.write(createEntry(obj.getKey(), obj.getValue(), 60000));
+      }
+
+      Map<Object, MarshalledEntry> processed = processAll();
+      assertEquals(processed.size(), numEntries);
+      for (MarshalledEntry entry : processed.values()) {
+         assertNotNull(entry.getValue());
+         assertNotNull(entry.getMetadata());
+      }
+   }
+
+   public void testPurgeInBatches() {
+      cs.stop();
+      cs = createCacheStore(2);
+      Set<Object> expiredKeys = new HashSet<Object>();
+      for (int i = 0; i < 5; i++) {
+         TestObject obj = createTestObject("testPurgeInBatches" + i);
+         cs.write(createEntry(obj.getKey(), obj.getValue(), 1));
+         expiredKeys.add(obj.getKey());
+      }
+      TestObject mortal = createTestObject("testPurgeInBatchesMortal");
+      cs.write(createEntry(mortal.getKey(), mortal.getValue(), 60000));
+      TestObject immortal = createTestObject("testPurgeInBatchesImmortal");
+      cs.write(createEntry(immortal));
+      TestingUtil.sleepThread(10);
+
+      final Set<Object> purged = new ConcurrentHashSet<Object>();
+      cs.purge(new WithinThreadExecutor(), new AdvancedCacheWriter.PurgeListener() {
+         @Override
+         public void entryPurged(Object key) {
+            purged.add(key);
+         }
+      });
+
+      assertEquals(purged, expiredKeys);
+      assertTrue(cs.contains(mortal.getKey()));
+      assertTrue(cs.contains(immortal.getKey()));
+      EntityManager em = ((JpaStore) cs).getEntityManagerFactory().createEntityManager();
+      try {
+         for (Object key : expiredKeys) {
+            assertNull(em.find(getEntityClass(), key));
+         }
+         // only the metadata rows of the purged entries were deleted
+         assertEquals(((Number) em.createQuery("SELECT COUNT(m) FROM MetadataEntity m").getSingleResult()).intValue(), 2);
+      } finally {
+         em.close();
+      }
+   }
+
+   public void testProcessInParallelSegments() throws Exception {
+      cs.stop();
+      cs = createCacheStore(2, 3);
+      Set<Object> keys = new HashSet<Object>();
+      for (int i = 0; i < 10; i++) {
+         TestObject obj = createTestObject("testProcessInParallelSegments" + i);
+         cs.write(createEntry(obj.getKey(), obj.getValue(), 60000));
+         keys.add(obj.getKey());
+      }
+
+      // every key is processed once, whichever range it falls in
+      final Map<Object, Integer> counts = new ConcurrentHashMap<Object, Integer>();
+      cs.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
+         @Override
+         public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+            assertNotNull(marshalledEntry.getValue());
+            assertNull(counts.put(marshalledEntry.getKey(), 1));
+         }
+      }, new WithinThreadExecutor(), true, true);
+      assertEquals(counts.keySet(), keys);
+   }
+
+   public void testPurgeInParallelSegments() {
+      cs.stop();
+      cs = createCacheStore(2, 3);
+      Set<Object> expiredKeys = new HashSet<Object>();
+      for (int i = 0; i < 6; i++) {
+         TestObject obj = createTestObject("testPurgeInParallelSegments" + i);
+         // spread the expiration times over several ranges
+         cs.write(createEntry(obj.getKey(), obj.getValue(), i + 1));
+         expiredKeys.add(obj.getKey());
+      }
+      TestObject mortal = createTestObject("testPurgeInParallelSegmentsMortal");
+      cs.write(createEntry(mortal.getKey(), mortal.getValue(), 60000));
+      TestingUtil.sleepThread(20);
+
+      final Set<Object> purged = new ConcurrentHashSet<Object>();
+      cs.purge(new WithinThreadExecutor(), new AdvancedCacheWriter.PurgeListener() {
+         @Override
+         public void entryPurged(Object key) {
+            assertTrue(purged.add(key));
+         }
+      });
+
+      assertEquals(purged, expiredKeys);
+      assertTrue(cs.contains(mortal.getKey()));
+   }
+
+   public void testPurgeWithoutListener() {
+      // entities without associations are removed with a bulk delete, JpaStorePersonEntityTest runs this with
+      // collections, which are removed one by one
+      cs.stop();
+      cs = createCacheStore(2);
+      Set<Object> expiredKeys = new HashSet<Object>();
+      for (int i = 0; i < 5; i++) {
+         TestObject obj = createTestObject("testPurgeWithoutListener" + i);
+         cs.write(createEntry(obj.getKey(), obj.getValue(), 1));
+         expiredKeys.add(obj.getKey());
+      }
+      TestObject mortal = createTestObject("testPurgeWithoutListenerMortal");
+      cs.write(createEntry(mortal.getKey(), mortal.getValue(), 60000));
+      TestingUtil.sleepThread(10);
+
+      cs.purge(new WithinThreadExecutor(), null);
+
+      assertTrue(cs.contains(mortal.getKey()));
+      EntityManager em = ((JpaStore) cs).getEntityManagerFactory().createEntityManager();
+      try {
+         for (Object key : expiredKeys) {
+            assertNull(em.find(getEntityClass(), key));
+         }
+         assertEquals(((Number) em.createQuery("SELECT COUNT(m) FROM MetadataEntity m").getSingleResult()).intValue(), 1);
+      } finally {
+         em.close();
+      }
+   }
+
+   private Map<Object, MarshalledEntry> processAll() {
+      final Map<Object, MarshalledEntry> processed = new ConcurrentHashMap<Object, MarshalledEntry>();
+      cs.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
+         @Override
+         public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+            processed.put(marshalledEntry.getKey(), marshalledEntry);
+         }
+      }, new WithinThreadExecutor(), true, true);
+      return processed;
+   }
+
 
    /*
 
@@ -65,6 +65,7 @@ protected void validateConfig(Cache<VehicleId, Vehicle> vehicleCache) {
       assertTrue(config instanceof JpaStoreConfiguration);
       JpaStoreConfiguration jpaConfig = (JpaStoreConfiguration) config;
       assertEquals(1, jpaConfig.batchSize());
+      assertEquals(4, jpaConfig.parallelSegments());
       assertEquals(Vehicle.class, jpaConfig.entityClass());
       assertEquals(PERSISTENCE_UNIT_NAME, jpaConfig.persistenceUnitName());
    }
@@ -4,6 +4,7 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -34,7 +35,19 @@
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.ReadOptions;
-
+import org.iq80.leveldb.Snapshot;
+import org.iq80.leveldb.WriteBatch;
+
+/**
+ * Cache store backed by LevelDB. Entries are stored in one database and the keys of the expiring entries in a second
+ * one, indexed by their expiration time, so that purging only reads the entries that have expired.
+ * <p>
+ * Expiring keys are queued in memory and merged into the expiration index by {@link #purge(Executor, PurgeListener)}.
+ * When the queue is full, the writer merges it into the index itself instead of waiting for the next purge.
+ * {@link #writeBatch(Iterable)} and {@link #deleteBatch(Iterable)} apply all their changes with a single {@link
+ * WriteBatch}, and {@link #process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)} reads from a snapshot, so
+ * writes made while iterating don't affect it.
+ */
 @ConfiguredBy(LevelDBStoreConfiguration.class)
 public class LevelDBStore implements AdvancedLoadWriteStore {
    private static final Log log = LogFactory.getLog(LevelDBStore.class, Log.class);
@@ -45,6 +58,7 @@ public class LevelDBStore implements AdvancedLoadWriteStore {
 
    private LevelDBStoreConfiguration configuration;
    private BlockingQueue<ExpiryEntry> expiryEntryQueue;
+   private final Object expiryIndexLock = new Object();
    private DBFactory dbFactory;
    private DB db;
    private DB expiredDb;
@@ -292,7 +306,8 @@ public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Execut
          if (stopped) {
             throw new PersistenceException("LevelDB is stopped");
          }
-         DBIterator it = db.iterator(new ReadOptions().fillCache(false));
+         Snapshot snapshot = db.getSnapshot();
+         DBIterator it = db.iterator(new ReadOptions().fillCache(false).snapshot(snapshot));
          try {
             for (it.seekToFirst(); it.hasNext(); ) {
                Map.Entry<byte[], byte[]> entry = it.next();
@@ -316,6 +331,7 @@ public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Execut
          } finally {
             try {
                it.close();
+               snapshot.close();
             } catch (IOException e) {
                log.warnUnableToCloseDbIterator(e);
             }
@@ -380,6 +396,35 @@ public boolean delete(Object key)  {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable keys) {
+      try {
+         List<byte[]> keysBytes = new ArrayList<byte[]>();
+         for (Object key : keys) {
+            keysBytes.add(marshall(key));
+         }
+         semaphore.acquire();
+         try {
+            if (stopped) {
+               throw new PersistenceException("LevelDB is stopped");
+            }
+            WriteBatch batch = db.createWriteBatch();
+            try {
+               for (byte[] keyBytes : keysBytes) {
+                  batch.delete(keyBytes);
+               }
+               db.write(batch);
+            } finally {
+               batch.close();
+            }
+         } finally {
+            semaphore.release();
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
    @Override
    public void write(MarshalledEntry me)  {
       try {
@@ -391,12 +436,52 @@ public void write(MarshalledEntry me)  {
                throw new PersistenceException("LevelDB is stopped");
             }
             db.put(marshelledKey, marshalledEntry);
+            InternalMetadata meta = me.getMetadata();
+            if (meta != null && meta.expiryTime() > -1) {
+               addNewExpiry(me);
+            }
          } finally {
             semaphore.release();
          }
-         InternalMetadata meta = me.getMetadata();
-         if (meta != null && meta.expiryTime() > -1) {
-            addNewExpiry(me);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   @Override
+   public void writeBatch(Iterable entries) {
+      try {
+         List<byte[]> keysBytes = new ArrayList<byte[]>();
+         List<byte[]> entriesBytes = new ArrayList<byte[]>();
+         List<MarshalledEntry> expiring = new ArrayList<MarshalledEntry>();
+         for (Object o : entries) {
+            MarshalledEntry me = (MarshalledEntry) o;
+            keysBytes.add(marshall(me.getKey()));
+            entriesBytes.add(marshall(me));
+            InternalMetadata meta = me.getMetadata();
+            if (meta != null && meta.expiryTime() > -1) {
+               expiring.add(me);
+            }
+         }
+         semaphore.acquire();
+         try {
+            if (stopped) {
+               throw new PersistenceException("LevelDB is stopped");
+            }
+            WriteBatch batch = db.createWriteBatch();
+            try {
+               for (int i = 0; i < keysBytes.size(); i++) {
+                  batch.put(keysBytes.get(i), entriesBytes.get(i));
+               }
+               db.write(batch);
+            } finally {
+               batch.close();
+            }
+            for (MarshalledEntry me : expiring) {
+               addNewExpiry(me);
+            }
+         } finally {
+            semaphore.release();
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
@@ -441,57 +526,14 @@ public void purge(Executor executor, PurgeListener purgeListener) {
          if (stopped) {
             throw new PersistenceException("LevelDB is stopped");
          }
-         // Drain queue and update expiry tree
-         List<ExpiryEntry> entries = new ArrayList<ExpiryEntry>();
-         expiryEntryQueue.drainTo(entries);
-         for (ExpiryEntry entry : entries) {
-            final byte[] expiryBytes = marshall(entry.expiry);
-            final byte[] keyBytes = marshall(entry.key);
-            final byte[] existingBytes = expiredDb.get(expiryBytes);
-
-            if (existingBytes != null) {
-               // in the case of collision make the key a List ...
-               final Object existing = unmarshall(existingBytes);
-               if (existing instanceof List) {
-                  ((List<Object>) existing).add(entry.key);
-                  expiredDb.put(expiryBytes, marshall(existing));
-               } else {
-                  List<Object> al = new ArrayList<Object>(2);
-                  al.add(existing);
-                  al.add(entry.key);
-                  expiredDb.put(expiryBytes, marshall(al));
-               }
-            } else {
-               expiredDb.put(expiryBytes, keyBytes);
-            }
-         }
-
-         List<Long> times = new ArrayList<Long>();
-         List<Object> keys = new ArrayList<Object>();
-         DBIterator it = expiredDb.iterator(new ReadOptions().fillCache(false));
          long now = ctx.getTimeService().wallClockTime();
-         try {
-            for (it.seekToFirst(); it.hasNext();) {
-               Map.Entry<byte[], byte[]> entry = it.next();
-
-               Long time = (Long) unmarshall(entry.getKey());
-               if (time > now)
-                  break;
-               times.add(time);
-               Object key = unmarshall(entry.getValue());
-               if (key instanceof List)
-                  keys.addAll((List<?>) key);
-               else
-                  keys.add(key);
-            }
-
-            for (Long time : times) {
-               expiredDb.delete(marshall(time));
-            }
+         List<Object> keys = removeExpiredFromIndex(now);
 
-            if (!keys.isEmpty())
-               log.debugf("purge (up to) %d entries", keys.size());
-            int count = 0;
+         if (!keys.isEmpty())
+            log.debugf("purge (up to) %d entries", keys.size());
+         List<Object> purged = new ArrayList<Object>();
+         WriteBatch batch = db.createWriteBatch();
+         try {
             for (Object key : keys) {
                byte[] keyBytes = marshall(key);
 
@@ -501,24 +543,19 @@ public void purge(Executor executor, PurgeListener purgeListener) {
                MarshalledEntry me = (MarshalledEntry) ctx.getMarshaller().objectFromByteBuffer(b);
                // TODO race condition: the entry could be updated between the get and delete!
                if (me.getMetadata() != null && me.getMetadata().isExpired(now)) {
-                  // somewhat inefficient to FIND then REMOVE...
-                  db.delete(keyBytes);
-                  purgeListener.entryPurged(key);
-                  count++;
+                  batch.delete(keyBytes);
+                  purged.add(key);
                }
-
             }
-            if (count != 0)
-               log.debugf("purged %d entries", count);
-         } catch (Exception e) {
-            throw new PersistenceException(e);
+            db.write(batch);
          } finally {
-            try {
-               it.close();
-            } catch (IOException e) {
-               log.warnUnableToCloseDbIterator(e);
-            }
+            batch.close();
+         }
+         for (Object key : purged) {
+            purgeListener.entryPurged(key);
          }
+         if (!purged.isEmpty())
+            log.debugf("purged %d entries", purged.size());
       } catch (PersistenceException e) {
          throw e;
       } catch (Exception e) {
@@ -539,7 +576,7 @@ private Object unmarshall(byte[] bytes) throws IOException, ClassNotFoundExcepti
       return ctx.getMarshaller().objectFromByteBuffer(bytes);
    }
 
-   private void addNewExpiry(MarshalledEntry entry) throws IOException {
+   private void addNewExpiry(MarshalledEntry entry) throws IOException, InterruptedException, ClassNotFoundException {
       long expiry = entry.getMetadata().expiryTime();
       long maxIdle = entry.getMetadata().maxIdle();
       if (maxIdle > 0) {
@@ -549,13 +586,94 @@ private void addNewExpiry(MarshalledEntry entry) throws IOException {
          // calls are required
          expiry = maxIdle + ctx.getTimeService().wallClockTime();
       }
-      Long at = expiry;
-      Object key = entry.getKey();
+      ExpiryEntry expiryEntry = new ExpiryEntry(expiry, entry.getKey());
+      // Don't wait for the next purge when the queue is full, merge the queue into the index instead
+      while (!expiryEntryQueue.offer(expiryEntry)) {
+         flushExpiryQueue();
+      }
+   }
 
-      try {
-         expiryEntryQueue.put(new ExpiryEntry(at, key));
-      } catch (InterruptedException e) {
-         Thread.currentThread().interrupt(); // Restore interruption status
+   /**
+    * Removes the expiration times up to {@code now} from the index and returns the keys that expired. The caller must
+    * hold a semaphore permit.
+    */
+   private List<Object> removeExpiredFromIndex(long now) throws IOException, InterruptedException, ClassNotFoundException {
+      synchronized (expiryIndexLock) {
+         flushExpiryQueue();
+
+         List<Object> keys = new ArrayList<Object>();
+         WriteBatch batch = expiredDb.createWriteBatch();
+         DBIterator it = expiredDb.iterator(new ReadOptions().fillCache(false));
+         try {
+            for (it.seekToFirst(); it.hasNext();) {
+               Map.Entry<byte[], byte[]> entry = it.next();
+
+               Long time = (Long) unmarshall(entry.getKey());
+               if (time > now)
+                  break;
+               batch.delete(entry.getKey());
+               Object key = unmarshall(entry.getValue());
+               if (key instanceof List)
+                  keys.addAll((List<?>) key);
+               else
+                  keys.add(key);
+            }
+            expiredDb.write(batch);
+         } finally {
+            batch.close();
+            try {
+               it.close();
+            } catch (IOException e) {
+               log.warnUnableToCloseDbIterator(e);
+            }
+         }
+         return keys;
+      }
+   }
+
+   /**
+    * Merges the queued expiring keys into the expiration index. The caller must hold a semaphore permit.
+    */
+   @SuppressWarnings("unchecked")
+   private void flushExpiryQueue() throws IOException, InterruptedException, ClassNotFoundException {
+      synchronized (expiryIndexLock) {
+         List<ExpiryEntry> entries = new ArrayList<ExpiryEntry>();
+         expiryEntryQueue.drainTo(entries);
+         if (entries.isEmpty())
+            return;
+
+         Map<Long, List<Object>> keysByExpiry = new HashMap<Long, List<Object>>();
+         for (ExpiryEntry entry : entries) {
+            List<Object> keys = keysByExpiry.get(entry.expiry);
+            if (keys == null) {
+               keys = new ArrayList<Object>(1);
+               keysByExpiry.put(entry.expiry, keys);
+            }
+            keys.add(entry.key);
+         }
+
+         WriteBatch batch = expiredDb.createWriteBatch();
+         try {
+            for (Map.Entry<Long, List<Object>> e : keysByExpiry.entrySet()) {
+               final byte[] expiryBytes = marshall(e.getKey());
+               final byte[] existingBytes = expiredDb.get(expiryBytes);
+               List<Object> keys = e.getValue();
+
+               if (existingBytes != null) {
+                  // in the case of collision make the key a List ...
+                  final Object existing = unmarshall(existingBytes);
+                  if (existing instanceof List) {
+                     keys.addAll((List<Object>) existing);
+                  } else {
+                     keys.add(existing);
+                  }
+               }
+               batch.put(expiryBytes, keys.size() == 1 ? marshall(keys.get(0)) : marshall(keys));
+            }
+            expiredDb.write(batch);
+         } finally {
+            batch.close();
+         }
       }
    }
 
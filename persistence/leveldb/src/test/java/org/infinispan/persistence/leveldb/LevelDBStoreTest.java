@@ -3,6 +3,9 @@
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -52,6 +55,34 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
       return fcs;
    }
 
+   public void testBatchesAndFullExpiryQueue() throws Exception {
+      // a queue smaller than the number of expiring entries must not block the writers
+      cl.stop();
+      LevelDBStore store = new LevelDBStore();
+      ConfigurationBuilder cb = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      createCacheStoreConfig(cb.persistence()).expiryQueueSize(2);
+      store.init(createContext(cb.build()));
+      cl = store;
+      cl.start();
+
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      String[] keys = new String[10];
+      for (int i = 0; i < keys.length; i++) {
+         keys[i] = "k" + i;
+         entries.add(marshalledEntry(internalCacheEntry(keys[i], "v" + i, 100)));
+      }
+      cl.writeBatch(entries);
+      cl.write(marshalledEntry("k-immortal", "v", null));
+      assertEquals(cl.size(), 11);
+
+      timeService.advance(101);
+      purgeExpired(keys);
+      assertEquals(cl.size(), 1);
+
+      cl.deleteBatch(Arrays.<Object>asList("k-immortal", "k-missing"));
+      assertEquals(cl.size(), 0);
+   }
+
    @Test(groups = "stress")
    public void testConcurrentWriteAndRestart() {
       concurrentWriteAndRestart(true);
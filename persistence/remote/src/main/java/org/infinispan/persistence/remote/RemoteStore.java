@@ -2,6 +2,7 @@
 
 import net.jcip.annotations.ThreadSafe;
 
+import org.infinispan.client.hotrod.CacheTopologyInfo;
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.RemoteCache;
@@ -9,13 +10,16 @@
 import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
 import org.infinispan.client.hotrod.configuration.ExhaustedAction;
 import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.impl.protocol.VersionUtils;
 import org.infinispan.commons.api.BasicCacheContainer;
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.TaskContextImpl;
@@ -33,6 +37,16 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
@@ -45,6 +59,11 @@
  * Purging elements is not possible, as HotRod does not support the fetching of all remote keys (this would be a
  * very costly operation as well). Purging takes place at the remote end (infinispan cluster).
  * <p/>
+ * Batches of writes are sent with one putAll per expiration setting and batches of deletes are pipelined, so that
+ * a write-behind store waits for one round trip per batch instead of one per key. With protocol 2.4 or later,
+ * {@link #process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)} iterates the entries of each server's
+ * segments in parallel, otherwise it fetches all the keys and loads the entries in batches.
+ * <p/>
  *
  * @author Mircea.Markus@jboss.com
  * @see org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration
@@ -66,7 +85,10 @@ public class RemoteStore implements AdvancedLoadWriteStore {
    private InternalEntryFactory iceFactory;
    private static final String LIFESPAN = "lifespan";
    private static final String MAXIDLE = "maxidle";
+   private static final int BATCH_SIZE = 1000;
    protected InitializationContext ctx;
+   private boolean bulkOperations;
+   private boolean entryIteration;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -87,6 +109,11 @@ public void start() throws PersistenceException {
          marshaller = ctx.getMarshaller();
       }
       ConfigurationBuilder builder = buildRemoteConfiguration(configuration, marshaller);
+      String protocolVersion = configuration.protocolVersion() != null ?
+            configuration.protocolVersion() : ConfigurationProperties.DEFAULT_PROTOCOL_VERSION;
+      // getAll and putAll need protocol 2.0, iterating entries with their metadata needs 2.4
+      bulkOperations = VersionUtils.isVersionGreaterOrEquals(protocolVersion, ConfigurationProperties.PROTOCOL_VERSION_20);
+      entryIteration = VersionUtils.isVersionGreaterOrEquals(protocolVersion, ConfigurationProperties.PROTOCOL_VERSION_24);
       remoteCacheManager = new RemoteCacheManager(builder.build());
 
       if (configuration.remoteCacheName().equals(BasicCacheContainer.DEFAULT_CACHE_NAME))
@@ -107,23 +134,23 @@ public void stop() throws PersistenceException {
    public MarshalledEntry load(Object key) throws PersistenceException {
       if (configuration.rawValues()) {
          MetadataValue<?> value = remoteCache.getWithMetadata(key);
-         if (value != null) {
-            Metadata metadata = new EmbeddedMetadata.Builder()
-                  .version(new NumericVersion(value.getVersion()))
-                  .lifespan(value.getLifespan(), TimeUnit.SECONDS)
-                  .maxIdle(value.getMaxIdle(), TimeUnit.SECONDS).build();
-            long created = value.getCreated();
-            long lastUsed = value.getLastUsed();
-            return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, value.getValue(),
-                                    new InternalMetadataImpl(metadata, created, lastUsed));
-         } else {
-            return null;
-         }
+         return value != null ? toMarshalledEntry(key, value) : null;
       } else {
          return (MarshalledEntry) remoteCache.get(key);
       }
    }
 
+   private MarshalledEntry toMarshalledEntry(Object key, MetadataValue<?> value) {
+      Metadata metadata = new EmbeddedMetadata.Builder()
+            .version(new NumericVersion(value.getVersion()))
+            .lifespan(value.getLifespan(), TimeUnit.SECONDS)
+            .maxIdle(value.getMaxIdle(), TimeUnit.SECONDS).build();
+      long created = value.getCreated();
+      long lastUsed = value.getLastUsed();
+      return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, value.getValue(),
+                              new InternalMetadataImpl(metadata, created, lastUsed));
+   }
+
    @Override
    public boolean contains(Object key) throws PersistenceException {
       return remoteCache.containsKey(key);
@@ -131,24 +158,108 @@ public boolean contains(Object key) throws PersistenceException {
 
    @Override
    public void process(KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
-      TaskContextImpl taskContext = new TaskContextImpl();
-      for (Object key : remoteCache.keySet()) {
-         if (taskContext.isStopped())
-            break;
-         if (filter == null || filter.accept(key)) {
-            try {
-               MarshalledEntry marshalledEntry = load(key);
-               if (marshalledEntry != null) {
-                  task.processEntry(marshalledEntry, taskContext);
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      TaskContext taskContext = new TaskContextImpl();
+      if (entryIteration) {
+         for (Set<Integer> segments : splitSegmentsByServer()) {
+            eacs.submit(() -> {
+               iterate(segments, filter, task, taskContext);
+               return null;
+            });
+         }
+      } else {
+         Set<Object> batch = new HashSet<>(BATCH_SIZE);
+         for (Object key : remoteCache.keySet()) {
+            if (taskContext.isStopped())
+               break;
+            if (filter == null || filter.accept(key)) {
+               batch.add(key);
+               if (batch.size() == BATCH_SIZE) {
+                  submitLoadTask(eacs, batch, task, taskContext);
+                  batch = new HashSet<>(BATCH_SIZE);
                }
-            } catch (InterruptedException e) {
-               Thread.currentThread().interrupt();
-               return;
             }
          }
+         if (!batch.isEmpty())
+            submitLoadTask(eacs, batch, task, taskContext);
+      }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         log.errorExecutingParallelStoreTask(eacs.getFirstException());
+         throw new PersistenceException("Execution exception!", eacs.getFirstException());
       }
    }
 
+   /**
+    * Groups the segments of the remote cache by the server owning them, so that each server streams its own
+    * segments. Returns a single {@code null} group, i.e. all the segments, if the remote cache isn't distributed.
+    */
+   private Collection<Set<Integer>> splitSegmentsByServer() {
+      CacheTopologyInfo topology = remoteCache.getCacheTopologyInfo();
+      Map<?, Set<Integer>> segmentsPerServer = topology.getSegmentsPerServer();
+      List<Set<Integer>> groups = new ArrayList<>();
+      Set<Integer> assigned = new HashSet<>();
+      if (segmentsPerServer != null) {
+         for (Set<Integer> owned : segmentsPerServer.values()) {
+            Set<Integer> group = new HashSet<>();
+            for (Integer segment : owned) {
+               if (assigned.add(segment))
+                  group.add(segment);
+            }
+            if (!group.isEmpty())
+               groups.add(group);
+         }
+      }
+      return groups.isEmpty() ? Collections.singletonList(null) : groups;
+   }
+
+   private void iterate(Set<Integer> segments, KeyFilter filter, CacheLoaderTask task, TaskContext taskContext)
+         throws InterruptedException {
+      if (trace) log.tracef("Iterating remote entries of segments %s", segments);
+      if (configuration.rawValues()) {
+         try (CloseableIterator<Map.Entry<Object, MetadataValue<Object>>> it = remoteCache.retrieveEntriesWithMetadata(segments, BATCH_SIZE)) {
+            while (it.hasNext() && !taskContext.isStopped()) {
+               Map.Entry<Object, MetadataValue<Object>> entry = it.next();
+               if (filter == null || filter.accept(entry.getKey()))
+                  task.processEntry(toMarshalledEntry(entry.getKey(), entry.getValue()), taskContext);
+            }
+         }
+      } else {
+         try (CloseableIterator<Map.Entry<Object, Object>> it = remoteCache.retrieveEntries(null, segments, BATCH_SIZE)) {
+            while (it.hasNext() && !taskContext.isStopped()) {
+               Map.Entry<Object, Object> entry = it.next();
+               if (filter == null || filter.accept(entry.getKey()))
+                  task.processEntry((MarshalledEntry) entry.getValue(), taskContext);
+            }
+         }
+      }
+   }
+
+   private void submitLoadTask(ExecutorAllCompletionService eacs, Set<Object> keys, CacheLoaderTask task,
+                               TaskContext taskContext) {
+      eacs.submit(() -> {
+         for (MarshalledEntry entry : loadAll(keys)) {
+            if (taskContext.isStopped())
+               break;
+            task.processEntry(entry, taskContext);
+         }
+         return null;
+      });
+   }
+
+   private Collection<MarshalledEntry> loadAll(Set<Object> keys) {
+      if (bulkOperations && !configuration.rawValues()) {
+         return (Collection) remoteCache.getAll(keys).values();
+      }
+      List<MarshalledEntry> entries = new ArrayList<>(keys.size());
+      for (Object key : keys) {
+         MarshalledEntry entry = load(key);
+         if (entry != null)
+            entries.add(entry);
+      }
+      return entries;
+   }
+
    @Override
    public int size() {
       return remoteCache.size();
@@ -170,6 +281,53 @@ public void write(MarshalledEntry entry) throws PersistenceException {
       remoteCache.put(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry, toSeconds(lifespan, entry.getKey(), LIFESPAN), TimeUnit.SECONDS, toSeconds(maxIdle, entry.getKey(), MAXIDLE), TimeUnit.SECONDS);
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      if (!bulkOperations) {
+         for (Object entry : entries)
+            write((MarshalledEntry) entry);
+         return;
+      }
+      // putAll takes a single lifespan and max idle, so entries are grouped by their expiration
+      Map<Expiration, Map<Object, Object>> batches = new HashMap<>();
+      for (Object o : entries) {
+         MarshalledEntry entry = (MarshalledEntry) o;
+         InternalMetadata metadata = entry.getMetadata();
+         long lifespan = metadata != null ? metadata.lifespan() : -1;
+         long maxIdle = metadata != null ? metadata.maxIdle() : -1;
+         Expiration expiration = new Expiration(toSeconds(lifespan, entry.getKey(), LIFESPAN), toSeconds(maxIdle, entry.getKey(), MAXIDLE));
+         batches.computeIfAbsent(expiration, e -> new HashMap<>())
+               .put(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry);
+      }
+      if (trace) log.tracef("Writing %d batches of entries", batches.size());
+      List<CompletableFuture<?>> futures = new ArrayList<>(batches.size());
+      for (Map.Entry<Expiration, Map<Object, Object>> batch : batches.entrySet()) {
+         Expiration expiration = batch.getKey();
+         futures.add(remoteCache.putAllAsync(batch.getValue(), expiration.lifespan, TimeUnit.SECONDS, expiration.maxIdle, TimeUnit.SECONDS));
+      }
+      await(futures);
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      List<CompletableFuture<?>> futures = new ArrayList<>();
+      for (Object key : keys) {
+         futures.add(remoteCache.removeAsync(key));
+      }
+      await(futures);
+   }
+
+   private void await(List<CompletableFuture<?>> futures) {
+      try {
+         CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException(e);
+      } catch (ExecutionException e) {
+         throw new PersistenceException(e.getCause());
+      }
+   }
+
    @Override
    public void clear() throws PersistenceException {
       remoteCache.clear();
@@ -250,4 +408,27 @@ private ConfigurationBuilder buildRemoteConfiguration(RemoteStoreConfiguration c
    public RemoteStoreConfiguration getConfiguration() {
       return configuration;
    }
+
+   private static final class Expiration {
+      final long lifespan;
+      final long maxIdle;
+
+      Expiration(long lifespan, long maxIdle) {
+         this.lifespan = lifespan;
+         this.maxIdle = maxIdle;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o) return true;
+         if (!(o instanceof Expiration)) return false;
+         Expiration that = (Expiration) o;
+         return lifespan == that.lifespan && maxIdle == that.maxIdle;
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * Long.hashCode(lifespan) + Long.hashCode(maxIdle);
+      }
+   }
 }
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.remote;
 
 import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
@@ -11,6 +12,7 @@
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.remote.configuration.RemoteStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
@@ -21,6 +23,9 @@
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author Mircea.Markus@jboss.com
  * @since 4.1
@@ -83,6 +88,29 @@ protected boolean storePurgesAllExpired() {
       return false;
    }
 
+   public void testWriteAndDeleteBatch() throws Exception {
+      // the remote cache holds at most 100 entries; half of them expire, so they are written with a separate putAll
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      List<Object> keys = new ArrayList<>();
+      for (int i = 0; i < 80; i++) {
+         entries.add(i % 2 == 0 ? marshalledEntry("k" + i, "v" + i, null)
+                                : marshalledEntry(internalCacheEntry("k" + i, "v" + i, 60000)));
+         keys.add("k" + i);
+      }
+      cl.writeBatch(entries);
+      assertEquals(80, cl.size());
+      for (int i = 0; i < 80; i++) {
+         MarshalledEntry entry = cl.load("k" + i);
+         assertEquals("v" + i, unwrap(entry.getValue()));
+         assertEquals(i % 2 == 0 ? -1 : 60000, entry.getMetadata() == null ? -1 : entry.getMetadata().lifespan());
+      }
+
+      cl.deleteBatch(keys.subList(0, 50));
+      assertEquals(30, cl.size());
+      assertNull(cl.load("k0"));
+      assertEquals("v79", unwrap(cl.load("k79").getValue()));
+   }
+
    @Override
    public void testReplaceExpiredEntry() throws Exception {
       cl.write(marshalledEntry(internalCacheEntry("k1", "v1", 100l)));
@@ -1,6 +1,9 @@
 package org.infinispan.persistence.sifs;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -8,8 +11,13 @@
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -18,12 +26,24 @@
  * Component keeping the data about log file usage - as soon as entries from some file are overwritten so that the file
  * becomes cluttered with old records, the valid records are moved to another file and the old ones are dropped.
  * Expired records are moved as tombstones without values (records of entry removal).
+ * <p>
+ * Several files may be compacted in parallel, each by a different thread writing to its own compaction output file.
+ * The number of bytes read and written by all the threads can be limited, so that the compaction does not take the
+ * disk bandwidth needed by the log appender.
+ * <p>
+ * A tombstone can be dropped only after all the older records of its key are gone. With a single thread the files are
+ * deleted in the order they were compacted, so a file holding an older record is always deleted first. With several
+ * threads another file may still be in compaction, and its delete could come after this one, so a tombstone is kept
+ * (moved to the compaction output) while any other file is being compacted.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
-class Compactor extends Thread {
+@MBean(objectName = "SoftIndexFileStoreCompactor", description = "Compacts the data files of the soft-index file store")
+public class Compactor {
    private static final Log log = LogFactory.getLog(Compactor.class);
    private static final boolean trace = log.isTraceEnabled();
+   // the throttled threads check the pause/terminate signals at least this often
+   private static final long MAX_THROTTLE_WAIT = TimeUnit.MILLISECONDS.toNanos(100);
 
    private final ConcurrentMap<Integer, Stats> fileStats = new ConcurrentHashMap<Integer, Stats>();
    private final BlockingQueue<Integer> scheduledCompaction = new LinkedBlockingQueue<Integer>();
@@ -34,6 +54,17 @@ class Compactor extends Thread {
    private final TimeService timeService;
    private final int maxFileSize;
    private final double compactionThreshold;
+   private final long compactionThroughput;
+   private final Thread[] workers;
+   // files being compacted, until their delete request is queued
+   private final Set<Integer> filesInCompaction = ConcurrentHashMap.newKeySet();
+
+   // throttling, guarded by this
+   private long nextTransferTime;
+
+   private final LongAdder compactedFiles = new LongAdder();
+   private final LongAdder compactedBytes = new LongAdder();
+   private final LongAdder throttledTime = new LongAdder();
 
    private Index index;
    // as processing single scheduled compaction takes a lot of time, we don't use the queue to signalize
@@ -46,8 +77,8 @@ class Compactor extends Thread {
    public Compactor(FileProvider fileProvider,
                     TemporaryTable temporaryTable,
                     BlockingQueue<IndexRequest> indexQueue,
-                    Marshaller marshaller, TimeService timeService, int maxFileSize, double compactionThreshold) {
-      super("BCS-Compactor");
+                    Marshaller marshaller, TimeService timeService, int maxFileSize, double compactionThreshold,
+                    int compactionThreads, long compactionThroughput) {
       this.fileProvider = fileProvider;
       this.temporaryTable = temporaryTable;
       this.indexQueue = indexQueue;
@@ -55,7 +86,12 @@ public Compactor(FileProvider fileProvider,
       this.timeService = timeService;
       this.maxFileSize = maxFileSize;
       this.compactionThreshold = compactionThreshold;
-      this.start();
+      this.compactionThroughput = compactionThroughput;
+      this.workers = new Thread[compactionThreads];
+      for (int i = 0; i < compactionThreads; ++i) {
+         workers[i] = new Thread(this::run, compactionThreads == 1 ? "BCS-Compactor" : "BCS-Compactor-" + i);
+         workers[i].start();
+      }
    }
 
    public void setIndex(Index index) {
@@ -122,8 +158,7 @@ private void schedule(int file, Stats stats) {
       }
    }
 
-   @Override
-   public void run() {
+   private void run() {
       try {
          FileProvider.Log logFile = null;
          int currentOffset = 0;
@@ -160,6 +195,7 @@ public void run() {
             if (handle == null) {
                throw new IllegalStateException("Compactor should not get deleted file for compaction!");
             }
+            filesInCompaction.add(scheduledFile);
             try {
                while (!clearSignal && !terminateSignal) {
                   EntryHeader header = EntryRecord.readEntryHeader(handle, scheduledOffset);
@@ -170,6 +206,7 @@ public void run() {
                   Object key = marshaller.objectFromByteBuffer(serializedKey);
 
                   int indexedOffset = header.valueLength() > 0 ? scheduledOffset : ~scheduledOffset;
+                  int transferred = header.totalLength();
                   boolean drop = true;
                   boolean truncate = false;
                   EntryPosition entry = temporaryTable.get(key);
@@ -208,8 +245,11 @@ public void run() {
                            drop = false;
                         }
                         // Drop only when it is expired and has single record
-                     } else if (info.file == scheduledFile && info.offset == ~scheduledOffset && info.numRecords > 1) {
-                        // just tombstone but there are more non-compacted records for this key so we have to keep it
+                     } else if (info.file == scheduledFile && info.offset == ~scheduledOffset
+                           && (info.numRecords > 1 || otherFilesInCompaction(scheduledFile))) {
+                        // just tombstone but there are more non-compacted records for this key so we have to keep it;
+                        // an older record dropped from a file compacted in parallel counts as well until that file
+                        // is deleted
                         drop = false;
                      } else if (trace) {
                         log.tracef("Key for %d:%d was found in index on %d:%d, %d record => drop",
@@ -284,25 +324,33 @@ public void run() {
                            scheduledFile, indexedOffset));
 
                      currentOffset += writtenLength;
+                     transferred += writtenLength;
                   }
                   scheduledOffset += header.totalLength();
+                  compactedBytes.add(transferred);
+                  throttle(transferred);
                }
             } finally {
                handle.close();
             }
             if (terminateSignal) {
+               filesInCompaction.remove(scheduledFile);
                if (logFile != null) {
                   logFile.close();
                   completeFile(logFile.fileId);
                }
                return;
             } else if (clearSignal) {
+               filesInCompaction.remove(scheduledFile);
                pauseCompactor(logFile);
                logFile = null;
             } else {
                // The deletion must be executed only after the index is fully updated.
                log.debugf("Finished compacting %d, scheduling delete", scheduledFile);
                indexQueue.put(IndexRequest.deleteFileRequest(scheduledFile));
+               // the index processes the requests in order, so any file compacted from now on is deleted after this one
+               filesInCompaction.remove(scheduledFile);
+               compactedFiles.increment();
             }
          }
       } catch (Exception e) {
@@ -310,6 +358,36 @@ public void run() {
       }
    }
 
+   private boolean otherFilesInCompaction(int file) {
+      for (Integer other : filesInCompaction) {
+         if (other != file) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Blocks the calling thread as long as needed to keep the compaction within the configured throughput.
+    */
+   private void throttle(int bytes) throws InterruptedException {
+      if (compactionThroughput <= 0) {
+         return;
+      }
+      long now = timeService.time();
+      long transferTime;
+      synchronized (this) {
+         // idle time does not accumulate, so a throttled compaction can't burst after a pause
+         transferTime = Math.max(nextTransferTime, now);
+         nextTransferTime = transferTime + bytes * TimeUnit.SECONDS.toNanos(1) / compactionThroughput;
+      }
+      long wait;
+      while ((wait = transferTime - timeService.time()) > 0 && !clearSignal && !terminateSignal) {
+         TimeUnit.NANOSECONDS.sleep(Math.min(wait, MAX_THROTTLE_WAIT));
+      }
+      throttledTime.add(Math.max(0, timeService.time() - now));
+   }
+
    private void pauseCompactor(FileProvider.Log logFile) throws IOException, InterruptedException {
       if (logFile != null) {
          logFile.close();
@@ -321,9 +399,12 @@ private void pauseCompactor(FileProvider.Log logFile) throws IOException, Interr
 
    public void clearAndPause() throws InterruptedException {
       compactorResume = new CountDownLatch(1);
-      compactorStop = new CountDownLatch(1);
+      compactorStop = new CountDownLatch(workers.length);
       clearSignal = true;
-      scheduledCompaction.put(-1);
+      // wake up all the idle workers, the others pause as soon as they notice the signal
+      for (int i = 0; i < workers.length; ++i) {
+         scheduledCompaction.put(-1);
+      }
       compactorStop.await();
       scheduledCompaction.clear();
       fileStats.clear();
@@ -336,8 +417,87 @@ public void resumeAfterPause() {
 
    public void stopOperations() throws InterruptedException {
       terminateSignal = true;
-      scheduledCompaction.put(-1);
-      this.join();
+      for (int i = 0; i < workers.length; ++i) {
+         scheduledCompaction.put(-1);
+      }
+      for (Thread worker : workers) {
+         worker.join();
+      }
+   }
+
+   @ManagedAttribute(
+         description = "Number of data files scheduled for compaction or being compacted",
+         displayName = "Compaction backlog"
+   )
+   public int getCompactionBacklog() {
+      int backlog = 0;
+      for (Stats stats : fileStats.values()) {
+         if (stats.isScheduled()) {
+            backlog++;
+         }
+      }
+      return backlog;
+   }
+
+   @ManagedAttribute(
+         description = "Number of data files compacted",
+         displayName = "Number of compacted files",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getCompactedFiles() {
+      return compactedFiles.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of bytes read and written by the compaction",
+         displayName = "Number of compacted bytes",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getCompactedBytes() {
+      return compactedBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Time the compaction threads spent waiting to stay within the compaction throughput",
+         displayName = "Compaction throttling time",
+         units = Units.MILLISECONDS,
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getThrottledTime() {
+      return TimeUnit.NANOSECONDS.toMillis(throttledTime.sum());
+   }
+
+   @ManagedAttribute(
+         description = "Fraction of the space in the completed data files that is taken by overwritten or expired records",
+         displayName = "Data files fragmentation",
+         units = Units.PERCENTAGE
+   )
+   public double getFragmentation() {
+      long free = 0, total = 0;
+      for (Stats stats : fileStats.values()) {
+         int fileTotal = stats.getTotal();
+         if (stats.isCompleted() && fileTotal > 0) {
+            free += stats.getFree();
+            total += fileTotal;
+         }
+      }
+      return total == 0 ? 0 : 100d * free / total;
+   }
+
+   @ManagedAttribute(
+         description = "Percentage of free space in each completed data file",
+         displayName = "Fragmentation of each data file"
+   )
+   public String getFileFragmentation() {
+      Map<Integer, String> fragmentation = new TreeMap<>();
+      for (Map.Entry<Integer, Stats> entry : fileStats.entrySet()) {
+         Stats stats = entry.getValue();
+         int total = stats.getTotal();
+         if (stats.isCompleted() && total > 0) {
+            fragmentation.put(entry.getKey(), String.format("%.1f%%", 100d * stats.getFree() / total));
+         }
+      }
+      return fragmentation.toString();
    }
 
    private static class Stats {
@@ -9,6 +9,7 @@
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
@@ -117,6 +118,7 @@ public class SoftIndexFileStore implements AdvancedLoadWriteStore {
    private TimeService timeService;
    private Equivalence<Object> keyEquivalence;
    private int maxKeyLength;
+   private ComponentRegistry componentRegistry;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -127,6 +129,7 @@ public void init(InitializationContext ctx) {
       timeService = ctx.getTimeService();
       keyEquivalence = ctx.getCache().getAdvancedCache().getCacheConfiguration().dataContainer().keyEquivalence();
       maxKeyLength = configuration.maxNodeSize() - IndexNode.RESERVED_SPACE;
+      componentRegistry = ctx.getCache().getAdvancedCache().getComponentRegistry();
    }
 
    @Override
@@ -139,7 +142,10 @@ public void start() {
       storeQueue = new SyncProcessingQueue<LogRequest>();
       indexQueue = new IndexQueue(configuration.indexSegments(), configuration.indexQueueLength(), keyEquivalence);
       fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit());
-      compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(), configuration.compactionThreshold());
+      compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(),
+            configuration.compactionThreshold(), configuration.compactionThreads(), configuration.compactionThroughput());
+      // registered as a cache component to expose the compaction statistics over JMX
+      componentRegistry.registerComponent(compactor, Compactor.class.getName());
       logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize());
       try {
          index = new Index(fileProvider, configuration.indexLocation(), configuration.indexSegments(),
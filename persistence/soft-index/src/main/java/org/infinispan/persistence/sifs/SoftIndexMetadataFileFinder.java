@@ -0,0 +1,17 @@
+package org.infinispan.persistence.sifs;
+
+import org.infinispan.factories.components.ModuleMetadataFileFinder;
+import org.kohsuke.MetaInfServices;
+
+/**
+ * Locates the component metadata of this module, needed to expose the {@link Compactor} statistics over JMX.
+ *
+ * @since 9.0
+ */
+@MetaInfServices
+public class SoftIndexMetadataFileFinder implements ModuleMetadataFileFinder {
+   @Override
+   public String getMetadataFilename() {
+      return "infinispan-persistence-soft-index-component-metadata.dat";
+   }
+}
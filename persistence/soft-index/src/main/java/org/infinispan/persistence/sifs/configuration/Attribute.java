@@ -11,7 +11,9 @@
 public enum Attribute {
    // must be first
    UNKNOWN(null),
+   COMPACTION_THREADS("compaction-threads"),
    COMPACTION_THRESHOLD("compaction-threshold"),
+   COMPACTION_THROUGHPUT("compaction-throughput"),
    PATH("path"),
    INDEX_QUEUE_LENGTH("max-queue-length"),
    SEGMENTS("segments"),
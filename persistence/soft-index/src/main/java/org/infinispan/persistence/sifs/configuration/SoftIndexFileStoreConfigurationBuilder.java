@@ -1,5 +1,6 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
@@ -64,6 +65,34 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold(double compact
       return this;
    }
 
+   /**
+    * Number of threads compacting the data files in parallel, each of them compacting a different file.
+    */
+   public SoftIndexFileStoreConfigurationBuilder compactionThreads(int compactionThreads) {
+      attributes.attribute(COMPACTION_THREADS).set(compactionThreads);
+      return this;
+   }
+
+   /**
+    * Maximum number of bytes per second read and written by all the compaction threads together, so that compaction
+    * does not take the disk bandwidth needed by the writes. 0 (the default) means unlimited.
+    */
+   public SoftIndexFileStoreConfigurationBuilder compactionThroughput(long compactionThroughput) {
+      attributes.attribute(COMPACTION_THROUGHPUT).set(compactionThroughput);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (attributes.attribute(COMPACTION_THREADS).get() < 1) {
+         throw new CacheConfigurationException("compactionThreads must be at least 1");
+      }
+      if (attributes.attribute(COMPACTION_THROUGHPUT).get() < 0) {
+         throw new CacheConfigurationException("compactionThroughput must not be negative");
+      }
+   }
+
    @Override
    public SoftIndexFileStoreConfiguration create() {
       return new SoftIndexFileStoreConfiguration(attributes.protect(),
@@ -65,6 +65,12 @@ private void parseSoftIndexFileStore(XMLExtendedStreamReader reader, SoftIndexFi
             case COMPACTION_THRESHOLD:
                builder.compactionThreshold(Double.parseDouble(value));
                break;
+            case COMPACTION_THREADS:
+               builder.compactionThreads(Integer.parseInt(value));
+               break;
+            case COMPACTION_THROUGHPUT:
+               builder.compactionThroughput(Long.parseLong(value));
+               break;
             default:
                Parser90.parseStoreAttribute(reader, i, builder);
                break;
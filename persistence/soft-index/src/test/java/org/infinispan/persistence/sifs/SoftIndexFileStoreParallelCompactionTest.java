@@ -0,0 +1,16 @@
+package org.infinispan.persistence.sifs;
+
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft-index file store tests with several compaction threads.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreParallelCompactionTest")
+public class SoftIndexFileStoreParallelCompactionTest extends SoftIndexFileStoreTest {
+
+   public SoftIndexFileStoreParallelCompactionTest() {
+      compactionThreads = 3;
+   }
+}
@@ -37,6 +37,7 @@ public class SoftIndexFileStoreTest extends BaseStoreTest {
    String tmpDirectory;
    boolean startIndex = true;
    boolean keepIndex = false;
+   int compactionThreads = 1;
 
    @BeforeClass
    protected void setUpTempDir() {
@@ -87,7 +88,7 @@ public void stop() {
       builder.persistence()
                .addStore(SoftIndexFileStoreConfigurationBuilder.class)
                   .indexLocation(tmpDirectory).dataLocation(tmpDirectory + "/data")
-                  .maxFileSize(1000);
+                  .maxFileSize(1000).compactionThreads(compactionThreads);
 
       store.init(createContext(builder.build()));
       return store;
@@ -195,7 +196,78 @@ public void testStopStartWithLoadDoesNotNukeValues() throws InterruptedException
       }
    }
 
+   public void testCompactionStatistics() {
+      Compactor compactor = TestingUtil.extractField(store, "compactor");
+      long compactedFiles = compactor.getCompactedFiles();
+      long compactedBytes = compactor.getCompactedBytes();
+      writeGibberish();
+      eventually(() -> compactor.getCompactedFiles() > compactedFiles);
+      assertTrue(compactor.getCompactedBytes() > compactedBytes);
+   }
+
+   public void testRemovedEntriesStayRemovedAfterCompaction() {
+      Compactor compactor = TestingUtil.extractField(store, "compactor");
+      int numEntries = 100;
+      for (int i = 0; i < numEntries; ++i) {
+         store.write(marshalledEntry(internalCacheEntry(key(i), "value" + i, -1)));
+      }
+      for (int i = 0; i < numEntries; ++i) {
+         assertTrue(key(i), store.delete(key(i)));
+      }
+      long compactedFiles = compactor.getCompactedFiles();
+      writeGibberish();
+      eventually(() -> compactor.getCompactedFiles() > compactedFiles);
+      // the index is dropped on stop, so it is rebuilt from the records and tombstones left in the data files
+      store.stop();
+      store.start();
+      for (int i = 0; i < numEntries; ++i) {
+         assertNull(key(i), store.load(key(i)));
+      }
+   }
+
+   public void testClearAndStopWhileThrottled() throws Exception {
+      String location = tmpDirectory + "/throttled";
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.persistence()
+               .addStore(SoftIndexFileStoreConfigurationBuilder.class)
+                  .indexLocation(location).dataLocation(location + "/data")
+                  .maxFileSize(1000).compactionThreads(2).compactionThroughput(1000);
+      SoftIndexFileStore throttled = new SoftIndexFileStore();
+      throttled.init(createContext(builder.build()));
+      throttled.start();
+      try {
+         Compactor compactor = TestingUtil.extractField(throttled, "compactor");
+         // the time service stands still, so the compaction gets throttled after the first record
+         writeGibberish(throttled);
+         eventually(() -> compactor.getCompactedBytes() > 0 && compactor.getCompactionBacklog() > 0);
+         assertEquals(0, compactor.getCompactedFiles());
+
+         throttled.clear();
+         assertEquals(0, compactor.getCompactionBacklog());
+         assertEquals(0, throttled.size());
+
+         // five seconds let through 5000 bytes, enough to compact some of the files
+         writeGibberish(throttled);
+         timeService.advance(5000);
+         eventually(() -> compactor.getCompactedFiles() > 0);
+         assertTrue(compactor.getThrottledTime() > 0);
+
+         throttled.write(marshalledEntry(internalCacheEntry("k", "v", -1)));
+         assertEquals("v", throttled.load("k").getValue());
+         // more than the rest of the budget, so the compaction is throttled again
+         writeGibberish(throttled);
+         writeGibberish(throttled);
+      } finally {
+         // the throttled compaction threads must notice the stop as well
+         throttled.stop();
+      }
+   }
+
    private void writeGibberish() {
+      writeGibberish(store);
+   }
+
+   private void writeGibberish(SoftIndexFileStore store) {
       for (int i = 0; i < 100; ++i) {
          store.write(marshalledEntry(internalCacheEntry("foo", "bar", -1)));
          store.delete("foo");
@@ -1,7 +1,9 @@
 package org.infinispan.query;
 
 import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -14,6 +16,11 @@
  * While reindexing is being performed queries should not be executed as they
  * will very likely miss many or all results.
  *
+ * In clustered caches the work is partitioned by segment: each node indexes its
+ * segments using at most {@link #getThreadsPerNode()} concurrent tasks, and the
+ * segments already indexed are remembered so that an interrupted run can be
+ * continued with {@link #resume()} instead of starting over.
+ *
  * @author Sanne Grinovero <sanne@hibernate.org> (C) 2012 Red Hat Inc.
  */
 @MBean(objectName = "MassIndexer",
@@ -28,4 +35,42 @@ public interface MassIndexer {
     */
    CompletableFuture<Void> startAsync();
 
+   @ManagedOperation(description = "Resumes an interrupted index rebuild, skipping the segments it already indexed",
+         displayName = "Resume index rebuild")
+   void resume();
+
+   /**
+    * Resumes an interrupted or failed run, without purging the index and skipping the segments already indexed.
+    * If no previous run was recorded, or the previous run completed successfully, this is equivalent to
+    * {@link #startAsync()}.
+    *
+    * @return {@link CompletableFuture}
+    */
+   CompletableFuture<Void> resumeAsync();
+
+   /**
+    * @return the maximum number of segments indexed concurrently on each node, or 0 if it was not set and each node
+    *         uses its number of processors
+    */
+   @ManagedAttribute(description = "Maximum number of segments being indexed concurrently on each node, " +
+         "0 means the number of processors of each node", displayName = "Threads per node", writable = true)
+   int getThreadsPerNode();
+
+   void setThreadsPerNode(int threadsPerNode);
+
+   @ManagedAttribute(description = "Number of entities indexed by the current or last run",
+         displayName = "Indexed entities", measurementType = MeasurementType.TRENDSUP)
+   long getIndexedEntities();
+
+   @ManagedAttribute(description = "Entities indexed per second by the current or last run",
+         displayName = "Indexing throughput")
+   double getThroughput();
+
+   @ManagedAttribute(description = "Number of segments already indexed", displayName = "Completed segments",
+         measurementType = MeasurementType.TRENDSUP)
+   int getCompletedSegments();
+
+   @ManagedAttribute(description = "Whether the index is being rebuilt", displayName = "Is running")
+   boolean isRunning();
+
 }
@@ -601,7 +601,7 @@ private BaseQuery buildQueryNoAggregations(QueryFactory queryFactory, String jpq
                FilterParsingResult<?> fpr = makeFilterParsingResult(parsingResult, normalizedWhereClause, null, null, sortFields);
                Query indexQuery = new EmbeddedLuceneQuery(this, queryFactory, namedParameters, fpr, null, makeResultProcessor(null), startOffset, maxResults);
                String projectionQueryStr = JPATreePrinter.printTree(parsingResult.getTargetEntityName(), parsingResult.getProjectedPaths(), null, null);
-               return new HybridQuery(queryFactory, cache, projectionQueryStr, null, getObjectFilter(getMatcher(), projectionQueryStr, null, null), -1, -1, indexQuery);
+               return new HybridQuery(queryFactory, cache, projectionQueryStr, null, makeProjectionFilter(parsingResult, projectionQueryStr), -1, -1, indexQuery);
             }
          } else {
             // projections may be stored but some sort fields are not so we need to query the index and then execute in-memory sorting and projecting in a second phase
@@ -643,6 +643,14 @@ protected RowProcessor makeProjectionProcessor(Class<?>[] projectedTypes) {
       return null;
    }
 
+   /**
+    * Creates the filter used by the second stage of a hybrid query when the index fully handled the where clause and
+    * the sorting, so the filter only has to extract the (non-stored) projections from the matching entities.
+    */
+   protected ObjectFilter makeProjectionFilter(FilterParsingResult<?> parsingResult, String projectionQueryStr) {
+      return getObjectFilter(getMatcher(), projectionQueryStr, null, null);
+   }
+
    protected BaseMatcher getMatcher() {
       return SecurityActions.getCacheComponentRegistry(cache).getComponent(ReflectionMatcher.class);
    }
@@ -227,8 +227,13 @@ public void cacheStarted(ComponentRegistry cr, String cacheName) {
          }
       }
 
+      // a single mass indexer per cache, so that its checkpoint can be resumed
+      MassIndexer massIndexer = new DistributedExecutorMassIndexer(cr.getComponent(Cache.class).getAdvancedCache(),
+            searchFactory);
+      cr.registerComponent(massIndexer, MassIndexer.class);
+
       // Register query mbeans
-      registerQueryMBeans(cr, configuration, searchFactory);
+      registerQueryMBeans(cr, configuration, searchFactory, massIndexer);
    }
 
    /**
@@ -242,7 +247,7 @@ private void checkIndexableClasses(SearchIntegrator searchFactory, Set<Class<?>>
       }
    }
 
-   private void registerQueryMBeans(ComponentRegistry cr, Configuration cfg, SearchIntegrator sf) {
+   private void registerQueryMBeans(ComponentRegistry cr, Configuration cfg, SearchIntegrator sf, MassIndexer massIndexer) {
       AdvancedCache<?, ?> cache = cr.getComponent(Cache.class).getAdvancedCache();
       // Resolve MBean server instance
       GlobalConfiguration globalCfg = cr.getGlobalComponentRegistry().getGlobalConfiguration();
@@ -270,8 +275,6 @@ private void registerQueryMBeans(ComponentRegistry cr, Configuration cfg, Search
             .findComponentMetadata(MassIndexer.class)
             .toManageableComponentMetadata();
       try {
-         // TODO: MassIndexer should be some kind of query cache component?
-         DistributedExecutorMassIndexer massIndexer = new DistributedExecutorMassIndexer(cache, sf);
          ResourceDMBean mbean = new ResourceDMBean(massIndexer, massIndexerCompMetadata);
          ObjectName massIndexerObjName = new ObjectName(jmxDomain + ":"
                + queryGroupName + ",component=" + massIndexerCompMetadata.getJmxObjectName());
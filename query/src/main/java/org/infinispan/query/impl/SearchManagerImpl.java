@@ -14,7 +14,6 @@
 import org.infinispan.query.Transformer;
 import org.infinispan.query.backend.QueryInterceptor;
 import org.infinispan.query.clustered.ClusteredCacheQueryImpl;
-import org.infinispan.query.impl.massindex.DistributedExecutorMassIndexer;
 import org.infinispan.query.spi.SearchManagerImplementor;
 
 /**
@@ -87,8 +86,7 @@ public EntityContext buildQueryBuilderForClass(Class<?> entityType) {
 
    @Override
    public MassIndexer getMassIndexer() {
-      // TODO: Should a new instance be created every time?
-      return new DistributedExecutorMassIndexer(cache, searchFactory);
+      return ComponentRegistryUtils.getComponent(cache, MassIndexer.class);
    }
 
    @Override
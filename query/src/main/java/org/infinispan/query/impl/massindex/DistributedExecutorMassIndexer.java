@@ -6,26 +6,47 @@
 import org.infinispan.distexec.DefaultExecutorService;
 import org.infinispan.distexec.DistributedExecutorService;
 import org.infinispan.distexec.DistributedTask;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.query.MassIndexer;
 import org.infinispan.query.impl.massindex.MassIndexStrategy.CleanExecutionMode;
 import org.infinispan.query.impl.massindex.MassIndexStrategy.FlushExecutionMode;
 import org.infinispan.query.impl.massindex.MassIndexStrategy.IndexingExecutionMode;
 import org.infinispan.query.logging.Log;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.StateTransferManager;
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
+import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
 
 import static org.infinispan.query.impl.massindex.MassIndexStrategyFactory.calculateStrategy;
 
 /**
+ * Rebuilds the indexes using distributed tasks. In clustered caches each segment is a separate unit of work that is
+ * sent to the node(s) holding it, with at most {@link #getThreadsPerNode()} segments in flight per node, so that
+ * the indexing backend is not flooded. Completed segments are recorded and skipped by {@link #resume()}.
+ * <p>
+ * There is a single instance per cache, registered as a cache component, so that the checkpoint and the settings
+ * are shared by every {@link org.infinispan.query.SearchManager#getMassIndexer()} call. The checkpoint is kept in
+ * the memory of the node that started the run: resuming from another node, or after a restart, indexes everything.
+ *
  * @author gustavonalle
  * @since 7.1
  */
@@ -37,55 +58,146 @@ public class DistributedExecutorMassIndexer implements MassIndexer {
    private final SearchIntegrator searchIntegrator;
    private final IndexUpdater indexUpdater;
    private final DistributedExecutorService executor;
+   private final MassIndexerCheckpoint checkpoint;
+   // the number of processors of each node, asked once when threadsPerNode is not set
+   private final ConcurrentMap<Address, Integer> availableProcessors = new ConcurrentHashMap<>();
+   // 0 means the number of processors of each node
+   private volatile int threadsPerNode;
 
    public DistributedExecutorMassIndexer(AdvancedCache cache, SearchIntegrator searchIntegrator) {
       this.cache = cache;
       this.searchIntegrator = searchIntegrator;
       this.indexUpdater = new IndexUpdater(cache);
       this.executor = new DefaultExecutorService(cache);
+      this.checkpoint = new MassIndexerCheckpoint(cache.getComponentRegistry().getTimeService());
    }
 
    @Override
    @SuppressWarnings("unchecked")
    public void start() {
-      CompletableFuture<Void> executionResult = executeInternal(false);
+      CompletableFuture<Void> executionResult = executeInternal(false, false);
       executionResult.join();
    }
 
    @Override
    public CompletableFuture<Void> startAsync() {
-      return executeInternal(true);
+      return executeInternal(true, false);
    }
 
-   private CompletableFuture<Void> executeInternal(boolean asyncFlush) {
+   @Override
+   public void resume() {
+      executeInternal(false, true).join();
+   }
+
+   @Override
+   public CompletableFuture<Void> resumeAsync() {
+      return executeInternal(true, true);
+   }
+
+   @Override
+   public int getThreadsPerNode() {
+      return threadsPerNode;
+   }
+
+   @Override
+   public void setThreadsPerNode(int threadsPerNode) {
+      if (threadsPerNode <= 0) {
+         throw LOG.invalidMassIndexerThreadsPerNode(threadsPerNode);
+      }
+      this.threadsPerNode = threadsPerNode;
+   }
+
+   @Override
+   public long getIndexedEntities() {
+      return checkpoint.getIndexedDocuments();
+   }
+
+   @Override
+   public double getThroughput() {
+      return checkpoint.getThroughput();
+   }
+
+   @Override
+   public int getCompletedSegments() {
+      return checkpoint.getCompletedSegments();
+   }
+
+   @Override
+   public boolean isRunning() {
+      return checkpoint.isRunning();
+   }
+
+   private CompletableFuture<Void> executeInternal(boolean asyncFlush, boolean resume) {
       List<CompletableFuture<Void>> futures = new ArrayList<>();
       Deque<Class<?>> toFlush = new LinkedList<>();
+      ConsistentHash consistentHash = readConsistentHash();
+
+      AtomicBoolean interrupted = new AtomicBoolean();
+      if (!checkpoint.runStarted()) {
+         throw LOG.massIndexerAlreadyRunning(cache.getName());
+      }
+      boolean resuming = resume && !checkpoint.isEmpty();
+      if (!resuming) {
+         checkpoint.reset();
+      }
+
+      try {
+         submitTypes(consistentHash, resuming, futures, toFlush, interrupted);
+      } catch (RuntimeException e) {
+         checkpoint.runCompleted(false);
+         throw e;
+      }
+      CompletableFuture<Void> compositeFuture = CompletableFuture.allOf(futures.toArray(
+              new CompletableFuture[futures.size()]));
+      BiConsumer<Void, Throwable> consumer = (v, t) -> {
+         boolean flushed = false;
+         try {
+            for (Class<?> type : toFlush) {
+               indexUpdater.flush(type);
+            }
+            flushed = true;
+         } finally {
+            // unless everything was indexed and flushed, the segments completed so far are kept for resume()
+            checkpoint.runCompleted(flushed && t == null && !interrupted.get());
+         }
+      };
+      if (asyncFlush) {
+         compositeFuture = compositeFuture.whenCompleteAsync(consumer, Executors.newSingleThreadExecutor());
+      } else {
+         compositeFuture = compositeFuture.whenComplete(consumer);
+      }
+      return compositeFuture;
 
+   }
+
+   private void submitTypes(ConsistentHash consistentHash, boolean resuming, List<CompletableFuture<Void>> futures,
+                            Deque<Class<?>> toFlush, AtomicBoolean interrupted) {
       for (Class<?> indexedType : searchIntegrator.getIndexedTypes()) {
          EntityIndexBinding indexBinding = searchIntegrator.getIndexBinding(indexedType);
          MassIndexStrategy strategy = calculateStrategy(indexBinding, cache.getCacheConfiguration());
-         boolean workerClean = true, workerFlush = true;
+         boolean workerClean = !resuming, workerFlush = true;
          if (strategy.getCleanStrategy() == CleanExecutionMode.ONCE_BEFORE) {
-            indexUpdater.purge(indexedType);
+            if (!resuming) indexUpdater.purge(indexedType);
             workerClean = false;
          }
          if (strategy.getFlushStrategy() == FlushExecutionMode.ONCE_AFTER) {
             toFlush.add(indexedType);
             workerFlush = false;
          }
+         if (resuming) {
+            LOG.resumingMassIndexing(indexedType.getName(), checkpoint.completedSegments(indexedType));
+         }
 
-         IndexingExecutionMode indexingStrategy = strategy.getIndexingStrategy();
-         IndexWorker indexWork =
-                 new IndexWorker(indexedType, workerFlush, workerClean, indexingStrategy == IndexingExecutionMode.PRIMARY_OWNER);
-
-         DistributedTask<Void> task = executor
-                 .createDistributedTaskBuilder(indexWork)
-                 .timeout(0, TimeUnit.NANOSECONDS)
-                 .build();
-
-         List<CompletableFuture<Void>> futureList = executor.submitEverywhere(task);
-         futureList.forEach(f -> futures.add(f.exceptionally(t -> {
+         boolean primaryOwner = strategy.getIndexingStrategy() == IndexingExecutionMode.PRIMARY_OWNER;
+         CompletableFuture<Void> typeFuture;
+         if (consistentHash == null) {
+            typeFuture = indexAllLocalData(indexedType, workerFlush, workerClean, primaryOwner);
+         } else {
+            typeFuture = indexSegments(indexedType, workerFlush, workerClean, primaryOwner, consistentHash);
+         }
+         futures.add(typeFuture.exceptionally(t -> {
             if (t instanceof InterruptedException) {
+               interrupted.set(true);
                Thread.currentThread().interrupt();
                return null;
             } else if (t instanceof CompletionException) {
@@ -94,21 +206,120 @@ private CompletableFuture<Void> executeInternal(boolean asyncFlush) {
             } else {
                throw LOG.errorExecutingMassIndexer(t);
             }
-         })));
+         }));
       }
-      CompletableFuture<Void> compositeFuture = CompletableFuture.allOf(futures.toArray(
-              new CompletableFuture[futures.size()]));
-      BiConsumer<Void, Throwable> consumer = (v, t) -> {
-         for (Class<?> type : toFlush) {
-            indexUpdater.flush(type);
+   }
+
+   /**
+    * Indexes all the data of every node with a single task per node, used by non clustered caches.
+    */
+   private CompletableFuture<Void> indexAllLocalData(Class<?> indexedType, boolean flush, boolean clean, boolean primaryOwner) {
+      IndexWorker indexWork = new IndexWorker(indexedType, flush, clean, primaryOwner);
+      List<CompletableFuture<Long>> futureList = executor.submitEverywhere(buildTask(indexWork));
+      return allOf(futureList, checkpoint::documentsIndexed);
+   }
+
+   /**
+    * Purges the index on every node if needed, then indexes each segment as a separate task on its owner(s) and
+    * finally flushes the index on every node if needed.
+    */
+   private CompletableFuture<Void> indexSegments(Class<?> indexedType, boolean flush, boolean clean, boolean primaryOwner,
+                                                 ConsistentHash consistentHash) {
+      CompletableFuture<Void> cleaned = clean ?
+            allOf(executor.submitEverywhere(buildTask(new IndexWorker(indexedType, false, true, primaryOwner,
+                  Collections.emptySet()))), count -> {}) :
+            CompletableFuture.completedFuture(null);
+
+      CompletableFuture<Void> indexed = cleaned.thenCompose(v -> {
+         List<CompletableFuture<Void>> perNode = new ArrayList<>();
+         for (Address member : consistentHash.getMembers()) {
+            Set<Integer> owned = primaryOwner ? consistentHash.getPrimarySegmentsForOwner(member) :
+                  consistentHash.getSegmentsForOwner(member);
+            Address checkpointOwner = primaryOwner ? null : member;
+            Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+            for (Integer segment : owned) {
+               if (!checkpoint.isCompleted(indexedType, checkpointOwner, segment)) {
+                  pending.add(segment);
+               }
+            }
+            perNode.add(resolveThreadsPerNode(member).thenCompose(threads -> {
+               int lanes = Math.min(threads, pending.size());
+               CompletableFuture<?>[] perLane = new CompletableFuture[lanes];
+               for (int i = 0; i < lanes; i++) {
+                  perLane[i] = indexNextSegment(indexedType, primaryOwner, member, checkpointOwner, pending);
+               }
+               return CompletableFuture.allOf(perLane);
+            }));
          }
-      };
-      if (asyncFlush) {
-         compositeFuture = compositeFuture.whenCompleteAsync(consumer, Executors.newSingleThreadExecutor());
-      } else {
-         compositeFuture = compositeFuture.whenComplete(consumer);
+         return CompletableFuture.allOf(perNode.toArray(new CompletableFuture[perNode.size()]));
+      });
+
+      if (!flush) return indexed;
+      return indexed.thenCompose(v -> allOf(executor.submitEverywhere(buildTask(new IndexWorker(indexedType, true,
+            false, primaryOwner, Collections.emptySet()))), count -> {}));
+   }
+
+   /**
+    * Indexes the pending segments of a node one at a time; a node is only sent a new segment once one of its
+    * previous segments has been indexed.
+    */
+   private CompletableFuture<Void> indexNextSegment(Class<?> indexedType, boolean primaryOwner, Address member,
+                                                    Address checkpointOwner, Queue<Integer> pending) {
+      Integer segment = pending.poll();
+      if (segment == null) {
+         return CompletableFuture.completedFuture(null);
       }
-      return compositeFuture;
+      IndexWorker indexWork = new IndexWorker(indexedType, false, false, primaryOwner, Collections.singleton(segment));
+      return executor.submit(member, buildTask(indexWork)).thenCompose(count -> {
+         checkpoint.segmentCompleted(indexedType, checkpointOwner, segment, count);
+         return indexNextSegment(indexedType, primaryOwner, member, checkpointOwner, pending);
+      });
+   }
+
+   private CompletableFuture<Integer> resolveThreadsPerNode(Address member) {
+      int configured = threadsPerNode;
+      if (configured > 0) {
+         return CompletableFuture.completedFuture(configured);
+      }
+      Integer processors = availableProcessors.get(member);
+      if (processors != null) {
+         return CompletableFuture.completedFuture(processors);
+      }
+      return executor.submit(member, new AvailableProcessors()).thenApply(p -> {
+         availableProcessors.put(member, p);
+         return p;
+      });
+   }
+
+   private DistributedTask<Long> buildTask(IndexWorker indexWork) {
+      return executor
+              .createDistributedTaskBuilder(indexWork)
+              .timeout(0, TimeUnit.NANOSECONDS)
+              .build();
+   }
+
+   private ConsistentHash readConsistentHash() {
+      if (!cache.getCacheConfiguration().clustering().cacheMode().isClustered()) {
+         return null;
+      }
+      StateTransferManager stateTransferManager = cache.getComponentRegistry().getStateTransferManager();
+      return stateTransferManager == null ? null : stateTransferManager.getCacheTopology().getReadConsistentHash();
+   }
 
+   private static final class AvailableProcessors implements Callable<Integer>, Serializable {
+      @Override
+      public Integer call() {
+         return Runtime.getRuntime().availableProcessors();
+      }
+   }
+
+   private static CompletableFuture<Void> allOf(List<CompletableFuture<Long>> futures, LongConsumer onResult) {
+      CompletableFuture<?>[] tracked = new CompletableFuture[futures.size()];
+      for (int i = 0; i < tracked.length; i++) {
+         tracked[i] = futures.get(i).thenAccept(count -> {
+            if (count != null) onResult.accept(count);
+         });
+      }
+      return CompletableFuture.allOf(tracked);
    }
 }
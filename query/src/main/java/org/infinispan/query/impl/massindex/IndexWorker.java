@@ -1,6 +1,7 @@
 package org.infinispan.query.impl.massindex;
 
 import org.infinispan.Cache;
+import org.infinispan.CacheStream;
 import org.infinispan.commons.marshall.AbstractExternalizer;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.CacheEntry;
@@ -18,32 +19,45 @@
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.stream.Stream;
 
 /**
- * Base class for mass indexer tasks.
+ * Base class for mass indexer tasks. When a set of segments is supplied, only the local entries belonging to those
+ * segments are indexed, so that a mass indexing run can be split in independent units of work that can be
+ * throttled and resumed.
  *
  * @author gustavonalle
  * @since 7.1
  */
-public class IndexWorker implements DistributedCallable<Object, Object, Void> {
+public class IndexWorker implements DistributedCallable<Object, Object, Long> {
 
    protected Cache<Object, Object> cache;
    protected final Class<?> entity;
    private final boolean flush;
    private final boolean clean;
    private final boolean primaryOwner;
+   private final Set<Integer> segments;
    protected IndexUpdater indexUpdater;
 
    private ClusteringDependentLogic clusteringDependentLogic;
 
    public IndexWorker(Class<?> entity, boolean flush, boolean clean, boolean primaryOwner) {
+      this(entity, flush, clean, primaryOwner, null);
+   }
+
+   /**
+    * @param segments the segments to index, or {@code null} to index all the local entries. An empty set only
+    *                 performs the clean and flush operations.
+    */
+   public IndexWorker(Class<?> entity, boolean flush, boolean clean, boolean primaryOwner, Set<Integer> segments) {
       this.entity = entity;
       this.flush = flush;
       this.clean = clean;
       this.primaryOwner = primaryOwner;
+      this.segments = segments;
    }
 
    @Override
@@ -74,21 +88,31 @@ private Object extractValue(Object wrappedValue) {
 
    @Override
    @SuppressWarnings("unchecked")
-   public Void call() throws Exception {
+   public Long call() throws Exception {
       preIndex();
-      KeyValueFilter filter = getFilter();
-      try (Stream<CacheEntry<Object, Object>> stream = cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL)
-              .cacheEntrySet().stream()) {
-         Iterator<CacheEntry<Object, Object>> iterator = stream.filter(CacheFilters.predicate(filter)).iterator();
-         while (iterator.hasNext()) {
-            CacheEntry<Object, Object> next = iterator.next();
-            Object value = extractValue(next.getValue());
-            if (value != null && value.getClass().equals(entity))
-               indexUpdater.updateIndex(next.getKey(), value);
+      long indexed = 0;
+      if (segments == null || !segments.isEmpty()) {
+         KeyValueFilter filter = getFilter();
+         try (Stream<CacheEntry<Object, Object>> stream = localEntries()) {
+            Iterator<CacheEntry<Object, Object>> iterator = stream.filter(CacheFilters.predicate(filter)).iterator();
+            while (iterator.hasNext()) {
+               CacheEntry<Object, Object> next = iterator.next();
+               Object value = extractValue(next.getValue());
+               if (value != null && value.getClass().equals(entity)) {
+                  indexUpdater.updateIndex(next.getKey(), value);
+                  indexed++;
+               }
+            }
          }
       }
       postIndex();
-      return null;
+      return indexed;
+   }
+
+   private Stream<CacheEntry<Object, Object>> localEntries() {
+      CacheStream<CacheEntry<Object, Object>> stream = cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL)
+            .cacheEntrySet().stream();
+      return segments == null ? stream : stream.filterKeySegments(segments);
    }
 
 
@@ -114,11 +138,31 @@ public void writeObject(ObjectOutput output, IndexWorker worker) throws IOExcept
          output.writeBoolean(worker.flush);
          output.writeBoolean(worker.clean);
          output.writeBoolean(worker.primaryOwner);
+         if (worker.segments == null) {
+            output.writeInt(-1);
+         } else {
+            output.writeInt(worker.segments.size());
+            for (Integer segment : worker.segments) {
+               output.writeInt(segment);
+            }
+         }
       }
 
       @Override
       public IndexWorker readObject(ObjectInput input) throws IOException, ClassNotFoundException {
-         return new IndexWorker((Class<?>) input.readObject(), input.readBoolean(), input.readBoolean(), input.readBoolean());
+         Class<?> entity = (Class<?>) input.readObject();
+         boolean flush = input.readBoolean();
+         boolean clean = input.readBoolean();
+         boolean primaryOwner = input.readBoolean();
+         int numSegments = input.readInt();
+         Set<Integer> segments = null;
+         if (numSegments >= 0) {
+            segments = new HashSet<>(numSegments);
+            for (int i = 0; i < numSegments; i++) {
+               segments.add(input.readInt());
+            }
+         }
+         return new IndexWorker(entity, flush, clean, primaryOwner, segments);
       }
 
       @Override
@@ -0,0 +1,129 @@
+package org.infinispan.query.impl.massindex;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.TimeService;
+
+/**
+ * Keeps track of the segments already indexed by a segment partitioned mass indexing run, so that an interrupted
+ * run can be resumed, and of the number of documents indexed, used to compute the throughput.
+ * <p>
+ * When only the primary owners index their data a segment is completed once, regardless of the node that indexed it;
+ * otherwise each node has to index its own copy of the segment and the owner is part of the checkpoint.
+ *
+ * @since 9.0
+ */
+final class MassIndexerCheckpoint {
+
+   // ConcurrentHashMap does not accept null keys, primary owner based runs are keyed on this placeholder instead
+   private static final Object ANY_OWNER = new Object();
+
+   private final ConcurrentMap<Class<?>, ConcurrentMap<Object, Set<Integer>>> completed = new ConcurrentHashMap<>();
+   private final LongAdder documents = new LongAdder();
+   private final AtomicInteger completedSegments = new AtomicInteger();
+   private final TimeService timeService;
+   private final AtomicBoolean running = new AtomicBoolean();
+   private volatile boolean started;
+   private volatile long startTime;
+   private volatile long endTime;
+
+   MassIndexerCheckpoint(TimeService timeService) {
+      this.timeService = timeService;
+   }
+
+   void reset() {
+      completed.clear();
+      completedSegments.set(0);
+   }
+
+   /**
+    * @return {@code false} if another run is still in progress
+    */
+   boolean runStarted() {
+      if (!running.compareAndSet(false, true)) {
+         return false;
+      }
+      documents.reset();
+      startTime = timeService.time();
+      started = true;
+      return true;
+   }
+
+   /**
+    * @param successful whether every segment was indexed; the recorded segments are only kept for a failed or
+    *                   interrupted run, so that resuming after a successful run indexes everything again
+    */
+   void runCompleted(boolean successful) {
+      if (successful) {
+         completed.clear();
+      }
+      endTime = timeService.time();
+      running.set(false);
+   }
+
+   boolean isRunning() {
+      return running.get();
+   }
+
+   boolean isEmpty() {
+      return completed.isEmpty();
+   }
+
+   boolean isCompleted(Class<?> type, Address owner, int segment) {
+      return segmentsOf(type, owner, false).contains(segment);
+   }
+
+   int completedSegments(Class<?> type) {
+      ConcurrentMap<Object, Set<Integer>> perOwner = completed.get(type);
+      return perOwner == null ? 0 : perOwner.values().stream().mapToInt(Set::size).sum();
+   }
+
+   void segmentCompleted(Class<?> type, Address owner, int segment, long indexedDocuments) {
+      documents.add(indexedDocuments);
+      if (segmentsOf(type, owner, true).add(segment)) {
+         completedSegments.incrementAndGet();
+      }
+   }
+
+   void documentsIndexed(long indexedDocuments) {
+      documents.add(indexedDocuments);
+   }
+
+   long getIndexedDocuments() {
+      return documents.sum();
+   }
+
+   int getCompletedSegments() {
+      return completedSegments.get();
+   }
+
+   double getThroughput() {
+      if (!started) return 0;
+      long elapsedNanos = running.get() ? timeService.timeDuration(startTime, TimeUnit.NANOSECONDS) :
+            timeService.timeDuration(startTime, endTime, TimeUnit.NANOSECONDS);
+      return elapsedNanos <= 0 ? 0 : documents.sum() * 1_000_000_000d / elapsedNanos;
+   }
+
+   private Set<Integer> segmentsOf(Class<?> type, Address owner, boolean create) {
+      Object key = owner == null ? ANY_OWNER : owner;
+      ConcurrentMap<Object, Set<Integer>> perOwner = completed.get(type);
+      if (perOwner == null) {
+         if (!create) return Collections.emptySet();
+         perOwner = completed.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+      }
+      Set<Integer> segments = perOwner.get(key);
+      if (segments == null) {
+         if (!create) return Collections.emptySet();
+         segments = perOwner.computeIfAbsent(key, a -> ConcurrentHashMap.newKeySet());
+      }
+      return segments;
+   }
+}
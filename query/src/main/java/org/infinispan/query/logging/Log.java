@@ -140,4 +140,14 @@ public interface Log extends org.infinispan.util.logging.Log {
 
    @Message(value = "No queries can be applied to property %2$s in type %1$s since the property is analyzed.", id = 14031)
    ParsingException getQueryOnAnalyzedPropertyNotSupportedException(String typeName, String propertyName);
+
+   @LogMessage(level = INFO)
+   @Message(value = "Resuming mass indexing of '%s', %d segment(s) already indexed", id = 14032)
+   void resumingMassIndexing(String entityType, int completedSegments);
+
+   @Message(value = "The number of mass indexer threads per node must be greater than zero but was %d", id = 14033)
+   IllegalArgumentException invalidMassIndexerThreadsPerNode(int threadsPerNode);
+
+   @Message(value = "The mass indexer of cache %s is already running", id = 14034)
+   IllegalStateException massIndexerAlreadyRunning(String cacheName);
 }
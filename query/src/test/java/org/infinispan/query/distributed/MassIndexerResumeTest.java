@@ -0,0 +1,105 @@
+package org.infinispan.query.distributed;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.Date;
+import java.util.concurrent.CompletionException;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.query.MassIndexer;
+import org.infinispan.query.Search;
+import org.infinispan.query.queries.faceting.Car;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies the segment partitioned mass indexer records its progress, that resuming after a failed run only indexes
+ * the remaining segments and that resuming after a completed run reindexes all the data.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "query.distributed.MassIndexerResumeTest")
+public class MassIndexerResumeTest extends DistributedMassIndexingTest {
+
+   private static final int NUM_CARS = 100;
+
+   @Override
+   public void testReindexing() throws Exception {
+      caches.get(0).clear();
+      for (int i = 0; i < NUM_CARS; i++) {
+         caches.get(i % NUM_NODES).getAdvancedCache().withFlags(Flag.SKIP_INDEXING)
+               .put(key("F" + i + "NUM"), new Car("megane", "blue", 300 + i));
+      }
+      verifyFindsCar(0, "megane");
+
+      Cache cache = caches.get(0);
+      // both Car and Person are indexed, each of them is indexed segment by segment
+      int numSegments = 2 * cache.getCacheConfiguration().clustering().hash().numSegments();
+      MassIndexer massIndexer = Search.getSearchManager(cache).getMassIndexer();
+      massIndexer.setThreadsPerNode(2);
+      massIndexer.start();
+
+      verifyFindsCar(NUM_CARS, "megane");
+      assertEquals(NUM_CARS, massIndexer.getIndexedEntities());
+      assertEquals(numSegments, massIndexer.getCompletedSegments());
+      assertFalse(massIndexer.isRunning());
+
+      // entries added without indexing after the run completed are only found if resume() starts over
+      for (int i = NUM_CARS; i < 2 * NUM_CARS; i++) {
+         caches.get(i % NUM_NODES).getAdvancedCache().withFlags(Flag.SKIP_INDEXING)
+               .put(key("F" + i + "NUM"), new Car("megane", "blue", 300 + i));
+      }
+      massIndexer.resume();
+
+      verifyFindsCar(2 * NUM_CARS, "megane");
+      assertEquals(2 * NUM_CARS, massIndexer.getIndexedEntities());
+      assertEquals(numSegments, massIndexer.getCompletedSegments());
+      assertFalse(massIndexer.isRunning());
+   }
+
+   public void testResumeAfterFailure() throws Exception {
+      caches.get(0).clear();
+      for (int i = 0; i < NUM_CARS; i++) {
+         caches.get(i % NUM_NODES).getAdvancedCache().withFlags(Flag.SKIP_INDEXING)
+               .put(key("F" + i + "NUM"), new Car("megane", "blue", 300 + i));
+      }
+      // keys without a transformer can't be indexed, so the segment holding this one fails
+      Date poisonKey = new Date(0);
+      Cache cache = caches.get(0);
+      cache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING).put(poisonKey, new Car("megane", "red", 1));
+      int numSegments = 2 * cache.getCacheConfiguration().clustering().hash().numSegments();
+
+      Search.getSearchManager(cache).getMassIndexer().setThreadsPerNode(2);
+      try {
+         Search.getSearchManager(cache).getMassIndexer().start();
+         fail("The segment with the poison key should fail");
+      } catch (CompletionException expected) {
+      }
+      MassIndexer failed = Search.getSearchManager(cache).getMassIndexer();
+      assertFalse(failed.isRunning());
+      int completedBeforeResume = failed.getCompletedSegments();
+      assertTrue(completedBeforeResume < numSegments);
+      long indexedBeforeResume = failed.getIndexedEntities();
+
+      cache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING).remove(poisonKey);
+      // every search manager returns the same indexer, with the checkpoint and the settings of the failed run
+      MassIndexer resumed = Search.getSearchManager(cache).getMassIndexer();
+      assertSame(failed, resumed);
+      assertEquals(2, resumed.getThreadsPerNode());
+      resumed.resume();
+
+      verifyFindsCar(NUM_CARS, "megane");
+      assertEquals(numSegments, resumed.getCompletedSegments());
+      // only the cars in the segments that failed were indexed again
+      assertEquals(NUM_CARS - indexedBeforeResume, resumed.getIndexedEntities());
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testInvalidThreadsPerNode() {
+      Search.getSearchManager(caches.get(0)).getMassIndexer().setThreadsPerNode(0);
+   }
+}
@@ -0,0 +1,393 @@
+package org.infinispan.query.remote.impl;
+
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.objectfilter.ObjectFilter;
+import org.infinispan.objectfilter.PropertyPath;
+import org.infinispan.objectfilter.SortField;
+import org.infinispan.objectfilter.impl.FilterResultImpl;
+import org.infinispan.protostream.SerializationContext;
+import org.infinispan.protostream.WrappedMessage;
+import org.infinispan.protostream.descriptors.Descriptor;
+import org.infinispan.protostream.descriptors.FieldDescriptor;
+import org.infinispan.protostream.descriptors.JavaType;
+import org.infinispan.query.remote.impl.logging.Log;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link ObjectFilter} that does not filter anything but extracts the projections straight from the protobuf
+ * encoded {@link WrappedMessage} bytes. Only the projected fields are decoded, all other fields (and nested messages
+ * that do not contain projected fields) are skipped based on their wire type, without copying the payload or
+ * creating a value for them. Missing fields are projected as their declared default value or {@code null}, same as the
+ * {@link org.infinispan.objectfilter.impl.ProtobufMatcher} does.
+ *
+ * @since 9.0
+ */
+final class ProtobufProjectionFilter implements ObjectFilter {
+
+   private static final Log log = LogFactory.getLog(ProtobufProjectionFilter.class, Log.class);
+
+   private static final int WIRETYPE_VARINT = 0;
+   private static final int WIRETYPE_FIXED64 = 1;
+   private static final int WIRETYPE_LENGTH_DELIMITED = 2;
+   private static final int WIRETYPE_START_GROUP = 3;
+   private static final int WIRETYPE_END_GROUP = 4;
+   private static final int WIRETYPE_FIXED32 = 5;
+
+   private final SerializationContext serializationContext;
+
+   private final Descriptor messageDescriptor;
+
+   private final String[] projection;
+
+   private final Class<?>[] projectedTypes;
+
+   /**
+    * The tree of projected fields, rooted at the entity's message.
+    */
+   private final ProjectionNode root;
+
+   ProtobufProjectionFilter(SerializationContext serializationContext, Descriptor messageDescriptor,
+                            String[] projection, PropertyPath[] projectedPaths, Class<?>[] projectedTypes) {
+      this.serializationContext = serializationContext;
+      this.messageDescriptor = messageDescriptor;
+      this.projection = projection;
+      this.projectedTypes = projectedTypes;
+      this.root = new ProjectionNode(null);
+      for (int i = 0; i < projectedPaths.length; i++) {
+         ProjectionNode node = root;
+         Descriptor md = messageDescriptor;
+         for (String name : projectedPaths[i].getPath()) {
+            FieldDescriptor fd = md.findFieldByName(name);
+            if (fd == null) {
+               throw log.unknownField(name, md.getFullName());
+            }
+            node = node.getOrAddChild(fd);
+            if (fd.getJavaType() == JavaType.MESSAGE) {
+               md = fd.getMessageType();
+            }
+         }
+         node.columns.add(i);
+      }
+   }
+
+   @Override
+   public String getEntityTypeName() {
+      return messageDescriptor.getFullName();
+   }
+
+   @Override
+   public String[] getProjection() {
+      return projection;
+   }
+
+   @Override
+   public Class<?>[] getProjectionTypes() {
+      return projectedTypes;
+   }
+
+   @Override
+   public Set<String> getParameterNames() {
+      return Collections.emptySet();
+   }
+
+   @Override
+   public Map<String, Object> getParameters() {
+      return Collections.emptyMap();
+   }
+
+   @Override
+   public ObjectFilter withParameters(Map<String, Object> namedParameters) {
+      return this;
+   }
+
+   @Override
+   public SortField[] getSortFields() {
+      return null;
+   }
+
+   @Override
+   public Comparator<Comparable[]> getComparator() {
+      return null;
+   }
+
+   @Override
+   public FilterResult filter(Object instance) {
+      if (instance == null) {
+         throw new IllegalArgumentException("instance cannot be null");
+      }
+      byte[] bytes = (byte[]) instance;
+      Reader reader = new Reader(bytes, 0, bytes.length);
+      String typeName = null;
+      int payloadStart = -1;
+      int payloadEnd = -1;
+      while (!reader.isAtEnd()) {
+         int tag = reader.readVarint32();
+         int fieldNumber = tag >>> 3;
+         int wireType = tag & 7;
+         if (fieldNumber == WrappedMessage.WRAPPED_DESCRIPTOR_FULL_NAME && wireType == WIRETYPE_LENGTH_DELIMITED) {
+            int length = reader.readVarint32();
+            typeName = new String(bytes, reader.pos, length, StandardCharsets.UTF_8);
+            reader.skip(length);
+         } else if (fieldNumber == WrappedMessage.WRAPPED_DESCRIPTOR_ID && wireType == WIRETYPE_VARINT) {
+            typeName = serializationContext.getTypeNameById(reader.readVarint32());
+         } else if (fieldNumber == WrappedMessage.WRAPPED_MESSAGE_BYTES && wireType == WIRETYPE_LENGTH_DELIMITED) {
+            int length = reader.readVarint32();
+            payloadStart = reader.pos;
+            payloadEnd = payloadStart + length;
+            reader.skip(length);
+         } else {
+            // a wrapped primitive value, which is never an instance of the projected entity
+            reader.skipField(tag);
+         }
+      }
+      if (payloadStart < 0 || !messageDescriptor.getFullName().equals(typeName)) {
+         return null;
+      }
+
+      Object[] row = new Object[projection.length];
+      readMessage(new Reader(bytes, payloadStart, payloadEnd), root, row);
+      return new FilterResultImpl(null, row, null);
+   }
+
+   /**
+    * Reads the projected fields of a message, skipping all the others. Fields that are not present are filled in with
+    * their default value. Missing nested messages leave all the columns below them {@code null}. A repeated field
+    * projects its first occurrence, same as the matcher does, so any later occurrence is skipped.
+    */
+   private void readMessage(Reader reader, ProjectionNode node, Object[] row) {
+      boolean[] seen = new boolean[node.children.size()];
+      while (!reader.isAtEnd()) {
+         int tag = reader.readVarint32();
+         int index = node.indexOfChild(tag >>> 3);
+         if (index < 0 || seen[index]) {
+            reader.skipField(tag);
+            continue;
+         }
+         ProjectionNode child = node.children.get(index);
+         JavaType javaType = child.field.getJavaType();
+         if ((tag & 7) == WIRETYPE_LENGTH_DELIMITED) {
+            int length = reader.readVarint32();
+            Reader payload = new Reader(reader.buf, reader.pos, reader.pos + length);
+            if (javaType == JavaType.MESSAGE) {
+               readMessage(payload, child, row);
+               seen[index] = true;
+            } else if (javaType == JavaType.STRING || javaType == JavaType.BYTE_STRING) {
+               child.setValue(row, readValue(reader, length, child.field));
+               seen[index] = true;
+            } else if (!payload.isAtEnd()) {
+               // a packed repeated scalar, the first element of the payload is the first occurrence
+               child.setValue(row, readValue(payload, 0, child.field));
+               seen[index] = true;
+            }
+            reader.skip(length);
+         } else if (javaType == JavaType.MESSAGE) {
+            // groups are not supported by projections, they are treated as a missing message
+            reader.skipField(tag);
+         } else {
+            child.setValue(row, readValue(reader, 0, child.field));
+            seen[index] = true;
+         }
+      }
+      for (int i = 0; i < seen.length; i++) {
+         ProjectionNode child = node.children.get(i);
+         if (!seen[i] && child.field.getJavaType() != JavaType.MESSAGE && child.field.hasDefaultValue()) {
+            child.setValue(row, child.field.getDefaultValue());
+         }
+      }
+   }
+
+   /**
+    * Reads a scalar value. For strings and bytes the length prefix must have been already consumed and is passed in as
+    * {@code length}, the reader is left positioned at the start of the value.
+    */
+   private Object readValue(Reader reader, int length, FieldDescriptor fd) {
+      switch (fd.getType()) {
+         case DOUBLE:
+            return Double.longBitsToDouble(reader.readFixed64());
+         case FLOAT:
+            return Float.intBitsToFloat(reader.readFixed32());
+         case INT64:
+         case UINT64:
+            return reader.readVarint64();
+         case INT32:
+         case UINT32:
+         case ENUM:
+            return (int) reader.readVarint64();
+         case FIXED64:
+         case SFIXED64:
+            return reader.readFixed64();
+         case FIXED32:
+         case SFIXED32:
+            return reader.readFixed32();
+         case BOOL:
+            return reader.readVarint64() != 0;
+         case SINT32: {
+            int n = reader.readVarint32();
+            return (n >>> 1) ^ -(n & 1);
+         }
+         case SINT64: {
+            long n = reader.readVarint64();
+            return (n >>> 1) ^ -(n & 1);
+         }
+         case STRING:
+            return new String(reader.buf, reader.pos, length, StandardCharsets.UTF_8);
+         case BYTES:
+            return Arrays.copyOfRange(reader.buf, reader.pos, reader.pos + length);
+         default:
+            throw new IllegalStateException("Unexpected field type : " + fd.getType());
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "ProtobufProjectionFilter{" +
+            "entityTypeName=" + messageDescriptor.getFullName() +
+            ", projection=" + Arrays.toString(projection) +
+            '}';
+   }
+
+   private static final class ProjectionNode {
+
+      private final FieldDescriptor field;
+
+      private final List<ProjectionNode> children = new ArrayList<>();
+
+      /**
+       * The row positions this field is projected to. A path can be projected more than once.
+       */
+      private final List<Integer> columns = new ArrayList<>(1);
+
+      ProjectionNode(FieldDescriptor field) {
+         this.field = field;
+      }
+
+      ProjectionNode getOrAddChild(FieldDescriptor fd) {
+         int index = indexOfChild(fd.getNumber());
+         if (index >= 0) {
+            return children.get(index);
+         }
+         ProjectionNode child = new ProjectionNode(fd);
+         children.add(child);
+         return child;
+      }
+
+      // the number of projected fields per message is small, a linear search is cheaper than a map lookup
+      int indexOfChild(int fieldNumber) {
+         for (int i = 0; i < children.size(); i++) {
+            if (children.get(i).field.getNumber() == fieldNumber) {
+               return i;
+            }
+         }
+         return -1;
+      }
+
+      void setValue(Object[] row, Object value) {
+         for (int column : columns) {
+            row[column] = value;
+         }
+      }
+   }
+
+   /**
+    * A minimal reader for the protobuf wire format working on a region of a byte array.
+    */
+   private static final class Reader {
+
+      final byte[] buf;
+
+      final int limit;
+
+      int pos;
+
+      Reader(byte[] buf, int pos, int limit) {
+         if (limit > buf.length) {
+            throw new IllegalStateException("Truncated protobuf message");
+         }
+         this.buf = buf;
+         this.pos = pos;
+         this.limit = limit;
+      }
+
+      boolean isAtEnd() {
+         return pos >= limit;
+      }
+
+      void skip(int length) {
+         if (length < 0 || pos + length > limit) {
+            throw new IllegalStateException("Truncated protobuf message");
+         }
+         pos += length;
+      }
+
+      byte readByte() {
+         if (pos >= limit) {
+            throw new IllegalStateException("Truncated protobuf message");
+         }
+         return buf[pos++];
+      }
+
+      int readVarint32() {
+         return (int) readVarint64();
+      }
+
+      long readVarint64() {
+         long result = 0;
+         for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+               return result;
+            }
+         }
+         throw new IllegalStateException("Malformed varint");
+      }
+
+      int readFixed32() {
+         return (readByte() & 0xFF)
+               | (readByte() & 0xFF) << 8
+               | (readByte() & 0xFF) << 16
+               | (readByte() & 0xFF) << 24;
+      }
+
+      long readFixed64() {
+         return (readFixed32() & 0xFFFFFFFFL) | (long) readFixed32() << 32;
+      }
+
+      void skipField(int tag) {
+         switch (tag & 7) {
+            case WIRETYPE_VARINT:
+               readVarint64();
+               break;
+            case WIRETYPE_FIXED64:
+               skip(8);
+               break;
+            case WIRETYPE_LENGTH_DELIMITED:
+               skip(readVarint32());
+               break;
+            case WIRETYPE_START_GROUP:
+               int endTag = (tag & ~7) | WIRETYPE_END_GROUP;
+               while (true) {
+                  int nestedTag = readVarint32();
+                  if (nestedTag == endTag) {
+                     break;
+                  }
+                  skipField(nestedTag);
+               }
+               break;
+            case WIRETYPE_FIXED32:
+               skip(4);
+               break;
+            default:
+               throw new IllegalStateException("Unexpected wire type in tag " + tag);
+         }
+      }
+   }
+}
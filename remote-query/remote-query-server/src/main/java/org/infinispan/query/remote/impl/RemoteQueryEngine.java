@@ -6,6 +6,7 @@
 import org.apache.lucene.search.TermQuery;
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.objectfilter.ObjectFilter;
 import org.infinispan.objectfilter.impl.BaseMatcher;
 import org.infinispan.objectfilter.impl.ProtobufMatcher;
 import org.infinispan.objectfilter.impl.hql.FilterParsingResult;
@@ -34,11 +35,14 @@ final class RemoteQueryEngine extends QueryEngine {
 
    private final boolean isCompatMode;
 
+   private final SerializationContext serCtx;
+
    private final ProtobufFieldBridgeProvider protobufFieldBridgeProvider;
 
    public RemoteQueryEngine(AdvancedCache<?, ?> cache, boolean isIndexed, boolean isCompatMode, SerializationContext serCtx) {
       super(cache, isIndexed);
       this.isCompatMode = isCompatMode;
+      this.serCtx = serCtx;
       protobufFieldBridgeProvider = new ProtobufFieldBridgeProvider(serCtx);
    }
 
@@ -88,6 +92,16 @@ protected RowProcessor makeProjectionProcessor(Class<?>[] projectedTypes) {
       };
    }
 
+   @Override
+   protected ObjectFilter makeProjectionFilter(FilterParsingResult<?> parsingResult, String projectionQueryStr) {
+      if (isCompatMode) {
+         return super.makeProjectionFilter(parsingResult, projectionQueryStr);
+      }
+      // extract the projected fields directly from the protobuf stream instead of running them through the matcher
+      return new ProtobufProjectionFilter(serCtx, (Descriptor) parsingResult.getTargetEntityMetadata(),
+            parsingResult.getProjections(), parsingResult.getProjectedPaths(), parsingResult.getProjectedTypes());
+   }
+
    @Override
    protected org.apache.lucene.search.Query makeTypeQuery(org.apache.lucene.search.Query query, String targetEntityName) {
       return isCompatMode ? query :
@@ -0,0 +1,175 @@
+package org.infinispan.query.remote.impl;
+
+import org.infinispan.objectfilter.ObjectFilter;
+import org.infinispan.objectfilter.impl.ProtobufMatcher;
+import org.infinispan.objectfilter.impl.hql.FilterParsingResult;
+import org.infinispan.protostream.ProtobufUtil;
+import org.infinispan.protostream.SerializationContext;
+import org.infinispan.protostream.WrappedMessage;
+import org.infinispan.protostream.config.Configuration;
+import org.infinispan.protostream.descriptors.Descriptor;
+import org.infinispan.protostream.sampledomain.Address;
+import org.infinispan.protostream.sampledomain.User;
+import org.infinispan.protostream.sampledomain.marshallers.MarshallerRegistration;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Verifies that the projections extracted straight from the protobuf stream are the same as the ones computed by the
+ * {@link ProtobufMatcher}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "query.remote.impl.ProtobufProjectionFilterTest")
+public class ProtobufProjectionFilterTest extends AbstractInfinispanTest {
+
+   private SerializationContext serCtx;
+
+   private ProtobufMatcher matcher;
+
+   @BeforeClass
+   protected void setUp() throws Exception {
+      serCtx = ProtobufUtil.newSerializationContext(new Configuration.Builder().build());
+      MarshallerRegistration.registerMarshallers(serCtx);
+      matcher = new ProtobufMatcher(serCtx);
+   }
+
+   public void testProjectionsMatchTheMatcher() throws Exception {
+      assertSameProjections("select u.name, u.surname, u.gender, u.id, u.name from sample_bank_account.User u",
+            createMarshalledUser());
+      assertSameProjections("select u.surname from sample_bank_account.User u", createMarshalledUser());
+   }
+
+   public void testOtherTypesAreNotProjected() throws Exception {
+      Address address = new Address();
+      address.setStreet("Dark Alley");
+      address.setPostCode("1234");
+      byte[] marshalledAddress = ProtobufUtil.toWrappedByteArray(serCtx, address);
+
+      ObjectFilter projectionFilter = makeProjectionFilter("select u.name from sample_bank_account.User u");
+      assertNull(projectionFilter.filter(marshalledAddress));
+   }
+
+   public void testRepeatedFieldsProjectTheFirstOccurrence() throws Exception {
+      User user = new User();
+      user.setId(1);
+      user.setName("John");
+      user.setSurname("Batman");
+      user.setAccountIds(new LinkedHashSet<>(Arrays.asList(12, 3, 7)));
+
+      Address address1 = new Address();
+      address1.setStreet("Dark Alley");
+      address1.setPostCode("1234");
+      Address address2 = new Address();
+      address2.setStreet("Bright Avenue");
+      address2.setPostCode("5678");
+      user.setAddresses(Arrays.asList(address1, address2));
+      byte[] bytes = ProtobufUtil.toWrappedByteArray(serCtx, user);
+
+      String jpql = "select u.accountIds, u.addresses.street, u.addresses.postCode, u.name from sample_bank_account.User u";
+      assertSameProjections(jpql, bytes);
+      Object[] projection = makeProjectionFilter(jpql).filter(bytes).getProjection();
+      assertEquals("Dark Alley", projection[1]);
+      assertEquals("1234", projection[2]);
+      assertEquals("John", projection[3]);
+   }
+
+   public void testPackedRepeatedField() throws Exception {
+      Descriptor userDescriptor = serCtx.getMessageDescriptor("sample_bank_account.User");
+      ByteArrayOutputStream packed = new ByteArrayOutputStream();
+      writeVarint(packed, 300);
+      writeVarint(packed, 3);
+      writeVarint(packed, 7);
+
+      ByteArrayOutputStream payload = new ByteArrayOutputStream();
+      writeVarintField(payload, userDescriptor.findFieldByName("id").getNumber(), 1);
+      writeBytesField(payload, userDescriptor.findFieldByName("accountIds").getNumber(), packed.toByteArray());
+      writeBytesField(payload, userDescriptor.findFieldByName("name").getNumber(), "John".getBytes(StandardCharsets.UTF_8));
+      writeBytesField(payload, userDescriptor.findFieldByName("surname").getNumber(), "Batman".getBytes(StandardCharsets.UTF_8));
+      // a second, unpacked occurrence must not override the first one
+      writeVarintField(payload, userDescriptor.findFieldByName("accountIds").getNumber(), 42);
+
+      ByteArrayOutputStream wrapped = new ByteArrayOutputStream();
+      writeBytesField(wrapped, WrappedMessage.WRAPPED_DESCRIPTOR_FULL_NAME, userDescriptor.getFullName().getBytes(StandardCharsets.UTF_8));
+      writeBytesField(wrapped, WrappedMessage.WRAPPED_MESSAGE_BYTES, payload.toByteArray());
+
+      Object[] projection = makeProjectionFilter("select u.accountIds, u.name from sample_bank_account.User u")
+            .filter(wrapped.toByteArray()).getProjection();
+      assertEquals(300, projection[0]);
+      assertEquals("John", projection[1]);
+
+      // an empty packed payload holds no occurrence at all
+      payload.reset();
+      writeVarintField(payload, userDescriptor.findFieldByName("id").getNumber(), 1);
+      writeBytesField(payload, userDescriptor.findFieldByName("accountIds").getNumber(), new byte[0]);
+      writeVarintField(payload, userDescriptor.findFieldByName("accountIds").getNumber(), 42);
+      wrapped.reset();
+      writeBytesField(wrapped, WrappedMessage.WRAPPED_DESCRIPTOR_FULL_NAME, userDescriptor.getFullName().getBytes(StandardCharsets.UTF_8));
+      writeBytesField(wrapped, WrappedMessage.WRAPPED_MESSAGE_BYTES, payload.toByteArray());
+
+      projection = makeProjectionFilter("select u.accountIds from sample_bank_account.User u")
+            .filter(wrapped.toByteArray()).getProjection();
+      assertEquals(42, projection[0]);
+   }
+
+   private void assertSameProjections(String jpql, byte[] user) {
+      ObjectFilter.FilterResult expected = matcher.getObjectFilter(jpql).filter(user);
+      ObjectFilter.FilterResult actual = makeProjectionFilter(jpql).filter(user);
+      assertNull(actual.getInstance());
+      assertTrue(Arrays.equals(expected.getProjection(), actual.getProjection()));
+   }
+
+   private ObjectFilter makeProjectionFilter(String jpql) {
+      FilterParsingResult<?> parsingResult = matcher.getParser().parse(jpql, matcher.getPropertyHelper());
+      ObjectFilter projectionFilter = new ProtobufProjectionFilter(serCtx, (Descriptor) parsingResult.getTargetEntityMetadata(),
+            parsingResult.getProjections(), parsingResult.getProjectedPaths(), parsingResult.getProjectedTypes());
+      assertEquals(parsingResult.getProjections().length, projectionFilter.getProjection().length);
+      return projectionFilter;
+   }
+
+   private static void writeVarintField(ByteArrayOutputStream out, int fieldNumber, long value) {
+      writeVarint(out, fieldNumber << 3);
+      writeVarint(out, value);
+   }
+
+   private static void writeBytesField(ByteArrayOutputStream out, int fieldNumber, byte[] value) {
+      writeVarint(out, fieldNumber << 3 | 2);
+      writeVarint(out, value.length);
+      out.write(value, 0, value.length);
+   }
+
+   private static void writeVarint(ByteArrayOutputStream out, long value) {
+      while ((value & ~0x7FL) != 0) {
+         out.write((int) (value & 0x7F) | 0x80);
+         value >>>= 7;
+      }
+      out.write((int) value);
+   }
+
+   private byte[] createMarshalledUser() throws Exception {
+      User user = new User();
+      user.setId(1);
+      user.setName("John");
+      user.setSurname("Batman");
+      user.setGender(User.Gender.MALE);
+      user.setAccountIds(Collections.singleton(12));
+
+      Address address = new Address();
+      address.setStreet("Dark Alley");
+      address.setPostCode("1234");
+      user.setAddresses(Collections.singletonList(address));
+
+      return ProtobufUtil.toWrappedByteArray(serCtx, user);
+   }
+}
@@ -0,0 +1,116 @@
+package org.infinispan.server.hotrod
+
+import java.nio.ByteBuffer
+import java.util
+import java.util.concurrent.locks.ReentrantLock
+
+import org.infinispan.server.hotrod.Events.Event
+import org.infinispan.server.hotrod.configuration.ClientEventOverflowPolicy
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * The bounded queue of events of a client listener that have not been written to the client yet. What happens when
+ * an event is added to a full queue depends on the [[org.infinispan.server.hotrod.configuration.ClientEventOverflowPolicy]].
+ *
+ * @since 9.0
+ */
+class ClientEventQueue(capacity: Int, policy: ClientEventOverflowPolicy) {
+
+   private val lock = new ReentrantLock()
+   private val notFull = lock.newCondition()
+   // Insertion ordered. When coalescing events are keyed by the entry key, otherwise every event gets its own key.
+   private val events = new util.LinkedHashMap[AnyRef, Event]()
+   private var dropped = 0L
+
+   /**
+    * Queues an event for the given entry key, waiting for room in the queue if the policy requires it.
+    */
+   def offer(key: Bytes, event: Event): Unit = {
+      lock.lockInterruptibly()
+      try {
+         policy match {
+            case ClientEventOverflowPolicy.COALESCE =>
+               val coalescingKey = ByteBuffer.wrap(key)
+               // Remove first so that the event moves after the events that happened before it
+               if (events.remove(coalescingKey) == null) {
+                  while (events.size() >= capacity) notFull.await()
+               }
+               events.put(coalescingKey, event)
+            case ClientEventOverflowPolicy.DROP_OLDEST =>
+               if (events.size() >= capacity) {
+                  val oldest = events.values().iterator()
+                  oldest.next()
+                  oldest.remove()
+                  dropped += 1
+               }
+               events.put(new AnyRef, event)
+            case _ =>
+               while (events.size() >= capacity) notFull.await()
+               events.put(new AnyRef, event)
+         }
+      } finally {
+         lock.unlock()
+      }
+   }
+
+   /**
+    * @return the oldest queued event, or null if the queue is empty
+    */
+   def poll(): Event = {
+      lock.lock()
+      try {
+         val it = events.values().iterator()
+         if (it.hasNext) {
+            val event = it.next()
+            it.remove()
+            notFull.signal()
+            event
+         } else null
+      } finally {
+         lock.unlock()
+      }
+   }
+
+   /**
+    * Removes all queued events, along with the number of events that were dropped since the last time this method or
+    * [[takeDropped]] was invoked.
+    */
+   def drain(): (Seq[Event], Long) = {
+      lock.lock()
+      try {
+         val drained = new ArrayBuffer[Event](events.size())
+         val it = events.values().iterator()
+         while (it.hasNext) drained += it.next()
+         events.clear()
+         notFull.signalAll()
+         val droppedSinceLastDrain = dropped
+         dropped = 0
+         (drained, droppedSinceLastDrain)
+      } finally {
+         lock.unlock()
+      }
+   }
+
+   /**
+    * @return the number of events dropped since the last time this method or [[drain]] was invoked
+    */
+   def takeDropped(): Long = {
+      lock.lock()
+      try {
+         val droppedSinceLastTake = dropped
+         dropped = 0
+         droppedSinceLastTake
+      } finally {
+         lock.unlock()
+      }
+   }
+
+   def isEmpty: Boolean = size() == 0
+
+   def size(): Int = {
+      lock.lock()
+      try events.size() finally lock.unlock()
+   }
+
+}
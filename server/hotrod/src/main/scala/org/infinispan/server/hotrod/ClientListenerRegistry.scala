@@ -9,7 +9,7 @@ import io.netty.channel.Channel
 import org.infinispan.commons.equivalence.{AnyEquivalence, ByteArrayEquivalence}
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller
 import org.infinispan.commons.marshall.{AbstractExternalizer, Marshaller}
-import org.infinispan.commons.util.CollectionFactory
+import org.infinispan.commons.util.{CollectionFactory, Util}
 import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8
 import org.infinispan.container.versioning.NumericVersion
 import org.infinispan.factories.threads.DefaultThreadFactory
@@ -19,7 +19,7 @@ import org.infinispan.notifications.cachelistener.annotation.{CacheEntryExpired,
 import org.infinispan.notifications.cachelistener.event._
 import org.infinispan.notifications.cachelistener.filter._
 import org.infinispan.notifications.cachelistener.event.Event.Type
-import org.infinispan.server.hotrod.Events.{CustomRawEvent, CustomEvent, KeyEvent, KeyWithVersionEvent}
+import org.infinispan.server.hotrod.Events.{CustomRawEvent, CustomEvent, EventBatch, KeyEvent, KeyWithVersionEvent}
 import org.infinispan.server.hotrod.OperationResponse._
 import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration
 import org.infinispan.server.hotrod.logging.Log
@@ -214,17 +214,32 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
            extends BaseClientEventSender(ch, listenerId, version, targetEventType)
 
    private abstract class BaseClientEventSender(ch: Channel, listenerId: Bytes, version: Byte, targetEventType: ClientEventType) {
-      val eventQueue = new LinkedBlockingQueue[AnyRef](100)
+      val eventQueue = new ClientEventQueue(configuration.eventQueueSize(), configuration.eventOverflowPolicy())
+      val batchEvents = Constants.isVersionPost25(version)
 
       def hasChannel(channel: Channel): Boolean = ch == channel
 
       def writeEventsIfPossible(): Unit = {
          var written = false
-         while(!eventQueue.isEmpty && ch.isWritable) {
-            val event = eventQueue.poll()
-            if (isTrace) tracef("Write event: %s to channel %s", event, ch)
-            ch.write(event)
-            written = true
+         if (batchEvents) {
+            // Send everything that is queued as a single frame
+            while(!eventQueue.isEmpty && ch.isWritable) {
+               val (events, dropped) = eventQueue.drain()
+               val batch = EventBatch(version, messageId.incrementAndGet(), listenerId, events, dropped)
+               if (isTrace) tracef("Write event batch: %s to channel %s", batch, ch)
+               ch.write(batch)
+               written = true
+            }
+         } else {
+            while(!eventQueue.isEmpty && ch.isWritable) {
+               val event = eventQueue.poll()
+               if (isTrace) tracef("Write event: %s to channel %s", event, ch)
+               ch.write(event)
+               written = true
+            }
+            // Clients before 2.6 cannot be told they missed events
+            val dropped = eventQueue.takeDropped()
+            if (dropped > 0) logDroppedClientEvents(Util.printArray(listenerId, false), dropped)
          }
          if (written) {
             ch.flush()
@@ -271,7 +286,7 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
             log.tracef("Queue event %s, before queuing event queue size is %d", remoteEvent, eventQueue.size())
 
          val waitingForFlush = !ch.isWritable
-         eventQueue.put(remoteEvent)
+         eventQueue.offer(key, remoteEvent)
 
          if (!waitingForFlush) {
             // Make sure we write any event in main event loop
@@ -279,7 +294,7 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
          }
       }
 
-      private def createRemoteEvent(key: Bytes, value: Bytes, dataVersion: Long, event: CacheEntryEvent[_, _]): AnyRef = {
+      private def createRemoteEvent(key: Bytes, value: Bytes, dataVersion: Long, event: CacheEntryEvent[_, _]): Events.Event = {
          messageId.incrementAndGet() // increment message id
          // Embedded listener event implementation implements all interfaces,
          // so can't pattern match on the event instance itself. Instead, pattern
@@ -18,6 +18,7 @@ import org.infinispan.server.core.transport.NettyTransport
 import org.infinispan.server.hotrod.OperationStatus._
 import org.infinispan.server.hotrod.logging.Log
 import org.infinispan.stats.ClusterCacheStats
+import org.infinispan.stats.impl.HotKeyTracker
 import org.infinispan.util.concurrent.TimeoutException
 
 import scala.annotation.{switch, tailrec}
@@ -37,6 +38,7 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
 
    type SuitableHeader = HotRodHeader
    private val isTrace = isTraceEnabled
+   private val LatencyPercentiles = Seq(50.0 -> "P50", 99.0 -> "P99", 99.9 -> "P999", 100.0 -> "Max")
 
    override def readHeader(buffer: ByteBuf, version: Byte, messageId: Long, header: HotRodHeader): Boolean = {
       if (header.op == null) {
@@ -477,8 +479,19 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
       stats += ("misses" -> cacheStats.getMisses.toString)
       stats += ("removeHits" -> cacheStats.getRemoveHits.toString)
       stats += ("removeMisses" -> cacheStats.getRemoveMisses.toString)
+      for ((percentile, suffix) <- LatencyPercentiles) {
+         stats += (("readTime" + suffix) -> cacheStats.getReadTimePercentile(percentile).toString)
+         stats += (("writeTime" + suffix) -> cacheStats.getWriteTimePercentile(percentile).toString)
+         stats += (("removeTime" + suffix) -> cacheStats.getRemoveTimePercentile(percentile).toString)
+      }
       stats += ("totalBytesRead" -> t.getTotalBytesRead)
       stats += ("totalBytesWritten" -> t.getTotalBytesWritten)
+      Option(ctx.cache.getComponentRegistry.getComponent(classOf[HotKeyTracker]))
+            .filter(_.getStatisticsEnabled).foreach(hotKeys => {
+         stats += ("hotKeys" -> hotKeys.getHotKeys.toString)
+         stats += ("hotSegments" -> hotKeys.getHotSegments.toString)
+         stats += ("contendedLocks" -> hotKeys.getContendedLocks.toString)
+      })
 
 
       val h = ctx.header
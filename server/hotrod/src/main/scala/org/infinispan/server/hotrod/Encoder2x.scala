@@ -29,6 +29,19 @@ object Encoder2x extends AbstractVersionedEncoder with Constants with Log {
       buf.writeByte(Success.id.byteValue)
       buf.writeByte(0) // no topology change
       writeRangedBytes(e.listenerId, buf)
+      e match {
+         case b: EventBatch =>
+            writeUnsignedLong(b.droppedEvents, buf)
+            writeUnsignedInt(b.events.size, buf)
+            b.events.foreach { event =>
+               buf.writeByte(event.op.id.byteValue)
+               writeEventBody(event, buf)
+            }
+         case _ => writeEventBody(e, buf)
+      }
+   }
+
+   private def writeEventBody(e: Event, buf: ByteBuf): Unit = {
       e match {
          case k: KeyWithVersionEvent =>
             buf.writeByte(0) // custom marker
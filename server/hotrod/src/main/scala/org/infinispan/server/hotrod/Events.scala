@@ -90,4 +90,27 @@ object Events {
       }
    }
 
+   /**
+    * Several events for the same listener written as a single frame, available since protocol 2.6. The number of
+    * events dropped since the previous frame, because the client did not keep up with them, is sent along so that the
+    * client knows it missed some events.
+    */
+   case class EventBatch(
+         override val version: Byte,
+         override val messageId: Long,
+         override val listenerId: Bytes,
+         events: Seq[Event],
+         droppedEvents: Long)
+         extends Event(version, messageId, CacheEntryEventBatchResponse, listenerId, false) {
+      override def toString: String = {
+         new StringBuilder().append("EventBatch").append("{")
+               .append("version=").append(version)
+               .append(", messageId=").append(messageId)
+               .append(", listenerId=").append(Util.toStr(listenerId, false))
+               .append(", events=").append(events.size)
+               .append(", droppedEvents=").append(droppedEvents)
+               .append("}").toString()
+      }
+   }
+
 }
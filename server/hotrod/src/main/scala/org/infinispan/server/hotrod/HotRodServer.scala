@@ -98,6 +98,7 @@ class HotRodServer extends AbstractProtocolServer("HotRod") with Log {
       clientListenerRegistry = new ClientListenerRegistry(configuration)
 
       addCacheEventConverterFactory("key-value-with-previous-converter-factory", new KeyValueWithPreviousEventConverterFactory)
+      addCacheEventFilterFactory(NearCacheBloomFilterFactory.Name, new NearCacheBloomFilterFactory)
       loadFilterConverterFactories(classOf[ParamKeyValueFilterConverterFactory[Any, Any, Any]])((name, f) => addKeyValueFilterConverterFactory(name, f.asInstanceOf[KeyValueFilterConverterFactory[_, _, _]]))
       loadFilterConverterFactories(classOf[CacheEventFilterConverterFactory])(addCacheEventFilterConverterFactory)
       loadFilterConverterFactories(classOf[CacheEventConverterFactory])(addCacheEventConverterFactory)
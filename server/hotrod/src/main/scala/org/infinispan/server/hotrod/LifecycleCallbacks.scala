@@ -6,6 +6,7 @@ import org.infinispan.server.core.ExternalizerIds._
 import org.infinispan.configuration.global.GlobalConfiguration
 import org.infinispan.server.hotrod.ClientListenerRegistry.{UnmarshallFilterConverterExternalizer, UnmarshallConverterExternalizer, UnmarshallFilterExternalizer}
 import org.infinispan.server.hotrod.KeyValueVersionConverterFactory.KeyValueVersionConverter
+import org.infinispan.server.hotrod.NearCacheBloomFilterFactory.NearCacheBloomFilter
 import org.infinispan.server.hotrod.event.KeyValueWithPreviousEventConverterExternalizer
 import org.infinispan.server.hotrod.iteration._
 
@@ -27,6 +28,7 @@ class LifecycleCallbacks extends AbstractModuleLifecycle {
       externalizers.put(BINARY_FILTER_CONVERTER, new UnmarshallFilterConverterExternalizer())
       externalizers.put(KEY_VALUE_WITH_PREVIOUS_CONVERTER, new KeyValueWithPreviousEventConverterExternalizer())
       externalizers.put(ITERATION_FILTER, new IterationFilterExternalizer())
+      externalizers.put(NEAR_CACHE_BLOOM_FILTER, new NearCacheBloomFilter.Externalizer())
    }
 
 }
@@ -0,0 +1,65 @@
+package org.infinispan.server.hotrod
+
+import java.io.{ObjectInput, ObjectOutput}
+
+import org.infinispan.commons.marshall.AbstractExternalizer
+import org.infinispan.commons.util.BloomFilter
+import org.infinispan.metadata.Metadata
+import org.infinispan.notifications.cachelistener.filter.{CacheEventFilter, CacheEventFilterFactory, EventType}
+import org.infinispan.server.hotrod.NearCacheBloomFilterFactory.NearCacheBloomFilter
+
+import scala.collection.JavaConversions
+
+/**
+ * Filter factory for the listeners of near caches that publish a bloom filter of the keys they hold. The only
+ * parameter is the bloom filter, as returned by [[org.infinispan.commons.util.BloomFilter#toBytes]], and only the
+ * events of keys that might be in the filter are sent to the client. The near cache listeners use raw data, so the
+ * filter bytes reach the factory as they were sent, whatever the client marshaller is.
+ *
+ * @since 9.0
+ */
+class NearCacheBloomFilterFactory extends CacheEventFilterFactory {
+   override def getFilter[K, V](params: Array[AnyRef]): CacheEventFilter[K, V] = {
+      if (params.length != 1 || !params(0).isInstanceOf[Bytes])
+         throw new IllegalArgumentException("Expected the bloom filter bytes as the only parameter")
+
+      new NearCacheBloomFilter(params(0).asInstanceOf[Bytes])
+         .asInstanceOf[CacheEventFilter[K, V]] // ugly but it works :|
+   }
+}
+
+object NearCacheBloomFilterFactory {
+   /**
+    * The name the factory is registered with by every Hot Rod server.
+    */
+   val Name = "___near-cache-bloom-filter"
+
+   class NearCacheBloomFilter(val filterBytes: Bytes) extends CacheEventFilter[AnyRef, AnyRef] {
+      private val filter = BloomFilter.fromBytes(filterBytes)
+
+      override def accept(key: AnyRef, oldValue: AnyRef, oldMetadata: Metadata, newValue: AnyRef, newMetadata: Metadata, eventType: EventType): Boolean = {
+         key match {
+            case k: Bytes => filter.mightContain(k)
+            // The key is not in the form the client hashed, e.g. with compatibility enabled
+            case _ => true
+         }
+      }
+   }
+
+   object NearCacheBloomFilter {
+      class Externalizer extends AbstractExternalizer[NearCacheBloomFilter] {
+         override def getTypeClasses = JavaConversions.setAsJavaSet(Set[java.lang.Class[_ <: NearCacheBloomFilter]](classOf[NearCacheBloomFilter]))
+
+         override def readObject(input: ObjectInput): NearCacheBloomFilter = {
+            val bytes = Array.ofDim[Byte](input.readInt())
+            input.readFully(bytes)
+            new NearCacheBloomFilter(bytes)
+         }
+
+         override def writeObject(output: ObjectOutput, filter: NearCacheBloomFilter): Unit = {
+            output.writeInt(filter.filterBytes.length)
+            output.write(filter.filterBytes)
+         }
+      }
+   }
+}
@@ -48,6 +48,9 @@ object OperationResponse extends Enumeration {
    val IterationNextResponse = Value(0x34)
    val IterationEndResponse = Value(0x36)
 
+   // 2.6
+   val CacheEntryEventBatchResponse = Value(0x64)
+
    def toResponse(request: HotRodOperation): OperationResponse = {
       // Go to java so switch case will be optimized properly
       OperationResponseJava.operationToResponse(request).asInstanceOf[OperationResponse]
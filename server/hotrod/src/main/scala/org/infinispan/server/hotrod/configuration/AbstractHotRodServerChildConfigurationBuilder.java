@@ -48,4 +48,14 @@ public HotRodServerChildConfigurationBuilder topologyStateTransfer(boolean topol
       return builder.topologyStateTransfer(topologyStateTransfer);
    }
 
+   @Override
+   public HotRodServerChildConfigurationBuilder eventQueueSize(int eventQueueSize) {
+      return builder.eventQueueSize(eventQueueSize);
+   }
+
+   @Override
+   public HotRodServerChildConfigurationBuilder eventOverflowPolicy(ClientEventOverflowPolicy eventOverflowPolicy) {
+      return builder.eventOverflowPolicy(eventOverflowPolicy);
+   }
+
 }
@@ -0,0 +1,25 @@
+package org.infinispan.server.hotrod.configuration;
+
+/**
+ * What the server does with a new event for a client listener whose event queue is full, which happens when the
+ * client does not consume the events as fast as they are produced.
+ *
+ * @since 9.0
+ */
+public enum ClientEventOverflowPolicy {
+   /**
+    * The thread raising the event waits until there is room in the queue. No event is lost but the writes that raise
+    * events are slowed down to the speed of the slowest client listener.
+    */
+   BLOCK,
+   /**
+    * The oldest queued event is discarded to make room for the new one. Clients talking protocol 2.6 or later are
+    * notified of the gap with a {@code ClientCacheFailoverEvent}, so that they can discard any locally built state.
+    */
+   DROP_OLDEST,
+   /**
+    * A new event replaces the queued event for the same key, if any, so that only the last change of every key is
+    * sent. If the queue is still full, the thread raising the event waits as with {@link #BLOCK}.
+    */
+   COALESCE
+}
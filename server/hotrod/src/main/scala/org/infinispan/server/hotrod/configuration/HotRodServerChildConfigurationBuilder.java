@@ -45,4 +45,16 @@ public interface HotRodServerChildConfigurationBuilder {
     */
    HotRodServerChildConfigurationBuilder topologyStateTransfer(boolean topologyStateTransfer);
 
+   /**
+    * Sets the maximum number of events queued for each client listener that have not been written to the client yet.
+    * Defaults to 100.
+    */
+   HotRodServerChildConfigurationBuilder eventQueueSize(int eventQueueSize);
+
+   /**
+    * Configures what happens to a new event for a client listener whose event queue is full. Defaults to
+    * {@link ClientEventOverflowPolicy#BLOCK}.
+    */
+   HotRodServerChildConfigurationBuilder eventOverflowPolicy(ClientEventOverflowPolicy eventOverflowPolicy);
+
 }
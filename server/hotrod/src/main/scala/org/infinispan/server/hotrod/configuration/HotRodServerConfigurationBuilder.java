@@ -1,10 +1,12 @@
 package org.infinispan.server.hotrod.configuration;
 
 import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.configuration.cache.LockingConfigurationBuilder;
 import org.infinispan.configuration.cache.StateTransferConfigurationBuilder;
 import org.infinispan.configuration.cache.SyncConfigurationBuilder;
 import org.infinispan.server.core.configuration.ProtocolServerConfigurationBuilder;
+import org.infinispan.server.hotrod.logging.JavaLog;
 
 /**
  * HotRodServerConfigurationBuilder.
@@ -14,6 +16,7 @@
  */
 public class HotRodServerConfigurationBuilder extends ProtocolServerConfigurationBuilder<HotRodServerConfiguration, HotRodServerConfigurationBuilder> implements
       Builder<HotRodServerConfiguration>, HotRodServerChildConfigurationBuilder {
+   private static final JavaLog log = LogFactory.getLog(HotRodServerConfigurationBuilder.class, JavaLog.class);
    private final AuthenticationConfigurationBuilder authentication = new AuthenticationConfigurationBuilder(this);
    private String proxyHost;
    private int proxyPort = -1;
@@ -21,6 +24,8 @@ public class HotRodServerConfigurationBuilder extends ProtocolServerConfiguratio
    private long topologyReplTimeout = 10000L;
    private boolean topologyAwaitInitialTransfer = true;
    private boolean topologyStateTransfer = true;
+   private int eventQueueSize = 100;
+   private ClientEventOverflowPolicy eventOverflowPolicy = ClientEventOverflowPolicy.BLOCK;
 
    public HotRodServerConfigurationBuilder() {
       super(11222);
@@ -91,10 +96,31 @@ public HotRodServerConfigurationBuilder topologyStateTransfer(boolean topologySt
       return this;
    }
 
+   /**
+    * Sets the maximum number of events queued for each client listener that have not been written to the client yet.
+    * Defaults to 100.
+    */
+   @Override
+   public HotRodServerConfigurationBuilder eventQueueSize(int eventQueueSize) {
+      this.eventQueueSize = eventQueueSize;
+      return this;
+   }
+
+   /**
+    * Configures what happens to a new event for a client listener whose event queue is full. Defaults to
+    * {@link ClientEventOverflowPolicy#BLOCK}.
+    */
+   @Override
+   public HotRodServerConfigurationBuilder eventOverflowPolicy(ClientEventOverflowPolicy eventOverflowPolicy) {
+      this.eventOverflowPolicy = eventOverflowPolicy;
+      return this;
+   }
+
    @Override
    public HotRodServerConfiguration create() {
       return new HotRodServerConfiguration(defaultCacheName, proxyHost == null ? host : proxyHost, proxyPort < 0 ? port : proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, name, host, port, idleTimeout,
-            recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, authentication.create(), ignoredCaches);
+            recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, authentication.create(), ignoredCaches,
+            eventQueueSize, eventOverflowPolicy);
    }
 
    @Override
@@ -106,6 +132,8 @@ public HotRodServerConfigurationBuilder read(HotRodServerConfiguration template)
       this.topologyReplTimeout = template.topologyReplTimeout();
       this.topologyAwaitInitialTransfer = template.topologyAwaitInitialTransfer();
       this.topologyStateTransfer = template.topologyStateTransfer();
+      this.eventQueueSize = template.eventQueueSize();
+      this.eventOverflowPolicy = template.eventOverflowPolicy();
       return this;
    }
 
@@ -113,6 +141,12 @@ public HotRodServerConfigurationBuilder read(HotRodServerConfiguration template)
    public void validate() {
       super.validate();
       authentication.validate();
+      if (eventQueueSize <= 0) {
+         throw log.invalidEventQueueSize(eventQueueSize);
+      }
+      if (eventOverflowPolicy == null) {
+         throw log.missingEventOverflowPolicy();
+      }
    }
 
    public HotRodServerConfiguration build(boolean validate) {
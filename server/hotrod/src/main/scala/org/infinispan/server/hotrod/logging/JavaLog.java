@@ -86,4 +86,14 @@ public interface JavaLog extends org.infinispan.util.logging.Log {
 
    @Message(value = "EXTERNAL SASL mechanism not allowed without SSL client certificate", id = 6018)
    SecurityException externalMechNotAllowedWithoutSSLClientCert();
+
+   @Message(value = "The client event queue size must be greater than 0, but was %d", id = 6019)
+   CacheConfigurationException invalidEventQueueSize(int eventQueueSize);
+
+   @Message(value = "A client event overflow policy must be specified", id = 6020)
+   CacheConfigurationException missingEventOverflowPolicy();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Client listener %s does not keep up with the events, %d events were dropped", id = 6021)
+   void droppedClientEvents(String listenerId, long dropped);
 }
@@ -50,4 +50,6 @@ trait Log extends org.infinispan.server.core.logging.Log {
 
    def illegalIterationId(iterationId: String) = log.illegalIterationId(iterationId)
 
-}
\ No newline at end of file
+   def logDroppedClientEvents(listenerId: String, dropped: Long) = log.droppedClientEvents(listenerId, dropped)
+
+}
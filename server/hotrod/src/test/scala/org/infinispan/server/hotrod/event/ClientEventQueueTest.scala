@@ -0,0 +1,64 @@
+package org.infinispan.server.hotrod.event
+
+import org.infinispan.server.hotrod.ClientEventQueue
+import org.infinispan.server.hotrod.Events.KeyEvent
+import org.infinispan.server.hotrod.OperationResponse._
+import org.infinispan.server.hotrod.configuration.ClientEventOverflowPolicy
+import org.infinispan.test.AbstractInfinispanTest
+import org.testng.AssertJUnit._
+import org.testng.annotations.Test
+
+/**
+ * Tests the overflow policies of the client listener event queue.
+ *
+ * @since 9.0
+ */
+@Test(groups = Array("unit"), testName = "server.hotrod.event.ClientEventQueueTest")
+class ClientEventQueueTest extends AbstractInfinispanTest {
+
+   private val listenerId = Array[Byte](1, 2, 3)
+
+   def testDropOldest() {
+      val queue = new ClientEventQueue(2, ClientEventOverflowPolicy.DROP_OLDEST)
+      queue.offer(Array[Byte](1), event(1))
+      queue.offer(Array[Byte](2), event(2))
+      queue.offer(Array[Byte](3), event(3))
+
+      val (events, dropped) = queue.drain()
+      assertEquals(1, dropped)
+      assertEquals(Seq(2L, 3L), events.map(_.messageId))
+      assertTrue(queue.isEmpty)
+      assertEquals(0, queue.takeDropped())
+   }
+
+   def testCoalesceKeepsLastEventOfEveryKey() {
+      val queue = new ClientEventQueue(2, ClientEventOverflowPolicy.COALESCE)
+      queue.offer(Array[Byte](1), event(1))
+      queue.offer(Array[Byte](2), event(2))
+      // Does not block even if the queue is full, it replaces the event for the same key
+      queue.offer(Array[Byte](1), event(3))
+
+      val (events, dropped) = queue.drain()
+      assertEquals(0, dropped)
+      assertEquals(Seq(2L, 3L), events.map(_.messageId))
+   }
+
+   def testBlockWaitsForRoom() {
+      val queue = new ClientEventQueue(1, ClientEventOverflowPolicy.BLOCK)
+      queue.offer(Array[Byte](1), event(1))
+      val blocked = fork(new Runnable {
+         override def run(): Unit = queue.offer(Array[Byte](2), event(2))
+      })
+      Thread.sleep(100)
+      assertFalse(blocked.isDone)
+
+      assertEquals(1L, queue.poll().messageId)
+      blocked.get()
+      assertEquals(2L, queue.poll().messageId)
+      assertNull(queue.poll())
+   }
+
+   private def event(messageId: Long) =
+      KeyEvent(26, messageId, CacheEntryRemovedEventResponse, listenerId, false, Array[Byte]())
+
+}
@@ -41,6 +41,8 @@ public enum Attribute {
     @Deprecated
     CACHE_SUFFIX(ModelKeys.CACHE_SUFFIX),
     IGNORED_CACHES(ModelKeys.IGNORED_CACHES),
+    EVENT_OVERFLOW_POLICY(ModelKeys.EVENT_OVERFLOW_POLICY),
+    EVENT_QUEUE_SIZE(ModelKeys.EVENT_QUEUE_SIZE),
     EXTENDED_HEADERS(ModelKeys.EXTENDED_HEADERS),
     EXTERNAL_HOST(ModelKeys.EXTERNAL_HOST),
     EXTERNAL_PORT(ModelKeys.EXTERNAL_PORT),
@@ -50,6 +52,7 @@ public enum Attribute {
     LOCK_TIMEOUT(ModelKeys.LOCK_TIMEOUT),
     REPLICATION_TIMEOUT(ModelKeys.REPLICATION_TIMEOUT),
     NAME(ModelKeys.NAME),
+    PROTOCOL(ModelKeys.PROTOCOL),
     QOP(ModelKeys.QOP),
     RECEIVE_BUFFER_SIZE(ModelKeys.RECEIVE_BUFFER_SIZE),
     REQUIRE_SSL_CLIENT_AUTH(ModelKeys.REQUIRE_SSL_CLIENT_AUTH),
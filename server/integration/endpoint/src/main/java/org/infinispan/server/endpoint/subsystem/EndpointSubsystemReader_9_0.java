@@ -93,7 +93,17 @@ private void parseHotRodConnector(XMLExtendedStreamReader reader, PathAddress su
          String value = reader.getAttributeValue(i);
          Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
          required.remove(attribute);
-         name = parseConnectorAttributes(reader, connector, name, i, value, attribute);
+         switch (attribute) {
+         case EVENT_QUEUE_SIZE:
+            HotRodConnectorResource.EVENT_QUEUE_SIZE.parseAndSetParameter(value, connector, reader);
+            break;
+         case EVENT_OVERFLOW_POLICY:
+            HotRodConnectorResource.EVENT_OVERFLOW_POLICY.parseAndSetParameter(value, connector, reader);
+            break;
+         default:
+            name = parseConnectorAttributes(reader, connector, name, i, value, attribute);
+            break;
+         }
       }
 
       if (!required.isEmpty()) {
@@ -143,6 +153,9 @@ private void parseMemcachedConnector(XMLExtendedStreamReader reader, PathAddress
          case CACHE:
             MemcachedConnectorResource.CACHE.parseAndSetParameter(value, connector, reader);
             break;
+         case PROTOCOL:
+            MemcachedConnectorResource.PROTOCOL.parseAndSetParameter(value, connector, reader);
+            break;
          default:
             name = parseConnectorAttributes(reader, connector, name, i, value, attribute);
             break;
@@ -18,9 +18,19 @@
  */
 package org.infinispan.server.endpoint.subsystem;
 
+import org.infinispan.server.hotrod.configuration.ClientEventOverflowPolicy;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * HotRodConnectorResource.
@@ -32,6 +42,26 @@ public class HotRodConnectorResource extends ProtocolServerConnectorResource imp
 
    public static final PathElement HOTROD_CONNECTOR_PATH = PathElement.pathElement(ModelKeys.HOTROD_CONNECTOR);
 
+   static final SimpleAttributeDefinition EVENT_QUEUE_SIZE =
+         new SimpleAttributeDefinitionBuilder(ModelKeys.EVENT_QUEUE_SIZE, ModelType.INT, true)
+                 .setAllowExpression(true)
+                 .setXmlName(ModelKeys.EVENT_QUEUE_SIZE)
+                 .setValidator(new IntRangeValidator(1, true, true))
+                 .setRestartAllServices()
+                 .setDefaultValue(new ModelNode().set(100))
+                 .build();
+
+   static final SimpleAttributeDefinition EVENT_OVERFLOW_POLICY =
+         new SimpleAttributeDefinitionBuilder(ModelKeys.EVENT_OVERFLOW_POLICY, ModelType.STRING, true)
+                 .setAllowExpression(true)
+                 .setXmlName(ModelKeys.EVENT_OVERFLOW_POLICY)
+                 .setValidator(new EnumValidator<>(ClientEventOverflowPolicy.class, true, true))
+                 .setRestartAllServices()
+                 .setDefaultValue(new ModelNode().set(ClientEventOverflowPolicy.BLOCK.name()))
+                 .build();
+
+   static final SimpleAttributeDefinition[] HOTROD_CONNECTOR_ATTRIBUTES = { EVENT_QUEUE_SIZE, EVENT_OVERFLOW_POLICY };
+
    public HotRodConnectorResource(boolean isRuntimeRegistration) {
       super(HOTROD_CONNECTOR_PATH, EndpointExtension.getResourceDescriptionResolver(ModelKeys.HOTROD_CONNECTOR), HotRodSubsystemAdd.INSTANCE, HotRodSubsystemRemove.INSTANCE, isRuntimeRegistration);
    }
@@ -47,6 +77,11 @@ public void registerChildren(ManagementResourceRegistration resourceRegistration
    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
       super.registerAttributes(resourceRegistration);
 
+      final OperationStepHandler writeHandler = new ReloadRequiredWriteAttributeHandler(HOTROD_CONNECTOR_ATTRIBUTES);
+      for (AttributeDefinition attr : HOTROD_CONNECTOR_ATTRIBUTES) {
+         resourceRegistration.registerReadWriteAttribute(attr, null, writeHandler);
+      }
+
       if (isRuntimeRegistration()) {
          ProtocolServerMetricsHandler.registerMetrics(resourceRegistration, "hotrod");
       }
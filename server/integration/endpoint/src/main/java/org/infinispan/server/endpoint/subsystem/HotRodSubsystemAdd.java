@@ -23,6 +23,7 @@
 import org.infinispan.server.endpoint.Constants;
 import org.infinispan.server.hotrod.HotRodServer;
 import org.infinispan.server.hotrod.configuration.AuthenticationConfigurationBuilder;
+import org.infinispan.server.hotrod.configuration.ClientEventOverflowPolicy;
 import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -56,6 +57,9 @@ private static void populate(ModelNode source, ModelNode target) throws Operatio
       for(AttributeDefinition attr : ProtocolServerConnectorResource.PROTOCOL_SERVICE_ATTRIBUTES) {
          attr.validateAndSet(source, target);
       }
+      for(AttributeDefinition attr : HotRodConnectorResource.HOTROD_CONNECTOR_ATTRIBUTES) {
+         attr.validateAndSet(source, target);
+      }
    }
 
    @Override
@@ -68,6 +72,7 @@ protected void performRuntime(OperationContext context, ModelNode operation, Mod
       configureProtocolServerAuthentication(configurationBuilder, config);
       configureProtocolServerEncryption(configurationBuilder, config);
       configureProtocolServerTopology(configurationBuilder, config);
+      configureProtocolServerEvents(configurationBuilder, config);
       // Create the service
       final ProtocolServerService service = new ProtocolServerService(getServiceName(operation), HotRodServer.class, configurationBuilder);
 
@@ -164,6 +169,15 @@ private void configureProtocolServerTopology(HotRodServerConfigurationBuilder bu
       }
    }
 
+   private void configureProtocolServerEvents(HotRodServerConfigurationBuilder builder, ModelNode config) {
+      if (config.hasDefined(ModelKeys.EVENT_QUEUE_SIZE)) {
+         builder.eventQueueSize(config.get(ModelKeys.EVENT_QUEUE_SIZE).asInt());
+      }
+      if (config.hasDefined(ModelKeys.EVENT_OVERFLOW_POLICY)) {
+         builder.eventOverflowPolicy(ClientEventOverflowPolicy.valueOf(config.get(ModelKeys.EVENT_OVERFLOW_POLICY).asString()));
+      }
+   }
+
    private void configureProtocolServerAuthentication(HotRodServerConfigurationBuilder builder, ModelNode config) {
       if (config.hasDefined(ModelKeys.AUTHENTICATION) && config.get(ModelKeys.AUTHENTICATION, ModelKeys.AUTHENTICATION_NAME).isDefined()) {
          config = config.get(ModelKeys.AUTHENTICATION, ModelKeys.AUTHENTICATION_NAME);
@@ -18,6 +18,7 @@
  */
 package org.infinispan.server.endpoint.subsystem;
 
+import org.infinispan.server.memcached.configuration.MemcachedProtocol;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathElement;
@@ -25,6 +26,7 @@
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -47,7 +49,16 @@ public class MemcachedConnectorResource extends ProtocolServerConnectorResource
                  .setDefaultValue(new ModelNode().set("memcachedCache"))
                  .build();
 
-   static final SimpleAttributeDefinition[] MEMCACHED_CONNECTOR_ATTRIBUTES = { CACHE };
+   static final SimpleAttributeDefinition PROTOCOL =
+         new SimpleAttributeDefinitionBuilder(ModelKeys.PROTOCOL, ModelType.STRING, true)
+                 .setAllowExpression(true)
+                 .setXmlName(ModelKeys.PROTOCOL)
+                 .setValidator(new EnumValidator<>(MemcachedProtocol.class, true, true))
+                 .setRestartAllServices()
+                 .setDefaultValue(new ModelNode().set(MemcachedProtocol.AUTO.name()))
+                 .build();
+
+   static final SimpleAttributeDefinition[] MEMCACHED_CONNECTOR_ATTRIBUTES = { CACHE, PROTOCOL };
 
    public MemcachedConnectorResource(boolean isRuntimeRegistration) {
       super(MEMCACHED_CONNECTOR_PATH, EndpointExtension.getResourceDescriptionResolver(ModelKeys.MEMCACHED_CONNECTOR), MemcachedSubsystemAdd.INSTANCE,
@@ -21,6 +21,7 @@
 import java.util.List;
 
 import org.infinispan.server.memcached.MemcachedServer;
+import org.infinispan.server.memcached.configuration.MemcachedProtocol;
 import org.infinispan.server.memcached.configuration.MemcachedServerConfigurationBuilder;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -67,6 +68,9 @@ protected void performRuntime(OperationContext context, ModelNode operation, Mod
       } else {
          cacheName = "memcachedCache";
       }
+      if (config.hasDefined(ModelKeys.PROTOCOL)) {
+         configurationBuilder.protocol(MemcachedProtocol.valueOf(config.get(ModelKeys.PROTOCOL).asString()));
+      }
 
       // Create the service
       final ProtocolServerService service = new ProtocolServerService(getServiceName(operation), MemcachedServer.class, configurationBuilder);
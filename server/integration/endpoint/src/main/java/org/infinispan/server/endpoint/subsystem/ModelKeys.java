@@ -47,6 +47,9 @@ public class ModelKeys {
    public static final String AUTH_METHOD = "auth-method"; // string
    public static final String SECURITY_MODE = "security-mode"; // string
    public static final String EXTENDED_HEADERS = "extended-headers"; //enum
+   public static final String EVENT_QUEUE_SIZE = "event-queue-size"; // integer
+   public static final String EVENT_OVERFLOW_POLICY = "event-overflow-policy"; // enum
+   public static final String PROTOCOL = "protocol"; // enum
 
    public static final String TOPOLOGY_STATE_TRANSFER_NAME = "TOPOLOGY_STATE_TRANSFER";
    public static final String TOPOLOGY_STATE_TRANSFER = "topology-state-transfer";
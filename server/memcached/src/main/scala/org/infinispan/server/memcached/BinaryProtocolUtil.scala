@@ -0,0 +1,81 @@
+package org.infinispan.server.memcached
+
+/**
+ * Memcached binary protocol constants.
+ *
+ * @since 9.0
+ */
+object BinaryProtocolUtil {
+
+   val RequestMagic = 0x80
+   val ResponseMagic = 0x81
+   val HeaderLength = 24
+   val MaxKeyLength = 250
+
+   // Opcodes
+   val Get = 0x00
+   val Set = 0x01
+   val Add = 0x02
+   val Replace = 0x03
+   val Delete = 0x04
+   val Increment = 0x05
+   val Decrement = 0x06
+   val Quit = 0x07
+   val Flush = 0x08
+   val GetQ = 0x09
+   val Noop = 0x0a
+   val Version = 0x0b
+   val GetK = 0x0c
+   val GetKQ = 0x0d
+   val Append = 0x0e
+   val Prepend = 0x0f
+   val Stat = 0x10
+   val SetQ = 0x11
+   val AddQ = 0x12
+   val ReplaceQ = 0x13
+   val DeleteQ = 0x14
+   val IncrementQ = 0x15
+   val DecrementQ = 0x16
+   val QuitQ = 0x17
+   val FlushQ = 0x18
+   val AppendQ = 0x19
+   val PrependQ = 0x1a
+
+   // Response status
+   val NoError = 0x0000
+   val KeyNotFound = 0x0001
+   val KeyExists = 0x0002
+   val InvalidArguments = 0x0004
+   val ItemNotStored = 0x0005
+   val NonNumericValue = 0x0006
+   val UnknownCommand = 0x0081
+   val InternalError = 0x0084
+   val TemporaryFailure = 0x0086
+
+   /**
+    * Expiration of increment and decrement requests that must fail if the counter does not exist.
+    */
+   val NoInitialCounter = 0xffffffff
+
+   /**
+    * Maps a quiet opcode to the opcode of its non-quiet variant, leaving the rest as they are.
+    */
+   def loudOpcode(opcode: Int): Int = opcode match {
+      case GetQ => Get
+      case GetKQ => GetK
+      case SetQ => Set
+      case AddQ => Add
+      case ReplaceQ => Replace
+      case DeleteQ => Delete
+      case IncrementQ => Increment
+      case DecrementQ => Decrement
+      case QuitQ => Quit
+      case FlushQ => Flush
+      case AppendQ => Append
+      case PrependQ => Prepend
+      case _ => opcode
+   }
+
+   def isQuiet(opcode: Int): Boolean = loudOpcode(opcode) != opcode
+
+}
@@ -0,0 +1,397 @@
+package org.infinispan.server.memcached
+
+import java.io.StreamCorruptedException
+import java.util
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit.{MILLISECONDS => MILLIS}
+import java.util.concurrent.atomic.AtomicLong
+
+import io.netty.buffer.{ByteBuf, Unpooled}
+import io.netty.channel.{Channel, ChannelFutureListener, ChannelHandlerContext}
+import io.netty.handler.codec.ByteToMessageDecoder
+import org.infinispan.AdvancedCache
+import org.infinispan.container.entries.CacheEntry
+import org.infinispan.container.versioning.NumericVersion
+import org.infinispan.context.Flag
+import org.infinispan.metadata.Metadata
+import org.infinispan.server.core.transport.NettyTransport
+import org.infinispan.server.memcached.BinaryProtocolUtil._
+import org.infinispan.server.memcached.TextProtocolUtil.CHARSET
+import org.infinispan.server.memcached.configuration.MemcachedServerConfigurationBuilder
+import org.infinispan.server.memcached.logging.Log
+
+/**
+ * A Memcached binary protocol decoder. Requests are only decoded once all their bytes have been received, and the
+ * responses are written without flushing, so that the responses of pipelined requests are flushed together once all
+ * the received requests have been handled.
+ * <p>
+ * Quiet requests only get a response if they fail, or in the case of quiet gets, if the key is found. Clients send
+ * a batch of quiet requests followed by a no-op, whose response tells them that the whole batch has been handled.
+ *
+ * @since 9.0
+ */
+class MemcachedBinaryDecoder(memcachedCache: AdvancedCache[String, Array[Byte]], scheduler: ScheduledExecutorService,
+                             val transport: NettyTransport, val cacheIgnoreAware: String => Boolean = Function.const(false),
+                             maxBodyLength: Int = MemcachedServerConfigurationBuilder.DEFAULT_MAX_BODY_LENGTH)
+extends ByteToMessageDecoder with Log {
+
+   private val Empty = Array.empty[Byte]
+
+   private val cache =
+      if (memcachedCache.getCacheConfiguration.compatibility().enabled())
+         memcachedCache.getAdvancedCache.withFlags(Flag.OPERATION_MEMCACHED)
+      else memcachedCache
+
+   private lazy val isStatsEnabled = cache.getCacheConfiguration.jmxStatistics().enabled()
+   private final val incrMisses = new AtomicLong(0)
+   private final val incrHits = new AtomicLong(0)
+   private final val decrMisses = new AtomicLong(0)
+   private final val decrHits = new AtomicLong(0)
+   private final val casMisses = new AtomicLong(0)
+   private final val casHits = new AtomicLong(0)
+   private final val casBadval = new AtomicLong(0)
+   private val isTrace = isTraceEnabled
+
+   override def decode(ctx: ChannelHandlerContext, in: ByteBuf, out: util.List[AnyRef]): Unit = {
+      val ch = ctx.channel
+      while (in.readableBytes >= HeaderLength) {
+         val start = in.readerIndex
+         val magic = in.getUnsignedByte(start)
+         if (magic != RequestMagic)
+            throw new StreamCorruptedException("Invalid magic byte: " + magic)
+
+         val bodyLength = in.getInt(start + 8)
+         // Checked before the body is buffered, so that a client cannot make the server allocate arbitrary amounts
+         if (bodyLength < 0 || bodyLength > maxBodyLength)
+            throw new StreamCorruptedException("Request body length %d out of bounds, the maximum is %d"
+               .format(bodyLength, maxBodyLength))
+         if (in.readableBytes < HeaderLength + bodyLength)
+            return // Wait for the rest of the request
+
+         val request = readRequest(in)
+         if (isTrace) trace("Decoded binary request %s", request)
+         handle(ch, request)
+      }
+   }
+
+   override def channelReadComplete(ctx: ChannelHandlerContext): Unit = {
+      // Flush the responses of all the requests received together
+      ctx.flush()
+      super.channelReadComplete(ctx)
+   }
+
+   override def exceptionCaught(ctx: ChannelHandlerContext, cause: Throwable): Unit = {
+      debug(cause, "Exception caught")
+      // The request boundaries are lost, so the connection cannot be used anymore
+      ctx.close()
+   }
+
+   private def readRequest(in: ByteBuf): BinaryRequest = {
+      in.skipBytes(1) // magic
+      val opcode = in.readUnsignedByte()
+      val keyLength = in.readUnsignedShort()
+      val extrasLength = in.readUnsignedByte()
+      in.skipBytes(3) // data type and vbucket id
+      val bodyLength = in.readInt()
+      val opaque = in.readInt()
+      val cas = in.readLong()
+      val extras = readBytes(in, extrasLength)
+      val key = readBytes(in, keyLength)
+      val value = readBytes(in, bodyLength - extrasLength - keyLength)
+      new BinaryRequest(opcode, opaque, cas, extras, key, value)
+   }
+
+   private def readBytes(in: ByteBuf, length: Int): Array[Byte] = {
+      if (length < 0) throw new StreamCorruptedException("Negative length: " + length)
+      if (length == 0) Empty
+      else {
+         val bytes = new Array[Byte](length)
+         in.readBytes(bytes)
+         bytes
+      }
+   }
+
+   private def handle(ch: Channel, req: BinaryRequest): Unit = {
+      try {
+         if (cacheIgnoreAware(cache.getName)) {
+            writeError(ch, req, TemporaryFailure, "Cache " + cache.getName + " is not available")
+         } else if (req.key.length > MaxKeyLength) {
+            writeError(ch, req, InvalidArguments, "Key length over the 250 character limit")
+         } else {
+            loudOpcode(req.opcode) match {
+               // Get, set and delete are the most typical operations, so they're first
+               case Get | GetK => get(ch, req)
+               case Set => set(ch, req)
+               case Delete => delete(ch, req)
+               case Add => add(ch, req)
+               case Replace => replace(ch, req)
+               case Increment | Decrement => incrDecr(ch, req)
+               case Append | Prepend => appendPrepend(ch, req)
+               case Noop => write(ch, req, NoError)
+               case Version => write(ch, req, NoError, value = org.infinispan.Version.getVersion.getBytes(CHARSET))
+               case Flush => flush(ch, req)
+               case Stat => stats(ch, req)
+               case Quit =>
+                  write(ch, req, NoError)
+                  ch.writeAndFlush(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE)
+               case _ => writeError(ch, req, UnknownCommand, "Unknown command: " + req.opcode)
+            }
+         }
+      } catch {
+         case e: Exception =>
+            logExceptionReported(e)
+            writeError(ch, req, InternalError, String.valueOf(e.getMessage))
+      }
+   }
+
+   private def get(ch: Channel, req: BinaryRequest): Unit = {
+      val entry = cache.getCacheEntry(req.keyString)
+      if (entry == null) {
+         writeError(ch, req, KeyNotFound, "Not found")
+      } else {
+         val key = if (loudOpcode(req.opcode) == GetK) req.key else Empty
+         write(ch, req, NoError, version(entry.getMetadata), intBytes(flags(entry)), key, entry.getValue)
+      }
+   }
+
+   private def set(ch: Channel, req: BinaryRequest): Unit = {
+      if (req.cas != 0) {
+         replaceIfUnmodified(ch, req)
+      } else {
+         val metadata = buildStorageMetadata(req)
+         cache.put(req.keyString, req.value, metadata)
+         write(ch, req, NoError, version(metadata))
+      }
+   }
+
+   private def replaceIfUnmodified(ch: Channel, req: BinaryRequest): Unit = {
+      val entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(req.keyString)
+      if (entry == null) {
+         if (isStatsEnabled) casMisses.incrementAndGet()
+         writeError(ch, req, KeyNotFound, "Not found")
+      } else if (version(entry.getMetadata) != req.cas) {
+         if (isStatsEnabled) casBadval.incrementAndGet()
+         writeError(ch, req, KeyExists, "Data exists for key")
+      } else {
+         val metadata = buildStorageMetadata(req)
+         if (cache.replace(req.keyString, entry.getValue, req.value, metadata)) {
+            if (isStatsEnabled) casHits.incrementAndGet()
+            write(ch, req, NoError, version(metadata))
+         } else {
+            if (isStatsEnabled) casBadval.incrementAndGet()
+            writeError(ch, req, KeyExists, "Data exists for key")
+         }
+      }
+   }
+
+   private def add(ch: Channel, req: BinaryRequest): Unit = {
+      val metadata = buildStorageMetadata(req)
+      // Generate new version only if key not present
+      val prev = if (cache.containsKey(req.keyString)) Empty else cache.putIfAbsent(req.keyString, req.value, metadata)
+      if (prev == null)
+         write(ch, req, NoError, version(metadata))
+      else
+         writeError(ch, req, KeyExists, "Data exists for key")
+   }
+
+   private def replace(ch: Channel, req: BinaryRequest): Unit = {
+      if (req.cas != 0) {
+         replaceIfUnmodified(ch, req)
+      } else {
+         val metadata = buildStorageMetadata(req)
+         if (cache.replace(req.keyString, req.value, metadata) != null)
+            write(ch, req, NoError, version(metadata))
+         else
+            writeError(ch, req, KeyNotFound, "Not found")
+      }
+   }
+
+   private def delete(ch: Channel, req: BinaryRequest): Unit = {
+      val removed =
+         if (req.cas != 0) {
+            val entry = cache.getCacheEntry(req.keyString)
+            if (entry != null && version(entry.getMetadata) != req.cas) {
+               writeError(ch, req, KeyExists, "Data exists for key")
+               return
+            }
+            entry != null && cache.remove(req.keyString, entry.getValue)
+         } else {
+            cache.remove(req.keyString) != null
+         }
+      if (removed)
+         write(ch, req, NoError)
+      else
+         writeError(ch, req, KeyNotFound, "Not found")
+   }
+
+   private def incrDecr(ch: Channel, req: BinaryRequest): Unit = {
+      if (req.extras.length != 20) {
+         writeError(ch, req, InvalidArguments, "Increment and decrement require delta, initial value and expiration")
+         return
+      }
+      val extras = Unpooled.wrappedBuffer(req.extras)
+      val delta = extras.readLong()
+      val initial = extras.readLong()
+      val expiration = extras.readInt()
+      val isIncrement = loudOpcode(req.opcode) == Increment
+      val key = req.keyString
+      // Retry on concurrent modifications, so that no increment or decrement is lost
+      while (true) {
+         val prev = cache.get(key)
+         if (prev == null) {
+            if (isStatsEnabled) if (isIncrement) incrMisses.incrementAndGet() else decrMisses.incrementAndGet()
+            if (expiration == NoInitialCounter) {
+               writeError(ch, req, KeyNotFound, "Not found")
+               return
+            }
+            val metadata = buildMetadata(0, expiration)
+            if (cache.putIfAbsent(key, java.lang.Long.toUnsignedString(initial).getBytes(CHARSET), metadata) == null) {
+               write(ch, req, NoError, version(metadata), value = longBytes(initial))
+               return
+            }
+         } else {
+            val counter =
+               try java.lang.Long.parseUnsignedLong(new String(prev, CHARSET))
+               catch {
+                  case _: NumberFormatException =>
+                     writeError(ch, req, NonNumericValue, "Non-numeric server-side value for incr or decr")
+                     return
+               }
+            // Increments wrap around at 64 bits, decrements stop at 0
+            val next =
+               if (isIncrement) counter + delta
+               else if (java.lang.Long.compareUnsigned(delta, counter) > 0) 0L
+               else counter - delta
+            val metadata = buildMetadata(0, 0)
+            if (cache.replace(key, prev, java.lang.Long.toUnsignedString(next).getBytes(CHARSET), metadata)) {
+               if (isStatsEnabled) if (isIncrement) incrHits.incrementAndGet() else decrHits.incrementAndGet()
+               write(ch, req, NoError, version(metadata), value = longBytes(next))
+               return
+            }
+         }
+      }
+   }
+
+   private def appendPrepend(ch: Channel, req: BinaryRequest): Unit = {
+      val key = req.keyString
+      val prev = cache.get(key)
+      if (prev != null) {
+         val concatenated = if (loudOpcode(req.opcode) == Append) concat(prev, req.value) else concat(req.value, prev)
+         val metadata = buildMetadata(0, 0)
+         // If there's a concurrent modification on this key, treat it as we couldn't replace it
+         if (cache.replace(key, prev, concatenated, metadata)) {
+            write(ch, req, NoError, version(metadata))
+            return
+         }
+      }
+      writeError(ch, req, ItemNotStored, "Not stored")
+   }
+
+   private def flush(ch: Channel, req: BinaryRequest): Unit = {
+      val flushFunction = (cache: AdvancedCache[String, Array[Byte]]) => cache.clear()
+      val flushDelay = if (req.extras.length >= 4) Unpooled.wrappedBuffer(req.extras).readInt() else 0
+      if (flushDelay == 0)
+         flushFunction(cache)
+      else
+         scheduler.schedule(new DelayedFlushAll(cache, flushFunction), MemcachedDecoder.toMillis(flushDelay), MILLIS)
+      write(ch, req, NoError)
+   }
+
+   private def stats(ch: Channel, req: BinaryRequest): Unit = {
+      val stats = MemcachedDecoder.statistics(cache, transport, incrMisses, incrHits, decrMisses, decrHits,
+         casMisses, casHits, casBadval)
+      for ((stat, value) <- stats)
+         write(ch, req, NoError, key = stat.getBytes(CHARSET), value = String.valueOf(value).getBytes(CHARSET))
+      // An empty response ends the statistics
+      write(ch, req, NoError)
+   }
+
+   private def buildStorageMetadata(req: BinaryRequest): Metadata = {
+      if (req.extras.length != 8)
+         throw new StreamCorruptedException("Storage commands require flags and expiration")
+      val extras = Unpooled.wrappedBuffer(req.extras)
+      buildMetadata(extras.readUnsignedInt(), extras.readInt())
+   }
+
+   private def buildMetadata(flags: Long, expiration: Int): Metadata = {
+      val metadata = new MemcachedMetadataBuilder
+      metadata.version(MemcachedDecoder.generateVersion(cache.getComponentRegistry))
+      metadata.flags(flags)
+      if (expiration > 0)
+         metadata.lifespan(MemcachedDecoder.toMillis(expiration))
+      metadata.build()
+   }
+
+   private def version(metadata: Metadata): Long = metadata.version() match {
+      case v: NumericVersion => v.getVersion
+      case _ => 0 // e.g. stored by other endpoint with compatibility enabled
+   }
+
+   private def flags(entry: CacheEntry[String, Array[Byte]]): Int = entry.getMetadata match {
+      case meta: MemcachedMetadata => meta.flags.toInt
+      case _ => 0
+   }
+
+   private def concat(a: Array[Byte], b: Array[Byte]): Array[Byte] = {
+      val data = new Array[Byte](a.length + b.length)
+      Array.copy(a, 0, data, 0, a.length)
+      Array.copy(b, 0, data, a.length, b.length)
+      data
+   }
+
+   private def intBytes(i: Int): Array[Byte] =
+      Array((i >> 24).toByte, (i >> 16).toByte, (i >> 8).toByte, i.toByte)
+
+   private def longBytes(l: Long): Array[Byte] = {
+      val bytes = new Array[Byte](8)
+      for (i <- 0 until 8) bytes(i) = (l >> (56 - i * 8)).toByte
+      bytes
+   }
+
+   private def writeError(ch: Channel, req: BinaryRequest, status: Int, message: String): Unit = {
+      // Quiet gets do not tell about missing keys, they are implied by the response of the following no-op
+      if (status == KeyNotFound && (req.opcode == GetQ || req.opcode == GetKQ))
+         return
+      write(ch, req, status, value = message.getBytes(CHARSET))
+   }
+
+   private def write(ch: Channel, req: BinaryRequest, status: Int, cas: Long = 0, extras: Array[Byte] = Empty,
+                     key: Array[Byte] = Empty, value: Array[Byte] = Empty): Unit = {
+      // Quiet modifications only tell about failures
+      if (status == NoError && isQuiet(req.opcode) && req.opcode != GetQ && req.opcode != GetKQ)
+         return
+
+      val bodyLength = extras.length + key.length + value.length
+      val buf = ch.alloc().buffer(HeaderLength + bodyLength)
+      buf.writeByte(ResponseMagic)
+      buf.writeByte(req.opcode)
+      buf.writeShort(key.length)
+      buf.writeByte(extras.length)
+      buf.writeByte(0) // data type
+      buf.writeShort(status)
+      buf.writeInt(bodyLength)
+      buf.writeInt(req.opaque)
+      buf.writeLong(cas)
+      buf.writeBytes(extras)
+      buf.writeBytes(key)
+      buf.writeBytes(value)
+      if (isTrace) trace("Write response with status %d to %s", status, req)
+      // Flushed once all the received requests have been handled
+      ch.write(buf, ch.voidPromise)
+   }
+}
+
+private class BinaryRequest(val opcode: Int, val opaque: Int, val cas: Long, val extras: Array[Byte],
+                            val key: Array[Byte], val value: Array[Byte]) {
+   lazy val keyString = new String(key, CHARSET)
+
+   override def toString = {
+      new java.lang.StringBuilder().append("BinaryRequest").append("{")
+      .append("opcode=").append(opcode)
+      .append(", opaque=").append(opaque)
+      .append(", cas=").append(cas)
+      .append(", key=").append(keyString)
+      .append(", valueLength=").append(value.length)
+      .append("}").toString
+   }
+}
@@ -43,7 +43,7 @@ class MemcachedDecoder(memcachedCache: AdvancedCache[String, Array[Byte]], sched
                        val transport: NettyTransport, val cacheIgnoreAware: String => Boolean = Function.const(false))
 extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with ServerConstants {
 
-   val SecondsInAMonth = 60 * 60 * 24 * 30
+   val SecondsInAMonth = MemcachedDecoder.SecondsInAMonth
    val DefaultTimeUnit = TimeUnit.MILLISECONDS
    var defaultLifespanTime: Long = _
    var defaultMaxIdleTime: Long = _
@@ -385,21 +385,8 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with ServerConsta
       new MemcachedParameters(length, lifespan, -1, streamVersion, noReply, flags, "", 0)
    }
 
-   protected def generateVersion(cache: Cache[String, Array[Byte]]): EntryVersion = {
-      val registry = getCacheRegistry
-      val cacheVersionGenerator = registry.getComponent(classOf[VersionGenerator])
-      if (cacheVersionGenerator == null) {
-         // It could be null, for example when not running in compatibility mode.
-         // The reason for that is that if no other component depends on the
-         // version generator, the factory does not get invoked.
-         val newVersionGenerator = new NumericVersionGenerator()
-         .clustered(registry.getComponent(classOf[RpcManager]) != null)
-         registry.registerComponent(newVersionGenerator, classOf[VersionGenerator])
-         newVersionGenerator.generateNew()
-      } else {
-         cacheVersionGenerator.generateNew()
-      }
-   }
+   protected def generateVersion(cache: Cache[String, Array[Byte]]): EntryVersion =
+      MemcachedDecoder.generateVersion(getCacheRegistry)
 
 
    protected def readValue(b: ByteBuf) {
@@ -725,26 +712,7 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with ServerConsta
       null
    }
 
-   /**
-    * Transforms lifespan pass as seconds into milliseconds
-    * following this rule:
-    *
-    * If lifespan is bigger than number of seconds in 30 days,
-    * then it is considered unix time. After converting it to
-    * milliseconds, we substract the current time in and the
-    * result is returned.
-    *
-    * Otherwise it's just considered number of seconds from
-    * now and it's returned in milliseconds unit.
-    */
-   protected def toMillis(lifespan: Int): Long = {
-      if (lifespan > SecondsInAMonth) {
-         val unixTimeExpiry = TimeUnit.SECONDS.toMillis(lifespan) - System.currentTimeMillis
-         if (unixTimeExpiry < 0) 0 else unixTimeExpiry
-      } else {
-         TimeUnit.SECONDS.toMillis(lifespan)
-      }
-   }
+   protected def toMillis(lifespan: Int): Long = MemcachedDecoder.toMillis(lifespan)
 
    protected def writeResponse(ch: Channel, response: AnyRef): AnyRef = {
       try {
@@ -768,48 +736,10 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with ServerConsta
    }
 
    def createStatsResponse: AnyRef = {
-      val stats = cache.getAdvancedCache.getStats
       val sb = new StringBuilder
-      Array[ByteBuf](
-         buildStat("pid", 0, sb),
-         buildStat("uptime", stats.getTimeSinceStart, sb),
-         buildStat("uptime", stats.getTimeSinceStart, sb),
-         buildStat("time", MILLIS.toSeconds(System.currentTimeMillis), sb),
-         buildStat("version", cache.getVersion, sb),
-         buildStat("pointer_size", 0, sb), // Unsupported
-         buildStat("rusage_user", 0, sb), // Unsupported
-         buildStat("rusage_system", 0, sb), // Unsupported
-         buildStat("curr_items", stats.getCurrentNumberOfEntries, sb),
-         buildStat("total_items", stats.getTotalNumberOfEntries, sb),
-         buildStat("bytes", 0, sb), // Unsupported
-         buildStat("curr_connections", 0, sb), // TODO: Through netty?
-         buildStat("total_connections", 0, sb), // TODO: Through netty?
-         buildStat("connection_structures", 0, sb), // Unsupported
-         buildStat("cmd_get", stats.getRetrievals, sb),
-         buildStat("cmd_set", stats.getStores, sb),
-         buildStat("get_hits", stats.getHits, sb),
-         buildStat("get_misses", stats.getMisses, sb),
-         buildStat("delete_misses", stats.getRemoveMisses, sb),
-         buildStat("delete_hits", stats.getRemoveHits, sb),
-         buildStat("incr_misses", incrMisses, sb),
-         buildStat("incr_hits", incrHits, sb),
-         buildStat("decr_misses", decrMisses, sb),
-         buildStat("decr_hits", decrHits, sb),
-         buildStat("cas_misses", replaceIfUnmodifiedMisses, sb),
-         buildStat("cas_hits", replaceIfUnmodifiedHits, sb),
-         buildStat("cas_badval", replaceIfUnmodifiedBadval, sb),
-         buildStat("auth_cmds", 0, sb), // Unsupported
-         buildStat("auth_errors", 0, sb), // Unsupported
-         //TODO: Evictions are measure by evict calls, but not by nodes are that are expired after the entry's lifespan has expired.
-         buildStat("evictions", stats.getEvictions, sb),
-         buildStat("bytes_read", transport.getTotalBytesRead, sb),
-         buildStat("bytes_written", transport.getTotalBytesWritten, sb),
-         buildStat("limit_maxbytes", 0, sb), // Unsupported
-         buildStat("threads", 0, sb), // TODO: Through netty?
-         buildStat("conn_yields", 0, sb), // Unsupported
-         buildStat("reclaimed", 0, sb), // Unsupported
-         wrappedBuffer(END)
-      )
+      val stats = MemcachedDecoder.statistics(cache, transport, incrMisses, incrHits, decrMisses, decrHits,
+         replaceIfUnmodifiedMisses, replaceIfUnmodifiedHits, replaceIfUnmodifiedBadval)
+      (stats.map { case (stat, value) => buildStat(stat, value, sb) } :+ wrappedBuffer(END)).toArray
    }
 
    private def buildStat(stat: String, value: Any, sb: StringBuilder): ByteBuf = {
@@ -895,6 +825,95 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with ServerConsta
    }
 }
 
+object MemcachedDecoder {
+
+   val SecondsInAMonth = 60 * 60 * 24 * 30
+
+   def generateVersion(registry: ComponentRegistry): EntryVersion = {
+      val cacheVersionGenerator = registry.getComponent(classOf[VersionGenerator])
+      if (cacheVersionGenerator == null) {
+         // It could be null, for example when not running in compatibility mode.
+         // The reason for that is that if no other component depends on the
+         // version generator, the factory does not get invoked.
+         val newVersionGenerator = new NumericVersionGenerator()
+         .clustered(registry.getComponent(classOf[RpcManager]) != null)
+         registry.registerComponent(newVersionGenerator, classOf[VersionGenerator])
+         newVersionGenerator.generateNew()
+      } else {
+         cacheVersionGenerator.generateNew()
+      }
+   }
+
+   /**
+    * Transforms lifespan pass as seconds into milliseconds
+    * following this rule:
+    *
+    * If lifespan is bigger than number of seconds in 30 days,
+    * then it is considered unix time. After converting it to
+    * milliseconds, we substract the current time in and the
+    * result is returned.
+    *
+    * Otherwise it's just considered number of seconds from
+    * now and it's returned in milliseconds unit.
+    */
+   def toMillis(lifespan: Int): Long = {
+      if (lifespan > SecondsInAMonth) {
+         val unixTimeExpiry = TimeUnit.SECONDS.toMillis(lifespan) - System.currentTimeMillis
+         if (unixTimeExpiry < 0) 0 else unixTimeExpiry
+      } else {
+         TimeUnit.SECONDS.toMillis(lifespan)
+      }
+   }
+
+   /**
+    * Statistics reported by the stats command, shared by the text and binary protocols.
+    */
+   def statistics(cache: AdvancedCache[String, Array[Byte]], transport: NettyTransport,
+                  incrMisses: AtomicLong, incrHits: AtomicLong, decrMisses: AtomicLong, decrHits: AtomicLong,
+                  casMisses: AtomicLong, casHits: AtomicLong, casBadval: AtomicLong): Seq[(String, Any)] = {
+      val stats = cache.getAdvancedCache.getStats
+      Seq(
+         "pid" -> 0,
+         "uptime" -> stats.getTimeSinceStart,
+         "uptime" -> stats.getTimeSinceStart,
+         "time" -> MILLIS.toSeconds(System.currentTimeMillis),
+         "version" -> cache.getVersion,
+         "pointer_size" -> 0, // Unsupported
+         "rusage_user" -> 0, // Unsupported
+         "rusage_system" -> 0, // Unsupported
+         "curr_items" -> stats.getCurrentNumberOfEntries,
+         "total_items" -> stats.getTotalNumberOfEntries,
+         "bytes" -> 0, // Unsupported
+         "curr_connections" -> 0, // TODO: Through netty?
+         "total_connections" -> 0, // TODO: Through netty?
+         "connection_structures" -> 0, // Unsupported
+         "cmd_get" -> stats.getRetrievals,
+         "cmd_set" -> stats.getStores,
+         "get_hits" -> stats.getHits,
+         "get_misses" -> stats.getMisses,
+         "delete_misses" -> stats.getRemoveMisses,
+         "delete_hits" -> stats.getRemoveHits,
+         "incr_misses" -> incrMisses,
+         "incr_hits" -> incrHits,
+         "decr_misses" -> decrMisses,
+         "decr_hits" -> decrHits,
+         "cas_misses" -> casMisses,
+         "cas_hits" -> casHits,
+         "cas_badval" -> casBadval,
+         "auth_cmds" -> 0, // Unsupported
+         "auth_errors" -> 0, // Unsupported
+         //TODO: Evictions are measure by evict calls, but not by nodes are that are expired after the entry's lifespan has expired.
+         "evictions" -> stats.getEvictions,
+         "bytes_read" -> transport.getTotalBytesRead,
+         "bytes_written" -> transport.getTotalBytesWritten,
+         "limit_maxbytes" -> 0, // Unsupported
+         "threads" -> 0, // TODO: Through netty?
+         "conn_yields" -> 0, // Unsupported
+         "reclaimed" -> 0 // Unsupported
+      )
+   }
+}
+
 class MemcachedParameters(val valueLength: Int, val lifespan: Int,
                           val maxIdle: Int, val streamVersion: Long,
                           val noReply: Boolean, val flags: Long, val delta: String,
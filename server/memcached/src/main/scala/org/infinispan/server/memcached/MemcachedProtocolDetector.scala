@@ -0,0 +1,28 @@
+package org.infinispan.server.memcached
+
+import java.util
+
+import io.netty.buffer.ByteBuf
+import io.netty.channel.ChannelHandlerContext
+import io.netty.handler.codec.ByteToMessageDecoder
+import org.infinispan.server.memcached.BinaryProtocolUtil.RequestMagic
+
+/**
+ * Detects whether a connection talks the Memcached text or binary protocol by looking at the first byte received, and
+ * replaces itself with the corresponding decoder. Binary requests always start with the request magic byte, which
+ * is not valid at the start of a text command. The bytes already received are passed on to the new decoder.
+ *
+ * @since 9.0
+ */
+class MemcachedProtocolDetector(server: MemcachedServer) extends ByteToMessageDecoder {
+
+   override def decode(ctx: ChannelHandlerContext, in: ByteBuf, out: util.List[AnyRef]): Unit = {
+      if (in.isReadable) {
+         val decoder =
+            if (in.getUnsignedByte(in.readerIndex) == RequestMagic) server.getBinaryDecoder
+            else server.getTextDecoder
+         ctx.pipeline.replace(this, "decoder", decoder)
+      }
+   }
+
+}
@@ -1,11 +1,11 @@
 package org.infinispan.server.memcached
 
-import io.netty.channel.{Channel, ChannelInitializer}
+import io.netty.channel.{Channel, ChannelInboundHandler, ChannelInitializer}
 import org.infinispan.server.core.AbstractProtocolServer
 import java.util.concurrent.Executors
 import org.infinispan.manager.EmbeddedCacheManager
 import org.infinispan.server.core.transport.NettyChannelInitializer
-import org.infinispan.server.memcached.configuration.MemcachedServerConfiguration
+import org.infinispan.server.memcached.configuration.{MemcachedProtocol, MemcachedServerConfiguration}
 import org.infinispan.AdvancedCache
 import org.infinispan.configuration.cache.ConfigurationBuilder
 import org.infinispan.server.memcached.logging.Log
@@ -39,9 +39,18 @@ class MemcachedServer extends AbstractProtocolServer("Memcached") with Log {
 
    override def getEncoder = null
 
-   override def getDecoder: MemcachedDecoder =
+   override def getDecoder: ChannelInboundHandler = configuration.protocol match {
+      case MemcachedProtocol.TEXT => getTextDecoder
+      case MemcachedProtocol.BINARY => getBinaryDecoder
+      case _ => new MemcachedProtocolDetector(this)
+   }
+
+   def getTextDecoder: MemcachedDecoder =
       new MemcachedDecoder(memcachedCache, scheduler, transport, isCacheIgnored)
 
+   def getBinaryDecoder: MemcachedBinaryDecoder =
+      new MemcachedBinaryDecoder(memcachedCache, scheduler, transport, isCacheIgnored, configuration.maxBodyLength)
+
    override def stop {
       super.stop
       scheduler.shutdown()
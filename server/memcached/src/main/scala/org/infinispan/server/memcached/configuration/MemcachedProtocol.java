@@ -0,0 +1,15 @@
+package org.infinispan.server.memcached.configuration;
+
+/**
+ * The Memcached protocols accepted by the server.
+ *
+ * @since 9.0
+ */
+public enum MemcachedProtocol {
+   /**
+    * Detects the protocol of each connection from the first byte it sends.
+    */
+   AUTO,
+   TEXT,
+   BINARY
+}
@@ -14,13 +14,28 @@
  */
 @BuiltBy(MemcachedServerConfigurationBuilder.class)
 public class MemcachedServerConfiguration extends ProtocolServerConfiguration {
+   private final MemcachedProtocol protocol;
+   private final int maxBodyLength;
 
-   MemcachedServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, Set<String> ignoredCaches) {
+   MemcachedServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, Set<String> ignoredCaches, MemcachedProtocol protocol, int maxBodyLength) {
       super(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, ignoredCaches);
+      this.protocol = protocol;
+      this.maxBodyLength = maxBodyLength;
+   }
+
+   public MemcachedProtocol protocol() {
+      return protocol;
+   }
+
+   /**
+    * @return the maximum body length, in bytes, of a binary protocol request
+    */
+   public int maxBodyLength() {
+      return maxBodyLength;
    }
 
    @Override
    public String toString() {
-      return "MemcachedServerConfiguration [" + super.toString() + "]";
+      return "MemcachedServerConfiguration [protocol=" + protocol + ", maxBodyLength=" + maxBodyLength + ", " + super.toString() + "]";
    }
 }
@@ -1,7 +1,9 @@
 package org.infinispan.server.memcached.configuration;
 
 import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.server.core.configuration.ProtocolServerConfigurationBuilder;
+import org.infinispan.server.memcached.logging.JavaLog;
 
 /**
  * MemcachedServerConfigurationBuilder.
@@ -11,6 +13,12 @@
  */
 public class MemcachedServerConfigurationBuilder extends ProtocolServerConfigurationBuilder<MemcachedServerConfiguration, MemcachedServerConfigurationBuilder> implements
       Builder<MemcachedServerConfiguration> {
+   private static final JavaLog log = LogFactory.getLog(MemcachedServerConfigurationBuilder.class, JavaLog.class);
+
+   // The default maximum item size of memcached
+   public static final int DEFAULT_MAX_BODY_LENGTH = 1024 * 1024;
+   private MemcachedProtocol protocol = MemcachedProtocol.AUTO;
+   private int maxBodyLength = DEFAULT_MAX_BODY_LENGTH;
 
    public MemcachedServerConfigurationBuilder() {
       super(11211);
@@ -31,9 +39,35 @@ public MemcachedServerConfigurationBuilder cache(String cache) {
       return this;
    }
 
+   /**
+    * Sets the protocol accepted by the server. By default, the protocol of each connection is detected from the first
+    * byte it sends, so that both text and binary clients are accepted.
+    */
+   public MemcachedServerConfigurationBuilder protocol(MemcachedProtocol protocol) {
+      this.protocol = protocol;
+      return this;
+   }
+
+   /**
+    * Sets the maximum length, in bytes, of the body of a binary protocol request, which contains the key, the value
+    * and the extras. The connection of a client sending a longer request is closed, before the request is buffered.
+    */
+   public MemcachedServerConfigurationBuilder maxBodyLength(int maxBodyLength) {
+      this.maxBodyLength = maxBodyLength;
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (maxBodyLength <= 0) {
+         throw log.invalidMaxBodyLength(maxBodyLength);
+      }
+   }
+
    @Override
    public MemcachedServerConfiguration create() {
-      return new MemcachedServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, ignoredCaches);
+      return new MemcachedServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, ignoredCaches, protocol, maxBodyLength);
    }
 
    public MemcachedServerConfiguration build(boolean validate) {
@@ -51,6 +85,8 @@ public MemcachedServerConfiguration build() {
    @Override
    public Builder<?> read(MemcachedServerConfiguration template) {
       super.read(template);
+      this.protocol = template.protocol();
+      this.maxBodyLength = template.maxBodyLength();
       return this;
    }
 }
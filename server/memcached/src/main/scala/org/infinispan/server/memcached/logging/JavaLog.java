@@ -15,4 +15,7 @@
 public interface JavaLog extends org.infinispan.util.logging.Log {
    @Message(value = "Cache '%s' has expiration enabled which violates the Memcached protocol", id = 11001)
    CacheConfigurationException invalidExpiration(String cacheName);
+
+   @Message(value = "The maximum body length of binary requests must be greater than 0, but was %d", id = 11002)
+   CacheConfigurationException invalidMaxBodyLength(int maxBodyLength);
 }
@@ -0,0 +1,126 @@
+package org.infinispan.server.memcached
+
+import java.lang.reflect.Method
+import java.net.Socket
+import java.nio.ByteBuffer
+import java.util.concurrent.TimeUnit
+
+import net.spy.memcached.{CASResponse, MemcachedClient}
+import org.infinispan.server.memcached.configuration.MemcachedServerConfigurationBuilder
+import org.infinispan.server.memcached.test.MemcachedTestingUtil._
+import org.infinispan.test.TestingUtil._
+import org.testng.Assert._
+import org.testng.annotations.{AfterClass, Test}
+
+import scala.collection.JavaConversions._
+
+/**
+ * Tests the Memcached binary protocol, against a server detecting the protocol of each connection, so that text
+ * clients keep working alongside binary ones.
+ *
+ * @since 9.0
+ */
+@Test(groups = Array("functional"), testName = "server.memcached.MemcachedBinaryProtocolTest")
+class MemcachedBinaryProtocolTest extends MemcachedSingleNodeTest {
+
+   private lazy val binaryClient: MemcachedClient = createMemcachedBinaryClient(60000, server.getPort)
+
+   @AfterClass(alwaysRun = true)
+   def destroyBinaryClient() {
+      killMemcachedClient(binaryClient)
+   }
+
+   def testSetAndGet(m: Method) {
+      val f = binaryClient.set(k(m), 0, v(m))
+      assertTrue(f.get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(binaryClient.get(k(m)), v(m))
+      // Both protocols share the same data
+      assertEquals(client.get(k(m)), v(m))
+   }
+
+   def testGetMissing(m: Method) {
+      assertNull(binaryClient.get(k(m)))
+   }
+
+   def testGetMultipleKeys(m: Method) {
+      val keys = for (i <- 1 to 3) yield k(m, "k" + i + "-")
+      for (key <- keys)
+         assertTrue(binaryClient.set(key, 0, "v-" + key).get(timeout, TimeUnit.SECONDS).booleanValue)
+      // Sent as quiet gets followed by a no-op, so missing keys get no response
+      val ret = binaryClient.getBulk((keys :+ k(m, "missing-")): _*)
+      assertEquals(ret.size, 3)
+      for (key <- keys)
+         assertEquals(ret.get(key), "v-" + key)
+   }
+
+   def testAddAndReplace(m: Method) {
+      assertFalse(binaryClient.replace(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.add(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertFalse(binaryClient.add(k(m), 0, v(m, "v1-")).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.replace(k(m), 0, v(m, "v1-")).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(binaryClient.get(k(m)), v(m, "v1-"))
+   }
+
+   def testCas(m: Method) {
+      assertTrue(binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      val value = binaryClient.gets(k(m))
+      assertEquals(binaryClient.cas(k(m), value.getCas, v(m, "v1-")), CASResponse.OK)
+      assertEquals(binaryClient.cas(k(m), value.getCas, v(m, "v2-")), CASResponse.EXISTS)
+      assertEquals(binaryClient.cas(k(m, "missing-"), value.getCas, v(m)), CASResponse.NOT_FOUND)
+      assertEquals(binaryClient.get(k(m)), v(m, "v1-"))
+   }
+
+   def testDelete(m: Method) {
+      assertTrue(binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.delete(k(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertFalse(binaryClient.delete(k(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertNull(binaryClient.get(k(m)))
+   }
+
+   def testIncrementAndDecrement(m: Method) {
+      assertEquals(binaryClient.incr(k(m), 1, 10), 10L)
+      assertEquals(binaryClient.incr(k(m), 5, 10), 15L)
+      assertEquals(binaryClient.decr(k(m), 20, 10), 0L)
+      // Counters are stored as text, so they're shared with text clients
+      assertEquals(client.get(k(m)), "0")
+   }
+
+   def testAppendAndPrepend(m: Method) {
+      assertFalse(binaryClient.append(0, k(m), "x").get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.set(k(m), 0, "b").get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.append(0, k(m), "c").get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.prepend(0, k(m), "a").get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(binaryClient.get(k(m)), "abc")
+   }
+
+   def testExpiration(m: Method) {
+      assertTrue(binaryClient.set(k(m), 1, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      sleepThread(1100)
+      assertNull(binaryClient.get(k(m)))
+   }
+
+   def testVersionAndStats() {
+      assertFalse(binaryClient.getVersions.isEmpty)
+      val stats = binaryClient.getStats.values.head
+      assertTrue(stats.containsKey("curr_items"))
+   }
+
+   def testBodyLengthAboveMaximumClosesConnection() {
+      val socket = new Socket(host, server.getPort)
+      try {
+         socket.setSoTimeout(10000)
+         // A set request header declaring a body longer than the maximum, which is never sent
+         val header = ByteBuffer.allocate(BinaryProtocolUtil.HeaderLength)
+         header.put(0, BinaryProtocolUtil.RequestMagic.toByte)
+         header.put(1, BinaryProtocolUtil.Set.toByte)
+         header.putInt(8, MemcachedServerConfigurationBuilder.DEFAULT_MAX_BODY_LENGTH + 1)
+         socket.getOutputStream.write(header.array)
+         socket.getOutputStream.flush()
+         // Closed right away, instead of waiting for the body
+         assertEquals(socket.getInputStream.read(), -1)
+      } finally {
+         socket.close()
+      }
+   }
+
+}
@@ -265,6 +265,21 @@
 
    void move(String nodeToMove, String newParent, Flag... flags) throws NodeNotExistsException;
 
+   /**
+    * Copies a node and all its descendants, with their data, under a new parent. The new parent is created if it does
+    * not exist, and nodes that already exist at the destination get the copied data and children added to them.
+    * <p/>
+    * Like {@link #move(Fqn, Fqn)}, the subtree is read with one multi-key read per level and the new nodes are written
+    * with a single multi-key write, instead of one operation per node.
+    *
+    * @param nodeToCopy the Fqn of the node to copy.
+    * @param newParent  location under which to attach the copy.
+    * @throws IllegalStateException if {@link Cache#getStatus()} would not return {@link ComponentStatus#RUNNING}.
+    */
+   void copy(Fqn nodeToCopy, Fqn newParent);
+
+   void copy(Fqn nodeToCopy, Fqn newParent, Flag... flags);
+
    /**
     * Retrieves a defensively copied data map of the underlying node.  A convenience method to retrieving a node and
     * getting data from the node directly.
@@ -278,6 +293,18 @@
 
    Map<K, V> getData(Fqn fqn, Flag... flags);
 
+   /**
+    * Retrieves defensively copied data maps of a node and all its descendants, reading the subtree with one
+    * multi-key read per level.
+    *
+    * @param fqn the root of the subtree
+    * @return the data of every node of the subtree, keyed by Fqn, or an empty map if the node does not exist
+    * @throws IllegalStateException if {@link Cache#getStatus()} would not return {@link ComponentStatus#RUNNING}.
+    */
+   Map<Fqn, Map<K, V>> getSubtreeData(Fqn fqn);
+
+   Map<Fqn, Map<K, V>> getSubtreeData(Fqn fqn, Flag... flags);
+
    /**
     * Convenience method that takes in a String represenation of the Fqn.  Otherwise identical to {@link
     * #getKeys(Fqn)}.
@@ -3,6 +3,7 @@
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
 import org.infinispan.atomic.AtomicMap;
+import org.infinispan.atomic.impl.AtomicHashMap;
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.CacheException;
 import org.infinispan.context.Flag;
@@ -13,6 +14,12 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -138,8 +145,8 @@ private boolean removeNode(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Fqn fq
       boolean result;
       try {
          if (trace) log.tracef("About to remove node %s", fqn);
-         Node<K, V> n = getNode(cache, fqn.getParent());
-         result = n != null && n.removeChild(fqn.getLastElement());
+         result = exists(cache, fqn.getParent()) && unlinkFromParent(cache, fqn);
+         if (result) removeSubtree(cache, readSubtree(cache, fqn));
       } finally {
          endAtomic();
       }
@@ -276,19 +283,10 @@ private void move(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Fqn nodeToMoveF
             if (trace) log.tracef("The new parent (%s) did not exists, was created", newParentFqn);
          }
 
-         // create an empty node for this new parent
-         Fqn newFqn = Fqn.fromRelativeElements(newParentFqn, nodeToMoveFqn.getLastElement());
-         createNodeInCache(cache, newFqn);
-         Node<K, V> newNode = getNode(cache, newFqn);
-         Map<K, V> oldData = nodeToMove.getData();
-         if (oldData != null && !oldData.isEmpty()) newNode.putAll(oldData);
-         for (Object child : nodeToMove.getChildrenNames()) {
-            // move kids
-            if (trace) log.tracef("Moving child %s", child);
-            Fqn oldChildFqn = Fqn.fromRelativeElements(nodeToMoveFqn, child);
-            move(cache, oldChildFqn, newFqn);
-         }
-         removeNode(cache, nodeToMoveFqn);
+         Subtree subtree = readSubtree(cache, nodeToMoveFqn);
+         copySubtree(cache, subtree, newParentFqn);
+         unlinkFromParent(cache, nodeToMoveFqn);
+         removeSubtree(cache, subtree);
          success = true;
       } finally {
          if (success) {
@@ -300,6 +298,40 @@ private void move(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Fqn nodeToMoveF
       log.tracef("Successfully moved node '%s' to '%s'", nodeToMoveFqn, newParentFqn);
    }
 
+   @Override
+   public void copy(Fqn nodeToCopy, Fqn newParent) {
+      copy(cache, nodeToCopy, newParent);
+   }
+
+   @Override
+   public void copy(Fqn nodeToCopy, Fqn newParent, Flag... flags) {
+      copy(cache.withFlags(flags), nodeToCopy, newParent);
+   }
+
+   private void copy(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Fqn nodeToCopyFqn, Fqn newParentFqn) {
+      if (trace) log.tracef("Copying node '%s' to '%s'", nodeToCopyFqn, newParentFqn);
+      if (nodeToCopyFqn == null || newParentFqn == null)
+         throw new NullPointerException("Cannot accept null parameters!");
+      if (nodeToCopyFqn.isRoot())
+         throw new IllegalArgumentException("Cannot copy the root node");
+
+      startAtomic();
+      boolean success = false;
+      try {
+         Subtree subtree = readSubtree(cache, nodeToCopyFqn);
+         if (!subtree.isEmpty()) {
+            copySubtree(cache, subtree, newParentFqn);
+         }
+         success = true;
+      } finally {
+         if (success) {
+            endAtomic();
+         } else {
+            failAtomic();
+         }
+      }
+   }
+
    @Override
    public void move(String nodeToMove, String newParent) throws NodeNotExistsException {
       move(cache, Fqn.fromString(nodeToMove), Fqn.fromString(newParent));
@@ -333,6 +365,158 @@ private Map<K, V> getData(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Fqn fqn
       }
    }
 
+   @Override
+   public Map<Fqn, Map<K, V>> getSubtreeData(Fqn fqn) {
+      return getSubtreeData(cache, fqn);
+   }
+
+   @Override
+   public Map<Fqn, Map<K, V>> getSubtreeData(Fqn fqn, Flag... flags) {
+      return getSubtreeData(cache.withFlags(flags), fqn);
+   }
+
+   @SuppressWarnings("unchecked")
+   private Map<Fqn, Map<K, V>> getSubtreeData(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Fqn fqn) {
+      startAtomic();
+      try {
+         Subtree subtree = readSubtree(cache, fqn);
+         Map<Fqn, Map<K, V>> result = new LinkedHashMap<>(subtree.data.size() * 2);
+         for (Map.Entry<Fqn, Map<?, ?>> e : subtree.data.entrySet()) {
+            result.put(e.getKey(), Collections.unmodifiableMap(new HashMap<>((Map<K, V>) e.getValue())));
+         }
+         return result;
+      } finally {
+         endAtomic();
+      }
+   }
+
+   /**
+    * Reads the data and structure maps of a node and all its descendants breadth first, with one multi-key read of
+    * the {@link NodeKey}s of each level, which the cache groups by owner.
+    */
+   @SuppressWarnings("unchecked")
+   private Subtree readSubtree(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Fqn fqn) {
+      Subtree subtree = new Subtree(fqn);
+      List<Fqn> level = Collections.singletonList(fqn);
+      while (!level.isEmpty()) {
+         Set<NodeKey> keys = new HashSet<>(level.size() * 4);
+         for (Fqn f : level) {
+            keys.add(new NodeKey(f, NodeKey.Type.DATA));
+            keys.add(new NodeKey(f, NodeKey.Type.STRUCTURE));
+         }
+         Map<NodeKey, AtomicMap<?, ?>> maps = cache.getAll(keys);
+         List<Fqn> nextLevel = new ArrayList<>();
+         for (Fqn f : level) {
+            Map<?, ?> data = maps.get(new NodeKey(f, NodeKey.Type.DATA));
+            Map<Object, Fqn> structure = (Map<Object, Fqn>) maps.get(new NodeKey(f, NodeKey.Type.STRUCTURE));
+            if (data == null || structure == null) {
+               // removed since its parent was read
+               continue;
+            }
+            subtree.data.put(f, data);
+            subtree.structure.put(f, structure);
+            nextLevel.addAll(structure.values());
+         }
+         level = nextLevel;
+      }
+      if (trace) log.tracef("Read %d nodes of subtree %s", subtree.data.size(), fqn);
+      return subtree;
+   }
+
+   /**
+    * Creates a copy of the subtree under a new parent. Nodes that already exist at the destination are merged through
+    * their atomic maps, all the others are written with a single {@code putAll}.
+    */
+   @SuppressWarnings("unchecked")
+   private void copySubtree(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Subtree subtree, Fqn newParentFqn) {
+      Fqn newRootFqn = Fqn.fromRelativeElements(newParentFqn, subtree.root.getLastElement());
+      // creates the missing parents and links the new root to its parent
+      createNodeInCache(cache, newRootFqn);
+
+      Map<Fqn, Fqn> targets = new HashMap<>(subtree.data.size() * 2);
+      Set<NodeKey> targetKeys = new HashSet<>(subtree.data.size() * 4);
+      for (Fqn f : subtree.data.keySet()) {
+         Fqn target = Fqn.fromRelativeFqn(newRootFqn, f.getSubFqn(subtree.root.size(), f.size()));
+         targets.put(f, target);
+         targetKeys.add(new NodeKey(target, NodeKey.Type.DATA));
+         targetKeys.add(new NodeKey(target, NodeKey.Type.STRUCTURE));
+      }
+      Map<NodeKey, AtomicMap<?, ?>> existing = cache.getAll(targetKeys);
+
+      Map<NodeKey, AtomicMap<?, ?>> created = new HashMap<>();
+      for (Map.Entry<Fqn, Map<?, ?>> e : subtree.data.entrySet()) {
+         Fqn target = targets.get(e.getKey());
+         NodeKey dataKey = new NodeKey(target, NodeKey.Type.DATA);
+         NodeKey structureKey = new NodeKey(target, NodeKey.Type.STRUCTURE);
+         Map<Object, Fqn> children = new HashMap<>();
+         for (Map.Entry<Object, Fqn> child : subtree.structure.get(e.getKey()).entrySet()) {
+            children.put(child.getKey(), targets.getOrDefault(child.getValue(),
+                  Fqn.fromRelativeElements(target, child.getKey())));
+         }
+         if (existing.containsKey(dataKey) && existing.containsKey(structureKey)) {
+            if (!e.getValue().isEmpty()) getAtomicMap(cache, dataKey).putAll((Map<Object, Object>) e.getValue());
+            if (!children.isEmpty()) getAtomicMap(cache, structureKey).putAll(children);
+         } else {
+            created.put(dataKey, newAtomicMap(e.getValue()));
+            created.put(structureKey, newAtomicMap(children));
+         }
+      }
+      if (!created.isEmpty()) {
+         cache.withFlags(Flag.IGNORE_RETURN_VALUES).putAll(created);
+      }
+      if (trace) log.tracef("Copied %d nodes of subtree %s to %s, %d of them new", subtree.data.size(),
+            subtree.root, newRootFqn, created.size() / 2);
+   }
+
+   private static AtomicMap<?, ?> newAtomicMap(Map<?, ?> contents) {
+      AtomicHashMap<Object, Object> map = new AtomicHashMap<>(AtomicHashMap.ProxyMode.COARSE);
+      map.putAll(contents);
+      // the map is written as a whole, there is no delta to replicate
+      map.commit();
+      return map;
+   }
+
+   /**
+    * Removes the node from its parent's structure map.
+    *
+    * @return true if the parent had the node as a child
+    */
+   private boolean unlinkFromParent(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Fqn fqn) {
+      AtomicMap<Object, Fqn> parentStructure = getAtomicMap(cache, new NodeKey(fqn.getParent(), NodeKey.Type.STRUCTURE));
+      return parentStructure.remove(fqn.getLastElement()) != null;
+   }
+
+   private void removeSubtree(AdvancedCache<NodeKey, AtomicMap<?, ?>> cache, Subtree subtree) {
+      AdvancedCache<NodeKey, AtomicMap<?, ?>> cacheForRemoval = cache.withFlags(Flag.IGNORE_RETURN_VALUES);
+      for (Map.Entry<Fqn, Map<?, ?>> e : subtree.data.entrySet()) {
+         NodeKey dataKey = new NodeKey(e.getKey(), NodeKey.Type.DATA);
+         if (!e.getValue().isEmpty()) {
+            // this is necessary in case we have a remove and then an add on the same node, in the same tx.
+            getAtomicMap(cache, dataKey).clear();
+         }
+         cacheForRemoval.remove(dataKey);
+         cacheForRemoval.remove(new NodeKey(e.getKey(), NodeKey.Type.STRUCTURE));
+      }
+      if (trace) log.tracef("Removed %d nodes of subtree %s", subtree.data.size(), subtree.root);
+   }
+
+   /**
+    * The data and structure maps of a node and its descendants, in breadth first order.
+    */
+   private static final class Subtree {
+      final Fqn root;
+      final Map<Fqn, Map<?, ?>> data = new LinkedHashMap<>();
+      final Map<Fqn, Map<Object, Fqn>> structure = new HashMap<>();
+
+      Subtree(Fqn root) {
+         this.root = root;
+      }
+
+      boolean isEmpty() {
+         return data.isEmpty();
+      }
+   }
+
    @Override
    public Set<K> getKeys(String fqn) {
       return getKeys(cache, Fqn.fromString(fqn));
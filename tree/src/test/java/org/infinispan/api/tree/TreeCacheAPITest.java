@@ -122,6 +122,66 @@ public void testNodeConvenienceNodeRemoval() {
       assertEquals(false, cache.removeNode(fqn));
    }
 
+   public void testGetSubtreeData() {
+      cache.put("/a", "k", "a");
+      cache.put("/a/b", "k", "b");
+      cache.put("/a/b/c", "k", "c");
+      cache.getRoot().addChild(Fqn.fromString("/a/d"));
+      cache.put("/x", "k", "x");
+
+      Map<Fqn, Map<String, String>> subtree = cache.getSubtreeData(Fqn.fromString("/a"));
+      assertEquals(4, subtree.size());
+      assertEquals("a", subtree.get(Fqn.fromString("/a")).get("k"));
+      assertEquals("b", subtree.get(Fqn.fromString("/a/b")).get("k"));
+      assertEquals("c", subtree.get(Fqn.fromString("/a/b/c")).get("k"));
+      assertTrue(subtree.get(Fqn.fromString("/a/d")).isEmpty());
+      // breadth first
+      assertEquals(Fqn.fromString("/a"), subtree.keySet().iterator().next());
+
+      assertTrue(cache.getSubtreeData(Fqn.fromString("/nonexistent")).isEmpty());
+   }
+
+   public void testCopy() {
+      cache.put("/a/b", "k", "b");
+      cache.put("/a/b/c", "k", "c");
+      cache.put("/a/b/c/d", "k", "d");
+      cache.put("/x/b", "other", "x");
+
+      cache.copy(Fqn.fromString("/a/b"), Fqn.fromString("/x"));
+
+      // the source is untouched
+      assertEquals("d", cache.get("/a/b/c/d", "k"));
+      // the existing node is merged
+      assertEquals("b", cache.get("/x/b", "k"));
+      assertEquals("x", cache.get("/x/b", "other"));
+      assertEquals("c", cache.get("/x/b/c", "k"));
+      assertEquals("d", cache.get("/x/b/c/d", "k"));
+      assertStructure(cache, "/x/b/c/d");
+
+      // the copy is independent of the source
+      cache.put("/x/b/c", "k", "changed");
+      assertEquals("c", cache.get("/a/b/c", "k"));
+
+      cache.copy(Fqn.fromString("/a/b"), Fqn.fromString("/new/parent"));
+      assertEquals("d", cache.get("/new/parent/b/c/d", "k"));
+      assertStructure(cache, "/new/parent/b/c/d");
+   }
+
+   public void testRemoveSubtree() {
+      cache.put("/a/b", "k", "b");
+      cache.put("/a/b/c", "k", "c");
+      cache.put("/a/b/c/d", "k", "d");
+      cache.put("/a/b/e", "k", "e");
+
+      assertTrue(cache.removeNode("/a/b"));
+      assertFalse(cache.getNode("/a").hasChild("b"));
+      for (String fqn : new String[]{"/a/b", "/a/b/c", "/a/b/c/d", "/a/b/e"}) {
+         assertNull(cache.getNode(fqn));
+         assertFalse(cache.getCache().containsKey(new NodeKey(Fqn.fromString(fqn), NodeKey.Type.DATA)));
+         assertFalse(cache.getCache().containsKey(new NodeKey(Fqn.fromString(fqn), NodeKey.Type.STRUCTURE)));
+      }
+   }
+
    private void assertStructure(TreeCache tc, String fqnStr) {
       // make sure structure nodes are properly built and maintained
       Cache c = tc.getCache();